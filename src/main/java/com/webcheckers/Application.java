@@ -1,13 +1,27 @@
 package com.webcheckers;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
 import com.google.gson.Gson;
+import com.webcheckers.appl.GameCompactor;
+import com.webcheckers.appl.GameManager;
+import com.webcheckers.appl.GameStore;
+import com.webcheckers.appl.LobbyFeed;
+import com.webcheckers.appl.PdnImporter;
+import com.webcheckers.appl.PlayerLobby;
+import com.webcheckers.ui.AssetPipeline;
 import com.webcheckers.ui.WebServer;
+import com.webcheckers.util.Settings;
 
+import freemarker.template.Configuration;
+import freemarker.template.TemplateModelException;
 import spark.TemplateEngine;
 import spark.template.freemarker.FreeMarkerEngine;
 
@@ -23,40 +37,76 @@ public final class Application {
   /**
    * Queries whether the application is being run in demo-mode.
    *
-   * <p>
-   *   This method uses the memoization idiom so the calculation of
-   *   this value is only done once.
-   * @see <a href="https://en.wikipedia.org/wiki/Memoization">Memoization (wikipedia)</a>
-   * </p>
+   * @param settings the application's settings
+   * @return true if the 'demoMode' setting is 'true'; false if it isn't
+   * set or is not a boolean
+   */
+  public static boolean isInDemoMode(final Settings settings) {
+    return settings.getBoolean(DEMO_MODE_PROPERTY, false);
+  }
+  private static final String DEMO_MODE_PROPERTY = "demoMode";
+
+  /**
+   * The PDN file to import into the game archive at startup, from the
+   * 'pdnImport' setting.
+   *
+   * @param settings the application's settings
+   * @return the path to import, or null if the setting isn't set
+   */
+  public static Path getPdnImportPath(final Settings settings) {
+    final String path = settings.getString(PDN_IMPORT_PROPERTY, "");
+    return path.isEmpty() ? null : Paths.get(path);
+  }
+  private static final String PDN_IMPORT_PROPERTY = "pdnImport";
+
+  /** Name of the template variable holding the URLs of the static files */
+  private static final String ASSETS_VARIABLE = "assets";
+
+  /**
+   * Reads the settings from webcheckers.properties, the file named by the
+   * 'config' property and the system properties.  A settings file that
+   * cannot be read is skipped, leaving the system properties.
+   */
+  private static Settings loadSettings() {
+    try {
+      return Settings.load();
+    } catch (IOException e) {
+      LOG.severe("Settings file cannot be read, using the system properties only: " + e);
+      return new Settings(System.getProperties());
+    }
+  }
+
+  /**
+   * Bundles and fingerprints the static files.  Pages still work without
+   * it, with the files served as they are.
    *
-   * @return true if 'demoMode' property is equal to 'true'; false if the
-   * property isn't set or is not 'true'
+   * @return the prepared files, none if they could not be read
    */
-  public static boolean isInDemoMode() {
-    if (inDemoMode == null) {
-      inDemoMode = _isInDemoMode();
+  private static AssetPipeline loadAssets() {
+    try {
+      return AssetPipeline.load(WebServer.STATIC_FILE_LOCATION);
+    } catch (IOException | RuntimeException e) {
+      LOG.warning("Static files are served as they are: " + e.getMessage());
+      return new AssetPipeline();
     }
-    return inDemoMode;
   }
-  private static final String DEMO_MODE_PROPERTY = "demoMode";
-  private static Boolean inDemoMode = null;
 
   /**
-   * The explicit, private property lookup method.
+   * Creates the FreeMarker engine the way Spark's default one is set up,
+   * plus the URLs of the static files shared by every template.
+   *
+   * @param assets the prepared static files
+   * @return the template engine
    */
-  private static boolean _isInDemoMode() {
-    final String demoModeStr = System.getProperty(DEMO_MODE_PROPERTY);
-    if (demoModeStr == null) {
-      return false;
-    } else {
-      try {
-        return Boolean.parseBoolean(demoModeStr);
-      } catch (Exception e) {
-        LOG.warning(String.format("Bad '%s' value, '%s'; must be a boolean.",
-            DEMO_MODE_PROPERTY, demoModeStr));
-        return false;
-      }
+  private static TemplateEngine createTemplateEngine(AssetPipeline assets) {
+    final Configuration configuration = new Configuration(Configuration.VERSION_2_3_23);
+    configuration.setClassForTemplateLoading(FreeMarkerEngine.class, "");
+    try {
+      configuration.setSharedVariable(ASSETS_VARIABLE, assets.getUrls());
+    } catch (TemplateModelException e) {
+      LOG.warning("Static files are served as they are: " + e.getMessage());
     }
+    return new FreeMarkerEngine(configuration);
   }
 
   //
@@ -85,21 +135,39 @@ public final class Application {
       System.err.println("Could not initialize log manager because: " + e.getMessage());
     }
 
+    // The port, threads and limits of the server, and the sizes of the game store, can be set
+    // without a rebuild.
+    final Settings settings = loadSettings();
+
     // The application uses FreeMarker templates to generate the HTML
     // responses sent back to the client. This will be the engine processing
     // the templates and associated data.
-    final TemplateEngine templateEngine = new FreeMarkerEngine();
+    // The static files are bundled and fingerprinted once; templates look up their URLs
+    // in the shared 'assets' map.
+    final AssetPipeline assets = loadAssets();
+    final TemplateEngine templateEngine = createTemplateEngine(assets);
 
     // The application uses Gson to generate JSON representations of Java objects.
     // This should be used by your Ajax Routes to generate JSON for the HTTP
     // response to Ajax requests.
     final Gson gson = new Gson();
 
+    // The application services shared by all routes.
+    final LobbyFeed lobbyFeed = new LobbyFeed();
+    final PlayerLobby playerLobby = new PlayerLobby(lobbyFeed);
+    final GameStore gameStore = new GameStore(settings);
+    final GameManager gameManager = new GameManager(gameStore, lobbyFeed);
+    final GameCompactor gameCompactor = new GameCompactor(gameStore, settings);
+
     // inject the game center and freemarker engine into web server
-    final WebServer webServer = new WebServer(templateEngine, gson);
+    final WebServer webServer = new WebServer(templateEngine, gson, playerLobby, gameManager, lobbyFeed, assets);
+    webServer.setSettings(settings);
+    webServer.exportSettings(gameStore.asMap());
+    webServer.exportSettings(gameCompactor.asMap());
+    webServer.exportSettings(Collections.singletonMap("demo_mode", isInDemoMode(settings) ? 1L : 0L));
 
     // inject web server into application
-    final Application app = new Application(webServer);
+    final Application app = new Application(webServer, gameManager, gameCompactor, getPdnImportPath(settings));
 
     // start the application up
     app.initialize();
@@ -110,16 +178,25 @@ public final class Application {
   //
 
   private final WebServer webServer;
+  private final GameManager gameManager;
+  private final GameCompactor gameCompactor;
+  private final Path pdnImport;
 
   //
   // Constructor
   //
 
-  private Application(final WebServer webServer) {
+  private Application(final WebServer webServer, final GameManager gameManager,
+                      final GameCompactor gameCompactor, final Path pdnImport) {
     // validation
     Objects.requireNonNull(webServer, "webServer must not be null");
+    Objects.requireNonNull(gameManager, "gameManager must not be null");
+    Objects.requireNonNull(gameCompactor, "gameCompactor must not be null");
     //
     this.webServer = webServer;
+    this.gameManager = gameManager;
+    this.gameCompactor = gameCompactor;
+    this.pdnImport = pdnImport;
   }
 
   //
@@ -133,6 +210,20 @@ public final class Application {
     webServer.initialize();
 
     // other applications might have additional services to configure
+    gameCompactor.start();
+
+    if (pdnImport != null) {
+      // import in the background so the server can take requests meanwhile
+      final Thread importer = new Thread(() -> {
+        try {
+          new PdnImporter(gameManager).importFile(pdnImport);
+        } catch (Exception e) {
+          LOG.severe("PDN import of " + pdnImport + " failed: " + e.getMessage());
+        }
+      }, "pdn-import");
+      importer.setDaemon(true);
+      importer.start();
+    }
 
     LOG.config("WebCheckers initialization complete.");
   }
@@ -0,0 +1,99 @@
+package com.webcheckers;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import com.webcheckers.ui.WebServer;
+
+
+/**
+ * Command line client that downloads the finished-game archive of a running
+ * WebCheckers server as PDN.
+ *
+ * <p>
+ * The response is copied to the output through a fixed size buffer as it
+ * arrives, so the archive is never held in memory.
+ * </p>
+ *
+ * <pre>
+ *   PdnExport [server-url] [--player name] [--from yyyy-mm-dd] [--to yyyy-mm-dd] [--out file]
+ * </pre>
+ */
+public final class PdnExport {
+
+  private static final String DEFAULT_SERVER = "http://localhost:4567";
+  private static final int BUFFER_SIZE = 8192;
+
+  private PdnExport() {
+    // command line entry point only
+  }
+
+  /**
+   * Entry point for the PDN export client.
+   *
+   * @param args
+   *    The optional server URL followed by the optional filter and output flags.
+   */
+  public static void main(String[] args) throws IOException {
+    String server = DEFAULT_SERVER;
+    String outFile = null;
+    final StringBuilder query = new StringBuilder();
+
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--player":
+        case "--from":
+        case "--to":
+          if (i + 1 >= args.length) {
+            usage("Missing value for " + args[i]);
+          }
+          query.append(query.length() == 0 ? '?' : '&')
+              .append(args[i].substring(2))
+              .append('=')
+              .append(URLEncoder.encode(args[++i], StandardCharsets.UTF_8));
+          break;
+        case "--out":
+          if (i + 1 >= args.length) {
+            usage("Missing value for --out");
+          }
+          outFile = args[++i];
+          break;
+        default:
+          if (args[i].startsWith("--")) {
+            usage("Unknown option " + args[i]);
+          }
+          server = args[i];
+      }
+    }
+
+    final URL url = new URL(server + WebServer.ARCHIVE_PDN_URL + query);
+    final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+      System.err.println("Export failed: HTTP " + connection.getResponseCode());
+      System.exit(1);
+    }
+
+    try (InputStream in = connection.getInputStream();
+         OutputStream out = outFile == null ? System.out : new FileOutputStream(outFile)) {
+      final byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      out.flush();
+    }
+  }
+
+  private static void usage(String problem) {
+    System.err.println(problem);
+    System.err.println("usage: PdnExport [server-url] [--player name] [--from yyyy-mm-dd] [--to yyyy-mm-dd] [--out file]");
+    System.exit(2);
+  }
+
+}
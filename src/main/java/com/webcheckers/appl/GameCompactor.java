@@ -0,0 +1,111 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.util.Settings;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * GameCompactor periodically asks the GameStore to compact finished games into ArchivedGame
+ * objects on a background thread, so no request pays for it. A game is only compacted some time
+ * after it ends, while its players are likely still looking at the result.
+ */
+public class GameCompactor {
+    private static final Logger LOG = Logger.getLogger(GameCompactor.class.getName());
+
+    /** Default time between compaction runs, in milliseconds */
+    public static final long DEFAULT_INTERVAL = 10_000;
+
+    /** Default time a finished game stays a CheckersGame, in milliseconds */
+    public static final long DEFAULT_MIN_AGE = 60_000;
+
+    private static final String INTERVAL_SETTING = "gameStore.compactInterval";
+    private static final String MIN_AGE_SETTING = "gameStore.compactAfter";
+
+    private final GameStore games;
+    private final long interval;
+    private final long minAge;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates a compactor timed by the gameStore.compactInterval and gameStore.compactAfter
+     * settings, using the defaults for any that are not set
+     * @param games the store to compact
+     * @param settings the application's settings
+     */
+    public GameCompactor(GameStore games, Settings settings) {
+        this(games, settings.getLong(INTERVAL_SETTING, DEFAULT_INTERVAL, 1, Long.MAX_VALUE),
+                settings.getLong(MIN_AGE_SETTING, DEFAULT_MIN_AGE, 0, Long.MAX_VALUE));
+    }
+
+    /**
+     * Creates a compactor
+     * @param games the store to compact
+     * @param interval time between compaction runs, in milliseconds
+     * @param minAge time a finished game stays a CheckersGame, in milliseconds
+     */
+    public GameCompactor(GameStore games, long interval, long minAge) {
+        this.games = games;
+        this.interval = interval;
+        this.minAge = minAge;
+    }
+
+    /**
+     * @return the settings in effect by name, for the metrics
+     */
+    public Map<String, Long> asMap() {
+        final Map<String, Long> map = new LinkedHashMap<>();
+        map.put("game_store_compact_interval", this.interval);
+        map.put("game_store_compact_after", this.minAge);
+        return map;
+    }
+
+    /**
+     * Starts compacting in the background, does nothing if already started
+     */
+    public synchronized void start() {
+        if ( this.executor != null ) {
+            return;
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            final Thread thread = new Thread(task, "game-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::run, this.interval, this.interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops compacting, a run in progress is allowed to finish
+     */
+    public synchronized void stop() {
+        if ( this.executor != null ) {
+            this.executor.shutdown();
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Runs one compaction pass
+     * @return the number of games compacted
+     */
+    int run() {
+        try {
+            final int count = this.games.compact(this.minAge);
+            if ( count > 0 ) {
+                LOG.fine("Compacted " + count + " finished games, " + this.games.getCompactedBytesSaved()
+                        + " bytes saved in total.");
+            }
+            return count;
+        } catch (RuntimeException e) {
+            // an exception would cancel the schedule, so log it and try again next run
+            LOG.severe("Game compaction failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+}
@@ -1,12 +1,18 @@
 package com.webcheckers.appl;
 
+import com.webcheckers.model.ArchivedGame;
 import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.GameEvents;
+import com.webcheckers.model.GameSummary;
 import com.webcheckers.model.Move;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 /**
  * GameManager handles interaction between the UI tier and CheckerGame objects in the model tier.
@@ -15,21 +21,40 @@ import java.util.HashMap;
  */
 public class GameManager {
 
-    /** All games running on the site right now, key=GameID value=Game */
-    private final HashMap<Integer, CheckersGame> games;
+    /** Number of games listed per page unless the caller asks for another size */
+    public static final int DEFAULT_PAGE_SIZE = 20;
 
-    /** Replay positions for users, key=username value=replay pos */
-    private final HashMap<String, Integer> replayPositions;
+    /** All games ever played, live and finished, held in memory or on disk by recency */
+    private final GameStore games;
+
+    /** Where games starting and finishing are published for the Home page */
+    private final LobbyFeed lobbyFeed;
+
+    /** Replay positions for users, key=username value=replay pos, read by concurrent page requests */
+    private final ConcurrentHashMap<String, Integer> replayPositions;
 
     /** Id of the last game made, incremented before creating a new game */
-    private int lastId = 0;
+    private final AtomicInteger lastId = new AtomicInteger();
+
+    /** Turns submitted in all games, for the turn commit rate */
+    private final LongAdder submittedTurns = new LongAdder();
 
     /**
-     * Initializes needed HashMaps for storing games
+     * Initializes needed HashMaps for storing games, with a GameStore sized from system properties
      */
     public GameManager() {
-        this.games = new HashMap<>();
-        this.replayPositions = new HashMap<>();
+        this(new GameStore(), new LobbyFeed());
+    }
+
+    /**
+     * Initializes needed HashMaps for storing games
+     * @param games the store to keep games in
+     * @param lobbyFeed the feed to publish games starting and finishing to
+     */
+    public GameManager(GameStore games, LobbyFeed lobbyFeed) {
+        this.games = games;
+        this.lobbyFeed = lobbyFeed;
+        this.replayPositions = new ConcurrentHashMap<>();
     }
 
     /**
@@ -39,11 +64,41 @@ public class GameManager {
      * @return a newly constructed checkers game
      */
     public CheckersGame newGame(Player redPlayer, Player whitePlayer) {
-        CheckersGame game = new CheckersGame(++lastId, redPlayer, whitePlayer);
-        games.put(game.getId(), game);
+        final GameEvents.NewGame event = new GameEvents.NewGame();
+        event.begin();
+        CheckersGame game = new CheckersGame(lastId.incrementAndGet(), redPlayer, whitePlayer);
+        games.put(game);
+        lobbyFeed.gameStarted(game.getId(), redPlayer.getUsername(), whitePlayer.getUsername());
+        if (event.shouldCommit()) {
+            event.describe(game);
+            event.redPlayer = redPlayer.getUsername();
+            event.whitePlayer = whitePlayer.getUsername();
+            event.commit();
+        }
         return game;
     }
 
+    /**
+     * Reserves a new game id without creating a game, for games built outside the manager (imports)
+     * @return the reserved id
+     */
+    public int reserveGameId() {
+        return lastId.incrementAndGet();
+    }
+
+    /**
+     * Stores a game built outside the manager, its id should come from reserveGameId
+     * @param game the game to store
+     */
+    public void addGame(CheckersGame game) {
+        games.put(game);
+        if (game.isGameOver()) {
+            publishFinished(game);
+        } else {
+            lobbyFeed.gameStarted(game.getId(), game.getRedPlayer().getUsername(), game.getWhitePlayer().getUsername());
+        }
+    }
+
     /**
      * Get the game with the given id from the hash map
      * @param id the id of the game to retrieve
@@ -53,6 +108,16 @@ public class GameManager {
         return games.get(id);
     }
 
+    /**
+     * Get the game with the given id if it is still held as a CheckersGame, so callers that can
+     * work from the archived form of a finished game do not rebuild it
+     * @param id the id of the game to retrieve
+     * @return CheckersGame with given id, or null if it was compacted or does not exist
+     */
+    public CheckersGame getLiveGame(int id) {
+        return games.getLive(id);
+    }
+
     /**
      * Validates a move
      * @param gameID the game id to validate the move in
@@ -81,6 +146,10 @@ public class GameManager {
     public void submitTurn(int gameID) {
         final CheckersGame game = getGame(gameID);
         game.newTurn();
+        this.submittedTurns.increment();
+        if (game.isGameOver()) {
+            finished(game);
+        }
     }
 
     /**
@@ -111,6 +180,33 @@ public class GameManager {
     public void setGameOver(int gameID, String message) {
         final CheckersGame game = getGame(gameID);
         game.setGameOver(message);
+        finished(game);
+    }
+
+    /**
+     * Ends a game where the loser is known, such as when a player resigns
+     * @param gameID the id of the game to set over
+     * @param message the game over reason or message
+     * @param loser the player who lost the game
+     */
+    public void setGameOver(int gameID, String message, Player loser) {
+        final CheckersGame game = getGame(gameID);
+        game.setGameOver(message, loser);
+        finished(game);
+    }
+
+    /**
+     * Marks a game that just ended as finished in the store and, the first time only, the lobby feed
+     * @param game the game that ended
+     */
+    private void finished(CheckersGame game) {
+        if (games.finished(game)) {
+            publishFinished(game);
+        }
+    }
+
+    private void publishFinished(CheckersGame game) {
+        lobbyFeed.gameFinished(game.getId(), game.getRedPlayer().getUsername(), game.getWhitePlayer().getUsername());
     }
 
 
@@ -120,10 +216,7 @@ public class GameManager {
      * @return the index the player is at or 0 if none could be found
      */
     public int getReplayPosition(String username) {
-        if (!this.replayPositions.containsKey(username)) {
-            this.replayPositions.put(username, 0);
-        }
-        return this.replayPositions.get(username);
+        return this.replayPositions.computeIfAbsent(username, name -> 0);
     }
 
     /**
@@ -132,8 +225,7 @@ public class GameManager {
      * @return the int of the position prior to incrementing
      */
     public int incrementReplayPosition(String username) {
-        final int pos = this.getReplayPosition(username);
-        return this.replayPositions.put(username, pos+1);
+        return this.replayPositions.merge(username, 1, Integer::sum) - 1;
     }
 
     /**
@@ -142,45 +234,84 @@ public class GameManager {
      * @return the int of the position prior to decrementing
      */
     public int decrementReplayPosition(String username) {
-        final int pos = this.getReplayPosition(username);
-        return this.replayPositions.put(username, pos-1);
+        return this.replayPositions.merge(username, -1, Integer::sum) + 1;
     }
 
     /**
      * Removes a player's replay position when they are done replaying a game
      * @param username the name of the user to remove
-     * @return the position prior to removal
+     * @return the position prior to removal, or 0 if there was none
      */
     public int removeReplayPosition(String username) {
-        return this.replayPositions.remove(username);
+        final Integer pos = this.replayPositions.remove(username);
+        return pos == null ? 0 : pos;
     }
 
     /**
-     * Used to get the list of games that can be replayed
-     * @return ArrayList of CheckerGame representing finished (replayable) games
+     * Used to get the most recently finished games that can be replayed
+     * @return ArrayList of GameSummary representing the first page of finished (replayable) games
      */
-    public ArrayList<CheckersGame> getReplayGames() {
-        final ArrayList<CheckersGame> games = new ArrayList<>();
-        for ( CheckersGame game : this.games.values() ) {
-            if ( game.isGameOver() ) {
-                games.add(game);
-            }
-        }
-        return games;
+    public ArrayList<GameSummary> getReplayGames() {
+        return new ArrayList<>(getReplayGames(GamePage.FIRST, DEFAULT_PAGE_SIZE).getItems());
     }
 
     /**
-     * Used to get the list of games that can be spectated
-     * @return ArrayList of CheckerGame representing unfinished (spectatable) games
+     * Used to get a page of the games that can be replayed, most recently finished first
+     * @param cursor GamePage.FIRST, or the next cursor of the previous page
+     * @param limit the most games on the page
+     * @return GamePage of GameSummary representing finished (replayable) games
+     */
+    public GamePage<GameSummary> getReplayGames(long cursor, int limit) {
+        return this.games.getFinishedPage(cursor, limit);
+    }
+
+    /**
+     * Used to get the newest games that can be spectated
+     * @return ArrayList of CheckerGame representing the first page of unfinished (spectatable) games
      */
     public ArrayList<CheckersGame> getSpectatorGames() {
-        final ArrayList<CheckersGame> games = new ArrayList<>();
-        for ( CheckersGame game : this.games.values() ) {
-            if ( !game.isGameOver() ) {
-                games.add(game);
-            }
-        }
-        return games;
+        return new ArrayList<>(getSpectatorGames(GamePage.FIRST, DEFAULT_PAGE_SIZE).getItems());
+    }
+
+    /**
+     * Used to get a page of the games that can be spectated, newest first
+     * @param cursor GamePage.FIRST, or the next cursor of the previous page
+     * @param limit the most games on the page
+     * @return GamePage of CheckerGame representing unfinished (spectatable) games
+     */
+    public GamePage<CheckersGame> getSpectatorGames(long cursor, int limit) {
+        return this.games.getLivePage(cursor, limit);
     }
 
-}
\ No newline at end of file
+    /**
+     * Get a finished game in its compact archived form, for callers that only replay it
+     * @param id the id of the game to retrieve
+     * @return ArchivedGame with given id, or null if there is no finished game with that id
+     */
+    public ArchivedGame getArchivedGame(int id) {
+        return games.getArchived(id);
+    }
+
+    /**
+     * Lazily walks the finished games in the order they finished without copying them into a collection or
+     * promoting them, so callers such as the PDN export use constant memory however many games exist
+     * @return Stream of archived finished games, oldest first
+     */
+    public Stream<ArchivedGame> streamFinishedGames() {
+        return this.games.streamFinishedGames();
+    }
+
+    /**
+     * @return the store holding all games, for its counts
+     */
+    public GameStore getGameStore() {
+        return this.games;
+    }
+
+    /**
+     * @return number of turns submitted since the server started
+     */
+    public long getSubmittedTurnCount() {
+        return this.submittedTurns.sum();
+    }
+}
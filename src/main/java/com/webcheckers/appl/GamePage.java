@@ -0,0 +1,53 @@
+package com.webcheckers.appl;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * GamePage is one page of a list of games, newest first. The next page is fetched by passing
+ * getNextCursor as the cursor; the first page is fetched with FIRST.
+ * @param <T> the type of the listed games
+ */
+public final class GamePage<T> {
+
+    /** Cursor for the first page */
+    public static final long FIRST = Long.MAX_VALUE;
+
+    /** Next cursor of the last page */
+    public static final long NONE = -1;
+
+    private final List<T> items;
+    private final long nextCursor;
+
+    /**
+     * Creates a page
+     * @param items the games on the page, newest first
+     * @param nextCursor the cursor of the next page, NONE if this is the last page
+     */
+    public GamePage(List<T> items, long nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return the games on this page, newest first
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return whether there are older games after this page
+     */
+    public boolean hasMore() {
+        return nextCursor != NONE;
+    }
+
+    /**
+     * @return the cursor of the next page, NONE if this is the last page
+     */
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.ArchivedGame;
+import com.webcheckers.model.BoardCodec;
+import com.webcheckers.model.CheckerPiece;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * GameSerializer turns an ArchivedGame into compressed bytes and back. The keyframes compress
+ * well since consecutive replay positions differ by a piece or two.
+ */
+final class GameSerializer {
+
+    /** Format version written first, so older data can be recognized */
+    private static final int VERSION = 2;
+
+    private GameSerializer() {
+        // static helpers only
+    }
+
+    /**
+     * Serializes and compresses an archived game
+     * @param game the game to serialize
+     * @return the compressed bytes
+     */
+    static byte[] serialize(ArchivedGame game) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeByte(VERSION);
+            out.writeInt(game.getId());
+            out.writeUTF(game.getRedPlayerName());
+            out.writeUTF(game.getWhitePlayerName());
+            out.writeLong(game.getVersion());
+            out.writeBoolean(game.getGameOverMessage() != null);
+            if ( game.getGameOverMessage() != null ) {
+                out.writeUTF(game.getGameOverMessage());
+            }
+            out.writeByte(game.getWinner() == null ? -1 : game.getWinner().ordinal());
+            out.writeByte(game.getActiveColor().ordinal());
+            out.writeLong(game.getStartTime());
+            out.writeLong(game.getEndTime());
+            out.write(game.getInitialBoard());
+            out.write(game.getFinalBoard());
+            writeBytes(out, game.getTurnSizes());
+            writeBytes(out, game.getMoves());
+            writeBytes(out, game.getKeyframes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decompresses a game made by serialize
+     * @param data the compressed bytes
+     * @return an ArchivedGame equal to the one serialized
+     */
+    static ArchivedGame deserialize(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            final int version = in.readByte();
+            if ( version != VERSION ) {
+                throw new IllegalArgumentException("Unknown game format version " + version);
+            }
+            final int id = in.readInt();
+            final String red = in.readUTF();
+            final String white = in.readUTF();
+            final long gameVersion = in.readLong();
+            final String message = in.readBoolean() ? in.readUTF() : null;
+            final int winner = in.readByte();
+            final CheckerPiece.Color active = CheckerPiece.Color.values()[in.readByte()];
+            final long startTime = in.readLong();
+            final long endTime = in.readLong();
+            final byte[] initialBoard = new byte[BoardCodec.BOARD_BYTES];
+            in.readFully(initialBoard);
+            final byte[] finalBoard = new byte[BoardCodec.BOARD_BYTES];
+            in.readFully(finalBoard);
+            final byte[] turnSizes = readBytes(in);
+            final byte[] moves = readBytes(in);
+            final byte[] keyframes = readBytes(in);
+
+            return new ArchivedGame(id, red, white, gameVersion, message,
+                    winner < 0 ? null : CheckerPiece.Color.values()[winner], active, startTime, endTime,
+                    initialBoard, finalBoard, moves, turnSizes, keyframes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+}
@@ -0,0 +1,924 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.ArchivedGame;
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.GameSummary;
+import com.webcheckers.util.SampledLog;
+import com.webcheckers.util.Settings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * GameStore holds every game in one of three tiers so the heap stays a fixed size no matter how
+ * many games have been played:
+ * <ul>
+ *     <li>hot: live games as CheckersGame objects, plus the most recently used finished games
+ *     compacted into ArchivedGame objects</li>
+ *     <li>warm: archived games compressed by GameSerializer into one off-heap slab of a fixed size</li>
+ *     <li>cold: archived games appended to segment files on disk</li>
+ * </ul>
+ * A game that ends during play stays a CheckersGame until compact is called for it, normally by
+ * the GameCompactor, so the players still looking at it are not slowed down. Archived games never
+ * change, so a game moved to a lower tier keeps its copy there when it is promoted again and
+ * demoting it later only needs to drop it from the tier above.
+ * <p>
+ * Nothing is kept on the heap per game ever played: where each cold game lies on disk and the
+ * order games finished in are record files next to the segments, and only the summaries of the
+ * most recently finished games are held, older pages being read back from the tiers.
+ * <p>
+ * The store's lock only guards which tier holds a game. Compressing a game and writing it to disk
+ * are done after choosing the games to move and outside the lock, the games staying readable where
+ * they were until the move is published, so one slow disk write does not hold up every lookup.
+ */
+public class GameStore {
+    private static final Logger LOG = Logger.getLogger(GameStore.class.getName());
+    /** Logs one compacted game in a hundred, a compaction pass may take thousands */
+    private static final SampledLog COMPACTED_LOG = new SampledLog(LOG, Level.FINE, 100);
+
+    /** Default number of archived games kept as objects */
+    public static final int DEFAULT_HOT_GAMES = 1000;
+
+    /** Default off-heap budget for compressed games, in bytes */
+    public static final long DEFAULT_WARM_BYTES = 64L * 1024 * 1024;
+
+    /** Default number of games kept compressed off-heap, whatever their size */
+    public static final int DEFAULT_WARM_GAMES = 100_000;
+
+    /** Default number of finished game summaries kept on the heap for the first pages */
+    public static final int DEFAULT_SUMMARIES = 10_000;
+
+    /** Size at which a new disk segment is started, in bytes */
+    static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private static final String HOT_GAMES_SETTING = "gameStore.hotGames";
+    private static final String WARM_BYTES_SETTING = "gameStore.warmBytes";
+    private static final String WARM_GAMES_SETTING = "gameStore.warmGames";
+    private static final String SUMMARIES_SETTING = "gameStore.summaries";
+    private static final String DIRECTORY_SETTING = "gameStore.dir";
+
+    /** A cold index record: segment int, offset long, length int, a length of 0 meaning not on disk */
+    private static final int COLD_RECORD_BYTES = 16;
+    /** A finish order record: the game id, by finish sequence */
+    private static final int FINISHED_RECORD_BYTES = 4;
+
+    /** Live games and finished games not compacted yet, key=GameID */
+    private final Map<Integer, CheckersGame> live = new ConcurrentHashMap<>();
+
+    /** Archived games kept as objects, key=GameID */
+    private final HashMap<Integer, ArchivedGame> hot = new HashMap<>();
+
+    /** Ids of the hot archived games, least recently used first */
+    private final LinkedHashMap<Integer, Boolean> hotOrder = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Where in the slab compressed archived games lie, key=GameID, least recently used first */
+    private final LinkedHashMap<Integer, WarmSlot> warm = new LinkedHashMap<>();
+
+    /** The off-heap slab the warm games are held in, sized by the warm budget */
+    private final WarmArena arena;
+
+    /** Location on disk of archived games, record number=GameID, opened with the first segment */
+    private RecordFile coldIndex;
+
+    /** Number of games written to disk, guarded by appends like the segments written to */
+    private final AtomicInteger coldCount = new AtomicInteger();
+
+    /** Games dropped from the hot tier that are being compressed, still readable meanwhile */
+    private final Map<Integer, ArchivedGame> demoting = new HashMap<>();
+
+    /** Warm games being written to disk, still readable from the warm tier meanwhile */
+    private final Set<Integer> flushing = new HashSet<>();
+    private long flushingBytes;
+
+    /** Guards appending to the disk segments and the cold index */
+    private final Object appends = new Object();
+
+    /** Games not over yet, key=GameID so newer games sort last */
+    private final ConcurrentSkipListMap<Long, CheckersGame> liveIndex = new ConcurrentSkipListMap<>();
+
+    /** Summaries of the most recently finished games, key=finish sequence so recently finished games sort last */
+    private final ConcurrentSkipListMap<Long, GameSummary> finishedIndex = new ConcurrentSkipListMap<>();
+
+    /** Id of every finished game, record number=finish sequence, opened with the first finished game */
+    private RecordFile finishedOrder;
+
+    /**
+     * Guards moves between the indexes so a game is always in exactly one of them. Pages are
+     * read optimistically and only take the read lock if a move happened meanwhile.
+     */
+    private final StampedLock indexLock = new StampedLock();
+
+    private volatile long finishSequence;
+
+    /** Size of the finished index, at most summaryLimit */
+    private int summaryCount;
+
+    /** Size of the live index, kept since counting a skip list walks all of it */
+    private volatile int liveGameCount;
+
+    /** Open disk segments, index=segment number */
+    private final List<FileChannel> segments = new CopyOnWriteArrayList<>();
+
+    /** Number of games compacted and the heap that saved, by estimate */
+    private final AtomicLong compactedGames = new AtomicLong();
+    private final AtomicLong compactedBytesSaved = new AtomicLong();
+
+    private final int hotLimit;
+    private final long warmBudget;
+    private final int warmLimit;
+    private final int summaryLimit;
+    /** Guarded by files, like the opening of the record files */
+    private Path directory;
+    private final Object files = new Object();
+    private long warmBytes;
+
+    /**
+     * Creates a store with the default sizes, in a temporary directory
+     */
+    public GameStore() {
+        this(Settings.defaults());
+    }
+
+    /**
+     * Creates a store sized from the gameStore.hotGames, gameStore.warmBytes, gameStore.warmGames,
+     * gameStore.summaries and gameStore.dir settings, using the defaults for any that are not set
+     * @param settings the application's settings
+     */
+    public GameStore(Settings settings) {
+        this(settings.getInt(HOT_GAMES_SETTING, DEFAULT_HOT_GAMES, 0, Integer.MAX_VALUE),
+                settings.getLong(WARM_BYTES_SETTING, DEFAULT_WARM_BYTES, 0, WarmArena.MAX_CAPACITY),
+                settings.getInt(WARM_GAMES_SETTING, DEFAULT_WARM_GAMES, 0, Integer.MAX_VALUE),
+                settings.getInt(SUMMARIES_SETTING, DEFAULT_SUMMARIES, 0, Integer.MAX_VALUE),
+                directory(settings.getString(DIRECTORY_SETTING, "")));
+    }
+
+    private static Path directory(String name) {
+        return name.isEmpty() ? null : Paths.get(name);
+    }
+
+    /**
+     * Creates a store
+     * @param hotLimit the number of archived games kept as objects
+     * @param warmBudget the off-heap budget for compressed games, in bytes
+     * @param directory the directory for disk segments, null for a temporary directory made when first needed
+     */
+    public GameStore(int hotLimit, long warmBudget, Path directory) {
+        this(hotLimit, warmBudget, DEFAULT_WARM_GAMES, DEFAULT_SUMMARIES, directory);
+    }
+
+    /**
+     * Creates a store
+     * @param hotLimit the number of archived games kept as objects
+     * @param warmBudget the size of the off-heap slab for compressed games, in bytes, at most 2 GB
+     * @param warmLimit the number of games kept compressed off-heap
+     * @param summaryLimit the number of finished game summaries kept on the heap
+     * @param directory the directory for disk segments, null for a temporary directory made when first needed
+     */
+    public GameStore(int hotLimit, long warmBudget, int warmLimit, int summaryLimit, Path directory) {
+        this.hotLimit = hotLimit;
+        this.warmBudget = Math.min(warmBudget, WarmArena.MAX_CAPACITY);
+        this.arena = new WarmArena((int) this.warmBudget);
+        this.warmLimit = warmLimit;
+        this.summaryLimit = summaryLimit;
+        this.directory = directory;
+    }
+
+    /**
+     * Adds a game. A game that is already over, such as an imported one, is archived straight away.
+     * @param game the game to add
+     */
+    public void put(CheckersGame game) {
+        if ( game.isGameOver() ) {
+            final ArchivedGame archive = game.archive();
+            synchronized (this) {
+                toHot(game.getId(), archive);
+            }
+            demote();
+            final GameSummary summary = new GameSummary(game);
+            final long sequence;
+            final long stamp = this.indexLock.writeLock();
+            try {
+                sequence = addFinished(summary);
+            } finally {
+                this.indexLock.unlockWrite(stamp);
+            }
+            recordFinished(sequence, game.getId());
+        } else {
+            this.live.put(game.getId(), game);
+            final long stamp = this.indexLock.writeLock();
+            try {
+                if ( this.liveIndex.put((long) game.getId(), game) == null ) {
+                    this.liveGameCount++;
+                }
+            } finally {
+                this.indexLock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Tells the store that a game is over, moving it from the live index to the finished index in
+     * one step so it can be replayed and compacted. Does nothing if the game was already finished.
+     * @param game the game that ended
+     * @return true if the game was moved, false if it was already finished
+     */
+    public boolean finished(CheckersGame game) {
+        final GameSummary summary = new GameSummary(game);
+        final long sequence;
+        final long stamp = this.indexLock.writeLock();
+        try {
+            if ( this.liveIndex.remove((long) game.getId()) == null ) {
+                return false;
+            }
+            this.liveGameCount--;
+            sequence = addFinished(summary);
+        } finally {
+            this.indexLock.unlockWrite(stamp);
+        }
+        recordFinished(sequence, game.getId());
+        return true;
+    }
+
+    /**
+     * Compacts the finished games that ended at least minAge milliseconds ago into ArchivedGame
+     * objects, replacing the CheckersGame in the hot tier
+     * @param minAge how long a game stays a CheckersGame after it ends, in milliseconds
+     * @return the number of games compacted
+     */
+    public int compact(long minAge) {
+        final long endedBefore = System.currentTimeMillis() - minAge;
+        int count = 0;
+        for (CheckersGame game : this.live.values()) {
+            if ( !game.isGameOver() || game.getEndTime() > endedBefore ) {
+                continue;
+            }
+            final ArchivedGame archive = game.archive();
+            final long saved = game.getSizeInBytes() - archive.getSizeInBytes();
+            synchronized (this) {
+                toHot(game.getId(), archive);
+                this.live.remove(game.getId());
+            }
+            demote();
+            this.compactedGames.incrementAndGet();
+            this.compactedBytesSaved.addAndGet(saved);
+            final long sample = COMPACTED_LOG.sample();
+            if ( sample != SampledLog.NOT_SAMPLED ) {
+                COMPACTED_LOG.log(sample, "Compacted game " + game.getId() + ", saving about " + saved + " bytes.");
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Gets a game, promoting it to the hot tier if it had been demoted. Archived games are rebuilt
+     * as a new CheckersGame on every call, so callers that only replay should use getArchived.
+     * @param id the id of the game
+     * @return the game, or null if there is no game with that id
+     */
+    public CheckersGame get(int id) {
+        final CheckersGame game = this.live.get(id);
+        if ( game != null ) {
+            return game;
+        }
+        final ArchivedGame archive = load(id, true);
+        return archive == null ? null : archive.toCheckersGame();
+    }
+
+    /**
+     * Gets a game only if it is still held as a CheckersGame, that is live or finished but not
+     * compacted yet, so callers can fall back to the archived form rather than rebuild it
+     * @param id the id of the game
+     * @return the game, or null if it was compacted or there is no game with that id
+     */
+    public CheckersGame getLive(int id) {
+        return this.live.get(id);
+    }
+
+    /**
+     * Gets a finished game in its archived form, promoting it to the hot tier if it had been demoted
+     * @param id the id of the game
+     * @return the archived game, or null if there is no finished game with that id
+     */
+    public ArchivedGame getArchived(int id) {
+        return archived(id, true);
+    }
+
+    /**
+     * Gets a finished game without promoting it or changing its recency, for bulk reads like exports
+     * @param id the id of the game
+     * @return the archived game, or null if there is no finished game with that id
+     */
+    public ArchivedGame peekArchived(int id) {
+        return archived(id, false);
+    }
+
+    /**
+     * @return the games that are not over yet, oldest first
+     */
+    public List<CheckersGame> getLiveGames() {
+        return new ArrayList<>(this.liveIndex.values());
+    }
+
+    /**
+     * Lazily walks the finished games in the order they finished, without promoting them
+     * @return the archived finished games, oldest first
+     */
+    public Stream<ArchivedGame> streamFinishedGames() {
+        return LongStream.rangeClosed(1, this.finishSequence)
+                .mapToObj(sequence -> peekArchived(finishedId(sequence)))
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Gets a page of the games that are not over yet, newest first. The cost depends only on the
+     * page size, not on how many games there are.
+     * @param cursor GamePage.FIRST, or the next cursor of the previous page
+     * @param limit the most games on the page
+     * @return the page
+     */
+    public GamePage<CheckersGame> getLivePage(long cursor, int limit) {
+        return page(() -> readPage(this.liveIndex, cursor, limit));
+    }
+
+    /**
+     * Gets a page of the finished games, most recently finished first. The cost depends only on
+     * the page size, not on how many games there are, though pages past the summaries kept on the
+     * heap read each game back from its tier.
+     * @param cursor GamePage.FIRST, or the next cursor of the previous page
+     * @param limit the most games on the page
+     * @return the page
+     */
+    public GamePage<GameSummary> getFinishedPage(long cursor, int limit) {
+        return page(() -> readFinishedPage(cursor, limit));
+    }
+
+    /**
+     * @return number of games not over yet
+     */
+    public int getLiveGameCount() {
+        return this.liveGameCount;
+    }
+
+    /**
+     * @return number of finished games
+     */
+    public int getFinishedGameCount() {
+        return (int) this.finishSequence;
+    }
+
+    /**
+     * @return number of games held as CheckersGame objects, live or waiting to be compacted
+     */
+    public int getLiveCount() {
+        return this.live.size();
+    }
+
+    /**
+     * @return number of archived games held as objects
+     */
+    public synchronized int getHotCount() {
+        return this.hot.size();
+    }
+
+    /**
+     * @return number of games held compressed off-heap
+     */
+    public synchronized int getWarmCount() {
+        return this.warm.size();
+    }
+
+    /**
+     * @return bytes of the off-heap slab used by compressed games
+     */
+    public synchronized long getWarmBytes() {
+        return this.warmBytes;
+    }
+
+    /**
+     * @return number of games written to disk
+     */
+    public int getColdCount() {
+        return this.coldCount.get();
+    }
+
+    /**
+     * @return number of finished games compacted into ArchivedGame objects
+     */
+    public long getCompactedCount() {
+        return this.compactedGames.get();
+    }
+
+    /**
+     * @return estimated heap saved by compacting finished games, in bytes
+     */
+    public long getCompactedBytesSaved() {
+        return this.compactedBytesSaved.get();
+    }
+
+    /**
+     * @return the sizes in effect by name, for the metrics
+     */
+    public Map<String, Long> asMap() {
+        final Map<String, Long> map = new LinkedHashMap<>();
+        map.put("game_store_hot_games", (long) this.hotLimit);
+        map.put("game_store_warm_bytes", this.warmBudget);
+        map.put("game_store_warm_games", (long) this.warmLimit);
+        map.put("game_store_summaries", (long) this.summaryLimit);
+        return map;
+    }
+
+    /**
+     * Closes the disk segments and record files, the store must not be used afterwards
+     */
+    public synchronized void close() {
+        for (FileChannel channel : this.segments) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.warning("Could not close game segment: " + e.getMessage());
+            }
+        }
+        this.segments.clear();
+        synchronized (this.files) {
+            try {
+                if ( this.coldIndex != null ) {
+                    this.coldIndex.close();
+                }
+                if ( this.finishedOrder != null ) {
+                    this.finishedOrder.close();
+                }
+            } catch (IOException e) {
+                LOG.warning("Could not close game index: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Adds a finished game's summary, the caller holds the index write lock
+     * @return the game's finish sequence, to record once the lock is released
+     */
+    private long addFinished(GameSummary summary) {
+        final long sequence = ++this.finishSequence;
+        this.finishedIndex.put(sequence, summary);
+        if ( ++this.summaryCount > this.summaryLimit ) {
+            this.finishedIndex.pollFirstEntry();
+            this.summaryCount--;
+        }
+        return sequence;
+    }
+
+    /**
+     * Writes which game finished at a sequence, outside the index lock; until it is written the
+     * game reads as missing past the summaries kept on the heap, and is skipped
+     */
+    private void recordFinished(long sequence, int id) {
+        final ByteBuffer record = ByteBuffer.allocate(FINISHED_RECORD_BYTES);
+        record.putInt(id).flip();
+        try {
+            finishedOrder().write(sequence, record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int finishedId(long sequence) {
+        try {
+            return finishedOrder().read(sequence).getInt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> GamePage<T> page(Supplier<GamePage<T>> reader) {
+        long stamp = this.indexLock.tryOptimisticRead();
+        GamePage<T> page = reader.get();
+        if ( !this.indexLock.validate(stamp) ) {
+            stamp = this.indexLock.readLock();
+            try {
+                page = reader.get();
+            } finally {
+                this.indexLock.unlockRead(stamp);
+            }
+        }
+        return page;
+    }
+
+    private static <T> GamePage<T> readPage(ConcurrentSkipListMap<Long, T> index, long cursor, int limit) {
+        final List<T> items = new ArrayList<>(Math.min(limit, 64));
+        long last = GamePage.NONE;
+        for (Map.Entry<Long, T> entry : index.headMap(cursor, false).descendingMap().entrySet()) {
+            if ( items.size() == limit ) {
+                return new GamePage<>(items, last);
+            }
+            items.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new GamePage<>(items, GamePage.NONE);
+    }
+
+    /**
+     * Reads a page of finished games by walking the finish sequence down from the cursor, taking
+     * the summaries kept on the heap and summarizing older games from their tier
+     */
+    private GamePage<GameSummary> readFinishedPage(long cursor, int limit) {
+        final List<GameSummary> items = new ArrayList<>(Math.min(limit, 64));
+        for (long sequence = Math.min(cursor - 1, this.finishSequence); sequence > 0; sequence--) {
+            if ( items.size() == limit ) {
+                return new GamePage<>(items, sequence + 1);
+            }
+            GameSummary summary = this.finishedIndex.get(sequence);
+            if ( summary == null ) {
+                final ArchivedGame game = peekArchived(finishedId(sequence));
+                summary = game == null ? null : new GameSummary(game);
+            }
+            if ( summary != null ) {
+                items.add(summary);
+            }
+        }
+        return new GamePage<>(items, GamePage.NONE);
+    }
+
+    private ArchivedGame archived(int id, boolean promote) {
+        final CheckersGame game = this.live.get(id);
+        if ( game != null ) {
+            return game.isGameOver() ? game.archive() : null;
+        }
+        return load(id, promote);
+    }
+
+    /**
+     * Reads an archived game from whichever tier holds it. Only the tier lookups and the promotion
+     * hold the store's lock; copying out of the warm tier, reading the disk, inflating and the
+     * demotions a promotion causes do not, so one slow load does not hold up every other game.
+     * @param id the id of the game
+     * @param promote whether to move the game into the hot tier
+     * @return the game, or null if it is in no tier
+     */
+    private ArchivedGame load(int id, boolean promote) {
+        final ArchivedGame demoted;
+        byte[] warmData = null;
+        synchronized (this) {
+            final ArchivedGame hotGame = this.hot.get(id);
+            if ( hotGame != null ) {
+                if ( promote ) {
+                    this.hotOrder.get(id); // mark as recently used
+                }
+                return hotGame;
+            }
+            demoted = this.demoting.get(id);
+            if ( demoted != null && promote ) {
+                toHot(id, demoted);
+            }
+            final WarmSlot slot = demoted == null ? this.warm.get(id) : null;
+            if ( slot != null ) {
+                // copied under the lock, since a slot freed after it is released may be reused
+                warmData = this.arena.read(slot.offset, slot.length);
+                if ( promote ) {
+                    touchWarm(id);
+                }
+            }
+        }
+        if ( demoted != null ) {
+            if ( promote ) {
+                demote();
+            }
+            return demoted;
+        }
+
+        // a game leaves the warm tier only once it is on disk
+        final byte[] data;
+        if ( warmData != null ) {
+            data = warmData;
+        } else {
+            final ColdRecord record = readColdIndex(id);
+            if ( record == null ) {
+                return null;
+            }
+            data = readCold(record);
+        }
+
+        final ArchivedGame game = GameSerializer.deserialize(data);
+        if ( promote ) {
+            synchronized (this) {
+                if ( !this.hot.containsKey(id) ) {
+                    if ( warmData == null && !this.warm.containsKey(id) ) {
+                        toWarm(id, data);
+                    }
+                    toHot(id, game);
+                }
+            }
+            demote();
+        }
+        return game;
+    }
+
+    /**
+     * Puts a game in the hot tier, the caller holds the store's lock and calls demote once it is released
+     */
+    private void toHot(int id, ArchivedGame game) {
+        this.hot.put(id, game);
+        this.hotOrder.put(id, Boolean.TRUE);
+    }
+
+    /**
+     * Moves the least recently used games down a tier until each tier is within its limit. The
+     * games are chosen under the store's lock, compressed and written to disk outside it, and
+     * then taken off the tier above; the caller must not hold the lock.
+     */
+    private void demote() {
+        final Map<Integer, ArchivedGame> victims = new LinkedHashMap<>();
+        synchronized (this) {
+            final Iterator<Integer> hotGames = this.hotOrder.keySet().iterator();
+            while ( this.hot.size() > this.hotLimit && hotGames.hasNext() ) {
+                final int id = hotGames.next();
+                final ArchivedGame game = this.hot.remove(id);
+                hotGames.remove();
+                if ( !this.warm.containsKey(id) ) {
+                    this.demoting.put(id, game);
+                    victims.put(id, game);
+                }
+            }
+        }
+        // games that did not fit in the slab, kept in demoting until there is room or they are on disk
+        final Map<Integer, byte[]> overflow = new LinkedHashMap<>();
+        long overflowBytes = 0;
+        for (Map.Entry<Integer, ArchivedGame> victim : victims.entrySet()) {
+            final int id = victim.getKey();
+            // a game read back from disk is still there and need not be kept warm
+            final byte[] data = readColdIndex(id) == null ? GameSerializer.serialize(victim.getValue()) : null;
+            synchronized (this) {
+                if ( data == null || this.warm.containsKey(id) || toWarm(id, data) ) {
+                    this.demoting.remove(id);
+                } else {
+                    overflow.put(id, data);
+                    overflowBytes += data.length;
+                }
+            }
+        }
+        flush(overflowBytes, 0);
+
+        for (Map.Entry<Integer, byte[]> game : overflow.entrySet()) {
+            final int id = game.getKey();
+            // the free space may be split up, so games are written out one by one until a block fits
+            boolean placed;
+            do {
+                synchronized (this) {
+                    placed = this.warm.containsKey(id) || toWarm(id, game.getValue());
+                    if ( placed ) {
+                        this.demoting.remove(id);
+                    }
+                }
+            } while ( !placed && flush(0, 1) );
+            if ( placed ) {
+                continue;
+            }
+            // nothing left to write out, so the game goes straight to disk
+            try {
+                writeCold(id, ByteBuffer.wrap(game.getValue()));
+            } catch (IOException e) {
+                LOG.severe("Could not write game " + id + " to disk: " + e.getMessage());
+                synchronized (this) {
+                    // keep the game on the heap rather than lose it
+                    toHot(id, this.demoting.get(id));
+                }
+            }
+            synchronized (this) {
+                this.demoting.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Writes the least recently used warm games to disk until the warm tier is within its limits
+     * and the slab has room for more bytes
+     * @param needed the bytes to make room for
+     * @param atLeast the fewest games to write out
+     * @return true if any game was taken off the warm tier
+     */
+    private boolean flush(long needed, int atLeast) {
+        final Map<Integer, WarmSlot> victims = new LinkedHashMap<>();
+        final Map<Integer, ByteBuffer> views = new HashMap<>();
+        synchronized (this) {
+            final Iterator<Map.Entry<Integer, WarmSlot>> warmGames = this.warm.entrySet().iterator();
+            while ( (victims.size() < atLeast || this.warmBytes - this.flushingBytes + needed > this.arena.capacity()
+                    || this.warm.size() - this.flushing.size() > this.warmLimit) && warmGames.hasNext() ) {
+                final Map.Entry<Integer, WarmSlot> game = warmGames.next();
+                final WarmSlot slot = game.getValue();
+                if ( this.flushing.add(game.getKey()) ) {
+                    this.flushingBytes += slot.length;
+                    victims.put(game.getKey(), slot);
+                    // the slot is not freed until the game is on disk, so the view stays valid
+                    views.put(game.getKey(), this.arena.view(slot.offset, slot.length));
+                }
+            }
+        }
+        boolean failed = false;
+        for (Map.Entry<Integer, WarmSlot> victim : victims.entrySet()) {
+            final int id = victim.getKey();
+            final WarmSlot slot = victim.getValue();
+            if ( !failed && readColdIndex(id) == null ) {
+                try {
+                    writeCold(id, views.get(id));
+                } catch (IOException e) {
+                    LOG.severe("Could not write game " + id + " to disk: " + e.getMessage());
+                    failed = true;
+                }
+            }
+            synchronized (this) {
+                this.flushing.remove(id);
+                this.flushingBytes -= slot.length;
+                // on failure the game is kept off-heap rather than lost
+                if ( !failed ) {
+                    this.warm.remove(id);
+                    this.arena.free(slot.offset, slot.length);
+                    this.warmBytes -= slot.length;
+                }
+            }
+        }
+        return !victims.isEmpty() && !failed;
+    }
+
+    /**
+     * Copies a compressed game into the slab, the caller holds the store's lock
+     * @return false if there is no free block big enough
+     */
+    private boolean toWarm(int id, byte[] data) {
+        final int offset = this.arena.allocate(data);
+        if ( offset < 0 ) {
+            return false;
+        }
+        this.warm.put(id, new WarmSlot(offset, data.length));
+        this.warmBytes += data.length;
+        return true;
+    }
+
+    /**
+     * Marks a warm game as the most recently used, the caller holds the store's lock
+     */
+    private void touchWarm(int id) {
+        this.warm.put(id, this.warm.remove(id));
+    }
+
+    /**
+     * Appends a compressed game to the current disk segment and records where it lies
+     */
+    private void writeCold(int id, ByteBuffer data) throws IOException {
+        synchronized (this.appends) {
+            writeColdIndex(id, append(data));
+        }
+    }
+
+    /**
+     * Appends a compressed game to the current disk segment, the caller holds appends
+     */
+    private ColdRecord append(ByteBuffer data) throws IOException {
+        FileChannel channel = this.segments.isEmpty() ? null : this.segments.get(this.segments.size() - 1);
+        if ( channel == null || channel.size() >= SEGMENT_BYTES ) {
+            final Path file = directory().resolve("games-" + this.segments.size() + ".seg");
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.segments.add(channel);
+            LOG.fine("Started game segment " + file);
+        }
+        final long offset = channel.size();
+        final ByteBuffer source = data.duplicate();
+        final int length = source.remaining();
+        long position = offset;
+        while ( source.hasRemaining() ) {
+            position += channel.write(source, position);
+        }
+        return new ColdRecord(this.segments.size() - 1, offset, length);
+    }
+
+    private byte[] readCold(ColdRecord record) {
+        final ByteBuffer data = ByteBuffer.allocate(record.length);
+        try {
+            final FileChannel channel = this.segments.get(record.segment);
+            while ( data.hasRemaining() ) {
+                if ( channel.read(data, record.offset + data.position()) < 0 ) {
+                    throw new IOException("Unexpected end of game segment " + record.segment);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return data.array();
+    }
+
+    /**
+     * @return where a game was written on disk, or null if it was not
+     */
+    private ColdRecord readColdIndex(int id) {
+        final RecordFile index;
+        synchronized (this.files) {
+            index = this.coldIndex;
+        }
+        if ( index == null ) {
+            return null;
+        }
+        try {
+            final ByteBuffer record = index.read(id);
+            final int segment = record.getInt();
+            final long offset = record.getLong();
+            final int length = record.getInt();
+            return length == 0 ? null : new ColdRecord(segment, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records where a game was written on disk, the caller holds appends
+     */
+    private void writeColdIndex(int id, ColdRecord location) throws IOException {
+        final RecordFile index;
+        synchronized (this.files) {
+            if ( this.coldIndex == null ) {
+                this.coldIndex = new RecordFile(directory().resolve("cold.idx"), COLD_RECORD_BYTES);
+            }
+            index = this.coldIndex;
+        }
+        final ByteBuffer record = ByteBuffer.allocate(COLD_RECORD_BYTES);
+        record.putInt(location.segment).putLong(location.offset).putInt(location.length).flip();
+        index.write(id, record);
+        this.coldCount.incrementAndGet();
+    }
+
+    private RecordFile finishedOrder() throws IOException {
+        synchronized (this.files) {
+            if ( this.finishedOrder == null ) {
+                this.finishedOrder = new RecordFile(directory().resolve("finished.idx"), FINISHED_RECORD_BYTES);
+            }
+            return this.finishedOrder;
+        }
+    }
+
+    /**
+     * @return the directory for disk segments and record files, made when first needed
+     */
+    private Path directory() throws IOException {
+        synchronized (this.files) {
+            if ( this.directory == null ) {
+                this.directory = Files.createTempDirectory("webcheckers-games");
+            }
+            Files.createDirectories(this.directory);
+            return this.directory;
+        }
+    }
+
+    /**
+     * Where a warm game lies in the slab
+     */
+    private static final class WarmSlot {
+        private final int offset;
+        private final int length;
+
+        WarmSlot(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Where a game was written on disk
+     */
+    private static final class ColdRecord {
+        private final int segment;
+        private final long offset;
+        private final int length;
+
+        ColdRecord(int segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+}
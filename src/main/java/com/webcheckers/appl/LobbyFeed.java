@@ -0,0 +1,168 @@
+package com.webcheckers.appl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LobbyFeed is a versioned log of the changes shown on the Home page: players signing in and out
+ * and games starting and finishing. Each change gets the next version number, so a client that
+ * rendered the page at one version can ask for just the changes made since instead of reloading
+ * the whole page. Only the most recent changes are kept; a client that falls further behind is
+ * told to reload.
+ */
+public class LobbyFeed {
+
+    /** Default number of changes kept */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The kinds of change in the feed
+     */
+    public enum Type {
+        PLAYER_JOINED,
+        PLAYER_LEFT,
+        GAME_STARTED,
+        GAME_FINISHED
+    }
+
+    /** The most recent changes, oldest first */
+    private final ArrayDeque<Change> changes = new ArrayDeque<>();
+
+    private final int capacity;
+    private long version;
+
+    /**
+     * Creates a feed keeping DEFAULT_CAPACITY changes
+     */
+    public LobbyFeed() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a feed
+     * @param capacity the number of changes kept
+     */
+    public LobbyFeed(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records that a player signed in
+     * @param username the player's name
+     */
+    public void playerJoined(String username) {
+        publish(new Change(Type.PLAYER_JOINED, username, -1, null, null));
+    }
+
+    /**
+     * Records that a player signed out
+     * @param username the player's name
+     */
+    public void playerLeft(String username) {
+        publish(new Change(Type.PLAYER_LEFT, username, -1, null, null));
+    }
+
+    /**
+     * Records that a game started
+     * @param gameID the id of the game
+     * @param redPlayer the red player's name
+     * @param whitePlayer the white player's name
+     */
+    public void gameStarted(int gameID, String redPlayer, String whitePlayer) {
+        publish(new Change(Type.GAME_STARTED, null, gameID, redPlayer, whitePlayer));
+    }
+
+    /**
+     * Records that a game finished and can be replayed
+     * @param gameID the id of the game
+     * @param redPlayer the red player's name
+     * @param whitePlayer the white player's name
+     */
+    public void gameFinished(int gameID, String redPlayer, String whitePlayer) {
+        publish(new Change(Type.GAME_FINISHED, null, gameID, redPlayer, whitePlayer));
+    }
+
+    /**
+     * @return the version of the latest change, 0 if nothing has changed yet
+     */
+    public synchronized long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Gets the changes made after a version
+     * @param since the version the client last saw
+     * @return the changes in order, or null if some of them are no longer kept and the client must reload
+     */
+    public synchronized List<Change> getChangesSince(long since) {
+        if ( since >= this.version ) {
+            return Collections.emptyList();
+        }
+        if ( since < 0 || this.changes.isEmpty() || this.changes.peekFirst().version > since + 1 ) {
+            return null;
+        }
+        final List<Change> result = new ArrayList<>((int) (this.version - since));
+        for (Change change : this.changes) {
+            if ( change.version > since ) {
+                result.add(change);
+            }
+        }
+        return result;
+    }
+
+    private synchronized void publish(Change change) {
+        change.version = ++this.version;
+        this.changes.addLast(change);
+        if ( this.changes.size() > this.capacity ) {
+            this.changes.removeFirst();
+        }
+    }
+
+    /**
+     * A single change to the lobby. Player changes have a username, game changes have the game's
+     * id and players. Fields are read by Gson when the change is sent to the browser.
+     */
+    public static final class Change {
+        private long version;
+        private final Type type;
+        private final String username;
+        private final int gameID;
+        private final String redPlayer;
+        private final String whitePlayer;
+
+        Change(Type type, String username, int gameID, String redPlayer, String whitePlayer) {
+            this.type = type;
+            this.username = username;
+            this.gameID = gameID;
+            this.redPlayer = redPlayer;
+            this.whitePlayer = whitePlayer;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public int getGameID() {
+            return gameID;
+        }
+
+        public String getRedPlayer() {
+            return redPlayer;
+        }
+
+        public String getWhitePlayer() {
+            return whitePlayer;
+        }
+    }
+
+}
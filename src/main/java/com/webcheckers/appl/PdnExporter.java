@@ -0,0 +1,168 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.ArchivedGame;
+import com.webcheckers.model.BoardCodec;
+import com.webcheckers.model.PdnNotation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * PdnExporter writes finished games from the GameManager as Portable Draughts Notation (PDN).
+ * Games are written one at a time straight to the given Writer, so memory use does not depend
+ * on how many games are in the archive.
+ */
+public class PdnExporter {
+    private static final Logger LOG = Logger.getLogger(PdnExporter.class.getName());
+
+    /** Number of games written between flushes of the output */
+    static final int FLUSH_EVERY = 64;
+
+    /** Maximum length of a line of move text */
+    static final int LINE_LENGTH = 80;
+
+    private static final DateTimeFormatter PDN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    private final GameManager gameManager;
+    private final ZoneId zone;
+
+    /**
+     * Creates an exporter using the system time zone for dates
+     * @param gameManager the game manager holding the archive
+     */
+    public PdnExporter(GameManager gameManager) {
+        this(gameManager, ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates an exporter
+     * @param gameManager the game manager holding the archive
+     * @param zone the time zone used for the Date tag and date filters
+     */
+    public PdnExporter(GameManager gameManager, ZoneId zone) {
+        this.gameManager = gameManager;
+        this.zone = zone;
+    }
+
+    /**
+     * Writes every finished game matching the filters. Any filter may be null to not filter on it.
+     * @param out the writer to stream the games to
+     * @param player only games where this user played red or white
+     * @param from only games that ended on or after this date
+     * @param to only games that ended on or before this date
+     * @return the number of games written
+     * @throws IOException if writing fails
+     */
+    public int export(Writer out, String player, LocalDate from, LocalDate to) throws IOException {
+        int count = 0;
+        final Iterator<ArchivedGame> games = this.gameManager.streamFinishedGames().iterator();
+        while ( games.hasNext() ) {
+            final ArchivedGame game = games.next();
+            if ( !matches(game, player, from, to) ) {
+                continue;
+            }
+            writeGame(game, out);
+            if ( ++count % FLUSH_EVERY == 0 ) {
+                out.flush();
+            }
+        }
+        out.flush();
+        LOG.fine("Exported " + count + " games as PDN.");
+        return count;
+    }
+
+    /**
+     * Whether a game passes the export filters
+     * @param game the game to check
+     * @param player the username to match, or null
+     * @param from the earliest end date, or null
+     * @param to the latest end date, or null
+     * @return true if the game should be exported
+     */
+    boolean matches(ArchivedGame game, String player, LocalDate from, LocalDate to) {
+        if ( player != null && !player.equals(game.getRedPlayerName())
+                && !player.equals(game.getWhitePlayerName()) ) {
+            return false;
+        }
+        final LocalDate ended = endDate(game);
+        if ( from != null && ended.isBefore(from) ) {
+            return false;
+        }
+        return to == null || !ended.isAfter(to);
+    }
+
+    /**
+     * Writes a single game as PDN, followed by a blank line
+     * @param game the finished game to write
+     * @param out the writer to write to
+     * @throws IOException if writing fails
+     */
+    void writeGame(ArchivedGame game, Writer out) throws IOException {
+        final String result = PdnNotation.result(game.getWinner());
+
+        writeTag(out, "Event", "WebCheckers game " + game.getId());
+        writeTag(out, "Date", PDN_DATE.format(endDate(game)));
+        writeTag(out, "Black", game.getRedPlayerName());
+        writeTag(out, "White", game.getWhitePlayerName());
+        writeTag(out, "Result", result);
+        writeTag(out, "GameType", "21");
+        if ( game.getGameOverMessage() != null ) {
+            writeTag(out, "Termination", game.getGameOverMessage());
+        }
+        final byte[] initialBoard = game.getInitialBoard();
+        if ( !PdnNotation.isStandardStart(initialBoard) ) {
+            writeTag(out, "FEN", PdnNotation.toFen(BoardCodec.decode(initialBoard)));
+        }
+        out.write('\n');
+
+        final List<byte[]> turns = game.getTurns();
+        int lineLength = 0;
+        for (int i = 0; i < turns.size(); i++) {
+            final boolean red = i % 2 == 0;
+            final String move = PdnNotation.formatTurn(BoardCodec.decodeMoves(turns.get(i)), red);
+            if ( move.isEmpty() ) {
+                continue;
+            }
+            final String token = red ? (i / 2 + 1) + ". " + move : move;
+            lineLength = writeToken(out, token, lineLength);
+        }
+        writeToken(out, result, lineLength);
+        out.write("\n\n");
+    }
+
+    /**
+     * Writes a space separated token, wrapping the line when it gets too long
+     * @return the length of the current line after writing
+     */
+    private static int writeToken(Writer out, String token, int lineLength) throws IOException {
+        if ( lineLength > 0 && lineLength + 1 + token.length() > LINE_LENGTH ) {
+            out.write('\n');
+            lineLength = 0;
+        } else if ( lineLength > 0 ) {
+            out.write(' ');
+            lineLength++;
+        }
+        out.write(token);
+        return lineLength + token.length();
+    }
+
+    private static void writeTag(Writer out, String name, String value) throws IOException {
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        out.write("\"]\n");
+    }
+
+    private LocalDate endDate(ArchivedGame game) {
+        return Instant.ofEpochMilli(game.getEndTime()).atZone(this.zone).toLocalDate();
+    }
+
+}
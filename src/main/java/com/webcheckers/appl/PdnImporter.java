@@ -0,0 +1,425 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.CheckerBoard;
+import com.webcheckers.model.CheckerPiece;
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.PdnNotation;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import com.webcheckers.util.Message;
+import com.webcheckers.util.SampledLog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PdnImporter loads games written in Portable Draughts Notation (PDN) into the GameManager as
+ * finished, replayable games. The input is read as a stream and split into games on the reading
+ * thread; batches of games are then parsed and validated in parallel on a fork-join pool by
+ * replaying every move through CheckersGame, so only games the rules accept are stored. The
+ * accepted games are given their ids as they are stored, in the order they are in the file.
+ */
+public class PdnImporter {
+    private static final Logger LOG = Logger.getLogger(PdnImporter.class.getName());
+    /** Logs one rejected game in a hundred, a bad archive may reject every game in it */
+    private static final SampledLog REJECTED_LOG = new SampledLog(LOG, Level.FINE, 100);
+
+    /** Number of games handed to the pool at once */
+    static final int BATCH_SIZE = 512;
+
+    /** Batches below this many games are imported by a single task */
+    static final int TASK_THRESHOLD = 32;
+
+    private static final Pattern TAG = Pattern.compile("^\\s*\\[(\\w+)\\s+\"((?:[^\"\\\\]|\\\\.)*)\"\\s*]\\s*$");
+    private static final Pattern MOVE_NUMBER = Pattern.compile("^\\d+\\.+");
+    private static final Pattern MOVE = Pattern.compile("^\\d+([-x]\\d+)+$");
+    private static final Set<String> RESULTS = Set.of("1-0", "0-1", "2-0", "0-2", "1-1", "0-0", "1/2-1/2", "*");
+    private static final DateTimeFormatter PDN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    private final GameManager gameManager;
+    private final int parallelism;
+    private final ZoneId zone;
+
+    /**
+     * Creates an importer using one worker per available processor
+     * @param gameManager the game manager to store imported games in
+     */
+    public PdnImporter(GameManager gameManager) {
+        this(gameManager, Runtime.getRuntime().availableProcessors(), ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates an importer
+     * @param gameManager the game manager to store imported games in
+     * @param parallelism the number of worker threads
+     * @param zone the time zone the PDN Date tags are read in
+     */
+    public PdnImporter(GameManager gameManager, int parallelism, ZoneId zone) {
+        this.gameManager = gameManager;
+        this.parallelism = Math.max(1, parallelism);
+        this.zone = zone;
+    }
+
+    /**
+     * Imports every game in a PDN file
+     * @param file the file to read
+     * @return the number of games imported and rejected
+     * @throws IOException if the file cannot be read
+     */
+    public Result importFile(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importGames(reader);
+        }
+    }
+
+    /**
+     * Imports every game read from the given reader
+     * @param source the PDN text
+     * @return the number of games imported and rejected
+     * @throws IOException if reading fails
+     */
+    public Result importGames(Reader source) throws IOException {
+        final BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        final Result result = new Result();
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        // bound the games held in memory to a few batches per worker; batches are stored in the
+        // order they were read, so the games get their ids in file order
+        final Deque<ImportTask> pending = new ArrayDeque<>();
+        final int maxPending = this.parallelism * 2;
+        try {
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            final StringBuilder current = new StringBuilder();
+            boolean inMoves = false;
+            String line;
+            while ( (line = reader.readLine()) != null ) {
+                final String trimmed = line.trim();
+                boolean ended = false;
+                if ( trimmed.startsWith("[") && inMoves ) { // a tag after move text starts the next game
+                    batch.add(current.toString());
+                    current.setLength(0);
+                    inMoves = false;
+                } else if ( !trimmed.isEmpty() && !trimmed.startsWith("[") ) {
+                    inMoves = true;
+                    // so does a result, for games without tags
+                    ended = RESULTS.contains(trimmed.substring(trimmed.lastIndexOf(' ') + 1));
+                }
+                current.append(line).append('\n');
+                if ( ended ) {
+                    batch.add(current.toString());
+                    current.setLength(0);
+                    inMoves = false;
+                }
+                if ( batch.size() == BATCH_SIZE ) {
+                    pending.add(submit(pool, batch, result));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    while ( pending.size() > maxPending ) {
+                        store(pending.poll(), result);
+                    }
+                }
+            }
+            if ( inMoves ) {
+                batch.add(current.toString());
+            }
+            if ( !batch.isEmpty() ) {
+                pending.add(submit(pool, batch, result));
+            }
+            while ( !pending.isEmpty() ) {
+                store(pending.poll(), result);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        LOG.info("Imported " + result.getImported() + " PDN games, rejected " + result.getRejected() + ".");
+        return result;
+    }
+
+    private ImportTask submit(ForkJoinPool pool, List<String> batch, Result result) {
+        final ImportTask task = new ImportTask(batch, new CheckersGame[batch.size()], 0, batch.size(), result);
+        pool.execute(task);
+        return task;
+    }
+
+    /**
+     * Waits for a batch to be parsed, then gives its accepted games their ids and stores them
+     * @param task the batch
+     * @param result the counters to update
+     */
+    private void store(ImportTask task, Result result) {
+        task.join();
+        for (CheckersGame game : task.parsed) {
+            if ( game != null ) {
+                game.setId(this.gameManager.reserveGameId());
+                this.gameManager.addGame(game);
+                result.imported.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Parses and validates a single game
+     * @param text the PDN text of one game
+     * @param result the counters to update
+     * @return the game, or null when it was rejected
+     */
+    private CheckersGame importGame(String text, Result result) {
+        try {
+            return parseGame(text);
+        } catch (RuntimeException e) {
+            result.rejected.incrementAndGet();
+            final long sample = REJECTED_LOG.sample();
+            if (sample != SampledLog.NOT_SAMPLED) {
+                REJECTED_LOG.log(sample, "Rejected PDN game: " + e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Parses a single PDN game and replays it through the rules
+     * @param text the PDN text of one game
+     * @return the finished game, without an id until it is stored
+     * @throws IllegalArgumentException if the game cannot be parsed or breaks the rules
+     */
+    CheckersGame parseGame(String text) {
+        final Map<String, String> tags = new HashMap<>();
+        final List<String> turns = new ArrayList<>();
+        String resultToken = null;
+
+        final StringBuilder moveText = new StringBuilder();
+        for (String line : text.split("\n")) {
+            final Matcher tag = TAG.matcher(line);
+            if ( tag.matches() ) {
+                tags.put(tag.group(1), tag.group(2).replace("\\\"", "\"").replace("\\\\", "\\"));
+            } else {
+                moveText.append(line).append(' ');
+            }
+        }
+        final String stripped = moveText.toString()
+                .replaceAll("\\{[^}]*}", " ")
+                .replaceAll("\\([^)]*\\)", " ");
+        for (String token : stripped.trim().split("\\s+")) {
+            token = MOVE_NUMBER.matcher(token).replaceFirst("").replaceAll("[!?]+$", "");
+            if ( token.isEmpty() ) {
+                continue;
+            }
+            if ( RESULTS.contains(token) ) {
+                resultToken = token;
+            } else if ( MOVE.matcher(token).matches() ) {
+                turns.add(token);
+            } else {
+                throw new IllegalArgumentException("Unexpected token '" + token + "'");
+            }
+        }
+
+        final CheckerBoard board = tags.containsKey("FEN") ? PdnNotation.fromFen(tags.get("FEN")) : new CheckerBoard();
+        final Player red = new Player(tags.getOrDefault("Black", "Black"));
+        final Player white = new Player(tags.getOrDefault("White", "White"));
+        final CheckersGame game = new CheckersGame(0, red, white, board);
+
+        for (int i = 0; i < turns.size(); i++) {
+            if ( game.isGameOver() ) {
+                throw new IllegalArgumentException("Moves recorded after the game ended");
+            }
+            final boolean capture = turns.get(i).indexOf('x') >= 0;
+            for (Move written : PdnNotation.parseTurn(turns.get(i), i % 2 == 0)) {
+                // a capture may be written short, "9x27", with only the squares it starts and ends on
+                final List<Move> moves = capture && jumpRows(written) != 2
+                        ? findJumps(game, written, turns.get(i)) : List.of(written);
+                for (Move move : moves) {
+                    checkMove(game, move, turns.get(i));
+                    game.makeMove(move);
+                }
+            }
+            final Message turn = game.isValidTurn();
+            if ( !turn.isSuccessful() ) {
+                throw new IllegalArgumentException(turn.getText() + " (" + turns.get(i) + ")");
+            }
+            game.newTurn();
+        }
+
+        if ( !game.isGameOver() ) {
+            final String message = tags.getOrDefault("Termination", "Imported game");
+            final String outcome = tags.getOrDefault("Result", resultToken);
+            if ( "1-0".equals(outcome) || "2-0".equals(outcome) ) {
+                game.setGameOver(message, white);
+            } else if ( "0-1".equals(outcome) || "0-2".equals(outcome) ) {
+                game.setGameOver(message, red);
+            } else {
+                game.setGameOver(message);
+            }
+        }
+        final Long ended = parseDate(tags.get("Date"));
+        if ( ended != null ) {
+            game.setEndTime(ended);
+        }
+        return game;
+    }
+
+    /**
+     * Checks what CheckerBoard.isValidMove assumes, then asks it whether the move is legal
+     * @param game the game being replayed
+     * @param move the move to check, in the mover's perspective
+     * @param text the PDN move, for error messages
+     */
+    private static void checkMove(CheckersGame game, Move move, String text) {
+        final CheckerPiece[][] board = game.getBoard();
+        final CheckerPiece piece = board[move.getStart().getRow()][move.getStart().getCell()];
+        if ( piece == null || piece.getColor() != game.getActiveColor() ) {
+            throw new IllegalArgumentException("No " + game.getActiveColor() + " piece to move (" + text + ")");
+        }
+        if ( board[move.getEnd().getRow()][move.getEnd().getCell()] != null ) {
+            throw new IllegalArgumentException("Square is occupied (" + text + ")");
+        }
+        final int rows = Math.abs(move.getStart().getRow() - move.getEnd().getRow());
+        final int cells = Math.abs(move.getStart().getCell() - move.getEnd().getCell());
+        if ( rows != cells || rows < 1 || rows > 2 ) {
+            throw new IllegalArgumentException("Not a diagonal step or jump (" + text + ")");
+        }
+        final Message valid = game.isValidMove(move);
+        if ( !valid.isSuccessful() ) {
+            throw new IllegalArgumentException(valid.getText() + " (" + text + ")");
+        }
+    }
+
+    private static int jumpRows(Move move) {
+        return Math.abs(move.getStart().getRow() - move.getEnd().getRow());
+    }
+
+    /**
+     * Finds the jumps a capture written short makes between its first and last squares. Where
+     * several paths lead there the first one found is taken; PDN asks for the squares in between
+     * to be written out in that case.
+     * @param game the game being replayed, left as it was
+     * @param capture the square the capture starts from and the one it ends on
+     * @param text the PDN move, for error messages
+     * @return the jumps, one square over an opponent's piece each
+     */
+    private static List<Move> findJumps(CheckersGame game, Move capture, String text) {
+        final Deque<Move> path = new ArrayDeque<>();
+        if ( !findJumps(game, capture.getStart(), capture.getEnd(), path) ) {
+            throw new IllegalArgumentException("No jumps lead to the last square (" + text + ")");
+        }
+        return new ArrayList<>(path);
+    }
+
+    private static boolean findJumps(CheckersGame game, Position from, Position to, Deque<Move> path) {
+        for (int rows = -2; rows <= 2; rows += 4) {
+            for (int cells = -2; cells <= 2; cells += 4) {
+                final int row = from.getRow() + rows;
+                final int cell = from.getCell() + cells;
+                if ( row < 0 || row >= 8 || cell < 0 || cell >= 8 || game.getBoard()[row][cell] != null ) {
+                    continue;
+                }
+                final Move jump = new Move(from, new Position(row, cell));
+                if ( !game.isValidMove(jump).isSuccessful() ) {
+                    continue;
+                }
+                game.makeMove(jump);
+                path.addLast(jump);
+                final boolean found = (row == to.getRow() && cell == to.getCell()) || findJumps(game, jump.getEnd(), to, path);
+                game.undoMove();
+                if ( found ) {
+                    return true;
+                }
+                path.removeLast();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a PDN Date tag
+     * @return epoch milliseconds at the start of that day, or null if the date is missing or partial
+     */
+    private Long parseDate(String date) {
+        if ( date == null ) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date, PDN_DATE).atStartOfDay(this.zone).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Imports a range of a batch, splitting it in half until it is small enough
+     */
+    private class ImportTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> games;
+        /** The games parsed from the batch, by their place in it, null where rejected */
+        private final CheckersGame[] parsed;
+        private final int start;
+        private final int end;
+        private final Result result;
+
+        ImportTask(List<String> games, CheckersGame[] parsed, int start, int end, Result result) {
+            this.games = games;
+            this.parsed = parsed;
+            this.start = start;
+            this.end = end;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if ( end - start <= TASK_THRESHOLD ) {
+                for (int i = start; i < end; i++) {
+                    parsed[i] = importGame(games.get(i), result);
+                }
+            } else {
+                final int middle = (start + end) >>> 1;
+                invokeAll(new ImportTask(games, parsed, start, middle, result),
+                        new ImportTask(games, parsed, middle, end, result));
+            }
+        }
+    }
+
+    /**
+     * Counts of the games imported and rejected by an import
+     */
+    public static final class Result {
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+
+        /**
+         * @return number of games stored in the GameManager
+         */
+        public int getImported() {
+            return imported.get();
+        }
+
+        /**
+         * @return number of games that could not be parsed or broke the rules
+         */
+        public int getRejected() {
+            return rejected.get();
+        }
+    }
+
+}
@@ -5,6 +5,8 @@ import com.webcheckers.ui.PostSignInRoute;
 import com.webcheckers.ui.WebServer;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * PlayerLobby handles the storing of players as well as signin/signout
@@ -13,19 +15,45 @@ import java.util.*;
  */
 public class PlayerLobby {
 
-    /** The list of signed-in players key=username, value=player obj */
-    private final HashMap<String, Player> playerList;
+    /** Number of players listed per page unless the caller asks for another size */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /** Orders names alphabetically ignoring case, names differing only in case are then ordered by code point */
+    private static final Comparator<String> NAME_ORDER =
+            String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+    /** The signed-in players in alphabetical order key=username, value=player obj, also for paging and prefix search */
+    private final ConcurrentSkipListMap<String, Player> playerIndex = new ConcurrentSkipListMap<>(NAME_ORDER);
+
+    /** Number of signed-in players, kept since counting a skip list walks all of it */
+    private final AtomicInteger playerCount = new AtomicInteger();
+
+    /** Where sign-ins and sign-outs are published for the Home page */
+    private final LobbyFeed lobbyFeed;
+
+    /**
+     * Initializes the lobby with no players
+     */
+    public PlayerLobby() { this(new LobbyFeed()); }
 
     /**
-     * Initializes needed HashMap for storing players
+     * Initializes the lobby with no players
+     * @param lobbyFeed the feed to publish sign-ins and sign-outs to
      */
-    public PlayerLobby() { this.playerList = new HashMap<>(); }
+    public PlayerLobby(LobbyFeed lobbyFeed) {
+        this.lobbyFeed = lobbyFeed;
+    }
 
     /**
-     * Add a new player to the lobby
-     * @param player the Player object to add
+     * Add a new player to the lobby, replacing any player with the same username
+     * @param player the Player object to add, which must have a username
      */
-    public void addPlayer(Player player) { playerList.put(player.getUsername(), player); }
+    public void addPlayer(Player player) {
+        final String username = Objects.requireNonNull(player.getUsername(), "a player needs a username");
+        if (playerIndex.put(username, player) == null) {
+            playerCount.incrementAndGet();
+        }
+    }
 
     /**
      * Returns the player with the given username, should make sure player exists first
@@ -33,7 +61,7 @@ public class PlayerLobby {
      * @return the Player object with the given username
      */
     public Player getPlayer(String username) {
-        return playerList.get(username);
+        return username == null ? null : playerIndex.get(username);
     }
 
     /**
@@ -41,7 +69,7 @@ public class PlayerLobby {
      * @return int representing how many players are signed in
      */
     public int getNumberOfPlayers() {
-        return playerList.size();
+        return playerCount.get();
     }
 
     /**
@@ -50,27 +78,61 @@ public class PlayerLobby {
      * @return true if the player is present, false otherwise
      */
     public boolean hasPlayer(String username) {
-        return this.playerList.containsKey(username);
+        return username != null && this.playerIndex.containsKey(username);
     }
 
     /**
-     * Getter for keys of playerList hashmap
-     * @return ArrayList of strings representing the usernames of signed in players
+     * Getter for the usernames of the signed-in players
+     * @return ArrayList of strings representing the usernames of signed in players, in alphabetical order
      */
     public ArrayList<String> getPlayerList() {
-        return new ArrayList<>(this.playerList.keySet());
+        return new ArrayList<>(this.playerIndex.keySet());
     }
 
     /**
-     * Overloaded getter for keys of playerList hashmap, removes given username before returning
-     * @return ArrayList of strings representing the usernames of signed in players
+     * Overloaded getter for the usernames of the signed-in players, removes given username before returning
+     * @return ArrayList of strings representing the usernames of signed in players, in alphabetical order
      */
     public ArrayList<String> getPlayerList(String username) {
-        ArrayList<String> result = new ArrayList<>(this.playerList.keySet());
+        ArrayList<String> result = new ArrayList<>(this.playerIndex.keySet());
         result.remove(username);
         return result;
     }
 
+    /**
+     * Gets a page of the signed-in players in alphabetical order. Only the players on the page
+     * (and any skipped by the filters) are visited, however many players are signed in.
+     * @param prefix only names starting with this, ignoring case; null or empty for every name
+     * @param cursor null for the first page, or the next cursor of the previous page
+     * @param limit the most names on the page
+     * @param availableOnly whether to leave out players who are in a game
+     * @param exclude a name to leave out, such as the current user's; may be null
+     * @return the page
+     */
+    public PlayerPage getPlayerPage(String prefix, String cursor, int limit, boolean availableOnly, String exclude) {
+        final String start = prefix == null ? "" : prefix;
+        final NavigableMap<String, Player> players = cursor != null
+                ? this.playerIndex.tailMap(cursor, false)
+                // the upper case form sorts first among names that differ only in case
+                : this.playerIndex.tailMap(start.toUpperCase(Locale.ROOT), true);
+
+        final List<String> usernames = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<String, Player> entry : players.entrySet()) {
+            final String username = entry.getKey();
+            if (!username.regionMatches(true, 0, start, 0, start.length())) {
+                break; // sorted, so no later name has the prefix either
+            }
+            if (username.equals(exclude) || (availableOnly && entry.getValue().inGame())) {
+                continue;
+            }
+            if (usernames.size() == limit) {
+                return new PlayerPage(usernames, usernames.get(usernames.size() - 1));
+            }
+            usernames.add(username);
+        }
+        return new PlayerPage(usernames, null);
+    }
+
     /**
      * Provides username validation and sign-in functionality to the game
      * @param username the name of the user to validate and create a player with
@@ -79,9 +141,10 @@ public class PlayerLobby {
     public String signin(String username) {
         // Check that username is at least one alphanumeric character and contains no symbol
         if (username.length() > 0 && username.chars().allMatch( c -> Character.isLetterOrDigit(c) || Character.isWhitespace(c)) && username.chars().anyMatch(Character::isLetterOrDigit)) {
-            if (!this.hasPlayer(username)) { // Check that username does not already exist
-                final Player player = new Player(username);
-                this.addPlayer(player);
+            // Check that username does not already exist, in the same step as taking it
+            if (this.playerIndex.putIfAbsent(username, new Player(username)) == null) {
+                this.playerCount.incrementAndGet();
+                this.lobbyFeed.playerJoined(username);
                 return WebServer.HOME_URL;
             }
             else {
@@ -111,7 +174,10 @@ public class PlayerLobby {
      * @param playerName the name of the player that is signing out
      */
     public void playerSignOut(String playerName) {
-        this.playerList.remove(playerName);
+        if (playerName != null && this.playerIndex.remove(playerName) != null) {
+            this.playerCount.decrementAndGet();
+            this.lobbyFeed.playerLeft(playerName);
+        }
     }
 
 }
@@ -0,0 +1,46 @@
+package com.webcheckers.appl;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PlayerPage is one page of the signed-in players' names in alphabetical order. The next page is
+ * fetched by passing getNextCursor as the cursor; the first page is fetched with a null cursor.
+ */
+public final class PlayerPage {
+
+    private final List<String> usernames;
+    private final String nextCursor;
+
+    /**
+     * Creates a page
+     * @param usernames the names on the page, in alphabetical order
+     * @param nextCursor the cursor of the next page, null if this is the last page
+     */
+    public PlayerPage(List<String> usernames, String nextCursor) {
+        this.usernames = Collections.unmodifiableList(usernames);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return the names on this page, in alphabetical order
+     */
+    public List<String> getUsernames() {
+        return usernames;
+    }
+
+    /**
+     * @return whether there are more names after this page
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    /**
+     * @return the cursor of the next page, null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.webcheckers.appl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * RecordFile is a file of fixed-size records addressed by number, such as a game id, so an index
+ * with one entry per game is kept on disk rather than on the heap. A record never written reads
+ * as zeros. Reads and writes are positional, so any number of threads may use it at once.
+ */
+final class RecordFile {
+
+    private final FileChannel channel;
+    private final int recordBytes;
+
+    /**
+     * Opens the file, emptying it
+     * @param file the file
+     * @param recordBytes the size of each record
+     * @throws IOException if the file cannot be opened
+     */
+    RecordFile(Path file, int recordBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.recordBytes = recordBytes;
+    }
+
+    /**
+     * Reads a record
+     * @param number the number of the record
+     * @return the record, all zeros if it was never written
+     * @throws IOException if reading fails
+     */
+    ByteBuffer read(long number) throws IOException {
+        final ByteBuffer record = ByteBuffer.allocate(this.recordBytes);
+        final long position = number * this.recordBytes;
+        while ( record.hasRemaining() ) {
+            if ( this.channel.read(record, position + record.position()) < 0 ) {
+                break; // past the end, the rest is zeros
+            }
+        }
+        record.clear();
+        return record;
+    }
+
+    /**
+     * Writes a record
+     * @param number the number of the record
+     * @param record the record, exactly recordBytes long
+     * @throws IOException if writing fails
+     */
+    void write(long number, ByteBuffer record) throws IOException {
+        final ByteBuffer source = record.duplicate();
+        final long position = number * this.recordBytes;
+        while ( source.hasRemaining() ) {
+            this.channel.write(source, position + source.position());
+        }
+    }
+
+    void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,103 @@
+package com.webcheckers.appl;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * WarmArena is a single off-heap slab the warm tier's compressed games are copied into, so the
+ * tier's native memory is one allocation of a fixed size rather than a direct buffer per game
+ * freed only when the garbage collector gets to it. Space is handed out first fit from a list of
+ * free blocks, neighbouring blocks being merged again as they are freed. The slab is allocated
+ * when the first game is stored. It is not thread safe; the GameStore's lock guards it.
+ */
+final class WarmArena {
+
+    /** The largest slab a direct buffer can hold */
+    static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final int capacity;
+    private ByteBuffer slab;
+
+    /** The free blocks, key=offset, value=length */
+    private final TreeMap<Integer, Integer> free = new TreeMap<>();
+
+    /**
+     * @param capacity the size of the slab in bytes, at most MAX_CAPACITY
+     */
+    WarmArena(int capacity) {
+        this.capacity = capacity;
+        if ( capacity > 0 ) {
+            this.free.put(0, capacity);
+        }
+    }
+
+    /**
+     * @return the size of the slab in bytes
+     */
+    int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Copies data into the slab
+     * @param data the bytes to store
+     * @return where they were stored, or -1 if no free block is big enough
+     */
+    int allocate(byte[] data) {
+        for (Map.Entry<Integer, Integer> block : this.free.entrySet()) {
+            final int offset = block.getKey();
+            final int length = block.getValue();
+            if ( length >= data.length ) {
+                // the entry is not read again once removed, a TreeMap may reuse it
+                this.free.remove(offset);
+                if ( length > data.length ) {
+                    this.free.put(offset + data.length, length - data.length);
+                }
+                if ( this.slab == null ) {
+                    this.slab = ByteBuffer.allocateDirect(this.capacity);
+                }
+                view(offset, data.length).put(data);
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return a copy of the bytes stored at offset
+     */
+    byte[] read(int offset, int length) {
+        final byte[] data = new byte[length];
+        view(offset, length).get(data);
+        return data;
+    }
+
+    /**
+     * @return a buffer over the bytes stored at offset, valid until they are freed
+     */
+    ByteBuffer view(int offset, int length) {
+        final ByteBuffer view = this.slab.duplicate();
+        view.limit(offset + length).position(offset);
+        return view.slice();
+    }
+
+    /**
+     * Returns stored bytes to the free list
+     */
+    void free(int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        final Map.Entry<Integer, Integer> before = this.free.floorEntry(offset);
+        if ( before != null && before.getKey() + before.getValue() == start ) {
+            start = before.getKey();
+            this.free.remove(start);
+        }
+        final Integer after = this.free.get(end);
+        if ( after != null ) {
+            this.free.remove(end);
+            end += after;
+        }
+        this.free.put(start, end - start);
+    }
+}
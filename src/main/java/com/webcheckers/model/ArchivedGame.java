@@ -0,0 +1,338 @@
+package com.webcheckers.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * ArchivedGame is the compact, immutable form of a finished CheckersGame. It keeps the players'
+ * names, the result, the moves and a keyframe of every replay position encoded by BoardCodec
+ * (12 bytes each), so a replay can jump to any position without replaying moves and without
+ * keeping a CheckerBoard object per position.
+ */
+public final class ArchivedGame implements ReplayableGame {
+
+    /** Rough heap cost of an object header plus its fields, used by the size estimates */
+    static final int OBJECT_BYTES = 16;
+
+    /** Rough heap cost of an array header, used by the size estimates */
+    static final int ARRAY_BYTES = 16;
+
+    private final int id;
+    private final String redPlayerName;
+    private final String whitePlayerName;
+    private final long version;
+    private final String gameOverMessage;
+    private final CheckerPiece.Color winner;
+    private final CheckerPiece.Color activeColor;
+    private final long startTime;
+    private final long endTime;
+
+    /** The board the game started with, in red's perspective */
+    private final byte[] initialBoard;
+
+    /** The board shown when the game ended, in the active player's perspective */
+    private final byte[] finalBoard;
+
+    /** Every move of the game, two bytes each, in the mover's perspective */
+    private final byte[] moves;
+
+    /** Number of moves in each submitted turn, red's turns are at the even indexes */
+    private final byte[] turnSizes;
+
+    /** The replay positions, BoardCodec.BOARD_BYTES each */
+    private final byte[] keyframes;
+
+    /** See getReplayTag, worked out when first asked for */
+    private String replayTag;
+
+    /**
+     * Creates an archived game from its parts, as built by CheckersGame.archive or read back from storage
+     * @param id the unique id of the game
+     * @param redPlayerName the username of the red player
+     * @param whitePlayerName the username of the white player
+     * @param version the last version of the game, see CheckersGame.getVersion
+     * @param gameOverMessage the game over reason or message, may be null
+     * @param winner color of the winning player, null if unknown
+     * @param activeColor color of the player whose turn it was when the game ended
+     * @param startTime epoch milliseconds when the game started
+     * @param endTime epoch milliseconds when the game ended
+     * @param initialBoard the encoded starting board
+     * @param finalBoard the encoded board shown when the game ended
+     * @param moves the encoded moves of every turn, one after another
+     * @param turnSizes the number of moves in each turn
+     * @param keyframes the encoded replay positions, one after another
+     */
+    public ArchivedGame(int id, String redPlayerName, String whitePlayerName, long version, String gameOverMessage,
+                        CheckerPiece.Color winner, CheckerPiece.Color activeColor, long startTime, long endTime,
+                        byte[] initialBoard, byte[] finalBoard, byte[] moves, byte[] turnSizes, byte[] keyframes) {
+        if ( initialBoard.length != BoardCodec.BOARD_BYTES || finalBoard.length != BoardCodec.BOARD_BYTES
+                || keyframes.length % BoardCodec.BOARD_BYTES != 0 ) {
+            throw new IllegalArgumentException("Boards must be " + BoardCodec.BOARD_BYTES + " bytes each");
+        }
+        int moveCount = 0;
+        for (byte size : turnSizes) {
+            moveCount += Byte.toUnsignedInt(size);
+        }
+        if ( moves.length != moveCount * BoardCodec.MOVE_BYTES ) {
+            throw new IllegalArgumentException("Turn sizes do not match " + moves.length + " bytes of moves");
+        }
+        this.id = id;
+        this.redPlayerName = redPlayerName;
+        this.whitePlayerName = whitePlayerName;
+        this.version = version;
+        this.gameOverMessage = gameOverMessage;
+        this.winner = winner;
+        this.activeColor = activeColor;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.initialBoard = initialBoard;
+        this.finalBoard = finalBoard;
+        this.moves = moves;
+        this.turnSizes = turnSizes;
+        this.keyframes = keyframes;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getRedPlayerName() {
+        return redPlayerName;
+    }
+
+    public String getWhitePlayerName() {
+        return whitePlayerName;
+    }
+
+    /**
+     * Getter for the last version of the game, it does not change once archived
+     * @return the version, see CheckersGame.getVersion
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public String getGameOverMessage() {
+        return gameOverMessage;
+    }
+
+    /**
+     * Getter for the winner of the game
+     * @return color of the winning player, null if the winner is unknown
+     */
+    public CheckerPiece.Color getWinner() {
+        return winner;
+    }
+
+    /**
+     * Getter for the player whose turn it was when the game ended
+     * @return color of the active player
+     */
+    public CheckerPiece.Color getActiveColor() {
+        return activeColor;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Getter for the board the game started with
+     * @return the initial board encoded by BoardCodec
+     */
+    public byte[] getInitialBoard() {
+        return initialBoard.clone();
+    }
+
+    /**
+     * Getter for the board shown when the game ended
+     * @return the final board encoded by BoardCodec, in the active player's perspective
+     */
+    public byte[] getFinalBoard() {
+        return finalBoard.clone();
+    }
+
+    /**
+     * Getter for the submitted turns, in the same form as CheckersGame.getTurns
+     * @return unmodifiable list of turns encoded by BoardCodec.encodeMoves
+     */
+    public List<byte[]> getTurns() {
+        final List<byte[]> turns = new ArrayList<>(turnSizes.length);
+        int offset = 0;
+        for (byte size : turnSizes) {
+            final int length = Byte.toUnsignedInt(size) * BoardCodec.MOVE_BYTES;
+            final byte[] turn = new byte[length];
+            System.arraycopy(moves, offset, turn, 0, length);
+            turns.add(turn);
+            offset += length;
+        }
+        return Collections.unmodifiableList(turns);
+    }
+
+    /**
+     * Getter for the moves of every turn, one after another
+     * @return copy of the encoded moves
+     */
+    public byte[] getMoves() {
+        return moves.clone();
+    }
+
+    /**
+     * Getter for the number of moves in each turn
+     * @return copy of the turn sizes, each an unsigned byte
+     */
+    public byte[] getTurnSizes() {
+        return turnSizes.clone();
+    }
+
+    /**
+     * Getter for every replay position, one after another
+     * @return copy of the encoded keyframes
+     */
+    public byte[] getKeyframes() {
+        return keyframes.clone();
+    }
+
+    /**
+     * Gets a tag telling this game apart from any other game that had or will have the same id,
+     * such as after a restart or a parallel import numbered the games differently. It is a
+     * checksum of the players, the times and every move and board, so anything addressed by id
+     * and tag names exactly one replay and may be cached for good.
+     * @return eight hex digits
+     */
+    public String getReplayTag() {
+        String tag = replayTag;
+        if ( tag == null ) {
+            final CRC32 crc = new CRC32();
+            crc.update(ByteBuffer.allocate(2 * Long.BYTES).putLong(startTime).putLong(endTime).array());
+            crc.update(String.valueOf(redPlayerName).getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+            crc.update(String.valueOf(whitePlayerName).getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+            crc.update(turnSizes);
+            crc.update(moves);
+            crc.update(keyframes);
+            tag = String.format("%08x", crc.getValue());
+            replayTag = tag;
+        }
+        return tag;
+    }
+
+    /**
+     * @return the number of replay positions
+     */
+    public int getKeyframeCount() {
+        return keyframes.length / BoardCodec.BOARD_BYTES;
+    }
+
+    /**
+     * Decodes a replay position
+     * @param index the index of the position, as used by CheckersGame.spectatorGetBoard
+     * @return a new CheckerBoard for the position
+     */
+    public CheckerBoard getKeyframe(int index) {
+        if ( index < 0 || index >= getKeyframeCount() ) {
+            throw new IndexOutOfBoundsException("No replay position " + index);
+        }
+        return BoardCodec.decode(ByteBuffer.wrap(keyframes, index * BoardCodec.BOARD_BYTES, BoardCodec.BOARD_BYTES));
+    }
+
+    /**
+     * Gets a replay position without decoding it
+     * @param index the index of the position, as used by CheckersGame.spectatorGetBoard
+     * @return read-only buffer of the BoardCodec.BOARD_BYTES of the position: red, white and king masks
+     */
+    public ByteBuffer getKeyframeBuffer(int index) {
+        if ( index < 0 || index >= getKeyframeCount() ) {
+            throw new IndexOutOfBoundsException("No replay position " + index);
+        }
+        return ByteBuffer.wrap(keyframes, index * BoardCodec.BOARD_BYTES, BoardCodec.BOARD_BYTES)
+                .slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Same as CheckersGame.isPlayersTurn, for a player known by name
+     * @param username the username of the player
+     * @return true if it was the player's turn when the game ended
+     */
+    public boolean isPlayersTurn(String username) {
+        return username.equals(activeColor == CheckerPiece.Color.RED ? redPlayerName : whitePlayerName);
+    }
+
+    /**
+     * Same as CheckersGame.getBoard, decoding the final board
+     * @return the board when the game ended, in the active player's perspective
+     */
+    public CheckerPiece[][] getBoard() {
+        return BoardCodec.decode(finalBoard).getBoard();
+    }
+
+    /**
+     * Same as CheckersGame.getBoard(Player), for a player known by name
+     * @param username the username of the player
+     * @return the board when the game ended, from the player's own side
+     */
+    public CheckerPiece[][] getBoard(String username) {
+        final CheckerBoard board = BoardCodec.decode(finalBoard);
+        return isPlayersTurn(username) ? board.getBoard() : board.getFlippedBoard();
+    }
+
+    /**
+     * Same as CheckersGame.spectatorHasNext
+     * @param index the index to check
+     * @return true if there is a position after the index
+     */
+    public boolean spectatorHasNext(int index) {
+        return index < getKeyframeCount() - 1;
+    }
+
+    /**
+     * Same as CheckersGame.spectatorHasPrevious
+     * @param index the index to check
+     * @return true if there is a position before the index
+     */
+    public boolean spectatorHasPrevious(int index) {
+        return index > 0;
+    }
+
+    /**
+     * Same as CheckersGame.spectatorGetBoard
+     * @param index the index of the board to get
+     * @return the CheckerPiece[][] representing the board at the given index
+     */
+    public CheckerPiece[][] spectatorGetBoard(int index) {
+        return getKeyframe(index).getBoard();
+    }
+
+    /**
+     * Rebuilds a CheckersGame for code that needs the full game, without replaying the moves
+     * @return a new finished CheckersGame equal to the one archived
+     */
+    public CheckersGame toCheckersGame() {
+        return new CheckersGame(this);
+    }
+
+    /**
+     * Estimates the heap used by this object, assuming compressed references
+     * @return estimated size in bytes
+     */
+    public long getSizeInBytes() {
+        return OBJECT_BYTES + 6 * 4 + 3 * 8 + 2 * 4
+                + stringBytes(redPlayerName) + stringBytes(whitePlayerName) + stringBytes(gameOverMessage)
+                + 5L * ARRAY_BYTES + initialBoard.length + finalBoard.length + moves.length
+                + turnSizes.length + keyframes.length;
+    }
+
+    static long stringBytes(String text) {
+        return text == null ? 0 : OBJECT_BYTES + 8 + ARRAY_BYTES + text.length();
+    }
+
+}
@@ -0,0 +1,262 @@
+package com.webcheckers.model;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * BoardCodec converts CheckerBoard(s) and Move(s) to and from a compact binary form. Only the 32
+ * dark squares of a board can ever hold a piece, so each square is given an index from 0 to 31
+ * (four per row, top row first) and a board is stored as three 32-bit masks: red pieces, white
+ * pieces and kings (12 bytes). A move is stored as its start and end square indexes packed into
+ * a single 10-bit code, written as 2 bytes.
+ */
+public final class BoardCodec {
+
+    /** Number of bytes used by an encoded board */
+    public static final int BOARD_BYTES = 12;
+
+    /** Number of bytes used by an encoded move */
+    public static final int MOVE_BYTES = 2;
+
+    /** Number of playable (dark) squares on a board */
+    public static final int SQUARES = 32;
+
+    /** Positions and moves are immutable, so each square and each move code has one shared instance */
+    private static final Position[] POSITIONS = new Position[SQUARES];
+    private static final Move[] MOVES = new Move[SQUARES * SQUARES];
+
+    static {
+        for (int square = 0; square < SQUARES; square++) {
+            final int row = square / 4;
+            POSITIONS[square] = new Position(row, (square % 4) * 2 + (row % 2 == 0 ? 1 : 0));
+        }
+        for (int code = 0; code < MOVES.length; code++) {
+            MOVES[code] = new Move(POSITIONS[moveFrom(code)], POSITIONS[moveTo(code)]);
+        }
+    }
+
+    private BoardCodec() {
+        // static helpers only
+    }
+
+    /**
+     * Gets the square index of the given position
+     * @param row the row of the position (0-7)
+     * @param cell the cell of the position (0-7)
+     * @return the square index (0-31)
+     * @throws IllegalArgumentException if the position is off the board or on a light square
+     */
+    public static int toSquare(int row, int cell) {
+        if ( row < 0 || row > 7 || cell < 0 || cell > 7 || (row + cell) % 2 == 0 ) {
+            throw new IllegalArgumentException("(" + row + ", " + cell + ") is not a dark square");
+        }
+        return row * 4 + cell / 2;
+    }
+
+    /**
+     * Gets the square index of the given position
+     * @param pos the position to convert
+     * @return the square index (0-31)
+     */
+    public static int toSquare(Position pos) {
+        return toSquare(pos.getRow(), pos.getCell());
+    }
+
+    /**
+     * Gets the position of the given square index
+     * @param square the square index (0-31)
+     * @return the Position of that square, shared
+     */
+    public static Position toPosition(int square) {
+        if ( square < 0 || square >= SQUARES ) {
+            throw new IllegalArgumentException("Square " + square + " is out of range");
+        }
+        return POSITIONS[square];
+    }
+
+    /**
+     * Encodes a board into a new 12 byte array
+     * @param board the board to encode
+     * @return the encoded board
+     */
+    public static byte[] encode(CheckerBoard board) {
+        final ByteBuffer buffer = ByteBuffer.allocate(BOARD_BYTES);
+        encode(board, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Writes a board into the given buffer at its current position
+     * @param board the board to encode
+     * @param buffer the buffer to write 12 bytes to
+     */
+    public static void encode(CheckerBoard board, ByteBuffer buffer) {
+        final CheckerPiece[][] pieces = board.getBoard();
+        int red = 0;
+        int white = 0;
+        int kings = 0;
+        for (int square = 0; square < SQUARES; square++) {
+            final Position pos = toPosition(square);
+            final CheckerPiece piece = pieces[pos.getRow()][pos.getCell()];
+            if ( piece == null ) {
+                continue;
+            }
+            final int bit = 1 << square;
+            if ( piece.getColor() == CheckerPiece.Color.RED ) {
+                red |= bit;
+            } else {
+                white |= bit;
+            }
+            if ( piece.isKing() ) {
+                kings |= bit;
+            }
+        }
+        buffer.putInt(red);
+        buffer.putInt(white);
+        buffer.putInt(kings);
+    }
+
+    /**
+     * Decodes a board from a 12 byte array
+     * @param bytes the encoded board
+     * @return a new CheckerBoard holding the decoded pieces
+     */
+    public static CheckerBoard decode(byte[] bytes) {
+        if ( bytes.length != BOARD_BYTES ) {
+            throw new IllegalArgumentException("An encoded board must be " + BOARD_BYTES + " bytes");
+        }
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads a board from the given buffer at its current position
+     * @param buffer the buffer to read 12 bytes from
+     * @return a new CheckerBoard holding the decoded pieces
+     */
+    public static CheckerBoard decode(ByteBuffer buffer) {
+        final int red = buffer.getInt();
+        final int white = buffer.getInt();
+        final int kings = buffer.getInt();
+        if ( (red & white) != 0 ) {
+            throw new IllegalArgumentException("A square cannot hold both a red and a white piece");
+        }
+        if ( (kings & ~(red | white)) != 0 ) {
+            throw new IllegalArgumentException("A king flag was set on an empty square");
+        }
+
+        final ArrayList<Position> positions = new ArrayList<>();
+        final ArrayList<CheckerPiece> pieces = new ArrayList<>();
+        for (int square = 0; square < SQUARES; square++) {
+            final int bit = 1 << square;
+            if ( (red & bit) == 0 && (white & bit) == 0 ) {
+                continue;
+            }
+            final CheckerPiece.Color color = (red & bit) != 0 ? CheckerPiece.Color.RED : CheckerPiece.Color.WHITE;
+            positions.add(toPosition(square));
+            pieces.add((kings & bit) != 0 ? new CheckerPiece(color, true) : new CheckerPiece(color));
+        }
+        return new CheckerBoard(positions, pieces);
+    }
+
+    /**
+     * Packs a move into a 10-bit code (start square in the high 5 bits, end square in the low 5)
+     * @param move the move to pack
+     * @return the move code
+     */
+    public static int encodeMove(Move move) {
+        return encodeMove(toSquare(move.getStart()), toSquare(move.getEnd()));
+    }
+
+    /**
+     * Packs a move given by square indexes into a 10-bit code
+     * @param from the start square (0-31)
+     * @param to the end square (0-31)
+     * @return the move code
+     */
+    public static int encodeMove(int from, int to) {
+        return (from << 5) | to;
+    }
+
+    /**
+     * Gets the start square of a packed move code
+     * @param code the move code
+     * @return the start square (0-31)
+     */
+    public static int moveFrom(int code) {
+        return (code >>> 5) & 0x1F;
+    }
+
+    /**
+     * Gets the end square of a packed move code
+     * @param code the move code
+     * @return the end square (0-31)
+     */
+    public static int moveTo(int code) {
+        return code & 0x1F;
+    }
+
+    /**
+     * Unpacks a move code back into a Move
+     * @param code the move code
+     * @return the Move, shared
+     */
+    public static Move decodeMove(int code) {
+        if ( code < 0 || code >= SQUARES * SQUARES ) {
+            throw new IllegalArgumentException("Move code " + code + " is out of range");
+        }
+        return MOVES[code];
+    }
+
+    /**
+     * Writes a move as 2 bytes into the given buffer at its current position
+     * @param move the move to write
+     * @param buffer the buffer to write to
+     */
+    public static void writeMove(Move move, ByteBuffer buffer) {
+        buffer.putShort((short) encodeMove(move));
+    }
+
+    /**
+     * Reads a 2 byte move from the given buffer at its current position
+     * @param buffer the buffer to read from
+     * @return a new Move
+     */
+    public static Move readMove(ByteBuffer buffer) {
+        return decodeMove(buffer.getShort() & 0xFFFF);
+    }
+
+    /**
+     * Encodes a sequence of moves (such as one turn) into a byte array, 2 bytes per move
+     * @param moves the moves to encode
+     * @return the encoded moves
+     */
+    public static byte[] encodeMoves(Iterable<Move> moves) {
+        int count = 0;
+        for (Move ignored : moves) {
+            count++;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(count * MOVE_BYTES);
+        for (Move move : moves) {
+            writeMove(move, buffer);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a byte array made by encodeMoves
+     * @param bytes the encoded moves
+     * @return the decoded moves, in order
+     */
+    public static ArrayList<Move> decodeMoves(byte[] bytes) {
+        if ( bytes.length % MOVE_BYTES != 0 ) {
+            throw new IllegalArgumentException("Encoded moves must be a multiple of " + MOVE_BYTES + " bytes");
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final ArrayList<Move> moves = new ArrayList<>(bytes.length / MOVE_BYTES);
+        while ( buffer.hasRemaining() ) {
+            moves.add(readMove(buffer));
+        }
+        return moves;
+    }
+
+}
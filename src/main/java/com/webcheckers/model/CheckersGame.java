@@ -2,7 +2,10 @@ package com.webcheckers.model;
 
 import com.webcheckers.util.Message;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Stack;
 
 /**
@@ -10,7 +13,10 @@ import java.util.Stack;
  * two Player(s) and a CheckerBoard that holds its CheckerPiece(s). Additionally, each
  * CheckersGame has a unique integer ID.
  */
-public class CheckersGame {
+public class CheckersGame implements ReplayableGame {
+
+    /** Rough heap cost of a CheckerBoard: the object plus its 8x8 array of references */
+    private static final int BOARD_HEAP_BYTES = 24 + 16 + 8 * 4 + 8 * (16 + 8 * 4);
 
     /** unique id for this game */
     private int id;
@@ -27,16 +33,66 @@ public class CheckersGame {
     /** Stack of boards in entire game */
     private ArrayList<CheckerBoard> gameBoards = new ArrayList<>();
 
+    /** Moves made so far in the current turn */
+    private ArrayList<Move> turnMoves = new ArrayList<>();
+
+    /** Every submitted turn, encoded by BoardCodec in the mover's perspective (red's turns are even) */
+    private ArrayList<byte[]> turns = new ArrayList<>();
+
+    /** The board the game started with, encoded by BoardCodec */
+    private byte[] initialBoard;
 
     private boolean gameOver = false;
     private String gameOverMessage;
 
-    public CheckersGame(int id, Player redPlayer, Player whitePlayer) {
+    /** Color of the winning player, null if the game is not over or has no known winner */
+    private CheckerPiece.Color winner;
+
+    /** Incremented on every change to the boards or result, so views of the game can be cached */
+    private volatile long version;
+
+    /** Start and end times of the game in epoch milliseconds (end is 0 until the game is over) */
+    private long startTime;
+    private long endTime;
+
+    /** When the current turn started, and the time each color has taken over the turns it submitted */
+    private volatile long turnStartTime;
+
+    /** The archived form, kept once the game is over so it is built only once */
+    private volatile ArchivedGame archived;
+    private long redTurnMillis;
+    private int redTimedTurns;
+    private long whiteTurnMillis;
+    private int whiteTimedTurns;
+
+    /**
+     * Constructs a game starting from the given board
+     * @param id the unique id of the game
+     * @param redPlayer the player with the red pieces, who moves first
+     * @param whitePlayer the player with the white pieces
+     * @param board the board the game starts with, in the red player's perspective
+     */
+    public CheckersGame(int id, Player redPlayer, Player whitePlayer, CheckerBoard board) {
         this.id = id;
         this.redPlayer = redPlayer;
         this.whitePlayer = whitePlayer;
         this.activePlayer = redPlayer;
+        this.startTime = System.currentTimeMillis();
+        this.turnStartTime = this.startTime;
+        this.boards.push(board);
+        this.initialBoard = BoardCodec.encode(board);
+    }
+
+    public CheckersGame(int id, Player redPlayer, Player whitePlayer) {
+        this(id, redPlayer, whitePlayer, startingBoard(redPlayer));
+    }
 
+    /**
+     * Builds the board a new game starts with. The usernames "1" and "2" get preset boards for demos.
+     * @param redPlayer the player with the red pieces
+     * @return the starting board
+     */
+    private static CheckerBoard startingBoard(Player redPlayer) {
         ArrayList<Position> positions;
         ArrayList<CheckerPiece> pieces;
 
@@ -56,8 +112,7 @@ public class CheckersGame {
                         add(new CheckerPiece(CheckerPiece.Color.WHITE));
                     }
                 };
-                boards.push(new CheckerBoard(positions, pieces));
-                break;
+                return new CheckerBoard(positions, pieces);
             case "2":
                 positions = new ArrayList<>() {
                     {
@@ -75,11 +130,33 @@ public class CheckersGame {
                         add(new CheckerPiece(CheckerPiece.Color.WHITE));
                     }
                 };
-                boards.push(new CheckerBoard(positions, pieces));
-                break;
+                return new CheckerBoard(positions, pieces);
             default:
-                boards.push(new CheckerBoard());
+                return new CheckerBoard();
+        }
+    }
+
+    /**
+     * Rebuilds a finished game from its archived form, the boards are decoded rather than replayed
+     * @param archive the archived game
+     */
+    CheckersGame(ArchivedGame archive) {
+        this.id = archive.getId();
+        this.redPlayer = new Player(archive.getRedPlayerName());
+        this.whitePlayer = new Player(archive.getWhitePlayerName());
+        this.activePlayer = archive.getActiveColor() == CheckerPiece.Color.RED ? this.redPlayer : this.whitePlayer;
+        this.boards.push(BoardCodec.decode(archive.getFinalBoard()));
+        for (int i = 0; i < archive.getKeyframeCount(); i++) {
+            this.gameBoards.add(archive.getKeyframe(i));
         }
+        this.turns.addAll(archive.getTurns());
+        this.initialBoard = archive.getInitialBoard();
+        this.gameOver = true;
+        this.version = archive.getVersion();
+        this.gameOverMessage = archive.getGameOverMessage();
+        this.winner = archive.getWinner();
+        this.startTime = archive.getStartTime();
+        this.endTime = archive.getEndTime();
     }
 
     /**
@@ -90,6 +167,15 @@ public class CheckersGame {
         return id;
     }
 
+    /**
+     * Gives the game its id, for games built before they are known to be kept, such as imports;
+     * must be called before the game is stored
+     * @param id the unique id of the game
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public CheckerPiece[][] getBoard(Player player) {
         final CheckerBoard board = this.boards.peek();
         if(isPlayersTurn(player)) {
@@ -149,11 +235,41 @@ public class CheckersGame {
     public boolean isRedPlayer(Player player) { return player.equals(this.redPlayer); }
   
     public void setGameOver(String playerLoss){
+        endGame(playerLoss, null, getCurrentBoard());
+    }
+
+    /**
+     * Ends the game with a known loser
+     * @param playerLoss the game over reason or message
+     * @param loser the player who lost the game
+     */
+    public void setGameOver(String playerLoss, Player loser) {
+        endGame(playerLoss, loser, getCurrentBoard());
+    }
+
+    /**
+     * Ends the game
+     * @param board the final board, which newTurn has not put back on the stack yet
+     */
+    private void endGame(String playerLoss, Player loser, CheckerBoard board) {
+        final GameEvents.GameOver event = new GameEvents.GameOver();
+        event.begin();
+        if (loser != null) {
+            this.winner = isRedPlayer(loser) ? CheckerPiece.Color.WHITE : CheckerPiece.Color.RED;
+        }
         this.gameBoards.addAll(this.boards);
         gameOver = true;
+        this.version++;
         this.gameOverMessage = playerLoss;
+        this.endTime = System.currentTimeMillis();
         this.redPlayer.setGameID(-1);
         this.whitePlayer.setGameID(-1);
+        if (event.shouldCommit()) {
+            event.describe(this, board);
+            event.winner = this.winner == null ? null : this.winner.name();
+            event.reason = playerLoss;
+            event.commit();
+        }
     }
 
     public boolean isGameOver(){
@@ -164,6 +280,169 @@ public class CheckersGame {
         return this.gameOverMessage;
     }
 
+    /**
+     * Getter for the version of the game, which changes whenever a move is made or undone, a turn
+     * is submitted or the game ends
+     * @return the current version
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Getter for the time the current turn started
+     * @return epoch milliseconds when the last turn was submitted, or the game started
+     */
+    public long getTurnStartTime() {
+        return this.turnStartTime;
+    }
+
+    /**
+     * Getter for how long a player usually takes over a turn
+     * @param color the color of the player
+     * @return the average milliseconds of the player's submitted turns, 0 before they have submitted one
+     */
+    public long getAverageTurnMillis(CheckerPiece.Color color) {
+        if (color == CheckerPiece.Color.RED) {
+            return this.redTimedTurns == 0 ? 0 : this.redTurnMillis / this.redTimedTurns;
+        }
+        return this.whiteTimedTurns == 0 ? 0 : this.whiteTurnMillis / this.whiteTimedTurns;
+    }
+
+    /**
+     * Getter for the moves made so far in the current turn, not yet submitted
+     * @return the number of moves
+     */
+    public int getPendingMoveCount() {
+        return this.turnMoves.size();
+    }
+
+    /**
+     * Getter for the winner of the game
+     * @return the color of the winning player, null if the game is not over or the winner is unknown
+     */
+    public CheckerPiece.Color getWinner() {
+        return this.winner;
+    }
+
+    /**
+     * Getter for the time the game started
+     * @return epoch milliseconds when the game was created
+     */
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    /**
+     * Getter for the time the game ended
+     * @return epoch milliseconds when the game ended, 0 if it is not over
+     */
+    public long getEndTime() {
+        return this.endTime;
+    }
+
+    /**
+     * Overrides the time the game started, used when restoring games recorded elsewhere
+     * @param startTime epoch milliseconds when the game started
+     */
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    /**
+     * Overrides the time the game ended, used when restoring games recorded elsewhere
+     * @param endTime epoch milliseconds when the game ended
+     */
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    /**
+     * Getter for the board the game started with
+     * @return the initial board encoded by BoardCodec
+     */
+    public byte[] getInitialBoard() {
+        return this.initialBoard.clone();
+    }
+
+    /**
+     * Getter for the submitted turns of the game. Each turn is encoded by BoardCodec.encodeMoves in
+     * the perspective of the player who made it; red's turns are at the even indexes.
+     * @return unmodifiable list of encoded turns
+     */
+    public List<byte[]> getTurns() {
+        return Collections.unmodifiableList(this.turns);
+    }
+
+    /**
+     * @return the board of the latest move this turn
+     */
+    CheckerBoard getCurrentBoard() {
+        return this.boards.isEmpty() ? null : this.boards.peek();
+    }
+
+    /**
+     * Compacts a finished game into its immutable archived form. The moves a player made in a
+     * turn the game ended during, such as by resigning, are kept as a last turn, as their boards
+     * are kept with the replay positions. A finished game is archived only once.
+     * @return the ArchivedGame holding this game's result, moves and replay positions
+     */
+    public ArchivedGame archive() {
+        final ArchivedGame cached = this.archived;
+        if ( cached != null && cached.getVersion() == this.version ) {
+            return cached;
+        }
+        final List<byte[]> allTurns = new ArrayList<>(this.turns);
+        if ( !this.turnMoves.isEmpty() ) {
+            allTurns.add(BoardCodec.encodeMoves(this.turnMoves));
+        }
+        int moveCount = 0;
+        final byte[] turnSizes = new byte[allTurns.size()];
+        for (int i = 0; i < turnSizes.length; i++) {
+            final int size = allTurns.get(i).length / BoardCodec.MOVE_BYTES;
+            if ( size > 0xFF ) {
+                throw new IllegalStateException("Turn " + i + " of game " + this.id + " has too many moves");
+            }
+            turnSizes[i] = (byte) size;
+            moveCount += size;
+        }
+        final byte[] moves = new byte[moveCount * BoardCodec.MOVE_BYTES];
+        int offset = 0;
+        for (byte[] turn : allTurns) {
+            System.arraycopy(turn, 0, moves, offset, turn.length);
+            offset += turn.length;
+        }
+
+        final ByteBuffer keyframes = ByteBuffer.allocate(this.gameBoards.size() * BoardCodec.BOARD_BYTES);
+        for (CheckerBoard board : this.gameBoards) {
+            BoardCodec.encode(board, keyframes);
+        }
+
+        final ArchivedGame archive = new ArchivedGame(this.id, this.redPlayer.getUsername(),
+                this.whitePlayer.getUsername(), this.version, this.gameOverMessage, this.winner, getActiveColor(),
+                this.startTime, this.endTime, this.initialBoard.clone(), BoardCodec.encode(this.boards.peek()),
+                moves, turnSizes, keyframes.array());
+        if ( this.gameOver ) {
+            this.archived = archive;
+        }
+        return archive;
+    }
+
+    /**
+     * Estimates the heap held by this game's boards and turns, assuming compressed references. The
+     * players are not counted since the PlayerLobby holds them too.
+     * @return estimated size in bytes
+     */
+    public long getSizeInBytes() {
+        long size = ArchivedGame.OBJECT_BYTES + 12 * 4 + ArchivedGame.stringBytes(this.gameOverMessage)
+                + ArchivedGame.ARRAY_BYTES + this.initialBoard.length;
+        size += (long) (this.boards.size() + this.gameBoards.size()) * (BOARD_HEAP_BYTES + 4);
+        for (byte[] turn : this.turns) {
+            size += ArchivedGame.ARRAY_BYTES + turn.length + 4;
+        }
+        return size;
+    }
+
     /**
      * Determines if it is the provided player's turn (if they are the activePlayer)
      * @param player the player to check if its their turn
@@ -184,7 +463,17 @@ public class CheckersGame {
      * @return Message.INFO if valid, Message.ERROR with error msg if invalid
      */
     public Message isValidMove(Move move) {
-        return this.boards.peek().isValidMove(move, this.boards.size() == 1);
+        final GameEvents.MoveValidation event = new GameEvents.MoveValidation();
+        event.begin();
+        final Message result = this.boards.peek().isValidMove(move, this.boards.size() == 1);
+        if (event.shouldCommit()) {
+            event.describe(this);
+            event.move = GameEvents.notation(move, isRedPlayer(this.activePlayer));
+            event.valid = result.isSuccessful();
+            event.outcome = result.getText();
+            event.commit();
+        }
+        return result;
     }
 
     /**
@@ -192,6 +481,20 @@ public class CheckersGame {
      * @return Message.INFO if valid, Message.ERROR with error msg if invalid
      */
     public Message isValidTurn() {
+        final GameEvents.TurnValidation event = new GameEvents.TurnValidation();
+        event.begin();
+        final Message result = checkTurn();
+        if (event.shouldCommit()) {
+            event.describe(this);
+            event.moves = this.turnMoves.size();
+            event.valid = result.isSuccessful();
+            event.outcome = result.getText();
+            event.commit();
+        }
+        return result;
+    }
+
+    private Message checkTurn() {
         CheckerBoard previous = null;
         int numberOfBoards = this.boards.size();
         boolean wasSingle = false;
@@ -222,9 +525,19 @@ public class CheckersGame {
      * @param move the move to make
      */
     public void makeMove(Move move) {
+        final GameEvents.MakeMove event = new GameEvents.MakeMove();
+        event.begin();
         CheckerBoard previous = new CheckerBoard(this.boards.peek(), false);
         previous.movePiece(move.getStart(), move.getEnd());
         this.boards.push(previous);
+        this.turnMoves.add(move);
+        this.version++;
+        if (event.shouldCommit()) {
+            event.describe(this, previous);
+            event.move = GameEvents.notation(move, isRedPlayer(this.activePlayer));
+            event.moves = this.turnMoves.size();
+            event.commit();
+        }
     }
 
     public Message undoMove() {
@@ -232,6 +545,8 @@ public class CheckersGame {
             return Message.error("No moves have been made yet");
         }
         this.boards.pop();
+        this.turnMoves.remove(this.turnMoves.size() - 1);
+        this.version++;
         return Message.info("Reverted back to previous move");
     }
 
@@ -239,20 +554,41 @@ public class CheckersGame {
      * Prepares the boards for a new turn
      */
     public void newTurn() {
+        final GameEvents.NewTurn event = new GameEvents.NewTurn();
+        event.begin();
+        final int moves = this.turnMoves.size();
+        this.turns.add(BoardCodec.encodeMoves(this.turnMoves));
+        this.turnMoves.clear();
+        this.version++;
+        final long now = System.currentTimeMillis();
+        if (isRedPlayer(this.activePlayer)) {
+            this.redTurnMillis += now - this.turnStartTime;
+            this.redTimedTurns++;
+        } else {
+            this.whiteTurnMillis += now - this.turnStartTime;
+            this.whiteTimedTurns++;
+        }
+        this.turnStartTime = now;
         this.toggleActivePlayer();
         final CheckerBoard board = new CheckerBoard(this.boards.pop(), true);
         if (!board.isMoveAvailable(this.getActiveColor())) {
-            this.setGameOver("No possible moves!");
+            this.endGame("No possible moves!", this.activePlayer, board);
         }
         else if (board.getRedPieces() == 0){
-            this.setGameOver("Red Player is out of pieces!");
+            this.endGame("Red Player is out of pieces!", this.redPlayer, board);
         }
         else if (board.getWhitePieces() == 0){
-            this.setGameOver("White Player is out of pieces!");
+            this.endGame("White Player is out of pieces!", this.whitePlayer, board);
         }
         this.gameBoards.addAll(this.boards);
         this.boards.removeAllElements();
         this.boards.add(board);
+        if (event.shouldCommit()) {
+            event.describe(this, board);
+            event.moves = moves;
+            event.gameOver = this.gameOver;
+            event.commit();
+        }
     }
 
     /**
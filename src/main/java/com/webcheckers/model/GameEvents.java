@@ -0,0 +1,139 @@
+package com.webcheckers.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder events of a game's life and of its rule checks. Each one carries the
+ * game, the turn in play and the pieces left, so a slow request in a recording can be traced to
+ * the game and the check it was running.
+ *
+ * <p>
+ * The events are timed, begin() before the work and commit() after, and cost next to nothing
+ * while no recording is running: the fields are only filled in when {@code shouldCommit()}.
+ * </p>
+ */
+public final class GameEvents {
+
+    static final String CATEGORY = "WebCheckers";
+
+    private GameEvents() {
+    }
+
+    /**
+     * @return the move in PDN squares, e.g. 22-18
+     */
+    static String notation(Move move, boolean redPerspective) {
+        return PdnNotation.toSquareNumber(move.getStart(), redPerspective) + "-"
+                + PdnNotation.toSquareNumber(move.getEnd(), redPerspective);
+    }
+
+    /**
+     * The fields every game event has
+     */
+    @Category({CATEGORY, "Game"})
+    public abstract static class GameEvent extends Event {
+        @Label("Game ID")
+        int gameId;
+
+        @Label("Turn")
+        @Description("The turn in play, from 1")
+        int turn;
+
+        @Label("Red Pieces")
+        int redPieces;
+
+        @Label("White Pieces")
+        int whitePieces;
+
+        /**
+         * Fills in the game, its turn and the pieces on its current board
+         * @param game the game the event is about
+         */
+        public void describe(CheckersGame game) {
+            describe(game, game.getCurrentBoard());
+        }
+
+        void describe(CheckersGame game, CheckerBoard board) {
+            this.gameId = game.getId();
+            this.turn = game.getTurns().size() + 1;
+            if (board != null) {
+                this.redPieces = board.getRedPieces();
+                this.whitePieces = board.getWhitePieces();
+            }
+        }
+    }
+
+    @Name("com.webcheckers.NewGame")
+    @Label("New Game")
+    public static final class NewGame extends GameEvent {
+        @Label("Red Player")
+        public String redPlayer;
+
+        @Label("White Player")
+        public String whitePlayer;
+    }
+
+    @Name("com.webcheckers.Move")
+    @Label("Move")
+    @Description("A move made on the turn's board, with the pieces left after it")
+    public static final class MakeMove extends GameEvent {
+        @Label("Move")
+        String move;
+
+        @Label("Moves This Turn")
+        int moves;
+    }
+
+    @Name("com.webcheckers.MoveValidation")
+    @Label("Move Validation")
+    @Category({CATEGORY, "Rules"})
+    public static final class MoveValidation extends GameEvent {
+        @Label("Move")
+        String move;
+
+        @Label("Valid")
+        boolean valid;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("com.webcheckers.TurnValidation")
+    @Label("Turn Validation")
+    @Category({CATEGORY, "Rules"})
+    public static final class TurnValidation extends GameEvent {
+        @Label("Moves")
+        int moves;
+
+        @Label("Valid")
+        boolean valid;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("com.webcheckers.NewTurn")
+    @Label("New Turn")
+    @Description("A turn submitted and the board turned over to the other player")
+    public static final class NewTurn extends GameEvent {
+        @Label("Moves")
+        int moves;
+
+        @Label("Game Over")
+        boolean gameOver;
+    }
+
+    @Name("com.webcheckers.GameOver")
+    @Label("Game Over")
+    public static final class GameOver extends GameEvent {
+        @Label("Winner")
+        String winner;
+
+        @Label("Reason")
+        String reason;
+    }
+}
@@ -0,0 +1,79 @@
+package com.webcheckers.model;
+
+/**
+ * GameSummary is a small immutable description of a finished game, enough to list it on the
+ * Home page without loading the whole game.
+ */
+public final class GameSummary {
+
+    private final int id;
+    private final String redPlayerName;
+    private final String whitePlayerName;
+    private final CheckerPiece.Color winner;
+    private final long endTime;
+
+    /**
+     * Summarizes the given game
+     * @param game the game to summarize
+     */
+    public GameSummary(CheckersGame game) {
+        this.id = game.getId();
+        this.redPlayerName = game.getRedPlayer().getUsername();
+        this.whitePlayerName = game.getWhitePlayer().getUsername();
+        this.winner = game.getWinner();
+        this.endTime = game.getEndTime();
+    }
+
+    /**
+     * Summarizes the given archived game
+     * @param game the game to summarize
+     */
+    public GameSummary(ArchivedGame game) {
+        this.id = game.getId();
+        this.redPlayerName = game.getRedPlayerName();
+        this.whitePlayerName = game.getWhitePlayerName();
+        this.winner = game.getWinner();
+        this.endTime = game.getEndTime();
+    }
+
+    /**
+     * Getter for the id of the game
+     * @return int id of the summarized game
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Getter for the red player's name
+     * @return String username of the red player
+     */
+    public String getRedPlayerName() {
+        return redPlayerName;
+    }
+
+    /**
+     * Getter for the white player's name
+     * @return String username of the white player
+     */
+    public String getWhitePlayerName() {
+        return whitePlayerName;
+    }
+
+    /**
+     * Getter for the winner of the game
+     * @return color of the winning player, null if the winner is unknown
+     */
+    public CheckerPiece.Color getWinner() {
+        return winner;
+    }
+
+    /**
+     * Getter for the time the game ended
+     * @return epoch milliseconds when the game ended
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+}
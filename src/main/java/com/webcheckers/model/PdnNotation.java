@@ -0,0 +1,199 @@
+package com.webcheckers.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PdnNotation converts between the model and Portable Draughts Notation (PDN). In PDN the first
+ * player to move is "Black"; in WebCheckers that is the red player, so red is written as Black and
+ * starts on squares 1-12. Squares are numbered 1-32 from the top-left dark square as seen by the
+ * white player, left to right and top to bottom.
+ */
+public final class PdnNotation {
+
+    /** PDN result for a win by the red (Black) player */
+    public static final String RED_WINS = "1-0";
+
+    /** PDN result for a win by the white player */
+    public static final String WHITE_WINS = "0-1";
+
+    /** PDN result for a game without a known result */
+    public static final String UNKNOWN = "*";
+
+    /** The standard starting board, encoded by BoardCodec */
+    private static final byte[] STANDARD_BOARD = BoardCodec.encode(new CheckerBoard());
+
+    private PdnNotation() {
+        // static helpers only
+    }
+
+    /**
+     * Gets the PDN square number of a position
+     * @param pos the position on the board
+     * @param redPerspective true if pos is given in the red player's perspective, false for white's
+     * @return the square number (1-32)
+     */
+    public static int toSquareNumber(Position pos, boolean redPerspective) {
+        if ( redPerspective ) {
+            return BoardCodec.toSquare(7 - pos.getRow(), 7 - pos.getCell()) + 1;
+        }
+        return BoardCodec.toSquare(pos) + 1;
+    }
+
+    /**
+     * Gets the position of a PDN square number
+     * @param number the square number (1-32)
+     * @param redPerspective true to get the position in the red player's perspective, false for white's
+     * @return the Position of that square
+     */
+    public static Position toPosition(int number, boolean redPerspective) {
+        final Position pos = BoardCodec.toPosition(number - 1);
+        if ( redPerspective ) {
+            return new Position(7 - pos.getRow(), 7 - pos.getCell());
+        }
+        return pos;
+    }
+
+    /**
+     * Formats one turn (a single move or a chain of jumps) as PDN, e.g. "9-14" or "9x18x27"
+     * @param moves the moves of the turn, in the mover's perspective
+     * @param red true if the red player made the turn
+     * @return the PDN move text, or an empty string if the turn has no moves
+     */
+    public static String formatTurn(List<Move> moves, boolean red) {
+        final StringBuilder text = new StringBuilder();
+        for (Move move : moves) {
+            if ( text.length() == 0 ) {
+                text.append(toSquareNumber(move.getStart(), red));
+            }
+            final boolean jump = Math.abs(move.getStart().getRow() - move.getEnd().getRow()) == 2;
+            text.append(jump ? 'x' : '-');
+            text.append(toSquareNumber(move.getEnd(), red));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Parses one PDN turn ("9-14", "9x18x27") into moves
+     * @param text the PDN move text
+     * @param red true if the red player made the turn
+     * @return the moves of the turn, in the mover's perspective
+     * @throws IllegalArgumentException if the text is not a valid PDN move
+     */
+    public static ArrayList<Move> parseTurn(String text, boolean red) {
+        final String[] squares = text.split("[-x]");
+        if ( squares.length < 2 ) {
+            throw new IllegalArgumentException("'" + text + "' is not a PDN move");
+        }
+        final ArrayList<Move> moves = new ArrayList<>(squares.length - 1);
+        Position previous = toPosition(parseSquare(squares[0], text), red);
+        for (int i = 1; i < squares.length; i++) {
+            final Position next = toPosition(parseSquare(squares[i], text), red);
+            moves.add(new Move(previous, next));
+            previous = next;
+        }
+        return moves;
+    }
+
+    /**
+     * Gets the PDN result of a finished game
+     * @param winner color of the winning player, null if unknown
+     * @return RED_WINS, WHITE_WINS or UNKNOWN
+     */
+    public static String result(CheckerPiece.Color winner) {
+        if ( winner == CheckerPiece.Color.RED ) {
+            return RED_WINS;
+        } else if ( winner == CheckerPiece.Color.WHITE ) {
+            return WHITE_WINS;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Whether the encoded board is the standard starting board
+     * @param board a board encoded by BoardCodec, in red's perspective
+     * @return true if no FEN tag is needed to describe it
+     */
+    public static boolean isStandardStart(byte[] board) {
+        return Arrays.equals(STANDARD_BOARD, board);
+    }
+
+    /**
+     * Formats a starting board as a PDN FEN string with Black (red) to move, e.g. "B:W21,22:B1,K2"
+     * @param board the board, in red's perspective
+     * @return the FEN string
+     */
+    public static String toFen(CheckerBoard board) {
+        final CheckerPiece[][] pieces = board.getBoard();
+        final StringBuilder white = new StringBuilder("W");
+        final StringBuilder black = new StringBuilder("B");
+        for (int number = 1; number <= BoardCodec.SQUARES; number++) {
+            final Position pos = toPosition(number, true);
+            final CheckerPiece piece = pieces[pos.getRow()][pos.getCell()];
+            if ( piece == null ) {
+                continue;
+            }
+            final StringBuilder side = piece.getColor() == CheckerPiece.Color.RED ? black : white;
+            if ( side.length() > 1 ) {
+                side.append(',');
+            }
+            if ( piece.isKing() ) {
+                side.append('K');
+            }
+            side.append(number);
+        }
+        return "B:" + white + ":" + black;
+    }
+
+    /**
+     * Parses a PDN FEN string into a board. Only positions with Black (red) to move are supported.
+     * @param fen the FEN string
+     * @return the board, in red's perspective
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public static CheckerBoard fromFen(String fen) {
+        final String[] parts = fen.trim().split(":");
+        if ( parts.length != 3 || !parts[0].equals("B") ) {
+            throw new IllegalArgumentException("Unsupported FEN '" + fen + "'");
+        }
+        final ArrayList<Position> positions = new ArrayList<>();
+        final ArrayList<CheckerPiece> pieces = new ArrayList<>();
+        for (int i = 1; i < parts.length; i++) {
+            final String side = parts[i];
+            if ( side.isEmpty() || (side.charAt(0) != 'W' && side.charAt(0) != 'B') ) {
+                throw new IllegalArgumentException("Unsupported FEN '" + fen + "'");
+            }
+            final CheckerPiece.Color color = side.charAt(0) == 'B' ? CheckerPiece.Color.RED : CheckerPiece.Color.WHITE;
+            if ( side.length() == 1 ) {
+                continue;
+            }
+            for (String square : side.substring(1).split(",")) {
+                final boolean king = square.startsWith("K");
+                final int number = parseSquare(king ? square.substring(1) : square, fen);
+                positions.add(toPosition(number, true));
+                pieces.add(king ? new CheckerPiece(color, true) : new CheckerPiece(color));
+            }
+        }
+        return new CheckerBoard(positions, pieces);
+    }
+
+    /**
+     * Parses a single square number
+     * @param square the square text
+     * @param context the text being parsed, for error messages
+     * @return the square number (1-32)
+     */
+    private static int parseSquare(String square, String context) {
+        try {
+            final int number = Integer.parseInt(square.trim());
+            if ( number >= 1 && number <= BoardCodec.SQUARES ) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Bad square '" + square + "' in '" + context + "'");
+    }
+
+}
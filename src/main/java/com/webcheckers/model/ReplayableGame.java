@@ -0,0 +1,41 @@
+package com.webcheckers.model;
+
+/**
+ * ReplayableGame is what a replay needs from a game, so a finished game can be replayed and its
+ * version checked in its ArchivedGame form without rebuilding a CheckersGame.
+ */
+public interface ReplayableGame {
+
+    /**
+     * @return the unique id of the game
+     */
+    int getId();
+
+    /**
+     * @return the version of the game, see CheckersGame.getVersion
+     */
+    long getVersion();
+
+    /**
+     * @return color of the player whose turn it is, or was when the game ended
+     */
+    CheckerPiece.Color getActiveColor();
+
+    /**
+     * @param index the index to check
+     * @return true if there is a board after the index
+     */
+    boolean spectatorHasNext(int index);
+
+    /**
+     * @param index the index to check
+     * @return true if there is a board before the index
+     */
+    boolean spectatorHasPrevious(int index);
+
+    /**
+     * @param index the index of the board to get
+     * @return the CheckerPiece[][] representing the board at the given index
+     */
+    CheckerPiece[][] spectatorGetBoard(int index);
+}
@@ -0,0 +1,136 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.Settings;
+import spark.Filter;
+import spark.Request;
+import spark.Response;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static spark.Spark.halt;
+
+/**
+ * The before-filter guarding the admin pages: recordings hold the server's configuration, its
+ * environment and every player's games, so the pages are off unless the admin.enabled setting is
+ * true, and even then a request must carry the admin.token as a bearer token. Only requests from
+ * the server itself (an ssh session or a sidecar) are let through, unless the admin.remote setting
+ * is true; a request that came through a proxy is never taken as local, since behind one every
+ * client connects from the proxy's address.
+ */
+public class AdminAccess implements Filter {
+    private static final Logger LOG = Logger.getLogger(AdminAccess.class.getName());
+
+    private static final String ENABLED_SETTING = "admin.enabled";
+    private static final String TOKEN_SETTING = "admin.token";
+    private static final String REMOTE_SETTING = "admin.remote";
+
+    static final String AUTHORIZATION_HEADER = "Authorization";
+    static final String BEARER = "Bearer ";
+
+    /** Headers a proxy adds with the client it forwarded for */
+    private static final String[] FORWARDED_HEADERS = { "Forwarded", "X-Forwarded-For", "X-Real-IP" };
+
+    private final boolean enabled;
+    private final byte[] token;
+    private final boolean allowRemote;
+
+    /**
+     * Creates the filter from the admin.enabled, admin.token and admin.remote settings
+     * @param settings the application's settings
+     */
+    public AdminAccess(Settings settings) {
+        this(settings.getBoolean(ENABLED_SETTING, false), settings.getString(TOKEN_SETTING, null),
+                settings.getBoolean(REMOTE_SETTING, false));
+    }
+
+    /**
+     * Creates the filter
+     * @param enabled false to refuse every admin request
+     * @param token the bearer token a request must carry, null or empty to refuse every admin request
+     * @param allowRemote true to let clients in from anywhere, still with the token
+     */
+    public AdminAccess(boolean enabled, String token, boolean allowRemote) {
+        this.token = token == null || token.isEmpty() ? null : token.getBytes(StandardCharsets.UTF_8);
+        this.enabled = enabled && this.token != null;
+        this.allowRemote = allowRemote;
+        //
+        if (enabled && this.token == null) {
+            LOG.warning("Admin pages are enabled but no " + TOKEN_SETTING + " is set, so they are refused.");
+        }
+        LOG.config("AdminAccess is initialized, admin pages "
+                + (this.enabled ? "on" + (allowRemote ? ", open to remote clients." : ".") : "off."));
+    }
+
+    @Override
+    public void handle(Request request, Response response) {
+        if (!this.enabled) {
+            halt(404, "Not found");
+        }
+        final String address = request.raw().getRemoteAddr();
+        if (!this.allowRemote && (!isLocal(address) || isForwarded(request))) {
+            LOG.warning("Admin request from " + address + " refused, it is not local.");
+            halt(403, "Admin pages are only served to the local machine");
+        }
+        if (!hasToken(request.headers(AUTHORIZATION_HEADER))) {
+            LOG.warning("Admin request from " + address + " refused, no valid token.");
+            response.header("WWW-Authenticate", "Bearer");
+            halt(401, "Admin pages need the admin token");
+        }
+    }
+
+    /**
+     * @return the settings in effect by name, for the metrics; true is 1 and the token is left out
+     */
+    public Map<String, Long> asMap() {
+        final Map<String, Long> map = new LinkedHashMap<>();
+        map.put("admin_enabled", this.enabled ? 1L : 0L);
+        map.put("admin_remote", this.allowRemote ? 1L : 0L);
+        return map;
+    }
+
+    /**
+     * @param authorization the request's Authorization header, may be null
+     * @return true if it is the admin token, compared in constant time
+     */
+    private boolean hasToken(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return false;
+        }
+        final byte[] given = authorization.substring(BEARER.length()).trim().getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(given, this.token);
+    }
+
+    /**
+     * @return true if a proxy says it forwarded the request for another client
+     */
+    private static boolean isForwarded(Request request) {
+        for (String header : FORWARDED_HEADERS) {
+            if (request.headers(header) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param address a client's IP address, as Jetty reports it
+     * @return true for a loopback address
+     */
+    static boolean isLocal(String address) {
+        if (address == null || address.isEmpty()) {
+            return false;
+        }
+        try {
+            // an IP literal is parsed, never looked up
+            return InetAddress.getByName(address).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
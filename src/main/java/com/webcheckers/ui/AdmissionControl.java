@@ -0,0 +1,226 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.LatencyHistogram;
+import com.webcheckers.util.MetricsRegistry;
+import spark.Filter;
+import spark.Request;
+import spark.Response;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import static spark.Spark.halt;
+
+/**
+ * The before and after filters that turn polls away when the node is busy, so a surge of
+ * spectators cannot take the threads a player's move needs. Each request is counted in flight
+ * by its kind of route, and the time it waited for a thread is the time its task spent in the
+ * {@link QueueTimedThreadPool}'s queue, or on another pool the time since Jetty read it.
+ * A poll is answered 503 with a Retry-After when too many requests or too many polls are in
+ * flight, or when it waited too long. An archive export, which streams every finished game, is
+ * turned away the same way when too many requests or more than a few exports are in flight. A
+ * move, and anything else, is always let in.
+ */
+public class AdmissionControl {
+    private static final Logger LOG = Logger.getLogger(AdmissionControl.class.getName());
+
+    static final String IN_FLIGHT_METRIC = "webcheckers_admission_in_flight";
+    static final String QUEUE_METRIC = "webcheckers_admission_queue_seconds";
+    static final String REJECTED_METRIC = "webcheckers_admission_rejected_total";
+
+    private static final String KIND_ATTRIBUTE = AdmissionControl.class.getName() + ".kind";
+
+    /**
+     * The kinds of route, by how they are treated when the node is busy
+     */
+    enum Kind {
+        /** A move of a game in progress, never turned away */
+        WRITE,
+        /** Asks whether anything has changed, and is asked again anyway */
+        POLL,
+        /** Streams the whole archive, holding a thread for as long as that takes */
+        EXPORT,
+        /** Anything else, let in but counted */
+        OTHER;
+
+        String label() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final int maxInFlight;
+    private final int maxPollsInFlight;
+    private final int maxExportsInFlight;
+    private final long maxPollQueueMillis;
+    private final String retryAfterSeconds;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Kind, AtomicInteger> inFlightByKind = new EnumMap<>(Kind.class);
+    private final Map<Kind, LatencyHistogram> queueTimes = new EnumMap<>(Kind.class);
+    private final LongAdder rejectedInFlight = new LongAdder();
+    private final LongAdder rejectedQueued = new LongAdder();
+
+    /**
+     * Creates the filters with the limits of the server settings
+     * @param config the server settings
+     * @param metrics the registry the requests in flight, their queue times and the polls turned away are kept in
+     */
+    public AdmissionControl(ServerConfig config, MetricsRegistry metrics) {
+        this.maxInFlight = config.getMaxInFlight();
+        this.maxPollsInFlight = config.getMaxPollsInFlight();
+        this.maxExportsInFlight = config.getMaxExportsInFlight();
+        this.maxPollQueueMillis = config.getMaxPollQueueMillis();
+        this.retryAfterSeconds = Integer.toString(config.getPollRetryAfterSeconds());
+        for (Kind kind : Kind.values()) {
+            final AtomicInteger count = new AtomicInteger();
+            this.inFlightByKind.put(kind, count);
+            this.queueTimes.put(kind, metrics.summary(QUEUE_METRIC,
+                    "Time a request waited for a thread, by kind of route", "kind=\"" + kind.label() + '"'));
+            metrics.gauge(IN_FLIGHT_METRIC, "Requests being handled, by kind of route",
+                    "kind=\"" + kind.label() + '"', count::get);
+        }
+        metrics.counter(REJECTED_METRIC, "Polls and exports turned away with a 503, by reason",
+                "reason=\"in_flight\"", this.rejectedInFlight::sum);
+        metrics.counter(REJECTED_METRIC, "Polls and exports turned away with a 503, by reason",
+                "reason=\"queued\"", this.rejectedQueued::sum);
+        //
+        LOG.config("AdmissionControl is initialized, turning polls away at " + this.maxInFlight + " requests or "
+                + this.maxPollsInFlight + " polls in flight, or after " + this.maxPollQueueMillis + " ms waiting.");
+    }
+
+    /**
+     * @return the before filter, admitting the request or halting it with a 503
+     */
+    public Filter start() {
+        return this::start;
+    }
+
+    /**
+     * @return the filter to run after everything else, even when a route fails
+     */
+    public Filter stop() {
+        return this::stop;
+    }
+
+    /**
+     * @return the requests in flight, of every kind
+     */
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * @return the requests in flight as a share of those at which polls are turned away, 1 when at the limit
+     */
+    public double getLoad() {
+        return Math.min(1.0, (double) this.inFlight.get() / this.maxInFlight);
+    }
+
+    /**
+     * @return the polls and exports turned away since the server started
+     */
+    public long getRejectedCount() {
+        return this.rejectedInFlight.sum() + this.rejectedQueued.sum();
+    }
+
+    //
+    // Private methods
+    //
+
+    private void start(Request request, Response response) {
+        final Kind kind = kind(request.requestMethod(), request.pathInfo());
+        if (!admit(kind, queueMillis(request))) {
+            response.header("Retry-After", this.retryAfterSeconds);
+            halt(503, "The server is busy, try again in " + this.retryAfterSeconds + " seconds.");
+        }
+        request.raw().setAttribute(KIND_ATTRIBUTE, kind);
+    }
+
+    private void stop(Request request, Response response) {
+        final Kind kind = (Kind) request.raw().getAttribute(KIND_ATTRIBUTE);
+        if (kind != null) {
+            request.raw().removeAttribute(KIND_ATTRIBUTE);
+            release(kind);
+        }
+    }
+
+    /**
+     * @return how long a request waited for a thread, in milliseconds
+     */
+    static long queueMillis(Request request) {
+        final long queued = QueueTimedThreadPool.queueMillis();
+        if (queued >= 0) {
+            return queued;
+        }
+        // virtual threads are never queued for, so only the time since Jetty read the request is left
+        final org.eclipse.jetty.server.Request base = org.eclipse.jetty.server.Request.getBaseRequest(request.raw());
+        return base == null ? 0 : Math.max(0, System.currentTimeMillis() - base.getTimeStamp());
+    }
+
+    /**
+     * Counts a request in flight, unless it is a poll or export the node is too busy for
+     * @param kind the kind of route
+     * @param queueMillis how long the request waited for a thread
+     * @return true when the request is let in, and must be released once done
+     */
+    boolean admit(Kind kind, long queueMillis) {
+        this.queueTimes.get(kind).record(queueMillis * 1000);
+        final AtomicInteger ofKind = this.inFlightByKind.get(kind);
+        final int all = this.inFlight.incrementAndGet();
+        final int sameKind = ofKind.incrementAndGet();
+        if (kind == Kind.POLL) {
+            if (all > this.maxInFlight || sameKind > this.maxPollsInFlight) {
+                this.rejectedInFlight.increment();
+                release(kind);
+                return false;
+            }
+            if (queueMillis >= this.maxPollQueueMillis) {
+                this.rejectedQueued.increment();
+                release(kind);
+                return false;
+            }
+        } else if (kind == Kind.EXPORT) {
+            if (all > this.maxInFlight || sameKind > this.maxExportsInFlight) {
+                this.rejectedInFlight.increment();
+                release(kind);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void release(Kind kind) {
+        this.inFlightByKind.get(kind).decrementAndGet();
+        this.inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return the kind of a request's route
+     */
+    static Kind kind(String method, String path) {
+        if ("POST".equals(method)) {
+            switch (path) {
+                case WebServer.VALIDATE_MOVE_URL:
+                case WebServer.SUBMIT_TURN_URL:
+                case WebServer.BACKUP_MOVE_URL:
+                case WebServer.RESIGN_URL:
+                    return Kind.WRITE;
+                case WebServer.CHECK_TURN_URL:
+                case WebServer.SPECTATOR_CHECK_TURN_URL:
+                    return Kind.POLL;
+                default:
+                    return Kind.OTHER;
+            }
+        }
+        if ("GET".equals(method) && (WebServer.HOME_URL.equals(path) || WebServer.LOBBY_CHANGES_URL.equals(path))) {
+            return Kind.POLL;
+        }
+        if ("GET".equals(method) && WebServer.ARCHIVE_PDN_URL.equals(path)) {
+            return Kind.EXPORT;
+        }
+        return Kind.OTHER;
+    }
+}
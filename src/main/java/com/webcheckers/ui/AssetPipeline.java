@@ -0,0 +1,407 @@
+package com.webcheckers.ui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * AssetPipeline prepares the static files once at startup so browsers can fetch them in fewer,
+ * smaller requests and keep them for good:
+ * <ul>
+ *   <li>the require.js modules of the Game page are bundled into one script, /js/game/bundle.js</li>
+ *   <li>comments, indentation and blank lines are stripped from scripts</li>
+ *   <li>every file gets a URL under /assets/ with a hash of its content in the name, so a
+ *       changed file gets a new URL and an unchanged one may be cached forever</li>
+ *   <li>text files are gzipped ahead of time</li>
+ * </ul>
+ * Templates look up the URL of a file, e.g. /css/style.css, in the map given by getUrls. The
+ * prepared files are held in direct buffers with their headers worked out, so serving one, at its
+ * fingerprinted URL or its plain path, needs neither a classpath lookup nor a copy.
+ */
+public class AssetPipeline {
+    private static final Logger LOG = Logger.getLogger(AssetPipeline.class.getName());
+
+    /** Path prefix of the fingerprinted URLs */
+    public static final String URL_PREFIX = "/assets/";
+
+    /** The bundle of the Game page's scripts */
+    public static final String GAME_BUNDLE = "/js/game/bundle.js";
+
+    /** The require.js modules of the Game page; the bundle's module ids are relative to it */
+    static final String GAME_MODULES = "/js/game/";
+
+    /** The module that starts the Game page, its code ends the bundle */
+    static final String GAME_INDEX = GAME_MODULES + "index.js";
+
+    /** Number of hex digits of the content hash put in a URL */
+    static final int HASH_DIGITS = 10;
+
+    private static final Pattern CSS_URL = Pattern.compile("url\\(\\s*([\"']?)([^\"')]+)\\1\\s*\\)");
+
+    /** URL of each file, key=path of the file under the static file location */
+    private final Map<String, String> urls = new TreeMap<>();
+
+    /** Prepared files, key=URL */
+    private final Map<String, Asset> assets = new HashMap<>();
+
+    /** Prepared files, key=path under the static file location */
+    private final Map<String, Asset> paths = new HashMap<>();
+
+    /** When the files were prepared, in whole seconds as HTTP dates have no milliseconds */
+    private final long lastModified = System.currentTimeMillis() / 1000 * 1000;
+
+    /**
+     * Creates a pipeline without any file, so pages fall back to the files as they are
+     */
+    public AssetPipeline() {
+    }
+
+    /**
+     * Prepares every file found under a location of the classpath
+     * @param location the static file location, e.g. /public
+     * @return the prepared files
+     * @throws IOException if the files cannot be read
+     */
+    public static AssetPipeline load(String location) throws IOException {
+        final URL root = AssetPipeline.class.getResource(location);
+        if ( root == null ) {
+            throw new IOException("No static files at " + location);
+        }
+        final Map<String, byte[]> files = new TreeMap<>();
+        try {
+            final URI uri = root.toURI();
+            if ( "jar".equals(uri.getScheme()) ) {
+                try (FileSystem jar = FileSystems.newFileSystem(uri, Collections.emptyMap())) {
+                    readAll(jar.provider().getPath(uri), files);
+                }
+            } else {
+                readAll(Paths.get(uri), files);
+            }
+        } catch (URISyntaxException e) {
+            throw new IOException("Bad static file location " + root, e);
+        }
+
+        final AssetPipeline pipeline = new AssetPipeline();
+        pipeline.addAll(files);
+        LOG.config("Prepared " + pipeline.assets.size() + " static files.");
+        return pipeline;
+    }
+
+    private static void readAll(Path root, Map<String, byte[]> files) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                files.put("/" + root.relativize(path).toString().replace('\\', '/'), Files.readAllBytes(path));
+            }
+        }
+    }
+
+    /**
+     * Prepares a set of files: bundles the Game page's modules and fingerprints everything. Images
+     * go first so the stylesheets referring to them can be rewritten to their URLs.
+     * @param files the content of each file, key=path under the static file location
+     */
+    void addAll(Map<String, byte[]> files) {
+        final StringBuilder bundle = new StringBuilder();
+        String start = "";
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            final String path = file.getKey();
+            if ( path.equals(GAME_INDEX) ) {
+                start = text(file.getValue());
+            } else if ( path.startsWith(GAME_MODULES) && path.endsWith(".js") ) {
+                bundle.append(nameModule(path, strip(text(file.getValue())))).append('\n');
+            }
+        }
+
+        final Map<String, byte[]> ordered = new TreeMap<>(files);
+        if ( bundle.length() > 0 ) {
+            bundle.append(strip(start));
+            ordered.put(GAME_BUNDLE, bundle.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        for (Map.Entry<String, byte[]> file : ordered.entrySet()) {
+            if ( !file.getKey().endsWith(".css") && !file.getKey().endsWith(".js") ) {
+                add(file.getKey(), file.getValue());
+            }
+        }
+        for (Map.Entry<String, byte[]> file : ordered.entrySet()) {
+            if ( file.getKey().endsWith(".css") ) {
+                add(file.getKey(), rewriteUrls(file.getKey(), text(file.getValue())).getBytes(StandardCharsets.UTF_8));
+            } else if ( file.getKey().endsWith(".js") ) {
+                final String script = text(file.getValue());
+                final boolean prepared = file.getKey().equals(GAME_BUNDLE) || script.contains("@license");
+                add(file.getKey(), (prepared ? script : strip(script)).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * Fingerprints and compresses one file
+     * @param path the path of the file under the static file location
+     * @param content the content to serve
+     * @return the URL of the file
+     */
+    String add(String path, byte[] content) {
+        final String hash = hash(content);
+        final int dot = path.lastIndexOf('.');
+        final String url = dot > path.lastIndexOf('/')
+                ? URL_PREFIX + path.substring(1, dot) + '.' + hash + path.substring(dot)
+                : URL_PREFIX + path.substring(1) + '.' + hash;
+        final String contentType = contentType(path);
+        final byte[] gzip = contentType.startsWith("image/") && !contentType.startsWith("image/svg") ? null : gzip(content);
+        final Asset asset = new Asset(contentType, content,
+                gzip != null && gzip.length < content.length ? gzip : null, '"' + hash + '"', this.lastModified);
+        this.urls.put(path, url);
+        this.assets.put(url, asset);
+        this.paths.put(path, asset);
+        return url;
+    }
+
+    /**
+     * @return the URL of every file, key=path under the static file location such as /css/style.css
+     */
+    public Map<String, String> getUrls() {
+        return Collections.unmodifiableMap(this.urls);
+    }
+
+    /**
+     * Gets a prepared file
+     * @param url the fingerprinted URL, starting with URL_PREFIX
+     * @return the file, null if there is none at that URL
+     */
+    public Asset get(String url) {
+        return this.assets.get(url);
+    }
+
+    /**
+     * Gets a prepared file by its plain path
+     * @param path the path under the static file location, e.g. /css/style.css
+     * @return the file, null if there is none at that path
+     */
+    public Asset getByPath(String path) {
+        return this.paths.get(path);
+    }
+
+    /**
+     * @return true if no file has been prepared
+     */
+    public boolean isEmpty() {
+        return this.assets.isEmpty();
+    }
+
+    /**
+     * Turns an anonymous require.js module into a named one so several can share one script
+     * @param path the path of the module
+     * @param script the code of the module
+     * @return the code with the module's id added to its define call
+     */
+    static String nameModule(String path, String script) {
+        final String id = path.substring(GAME_MODULES.length(), path.length() - ".js".length());
+        final int define = script.indexOf("define(");
+        if ( define < 0 ) {
+            return script;
+        }
+        final int at = define + "define(".length();
+        return script.substring(0, at) + '\'' + id + "', " + script.substring(at);
+    }
+
+    /**
+     * Strips whole-line comments, indentation and blank lines from a script. Lines are kept apart
+     * and code is not otherwise touched, so the result means exactly the same as the original.
+     * @param script the code to strip
+     * @return the stripped code
+     */
+    static String strip(String script) {
+        final StringBuilder out = new StringBuilder(script.length());
+        boolean inComment = false;
+        for (String line : script.split("\r?\n")) {
+            String code = line.trim();
+            if ( inComment ) {
+                final int end = code.indexOf("*/");
+                if ( end < 0 ) {
+                    continue;
+                }
+                inComment = false;
+                code = code.substring(end + 2).trim();
+            }
+            while ( code.startsWith("/*") ) {
+                final int end = code.indexOf("*/", 2);
+                if ( end < 0 ) {
+                    inComment = true;
+                    code = "";
+                } else {
+                    code = code.substring(end + 2).trim();
+                }
+            }
+            if ( code.isEmpty() || code.startsWith("//") ) {
+                continue;
+            }
+            out.append(code).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Points the url(...) references of a stylesheet at the fingerprinted URLs
+     * @param path the path of the stylesheet, relative references are resolved against it
+     * @param css the stylesheet
+     * @return the rewritten stylesheet
+     */
+    private String rewriteUrls(String path, String css) {
+        final Matcher matcher = CSS_URL.matcher(css);
+        final StringBuffer out = new StringBuffer(css.length());
+        while ( matcher.find() ) {
+            final String reference = matcher.group(2);
+            final String target = URI.create(path).resolve(reference).getPath();
+            final String url = reference.contains(":") ? null : this.urls.get(target);
+            matcher.appendReplacement(out, Matcher.quoteReplacement(
+                    url == null ? matcher.group() : "url(\"" + url + "\")"));
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+
+    private static String text(byte[] content) {
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            final StringBuilder hex = new StringBuilder(HASH_DIGITS);
+            for (int i = 0; hex.length() < HASH_DIGITS; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.substring(0, HASH_DIGITS);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        } catch (IOException e) {
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    static String contentType(String path) {
+        final String name = path.toLowerCase();
+        if ( name.endsWith(".js") ) {
+            return "application/javascript; charset=utf-8";
+        } else if ( name.endsWith(".css") ) {
+            return "text/css; charset=utf-8";
+        } else if ( name.endsWith(".svg") ) {
+            return "image/svg+xml";
+        } else if ( name.endsWith(".png") ) {
+            return "image/png";
+        } else if ( name.endsWith(".jpg") || name.endsWith(".jpeg") ) {
+            return "image/jpeg";
+        } else if ( name.endsWith(".gif") ) {
+            return "image/gif";
+        } else if ( name.endsWith(".ico") ) {
+            return "image/x-icon";
+        } else if ( name.endsWith(".html") ) {
+            return "text/html; charset=utf-8";
+        }
+        return "application/octet-stream";
+    }
+
+    /**
+     * A prepared file, its content in read-only direct buffers shared by every request
+     */
+    public static final class Asset {
+        private final String contentType;
+        private final ByteBuffer content;
+        private final ByteBuffer gzip;
+        private final String etag;
+        private final long lastModified;
+        private final String lastModifiedHeader;
+
+        Asset(String contentType, byte[] content, byte[] gzip, String etag, long lastModified) {
+            this.contentType = contentType;
+            this.content = direct(content);
+            this.gzip = gzip == null ? null : direct(gzip);
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.lastModifiedHeader = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(lastModified), ZoneOffset.UTC));
+        }
+
+        private static ByteBuffer direct(byte[] bytes) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes).flip();
+            return buffer.asReadOnlyBuffer();
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * @return a view of the content with its own position, ready to be read
+         */
+        public ByteBuffer getContent() {
+            return content.duplicate();
+        }
+
+        /**
+         * @return a view of the gzipped content, null if gzip does not make it smaller
+         */
+        public ByteBuffer getGzip() {
+            return gzip == null ? null : gzip.duplicate();
+        }
+
+        /**
+         * @return the strong entity tag, the content hash in quotes
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * @return epoch milliseconds when the file was prepared
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return getLastModified formatted for the Last-Modified header
+         */
+        public String getLastModifiedHeader() {
+            return lastModifiedHeader;
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.webcheckers.ui;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * BoardRenderCache holds the rendered HTML of game boards so the Game page only renders a board
+ * the first time it is asked for in a given state. Entries are grouped by game and replaced as soon
+ * as the game's version changes, that is when a move is made, and dropped when a turn is committed.
+ */
+public class BoardRenderCache {
+
+    /** Default number of games whose boards are cached */
+    public static final int DEFAULT_GAMES = 1000;
+
+    /** Cached boards by game, least recently used first */
+    private final LinkedHashMap<Integer, GameBoards> games;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache holding the boards of DEFAULT_GAMES games
+     */
+    public BoardRenderCache() {
+        this(DEFAULT_GAMES);
+    }
+
+    /**
+     * Creates a cache
+     * @param maxGames the number of games whose boards are cached
+     */
+    public BoardRenderCache(final int maxGames) {
+        this.games = new LinkedHashMap<Integer, GameBoards>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, GameBoards> eldest) {
+                return size() > maxGames;
+            }
+        };
+    }
+
+    /**
+     * Gets a rendered board, rendering and caching it if it is not cached for this version
+     * @param gameID the id of the game
+     * @param version the version of the game the board is for
+     * @param view what is shown and from whose perspective, e.g. the mode plus the viewer's color
+     * @param render renders the board when it is not cached, called without holding the cache lock
+     * @return the rendered board
+     */
+    public String get(int gameID, long version, String view, Supplier<String> render) {
+        synchronized (this) {
+            final GameBoards boards = this.games.get(gameID);
+            if ( boards != null && boards.version == version ) {
+                final String html = boards.views.get(view);
+                if ( html != null ) {
+                    this.hits++;
+                    return html;
+                }
+            }
+            this.misses++;
+        }
+
+        final String html = render.get();
+        synchronized (this) {
+            GameBoards boards = this.games.get(gameID);
+            if ( boards == null || boards.version < version ) {
+                boards = new GameBoards(version);
+                this.games.put(gameID, boards);
+            }
+            if ( boards.version == version ) {
+                boards.views.put(view, html);
+            }
+        }
+        return html;
+    }
+
+    /**
+     * Drops every cached board of a game
+     * @param gameID the id of the game
+     */
+    public synchronized void invalidate(int gameID) {
+        this.games.remove(gameID);
+    }
+
+    /**
+     * @return number of boards served from the cache
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * @return number of boards that had to be rendered
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * The boards cached for one version of a game, key=view
+     */
+    private static final class GameBoards {
+        private final long version;
+        private final Map<String, String> views = new HashMap<>(4);
+
+        GameBoards(long version) {
+            this.version = version;
+        }
+    }
+
+}
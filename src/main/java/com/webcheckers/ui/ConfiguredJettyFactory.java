@@ -0,0 +1,90 @@
+package com.webcheckers.ui;
+
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import spark.embeddedserver.jetty.JettyServerFactory;
+
+import java.util.logging.Logger;
+
+/**
+ * Makes Spark's Jetty server with the {@link ServerConfig} applied. Spark sets the port and the
+ * thread pool itself but not the connector it adds later, so the accept queue, idle timeout and
+ * header size are set on it as the server starts, before it opens its socket.
+ */
+class ConfiguredJettyFactory implements JettyServerFactory {
+    private static final Logger LOG = Logger.getLogger(ConfiguredJettyFactory.class.getName());
+
+    /** The server attributes Jetty reads the form limits from when there is no servlet context */
+    static final String MAX_FORM_CONTENT_SIZE_ATTRIBUTE = "org.eclipse.jetty.server.Request.maxFormContentSize";
+    static final String MAX_FORM_KEYS_ATTRIBUTE = "org.eclipse.jetty.server.Request.maxFormKeys";
+
+    private final ServerConfig config;
+    /** The pool of the server made, null until then */
+    private volatile ThreadPool threadPool;
+
+    ConfiguredJettyFactory(ServerConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Makes the server with a pool of platform threads, as set with Spark's threadPool, that times
+     * how long each task waits for a thread
+     */
+    @Override
+    public Server create(int maxThreads, int minThreads, int threadTimeoutMillis) {
+        final QueuedThreadPool pool = new QueueTimedThreadPool(maxThreads, minThreads, threadTimeoutMillis);
+        pool.setName("webcheckers");
+        this.threadPool = pool;
+        return configure(new Server(pool));
+    }
+
+    /**
+     * Makes the server with a pool of its own, such as the {@link VirtualThreadPool}
+     */
+    @Override
+    public Server create(ThreadPool threadPool) {
+        this.threadPool = threadPool;
+        return configure(new Server(threadPool));
+    }
+
+    /**
+     * @return the threads in the server's pool, busy or idle, 0 before the server is made
+     */
+    int getThreads() {
+        final ThreadPool pool = this.threadPool;
+        return pool == null ? 0 : pool.getThreads();
+    }
+
+    Server configure(Server server) {
+        server.setAttribute(MAX_FORM_CONTENT_SIZE_ATTRIBUTE, this.config.getMaxFormContentBytes());
+        server.setAttribute(MAX_FORM_KEYS_ATTRIBUTE, this.config.getMaxFormKeys());
+        server.addLifeCycleListener(new AbstractLifeCycle.AbstractLifeCycleListener() {
+            @Override
+            public void lifeCycleStarting(LifeCycle event) {
+                for (Connector connector : server.getConnectors()) {
+                    configure(connector);
+                }
+            }
+        });
+        return server;
+    }
+
+    void configure(Connector connector) {
+        if (connector instanceof ServerConnector) {
+            final ServerConnector serverConnector = (ServerConnector) connector;
+            serverConnector.setAcceptQueueSize(this.config.getAcceptQueueSize());
+            serverConnector.setIdleTimeout(this.config.getIdleTimeoutMillis());
+        }
+        final HttpConnectionFactory http = connector.getConnectionFactory(HttpConnectionFactory.class);
+        if (http != null) {
+            http.getHttpConfiguration().setRequestHeaderSize(this.config.getMaxRequestHeaderBytes());
+        }
+        LOG.config("Connector " + connector.getName() + " is configured.");
+    }
+}
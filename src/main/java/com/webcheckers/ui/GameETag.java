@@ -0,0 +1,107 @@
+package com.webcheckers.ui;
+
+import spark.Request;
+import spark.Response;
+
+/**
+ * GameETag builds the entity tags of responses that only depend on the version of a game, and
+ * answers a conditional request with 304 Not Modified when the client already has the current
+ * version. Routes check this before fetching the board, rendering or serializing anything.
+ */
+final class GameETag {
+
+    static final String ETAG_HEADER = "ETag";
+    static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    static final String CACHE_CONTROL_HEADER = "Cache-Control";
+
+    /** The client may keep the response but must ask whether it is still current before using it */
+    static final String REVALIDATE = "private, no-cache";
+
+    /** For responses whose URL names content that never changes, a year being the longest max-age clients honor */
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    static final int NOT_MODIFIED = 304;
+
+    private GameETag() {
+    }
+
+    /**
+     * Builds the tag of a response that depends only on the game's version
+     * @param gameID the id of the game
+     * @param version the version of the game, see CheckersGame.getVersion
+     * @return the weak entity tag
+     */
+    static String of(int gameID, long version) {
+        return "W/\"" + gameID + '-' + version + '"';
+    }
+
+    /**
+     * Builds the tag of a response that depends on the game's version and on how it is shown
+     * @param gameID the id of the game
+     * @param version the version of the game, see CheckersGame.getVersion
+     * @param view what is shown and to whom, e.g. the mode plus the viewer's color and name
+     * @return the weak entity tag
+     */
+    static String of(int gameID, long version, String view) {
+        return "W/\"" + gameID + '-' + version + '-' + Integer.toHexString(view.hashCode()) + '"';
+    }
+
+    /**
+     * Sets the tag on the response and checks it against the request's If-None-Match header
+     * @param request the HTTP request
+     * @param response the HTTP response, set to 304 if the client is current
+     * @param etag the tag of the current response
+     * @return true if the client already has it and nothing more should be sent
+     */
+    static boolean notModified(Request request, Response response, String etag) {
+        response.header(ETAG_HEADER, etag);
+        response.header(CACHE_CONTROL_HEADER, REVALIDATE);
+        if ( !matches(request.headers(IF_NONE_MATCH_HEADER), etag) ) {
+            return false;
+        }
+        response.status(NOT_MODIFIED);
+        return true;
+    }
+
+    /**
+     * Weak comparison of an If-None-Match header with a tag, as described in RFC 7232. The header
+     * is scanned in place, as it comes with every poll.
+     * @param header the If-None-Match header, may be null or a comma separated list
+     * @param etag the current tag
+     * @return true if the header names the tag
+     */
+    static boolean matches(String header, String etag) {
+        if ( header == null ) {
+            return false;
+        }
+        final int opaqueStart = etag.startsWith("W/") ? 2 : 0;
+        final int opaqueLength = etag.length() - opaqueStart;
+        int next = 0;
+        while ( next <= header.length() ) {
+            int end = header.indexOf(',', next);
+            if ( end < 0 ) {
+                end = header.length();
+            }
+            int start = next;
+            while ( start < end && Character.isWhitespace(header.charAt(start)) ) {
+                start++;
+            }
+            int stop = end;
+            while ( stop > start && Character.isWhitespace(header.charAt(stop - 1)) ) {
+                stop--;
+            }
+            if ( stop - start == 1 && header.charAt(start) == '*' ) {
+                return true;
+            }
+            if ( header.startsWith("W/", start) ) {
+                start += 2;
+            }
+            if ( stop - start == opaqueLength && header.regionMatches(start, etag, opaqueStart, opaqueLength) ) {
+                return true;
+            }
+            next = end + 1;
+        }
+        return false;
+    }
+
+}
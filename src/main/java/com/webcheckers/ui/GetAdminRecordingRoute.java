@@ -0,0 +1,47 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.FlightRecordings;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET a dump of the running flight recording as a .jfr file, for JDK Mission
+ * Control or the jfr tool. The recording keeps running, so it can be dumped again later.
+ */
+public class GetAdminRecordingRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetAdminRecordingRoute.class.getName());
+
+    static final String NOT_RUNNING = "No recording is running, POST to start one";
+
+    private final FlightRecordings recordings;
+
+    public GetAdminRecordingRoute(FlightRecordings recordings) {
+        this.recordings = recordings;
+        //
+        LOG.config("GetAdminRecordingRoute is initialized.");
+    }
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+        final Path file = this.recordings.dump();
+        if (file == null) {
+            response.status(409);
+            response.type("text/plain; charset=utf-8");
+            return NOT_RUNNING;
+        }
+        try {
+            response.type("application/octet-stream");
+            response.header("Content-Disposition", "attachment; filename=\"" + file.getFileName() + "\"");
+            response.raw().setContentLengthLong(Files.size(file));
+            Files.copy(file, response.raw().getOutputStream());
+        } finally {
+            Files.delete(file);
+        }
+        return "";
+    }
+}
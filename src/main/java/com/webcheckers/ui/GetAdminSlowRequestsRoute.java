@@ -0,0 +1,61 @@
+package com.webcheckers.ui;
+
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET the slow requests the {@link SlowRequestWatchdog} has kept, the latest
+ * first, each with its route, player, game and the stack of its thread, as plain text laid out
+ * like a thread dump.
+ */
+public class GetAdminSlowRequestsRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetAdminSlowRequestsRoute.class.getName());
+
+    private final SlowRequestWatchdog watchdog;
+
+    public GetAdminSlowRequestsRoute(SlowRequestWatchdog watchdog) {
+        this.watchdog = watchdog;
+        //
+        LOG.config("GetAdminSlowRequestsRoute is initialized.");
+    }
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+        response.type("text/plain; charset=utf-8");
+        final List<SlowRequestWatchdog.SlowRequest> slow = this.watchdog.getSlowRequests();
+        final StringBuilder body = new StringBuilder(4096);
+        body.append(this.watchdog.getSlowRequestCount()).append(" requests over ")
+                .append(this.watchdog.getThresholdMillis()).append(" ms since start, the last ")
+                .append(slow.size()).append(" kept, latest first\n");
+        for (SlowRequestWatchdog.SlowRequest each : slow) {
+            append(body, each);
+        }
+        return body.toString();
+    }
+
+    private static void append(StringBuilder body, SlowRequestWatchdog.SlowRequest slow) {
+        body.append('\n').append(slow.getStarted()).append(' ').append(slow.getMethod()).append(' ')
+                .append(slow.getPath()).append(" (route ").append(slow.getRoute()).append(')');
+        if (slow.getUsername() != null) {
+            body.append(" player ").append(slow.getUsername());
+        }
+        if (slow.getGameId() >= 0) {
+            body.append(" game ").append(slow.getGameId());
+        }
+        body.append("\n  ").append(slow.getTotalMillis() < 0
+                ? "still running" : "took " + slow.getTotalMillis() + " ms");
+        if (slow.getStack() == null) {
+            body.append(", over before its stack was taken\n");
+            return;
+        }
+        body.append(", stack of \"").append(slow.getThread()).append("\" at ")
+                .append(slow.getCapturedMillis()).append(" ms:\n");
+        for (StackTraceElement frame : slow.getStack()) {
+            body.append("    at ").append(frame).append('\n');
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.appl.PdnExporter;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET every finished game as PDN. The games are streamed to the client as
+ * they are written, so no Content-Length is sent and Jetty uses a chunked response.
+ * Optional query parameters: player (username), from and to (ISO dates, inclusive).
+ */
+public class GetArchivePdnRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetArchivePdnRoute.class.getName());
+
+    static final String PLAYER_PARAM = "player";
+    static final String FROM_PARAM = "from";
+    static final String TO_PARAM = "to";
+
+    private final PdnExporter pdnExporter;
+
+    public GetArchivePdnRoute(PdnExporter pdnExporter) {
+        this.pdnExporter = pdnExporter;
+        //
+        LOG.config("GetArchivePdnRoute is initialized.");
+    }
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+        final LocalDate from;
+        final LocalDate to;
+        try {
+            from = parseDate(request.queryParams(FROM_PARAM));
+            to = parseDate(request.queryParams(TO_PARAM));
+        } catch (DateTimeParseException e) {
+            response.status(400);
+            return "Dates must be formatted as yyyy-mm-dd";
+        }
+
+        response.type("application/x-pdn; charset=utf-8");
+        response.header("Content-Disposition", "attachment; filename=\"webcheckers.pdn\"");
+
+        final Writer out = new BufferedWriter(
+                new OutputStreamWriter(response.raw().getOutputStream(), StandardCharsets.UTF_8));
+        this.pdnExporter.export(out, request.queryParams(PLAYER_PARAM), from, to);
+
+        return "";
+    }
+
+    private static LocalDate parseDate(String value) {
+        if ( value == null || value.isEmpty() ) {
+            return null;
+        }
+        return LocalDate.parse(value);
+    }
+}
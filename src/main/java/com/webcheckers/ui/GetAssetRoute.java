@@ -0,0 +1,132 @@
+package com.webcheckers.ui;
+
+import org.eclipse.jetty.server.HttpOutput;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET a static file prepared by the AssetPipeline, either at its fingerprinted
+ * URL, which may be cached for good, or at its plain path, which the browser must revalidate. The
+ * file is sent from memory, gzipped ahead of time when the browser accepts it.
+ */
+public class GetAssetRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetAssetRoute.class.getName());
+
+    static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+    static final String LAST_MODIFIED_HEADER = "Last-Modified";
+
+    /** Plain paths may change with the next release, so they are always revalidated */
+    static final String REVALIDATE = "public, no-cache";
+
+    /** Size of the copies made when the response is not Jetty's and cannot take a buffer */
+    private static final int COPY_BYTES = 8192;
+
+    private final AssetPipeline assets;
+
+    public GetAssetRoute(AssetPipeline assets) {
+        this.assets = assets;
+        //
+        LOG.config("GetAssetRoute is initialized.");
+    }
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+        final String path = request.pathInfo();
+        final boolean fingerprinted = path.startsWith(AssetPipeline.URL_PREFIX);
+        final AssetPipeline.Asset asset = fingerprinted ? this.assets.get(path) : this.assets.getByPath(path);
+        if (asset == null) {
+            response.status(404);
+            return "";
+        }
+
+        response.type(asset.getContentType());
+        response.header(GameETag.CACHE_CONTROL_HEADER, fingerprinted ? GameETag.IMMUTABLE : REVALIDATE);
+        response.header(GameETag.ETAG_HEADER, asset.getEtag());
+        response.header(LAST_MODIFIED_HEADER, asset.getLastModifiedHeader());
+        response.header("Vary", ACCEPT_ENCODING_HEADER);
+        if (notModified(request, asset)) {
+            response.status(GameETag.NOT_MODIFIED);
+            return "";
+        }
+
+        ByteBuffer body = asset.getContent();
+        final ByteBuffer gzip = asset.getGzip();
+        if (gzip != null && acceptsGzip(request.headers(ACCEPT_ENCODING_HEADER))) {
+            body = gzip;
+            response.header("Content-Encoding", "gzip");
+        }
+
+        // written directly, the body is already compressed and must not go through Spark's gzip filter
+        final HttpServletResponse raw = response.raw();
+        raw.setContentLength(body.remaining());
+        send(raw.getOutputStream(), body);
+        raw.flushBuffer();
+        return "";
+    }
+
+    /**
+     * Writes a buffer to the response. Jetty writes it to the connection as it is; any other
+     * stream gets it through a small copy.
+     */
+    private static void send(ServletOutputStream out, ByteBuffer body) throws IOException {
+        if (out instanceof HttpOutput) {
+            ((HttpOutput) out).sendContent(body);
+            return;
+        }
+        final byte[] chunk = new byte[Math.min(COPY_BYTES, body.remaining())];
+        while (body.hasRemaining()) {
+            final int length = Math.min(chunk.length, body.remaining());
+            body.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+
+    /**
+     * Checks the request's conditional headers; If-None-Match wins over If-Modified-Since
+     */
+    private static boolean notModified(Request request, AssetPipeline.Asset asset) {
+        final String ifNoneMatch = request.headers(GameETag.IF_NONE_MATCH_HEADER);
+        if (ifNoneMatch != null) {
+            return GameETag.matches(ifNoneMatch, asset.getEtag());
+        }
+        final String ifModifiedSince = request.headers(IF_MODIFIED_SINCE_HEADER);
+        if (ifModifiedSince == null) {
+            return false;
+        }
+        try {
+            final long since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli();
+            return asset.getLastModified() <= since;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param acceptEncoding the Accept-Encoding header, may be null
+     * @return true if the header allows gzip
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            final String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
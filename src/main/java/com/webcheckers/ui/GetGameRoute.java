@@ -2,9 +2,11 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.appl.GameManager;
+import com.webcheckers.model.ArchivedGame;
 import com.webcheckers.model.CheckerPiece;
 import com.webcheckers.model.CheckersGame;
 import com.webcheckers.model.Player;
+import com.webcheckers.model.ReplayableGame;
 import com.webcheckers.ui.board.BoardView;
 import com.webcheckers.util.Message;
 import spark.*;
@@ -12,6 +14,7 @@ import spark.*;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 // @TODO Too much work (from sprint 1 rubric comment)
@@ -28,18 +31,28 @@ public class GetGameRoute implements Route {
     static final String TITLE_ATTR = "title";
     static final String MESSAGE_ATTR = "message";
 
+    static final String REPLAY_INDEX_PARAM = "index";
+
     static final String VIEW_NAME = "game.ftl";
+    static final String BOARD_VIEW_NAME = "board.ftl";
 
     private final TemplateEngine templateEngine;
     private final GameManager gameManager;
     private final Gson gson;
+    private final BoardRenderCache boardCache;
 
     public GetGameRoute(final TemplateEngine templateEngine, final GameManager gameManager, Gson gson) {
+        this(templateEngine, gameManager, gson, new BoardRenderCache());
+    }
+
+    public GetGameRoute(final TemplateEngine templateEngine, final GameManager gameManager, Gson gson,
+                        final BoardRenderCache boardCache) {
         this.templateEngine = Objects.requireNonNull(templateEngine, "templateEngine is required");
         //
         LOG.config("GetGameRoute is initialized.");
         this.gameManager = gameManager;
         this.gson = gson;
+        this.boardCache = Objects.requireNonNull(boardCache, "boardCache is required");
     }
 
     @Override
@@ -65,32 +78,61 @@ public class GetGameRoute implements Route {
             }
         }
 
-        CheckersGame game = this.gameManager.getGame(gameID);
-        //
-        CheckerPiece[][] board = null;
-        if ( game.isPlayersTurn(player) || (player != game.getRedPlayer() && player != game.getWhitePlayer()) ) {
-            board = game.getBoard();
+        // a compacted game is rendered in its archived form, without rebuilding a CheckersGame
+        final CheckersGame liveGame = this.gameManager.getLiveGame(gameID);
+        final ArchivedGame archive = liveGame == null ? this.gameManager.getArchivedGame(gameID) : null;
+        if (liveGame == null && archive == null) {
+            response.redirect(WebServer.HOME_URL);
+            return null;
         }
+        final ReplayableGame replay = liveGame != null ? liveGame : archive;
+        // the board is fetched only once the mode is known, and only if the client or the cache lacks it
+        final long version = replay.getVersion();
+        final String boardHtml;
 
         final Map<String, Object> modeOptions = new HashMap<>(2);
         if (request.uri().equals("/replay/game")) { // Replay mode
+            // the page may be opened at any board, the replay steps between boards without reloading it
+            final int replayPosition = replayPosition(request, replay, player);
+            final String view = Mode.REPLAY + ":" + replayPosition;
+            if (GameETag.notModified(request, response, pageETag(gameID, version, view, player))) {
+                return "";
+            }
             vm.put("viewMode", Mode.REPLAY);
 
-            final int replayPosition = this.gameManager.getReplayPosition(player.getUsername());
-
-            board = game.spectatorGetBoard(replayPosition);
-            modeOptions.put("hasNext", game.spectatorHasNext(replayPosition));
-            modeOptions.put("hasPrevious", game.spectatorHasPrevious(replayPosition));
+            boardHtml = renderBoard(gameID, version, view, () -> replay.spectatorGetBoard(replayPosition));
+            modeOptions.put("hasNext", replay.spectatorHasNext(replayPosition));
+            modeOptions.put("hasPrevious", replay.spectatorHasPrevious(replayPosition));
+            modeOptions.put("position", replayPosition);
+            // the whole replay is fetched by id and tag, so it is only asked for once the game is over
+            final ArchivedGame finished = archive != null ? archive : this.gameManager.getArchivedGame(gameID);
+            if (finished != null) {
+                modeOptions.put("replayTag", finished.getReplayTag());
+            }
         } else if (request.uri().equals("/spectator/game")) { // Spectator mode
-            vm.put("viewMode", Mode.SPECTATOR);
             player.setGameID(gameID);
+            final String view = Mode.SPECTATOR.toString();
+            if (GameETag.notModified(request, response, pageETag(gameID, version, view, player))) {
+                return "";
+            }
+            vm.put("viewMode", Mode.SPECTATOR);
+            boardHtml = renderBoard(gameID, version, view, liveGame != null ? liveGame::getBoard : archive::getBoard);
         }
         else { // Standard game mode
+            // getBoard(player) always shows the board from the player's own side
+            final boolean red = liveGame != null ? liveGame.isRedPlayer(player)
+                    : player.getUsername().equals(archive.getRedPlayerName());
+            final String view = Mode.PLAY + ":" + (red ? "RED" : "WHITE");
+            if (GameETag.notModified(request, response, pageETag(gameID, version, view, player))) {
+                return "";
+            }
             vm.put("viewMode", Mode.PLAY);
-            board = game.getBoard(player);
-            if (game.isGameOver()){
+            boardHtml = renderBoard(gameID, version, view, liveGame != null ? () -> liveGame.getBoard(player)
+                    : () -> archive.getBoard(player.getUsername()));
+            if (liveGame == null || liveGame.isGameOver()){
                 modeOptions.put("isGameOver", true);
-                modeOptions.put("gameOverMessage", game.getGameOverMessage());
+                modeOptions.put("gameOverMessage", liveGame != null ? liveGame.getGameOverMessage()
+                        : archive.getGameOverMessage());
             }
         }
 
@@ -98,12 +140,65 @@ public class GetGameRoute implements Route {
 
         vm.put("currentUser", player);
         vm.put("modeOptionsAsJSON", gson.toJson(modeOptions));
-        vm.put("redPlayer", game.getRedPlayer());
-        vm.put("whitePlayer", game.getWhitePlayer());
-        vm.put("activeColor", game.getActiveColor());
-        vm.put("board", new BoardView(board));
-        vm.put("gameID", game.getId());
+        vm.put("redPlayer", liveGame != null ? liveGame.getRedPlayer() : new Player(archive.getRedPlayerName()));
+        vm.put("whitePlayer", liveGame != null ? liveGame.getWhitePlayer() : new Player(archive.getWhitePlayerName()));
+        vm.put("activeColor", replay.getActiveColor());
+        vm.put("boardHtml", boardHtml);
+        vm.put("gameID", replay.getId());
+        // the polling routes answer 304 while the game is still at this version
+        vm.put("turnETag", GameETag.of(gameID, version));
 
         return templateEngine.render(new ModelAndView(vm, VIEW_NAME));
     }
+
+    /**
+     * Gets the board to open a replay at: the index query parameter if it names a board of the game,
+     * otherwise the player's replay position
+     * @param request the HTTP request
+     * @param game the game being replayed
+     * @param player the signed-in player
+     * @return the index of the board
+     */
+    private int replayPosition(Request request, ReplayableGame game, Player player) {
+        final String indexParam = request.queryParams(REPLAY_INDEX_PARAM);
+        if (indexParam != null) {
+            try {
+                final int index = Integer.parseInt(indexParam);
+                if (index == 0 || (index > 0 && game.spectatorHasNext(index - 1))) {
+                    return index;
+                }
+            } catch (NumberFormatException e) {
+                // fall back to the player's position
+            }
+        }
+        return this.gameManager.getReplayPosition(player.getUsername());
+    }
+
+    /**
+     * Builds the tag of the page, which also shows the signed-in player's name
+     * @param gameID the id of the game
+     * @param version the version of the game
+     * @param view the mode and perspective the board is shown in
+     * @param player the signed-in player
+     * @return the weak entity tag of the page
+     */
+    private static String pageETag(int gameID, long version, String view, Player player) {
+        return GameETag.of(gameID, version, view + ":" + player.getUsername());
+    }
+
+    /**
+     * Gets the HTML of a board from the cache, rendering it with board.ftl if it is not cached
+     * @param gameID the id of the game
+     * @param version the version of the game
+     * @param view the mode and perspective the board is shown in
+     * @param board fetches the board, only called when it is not cached
+     * @return the board's HTML
+     */
+    private String renderBoard(int gameID, long version, String view, Supplier<CheckerPiece[][]> board) {
+        return this.boardCache.get(gameID, version, view, () -> {
+            final Map<String, Object> boardVm = new HashMap<>(1);
+            boardVm.put("board", new BoardView(board.get()));
+            return templateEngine.render(new ModelAndView(boardVm, BOARD_VIEW_NAME));
+        });
+    }
 }
\ No newline at end of file
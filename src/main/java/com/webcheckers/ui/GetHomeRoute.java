@@ -4,7 +4,12 @@ import java.util.*;
 import java.util.logging.Logger;
 
 import com.webcheckers.appl.GameManager;
+import com.webcheckers.appl.GamePage;
+import com.webcheckers.appl.LobbyFeed;
 import com.webcheckers.appl.PlayerLobby;
+import com.webcheckers.appl.PlayerPage;
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.GameSummary;
 import com.webcheckers.model.Player;
 import spark.*;
 
@@ -19,6 +24,12 @@ public class GetHomeRoute implements Route {
 
     static final Logger LOG = Logger.getLogger(GetHomeRoute.class.getName());
 
+    static final String PLAYER_PREFIX_PARAM = "playerPrefix";
+    static final String PLAYER_CURSOR_PARAM = "playerCursor";
+    static final String AVAILABLE_PARAM = "available";
+    static final String SPECTATOR_CURSOR_PARAM = "spectatorCursor";
+    static final String REPLAY_CURSOR_PARAM = "replayCursor";
+
     static final Message WELCOME_MSG = Message.info("Welcome to the world of online Checkers.");
 
     final TemplateEngine templateEngine;
@@ -27,6 +38,8 @@ public class GetHomeRoute implements Route {
 
     private final GameManager gameManager;
 
+    private final LobbyFeed lobbyFeed;
+
 
     /**
     * Create the Spark Route (UI controller) to handle all {@code GET /} HTTP requests.
@@ -35,9 +48,23 @@ public class GetHomeRoute implements Route {
     *   the HTML template rendering engine
     */
     public GetHomeRoute(PlayerLobby playerLobby, GameManager gameManager, final TemplateEngine templateEngine) {
+        this(playerLobby, gameManager, new LobbyFeed(), templateEngine);
+    }
+
+    /**
+    * Create the Spark Route (UI controller) to handle all {@code GET /} HTTP requests.
+    *
+    * @param lobbyFeed
+    *   the feed the page polls for changes after it is rendered
+    * @param templateEngine
+    *   the HTML template rendering engine
+    */
+    public GetHomeRoute(PlayerLobby playerLobby, GameManager gameManager, LobbyFeed lobbyFeed,
+                        final TemplateEngine templateEngine) {
         this.playerLobby = playerLobby;
         this.templateEngine = Objects.requireNonNull(templateEngine, "templateEngine is required");
         this.gameManager = gameManager;
+        this.lobbyFeed = Objects.requireNonNull(lobbyFeed, "lobbyFeed is required");
         //
         LOG.config("GetHomeRoute is initialized.");
     }
@@ -65,6 +92,9 @@ public class GetHomeRoute implements Route {
 
         vm.put("title", "Welcome!");
 
+        // read before the lists so the page asks again for any change made while building them
+        vm.put("lobbyVersion", this.lobbyFeed.getVersion());
+
         // display a user message in the Home page
         final String error = request.queryParams("error");
         if (error == null) {
@@ -77,13 +107,50 @@ public class GetHomeRoute implements Route {
             vm.put("totalPlayers", this.playerLobby.getNumberOfPlayers());
         } else {
             vm.put("currentUser", player);
-            vm.put("playerList", this.playerLobby.getPlayerList(player.getUsername()));
+            // one page of the other players, optionally searched by name and limited to those not in a game
+            final String prefix = request.queryParams(PLAYER_PREFIX_PARAM);
+            final boolean availableOnly = Boolean.parseBoolean(request.queryParams(AVAILABLE_PARAM));
+            final PlayerPage players = this.playerLobby.getPlayerPage(prefix, request.queryParams(PLAYER_CURSOR_PARAM),
+                    PlayerLobby.DEFAULT_PAGE_SIZE, availableOnly, player.getUsername());
+            vm.put("playerList", players.getUsernames());
+            vm.put("playerPrefix", prefix == null ? "" : prefix);
+            vm.put("availableOnly", availableOnly);
+            if (players.hasMore()) {
+                vm.put("playerNextCursor", players.getNextCursor());
+            }
         }
 
-        vm.put("replayGameList", this.gameManager.getReplayGames());
-        vm.put("spectatorGameList", this.gameManager.getSpectatorGames());
+        // one page of each list, so the page costs the same however many games have been played
+        final GamePage<CheckersGame> spectatorGames = this.gameManager.getSpectatorGames(
+                cursor(request, SPECTATOR_CURSOR_PARAM), GameManager.DEFAULT_PAGE_SIZE);
+        final GamePage<GameSummary> replayGames = this.gameManager.getReplayGames(
+                cursor(request, REPLAY_CURSOR_PARAM), GameManager.DEFAULT_PAGE_SIZE);
+        vm.put("spectatorGameList", spectatorGames.getItems());
+        vm.put("replayGameList", replayGames.getItems());
+        if (spectatorGames.hasMore()) {
+            vm.put("spectatorNextCursor", spectatorGames.getNextCursor());
+        }
+        if (replayGames.hasMore()) {
+            vm.put("replayNextCursor", replayGames.getNextCursor());
+        }
 
         // render the View
         return templateEngine.render(new ModelAndView(vm , "home.ftl"));
     }
+
+    /**
+     * Reads a page cursor from the query string
+     * @return the cursor, or GamePage.FIRST if it is missing or not a number
+     */
+    private static long cursor(Request request, String name) {
+        final String value = request.queryParams(name);
+        if (value == null) {
+            return GamePage.FIRST;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return GamePage.FIRST;
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.LobbyFeed;
+import com.webcheckers.model.Player;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET the changes to the Home page since the version it was rendered at, so
+ * the page can update its lists in place instead of reloading. Query parameter: since (version).
+ */
+public class GetLobbyChangesRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetLobbyChangesRoute.class.getName());
+
+    static final String SINCE_PARAM = "since";
+
+    private final LobbyFeed lobbyFeed;
+    private final Gson gson;
+
+    public GetLobbyChangesRoute(LobbyFeed lobbyFeed, Gson gson) {
+        this.lobbyFeed = lobbyFeed;
+        this.gson = gson;
+        //
+        LOG.config("GetLobbyChangesRoute is initialized.");
+    }
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+        long since;
+        try {
+            since = Long.parseLong(request.queryParams(SINCE_PARAM));
+        } catch (NumberFormatException e) {
+            since = -1; // unknown version, the page must reload
+        }
+
+        // read the version first so a change made meanwhile is sent again rather than missed
+        final long version = this.lobbyFeed.getVersion();
+        final List<LobbyFeed.Change> changes = this.lobbyFeed.getChangesSince(since);
+
+        final Player player = request.session().attribute("player");
+        final int gameID = player != null && player.inGame() ? player.getGameID() : -1;
+
+        response.type("application/json");
+        return this.gson.toJson(new Changes(version, changes, gameID));
+    }
+
+    /**
+     * The JSON body of the response. reload is true when the changes are no longer kept, gameID is
+     * set when the signed-in player has been put into a game and should go to the Game page.
+     */
+    private static final class Changes {
+        private final long version;
+        private final boolean reload;
+        private final List<LobbyFeed.Change> changes;
+        private final Integer gameID;
+
+        Changes(long version, List<LobbyFeed.Change> changes, int gameID) {
+            this.version = version;
+            this.reload = changes == null;
+            this.changes = changes;
+            this.gameID = gameID == -1 ? null : gameID;
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.MetricsRegistry;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET the application's metrics in the Prometheus text format, for a
+ * Prometheus server or anyone with curl.
+ */
+public class GetMetricsRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetMetricsRoute.class.getName());
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry metrics;
+
+    public GetMetricsRoute(MetricsRegistry metrics) {
+        this.metrics = metrics;
+        //
+        LOG.config("GetMetricsRoute is initialized.");
+    }
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+        response.type(CONTENT_TYPE);
+        final StringBuilder body = new StringBuilder(8192);
+        this.metrics.write(body);
+        return body.toString();
+    }
+}
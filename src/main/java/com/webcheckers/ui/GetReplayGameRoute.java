@@ -0,0 +1,85 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.GameManager;
+import com.webcheckers.model.ArchivedGame;
+import com.webcheckers.util.Message;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.Base64;
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to GET the whole replay of a finished game in one response, so the Game page
+ * can step through it without asking the server again. A finished game never changes, so the
+ * response is addressed by game and replay tag alone, does not depend on the session and may be
+ * kept by the browser or any proxy for good. The tag is needed as well as the id since ids are
+ * given out again after a restart. Path parameters: gameID and tag.
+ */
+public class GetReplayGameRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(GetReplayGameRoute.class.getName());
+
+    static final String GAME_ID_PARAM = ":gameID";
+    static final String TAG_PARAM = ":tag";
+
+    private final GameManager gameManager;
+    private final Gson gson;
+
+    public GetReplayGameRoute(GameManager gameManager, Gson gson) {
+        this.gameManager = gameManager;
+        this.gson = gson;
+        //
+        LOG.config("GetReplayGameRoute is initialized.");
+    }
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+        response.type("application/json");
+
+        final int gameID;
+        try {
+            gameID = Integer.parseInt(request.params(GAME_ID_PARAM));
+        } catch (NumberFormatException e) {
+            return this.gson.toJson(Message.error("The game id must be a number"));
+        }
+
+        // only finished games are archived, a game in progress is still changing, and a tag for
+        // another game with this id must not be answered with this game's replay
+        final ArchivedGame game = this.gameManager.getArchivedGame(gameID);
+        if (game == null || !game.getReplayTag().equals(request.params(TAG_PARAM))) {
+            return this.gson.toJson(Message.error("There is no finished game " + gameID + " to replay"));
+        }
+
+        response.header(GameETag.CACHE_CONTROL_HEADER, GameETag.IMMUTABLE);
+        response.header(GameETag.ETAG_HEADER, "\"" + gameID + '-' + game.getReplayTag() + '"');
+        return this.gson.toJson(new ReplayGame(game));
+    }
+
+    /**
+     * The JSON body of the response, the archived game's arrays as base64: the initial board, the
+     * number of moves in each turn, the moves (BoardCodec move codes, 2 bytes each) and the replay
+     * boards (BoardCodec boards, 12 bytes each). The boards are sent as well as the moves so the
+     * page shows exactly the boards the server would, without knowing the rules of the game.
+     */
+    private static final class ReplayGame {
+        private final int gameID;
+        private final int count;
+        private final String initialBoard;
+        private final String turnSizes;
+        private final String moves;
+        private final String boards;
+
+        ReplayGame(ArchivedGame game) {
+            final Base64.Encoder base64 = Base64.getEncoder();
+            this.gameID = game.getId();
+            this.count = game.getKeyframeCount();
+            this.initialBoard = base64.encodeToString(game.getInitialBoard());
+            this.turnSizes = base64.encodeToString(game.getTurnSizes());
+            this.moves = base64.encodeToString(game.getMoves());
+            this.boards = base64.encodeToString(game.getKeyframes());
+        }
+    }
+
+}
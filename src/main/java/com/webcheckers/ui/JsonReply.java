@@ -0,0 +1,257 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The JSON bodies of the Ajax routes, as bytes Spark sends unchanged. The messages that moving
+ * and replaying send over and over are encoded once, up front, so answering them allocates nothing;
+ * any other message, and a turn check with its poll hint, is written field by field, without
+ * Gson's reflection. The output is the same JSON Gson writes for a {@link Message}, including its
+ * escaping of HTML characters.
+ */
+public final class JsonReply {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final ThreadLocal<Writer> WRITER = ThreadLocal.withInitial(Writer::new);
+
+    /** The replies to a replay step and a valid move */
+    public static final byte[] TRUE = encode(Message.info("true"));
+    public static final byte[] FALSE = encode(Message.info("false"));
+    public static final byte[] EMPTY = encode(Message.info(""));
+
+    private JsonReply() {
+    }
+
+    /**
+     * @param message the message to send
+     * @return the message as JSON, shared when it is one of the constant replies
+     */
+    public static byte[] of(Message message) {
+        if (message == Message.info("true")) {
+            return TRUE;
+        }
+        if (message == Message.info("false")) {
+            return FALSE;
+        }
+        if (message == Message.info("")) {
+            return EMPTY;
+        }
+        return encode(message);
+    }
+
+    /**
+     * @param value the answer to a yes or no question, such as whether it is the player's turn
+     * @return the shared info message "true" or "false"
+     */
+    public static byte[] of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    /**
+     * @param value the answer to a turn check
+     * @param nextPollMs how long the page should wait before it checks again
+     * @return the info message "true" or "false" with the wait, see {@link PollAdvisor}
+     */
+    public static byte[] of(boolean value, int nextPollMs) {
+        return writer().beginObject()
+                .name("text").value(value ? "true" : "false")
+                .name("type").value(Message.Type.INFO.name())
+                .name("nextPollMs").value(nextPollMs)
+                .endObject().toByteArray();
+    }
+
+    /**
+     * @param text the text of the error
+     * @return an error message as JSON, written without creating the {@link Message}
+     */
+    public static byte[] error(String text) {
+        return encode(text, Message.Type.ERROR);
+    }
+
+    /**
+     * @return a writer for a JSON object of any other shape, reused by the calling thread
+     */
+    static Writer writer() {
+        final Writer writer = WRITER.get();
+        writer.length = 0;
+        return writer;
+    }
+
+    private static byte[] encode(Message message) {
+        return encode(message.getText(), message.getType());
+    }
+
+    private static byte[] encode(String text, Message.Type type) {
+        final Writer writer = writer().beginObject();
+        // like Gson, a null text is left out
+        if (text != null) {
+            writer.name("text").value(text);
+        }
+        return writer.name("type").value(type.name()).endObject().toByteArray();
+    }
+
+    /**
+     * Writes one flat JSON object into a growing buffer. Names are written as they are, so they
+     * must be plain identifiers; string values are escaped as Gson escapes them.
+     */
+    static final class Writer {
+        private byte[] buffer = new byte[256];
+        private int length;
+        private boolean first;
+
+        private Writer() {
+        }
+
+        Writer beginObject() {
+            append('{');
+            this.first = true;
+            return this;
+        }
+
+        Writer name(String name) {
+            if (!this.first) {
+                append(',');
+            }
+            this.first = false;
+            append('"');
+            for (int i = 0; i < name.length(); i++) {
+                append(name.charAt(i));
+            }
+            append('"');
+            append(':');
+            return this;
+        }
+
+        Writer value(int value) {
+            if (value < 0) {
+                append('-');
+            } else {
+                value = -value;
+            }
+            // digits of the negated value, so Integer.MIN_VALUE needs no special case
+            final int start = this.length;
+            do {
+                append((char) ('0' - value % 10));
+                value /= 10;
+            } while (value != 0);
+            for (int i = start, j = this.length - 1; i < j; i++, j--) {
+                final byte digit = this.buffer[i];
+                this.buffer[i] = this.buffer[j];
+                this.buffer[j] = digit;
+            }
+            return this;
+        }
+
+        Writer value(String value) {
+            append('"');
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        append('\\');
+                        append(c);
+                        break;
+                    case '\n':
+                        append('\\');
+                        append('n');
+                        break;
+                    case '\t':
+                        append('\\');
+                        append('t');
+                        break;
+                    case '\r':
+                        append('\\');
+                        append('r');
+                        break;
+                    case '\b':
+                        append('\\');
+                        append('b');
+                        break;
+                    case '\f':
+                        append('\\');
+                        append('f');
+                        break;
+                    case '<':
+                    case '>':
+                    case '&':
+                    case '=':
+                    case '\'':
+                    case '\u2028':
+                    case '\u2029':
+                        unicode(c);
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            unicode(c);
+                        } else if (c < 0x80) {
+                            append(c);
+                        } else {
+                            utf8(value, i, c);
+                            if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                                i++;
+                            }
+                        }
+                }
+            }
+            append('"');
+            return this;
+        }
+
+        Writer endObject() {
+            append('}');
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(this.buffer, this.length);
+        }
+
+        private void unicode(char c) {
+            append('\\');
+            append('u');
+            append((char) HEX[c >> 12 & 0xF]);
+            append((char) HEX[c >> 8 & 0xF]);
+            append((char) HEX[c >> 4 & 0xF]);
+            append((char) HEX[c & 0xF]);
+        }
+
+        private void utf8(String value, int i, char c) {
+            if (c < 0x800) {
+                append((char) (0xC0 | c >> 6));
+                append((char) (0x80 | c & 0x3F));
+                return;
+            }
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+            } else if (Character.isSurrogate(c)) {
+                codePoint = '?';
+            }
+            if (codePoint < 0x80) {
+                append((char) codePoint);
+            } else if (codePoint < 0x10000) {
+                append((char) (0xE0 | codePoint >> 12));
+                append((char) (0x80 | codePoint >> 6 & 0x3F));
+                append((char) (0x80 | codePoint & 0x3F));
+            } else {
+                append((char) (0xF0 | codePoint >> 18));
+                append((char) (0x80 | codePoint >> 12 & 0x3F));
+                append((char) (0x80 | codePoint >> 6 & 0x3F));
+                append((char) (0x80 | codePoint & 0x3F));
+            }
+        }
+
+        private void append(char b) {
+            if (this.length == this.buffer.length) {
+                this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+            }
+            this.buffer[this.length++] = (byte) b;
+        }
+    }
+}
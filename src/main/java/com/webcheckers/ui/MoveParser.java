@@ -0,0 +1,139 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.model.BoardCodec;
+
+/**
+ * Reads the actionData the Game page sends with each move, {"start":{"row":r,"cell":c},
+ * "end":{"row":r,"cell":c}}, straight into a BoardCodec move code. The text is scanned in place,
+ * with no reflection and no objects made but the parser; the keys may come in any order and any
+ * whitespace is allowed, but nothing else is.
+ */
+final class MoveParser {
+
+    private final String text;
+    private int index;
+
+    private MoveParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a move
+     * @param json the actionData of the request
+     * @return the move code, see BoardCodec.encodeMove
+     * @throws IllegalArgumentException if the text is not a move or a square is not a dark square
+     */
+    static int parse(String json) {
+        if ( json == null ) {
+            throw new IllegalArgumentException("no move was sent");
+        }
+        final MoveParser parser = new MoveParser(json);
+        final int code = parser.move();
+        parser.skipWhitespace();
+        if ( parser.index < json.length() ) {
+            throw parser.error("unexpected text after the move");
+        }
+        return code;
+    }
+
+    /** {"start":position,"end":position} */
+    private int move() {
+        int from = -1;
+        int to = -1;
+        expect('{');
+        for (int i = 0; i < 2; i++) {
+            if ( i > 0 ) {
+                expect(',');
+            }
+            if ( key("start") && from < 0 ) {
+                from = position();
+            } else if ( key("end") && to < 0 ) {
+                to = position();
+            } else {
+                throw error("expected \"start\" and \"end\" once each");
+            }
+        }
+        expect('}');
+        return BoardCodec.encodeMove(from, to);
+    }
+
+    /** {"row":n,"cell":n}, as a square index */
+    private int position() {
+        int row = -1;
+        int cell = -1;
+        boolean hasRow = false;
+        boolean hasCell = false;
+        expect('{');
+        for (int i = 0; i < 2; i++) {
+            if ( i > 0 ) {
+                expect(',');
+            }
+            if ( key("row") && !hasRow ) {
+                row = integer();
+                hasRow = true;
+            } else if ( key("cell") && !hasCell ) {
+                cell = integer();
+                hasCell = true;
+            } else {
+                throw error("expected \"row\" and \"cell\" once each");
+            }
+        }
+        expect('}');
+        return BoardCodec.toSquare(row, cell);
+    }
+
+    /**
+     * Reads a quoted key and its colon if it is the given one; leaves the position alone otherwise
+     */
+    private boolean key(String name) {
+        skipWhitespace();
+        final int end = this.index + name.length() + 2;
+        if ( end > this.text.length() || this.text.charAt(this.index) != '"'
+                || !this.text.startsWith(name, this.index + 1) || this.text.charAt(end - 1) != '"' ) {
+            return false;
+        }
+        this.index = end;
+        expect(':');
+        return true;
+    }
+
+    /** A small whole number, as a row or cell is */
+    private int integer() {
+        skipWhitespace();
+        final boolean negative = this.index < this.text.length() && this.text.charAt(this.index) == '-';
+        if ( negative ) {
+            this.index++;
+        }
+        final int start = this.index;
+        int value = 0;
+        while ( this.index < this.text.length() && Character.isDigit(this.text.charAt(this.index)) ) {
+            value = value * 10 + (this.text.charAt(this.index++) - '0');
+            if ( value > 99 ) {
+                throw error("number out of range");
+            }
+        }
+        if ( this.index == start ) {
+            throw error("expected a number");
+        }
+        return negative ? -value : value;
+    }
+
+    private void expect(char c) {
+        skipWhitespace();
+        if ( this.index >= this.text.length() || this.text.charAt(this.index) != c ) {
+            throw error("expected '" + c + "'");
+        }
+        this.index++;
+    }
+
+    private void skipWhitespace() {
+        while ( this.index < this.text.length() && Character.isWhitespace(this.text.charAt(this.index)) ) {
+            this.index++;
+        }
+    }
+
+    private IllegalArgumentException error(String problem) {
+        return new IllegalArgumentException(problem + " at character " + this.index);
+    }
+
+}
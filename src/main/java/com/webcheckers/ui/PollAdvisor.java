@@ -0,0 +1,82 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.model.ArchivedGame;
+import com.webcheckers.model.CheckersGame;
+
+import java.util.function.DoubleSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Advises the game pages how long to wait before they next poll for a turn. The wait follows the
+ * game: short once the player to move has made a move, since the turn is about to be submitted,
+ * otherwise half of what the player usually still has left to think, and a quarter of their usual
+ * turn once they are over it. The busier the node, the longer every wait, so a loaded node is
+ * polled less rather than turning polls away.
+ */
+public class PollAdvisor {
+    private static final Logger LOG = Logger.getLogger(PollAdvisor.class.getName());
+
+    /** The header every poll reply carries the hint in, including a 304 without a body */
+    static final String NEXT_POLL_HEADER = "X-Next-Poll-Ms";
+
+    static final int MIN_POLL_MS = 1000;
+    /** The wait before a player has a turn to go by, as the pages waited before the hint */
+    static final int DEFAULT_POLL_MS = 5000;
+    static final int MAX_POLL_MS = 20_000;
+    /** How many times longer the wait is on a node at its limit */
+    static final int LOAD_BACKOFF = 4;
+
+    private final DoubleSupplier load;
+
+    /**
+     * @param load the node's load, from 0 when idle to 1 when at its limit
+     */
+    public PollAdvisor(DoubleSupplier load) {
+        this.load = load;
+        //
+        LOG.config("PollAdvisor is initialized.");
+    }
+
+    /**
+     * @param game the game being polled
+     * @return the milliseconds to wait before polling again
+     */
+    public int nextPollMs(CheckersGame game) {
+        return nextPollMs(game, System.currentTimeMillis());
+    }
+
+    /**
+     * @param game a finished game being polled, which no longer changes
+     * @return the longest wait
+     */
+    public int nextPollMs(ArchivedGame game) {
+        return MAX_POLL_MS;
+    }
+
+    /**
+     * @param game the game being polled
+     * @param now the time, in epoch milliseconds
+     * @return the milliseconds to wait before polling again
+     */
+    int nextPollMs(CheckersGame game, long now) {
+        final long wait;
+        if (game.getPendingMoveCount() > 0) {
+            wait = MIN_POLL_MS;
+        } else {
+            final long usual = game.getAverageTurnMillis(game.getActiveColor());
+            if (usual <= 0) {
+                wait = DEFAULT_POLL_MS;
+            } else {
+                final long left = usual - (now - game.getTurnStartTime());
+                wait = left > 0 ? left / 2 : usual / 4;
+            }
+        }
+        final double busy = Math.max(0, Math.min(1, this.load.getAsDouble()));
+        final long loaded = (long) (clamp(wait) * (1 + (LOAD_BACKOFF - 1) * busy));
+        return (int) Math.min(MAX_POLL_MS, loaded);
+    }
+
+    private static long clamp(long wait) {
+        return Math.max(MIN_POLL_MS, Math.min(MAX_POLL_MS, wait));
+    }
+}
@@ -0,0 +1,34 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.FlightRecordings;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.logging.Logger;
+
+/**
+ * The UI Controller to POST the start of a flight recording, which keeps the last minutes of
+ * game events, rule checks and JVM activity until it is dumped with
+ * {@link GetAdminRecordingRoute}. Starting while a recording runs leaves it running.
+ */
+public class PostAdminRecordingRoute implements Route {
+    private static final Logger LOG = Logger.getLogger(PostAdminRecordingRoute.class.getName());
+
+    static final String STARTED = "Recording started";
+    static final String RUNNING = "A recording is already running";
+
+    private final FlightRecordings recordings;
+
+    public PostAdminRecordingRoute(FlightRecordings recordings) {
+        this.recordings = recordings;
+        //
+        LOG.config("PostAdminRecordingRoute is initialized.");
+    }
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+        response.type("text/plain; charset=utf-8");
+        return this.recordings.start() ? STARTED : RUNNING;
+    }
+}
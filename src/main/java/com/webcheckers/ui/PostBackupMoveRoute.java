@@ -1,6 +1,5 @@
 package com.webcheckers.ui;
 
-import com.google.gson.Gson;
 import com.webcheckers.appl.GameManager;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
@@ -15,11 +14,9 @@ public class PostBackupMoveRoute implements Route {
     private static final Logger LOG = Logger.getLogger(PostValidateMoveRoute.class.getName());
 
     private final GameManager gameManager;
-    private final Gson gson;
 
-    public PostBackupMoveRoute(GameManager gameManager, Gson gson) {
+    public PostBackupMoveRoute(GameManager gameManager) {
         this.gameManager = gameManager;
-        this.gson = gson;
         //
         LOG.config("PostBackupMoveRoute is initialized.");
     }
@@ -31,6 +28,6 @@ public class PostBackupMoveRoute implements Route {
 
         final Message result = gameManager.undoMove(player.getGameID());
 
-        return gson.toJson(result);
+        return JsonReply.of(result);
     }
 }
\ No newline at end of file
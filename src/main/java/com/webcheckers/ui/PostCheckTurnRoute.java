@@ -1,10 +1,9 @@
 package com.webcheckers.ui;
 
-import com.google.gson.Gson;
 import com.webcheckers.appl.GameManager;
+import com.webcheckers.model.ArchivedGame;
 import com.webcheckers.model.CheckersGame;
 import com.webcheckers.model.Player;
-import com.webcheckers.util.Message;
 import spark.Request;
 import spark.Response;
 import spark.Route;
@@ -16,11 +15,11 @@ public class PostCheckTurnRoute implements Route {
     private static final Logger LOG = Logger.getLogger(PostCheckTurnRoute.class.getName());
 
     private final GameManager gameManager;
-    private final Gson gson;
+    private final PollAdvisor pollAdvisor;
 
-    public PostCheckTurnRoute(GameManager gameManager, Gson gson) {
+    public PostCheckTurnRoute(GameManager gameManager, PollAdvisor pollAdvisor) {
         this.gameManager = gameManager;
-        this.gson = gson;
+        this.pollAdvisor = pollAdvisor;
         //
         LOG.config("PostCheckTurnRoute is initialized.");
     }
@@ -38,17 +37,26 @@ public class PostCheckTurnRoute implements Route {
             if(queryParam != null) {
                 gameID = Integer.parseInt(queryParam);
             } else {
-                return this.gson.toJson(Message.error("Could not get game id"));
+                return JsonReply.error("Could not get game id");
             }
         }
 
 
-        CheckersGame game = gameManager.getGame(gameID);
-        Message result = Message.info("false");
-        if (game.isPlayersTurn(player)) {
-            result = Message.info("true");
+        // a compacted game is checked in its archived form rather than rebuilt on every poll
+        final CheckersGame game = gameManager.getLiveGame(gameID);
+        final ArchivedGame archive = game == null ? gameManager.getArchivedGame(gameID) : null;
+        if (game == null && archive == null) {
+            return JsonReply.error("Could not find game " + gameID);
         }
-
-        return this.gson.toJson(result);
+        // the wait before the next check goes with every reply, a 304 too
+        final int nextPollMs = game != null ? pollAdvisor.nextPollMs(game) : pollAdvisor.nextPollMs(archive);
+        response.header(PollAdvisor.NEXT_POLL_HEADER, Integer.toString(nextPollMs));
+        // whose turn it is only changes with the game's version
+        final long version = game != null ? game.getVersion() : archive.getVersion();
+        if (GameETag.notModified(request, response, GameETag.of(gameID, version))) {
+            return "";
+        }
+        final boolean playersTurn = game != null ? game.isPlayersTurn(player) : archive.isPlayersTurn(player.getUsername());
+        return JsonReply.of(playersTurn, nextPollMs);
     }
 }
@@ -1,10 +1,9 @@
 package com.webcheckers.ui;
 
-import com.google.gson.Gson;
 import com.webcheckers.appl.GameManager;
+import com.webcheckers.model.ArchivedGame;
 import com.webcheckers.model.CheckersGame;
 import com.webcheckers.model.Player;
-import com.webcheckers.util.Message;
 import spark.Request;
 import spark.Response;
 import spark.Route;
@@ -17,11 +16,11 @@ public class PostSpectatorCheckTurnRoute implements Route {
     private static final Logger LOG = Logger.getLogger(PostCheckTurnRoute.class.getName());
 
     private final GameManager gameManager;
-    private final Gson gson;
+    private final PollAdvisor pollAdvisor;
 
-    public PostSpectatorCheckTurnRoute(GameManager gameManager, Gson gson) {
+    public PostSpectatorCheckTurnRoute(GameManager gameManager, PollAdvisor pollAdvisor) {
         this.gameManager = gameManager;
-        this.gson = gson;
+        this.pollAdvisor = pollAdvisor;
 
         LOG.fine("PostSpectatorCheckTurnRoute is initiated.");
     }
@@ -31,17 +30,22 @@ public class PostSpectatorCheckTurnRoute implements Route {
         final Session httpSession = request.session();
         final Player player = httpSession.attribute("player");
 
-        CheckersGame game = gameManager.getGame(player.getGameID());
-
-        int i = 0;
-        Message result = Message.info("false");
-
-        // Refreshes every 5 seconds
-        if(i++ % 5 == 0 && !game.isGameOver()) {
-           result  = Message.info("true");
+        final int gameID = player.getGameID();
+        // a compacted game is checked in its archived form rather than rebuilt on every poll
+        final CheckersGame game = gameManager.getLiveGame(gameID);
+        final ArchivedGame archive = game == null ? gameManager.getArchivedGame(gameID) : null;
+        if (game == null && archive == null) {
+            return JsonReply.error("Could not find game " + gameID);
         }
-
-
-        return this.gson.toJson(result);
+        // the wait before the next check goes with every reply, a 304 too
+        final int nextPollMs = game != null ? pollAdvisor.nextPollMs(game) : pollAdvisor.nextPollMs(archive);
+        response.header(PollAdvisor.NEXT_POLL_HEADER, Integer.toString(nextPollMs));
+
+        // The page sends the tag of the version it shows, so anything but 304 means the board changed
+        final long version = game != null ? game.getVersion() : archive.getVersion();
+        if (GameETag.notModified(request, response, GameETag.of(gameID, version))) {
+            return "";
+        }
+        return JsonReply.of(true, nextPollMs);
     }
 }
@@ -1,6 +1,5 @@
 package com.webcheckers.ui;
 
-import com.google.gson.Gson;
 import com.webcheckers.appl.GameManager;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
@@ -9,17 +8,22 @@ import spark.Response;
 import spark.Route;
 import spark.Session;
 
+import java.util.Objects;
 import java.util.logging.Logger;
 
 public class PostSubmitTurnRoute implements Route {
     private static final Logger LOG = Logger.getLogger(PostValidateMoveRoute.class.getName());
 
     private final GameManager gameManager;
-    private final Gson gson;
+    private final BoardRenderCache boardCache;
 
-    public PostSubmitTurnRoute(GameManager gameManager, Gson gson) {
+    public PostSubmitTurnRoute(GameManager gameManager) {
+        this(gameManager, new BoardRenderCache());
+    }
+
+    public PostSubmitTurnRoute(GameManager gameManager, BoardRenderCache boardCache) {
         this.gameManager = gameManager;
-        this.gson = gson;
+        this.boardCache = Objects.requireNonNull(boardCache, "boardCache is required");
         //
         LOG.config("PostSubmitTurnRoute is initialized.");
     }
@@ -33,8 +37,10 @@ public class PostSubmitTurnRoute implements Route {
         final Message result = gameManager.isValidTurn(gameID);
         if (result.getType().equals(Message.Type.INFO)) {
             gameManager.submitTurn(gameID);
+            // no board of the turn before is shown again, so free them now rather than on the next view
+            boardCache.invalidate(gameID);
         }
 
-        return gson.toJson(result);
+        return JsonReply.of(result);
     }
 }
\ No newline at end of file
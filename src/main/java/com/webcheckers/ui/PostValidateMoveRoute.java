@@ -1,7 +1,7 @@
 package com.webcheckers.ui;
 
-import com.google.gson.Gson;
 import com.webcheckers.appl.GameManager;
+import com.webcheckers.model.BoardCodec;
 import com.webcheckers.model.Move;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
@@ -15,12 +15,12 @@ import java.util.logging.Logger;
 public class PostValidateMoveRoute implements Route {
     private static final Logger LOG = Logger.getLogger(PostValidateMoveRoute.class.getName());
 
+    static final String ACTION_DATA_PARAM = "actionData";
+
     private final GameManager gameManager;
-    private final Gson gson;
 
-    public PostValidateMoveRoute(GameManager gameManager, Gson gson) {
+    public PostValidateMoveRoute(GameManager gameManager) {
         this.gameManager = gameManager;
-        this.gson = gson;
         //
         LOG.config("PostValidateMoveRoute is initialized.");
     }
@@ -30,13 +30,21 @@ public class PostValidateMoveRoute implements Route {
         final Session httpSession = request.session();
         final Player player = httpSession.attribute("player");
         final int gameID = player.getGameID();
-        final Move move = gson.fromJson(request.queryParams("actionData"), Move.class);
+
+        // read by hand straight into a move code, this is the busiest request while a game is on
+        final int code;
+        try {
+            code = MoveParser.parse(request.queryParams(ACTION_DATA_PARAM));
+        } catch (IllegalArgumentException e) {
+            return JsonReply.error("The move could not be read: " + e.getMessage());
+        }
+        final Move move = BoardCodec.decodeMove(code);
 
         final Message result = this.gameManager.isValidMove(gameID, move);
         if (result.getType().equals(Message.Type.INFO)) {
             this.gameManager.makeMove(gameID, move);
         }
 
-        return gson.toJson(result);
+        return JsonReply.of(result);
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.webcheckers.ui;
+
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+/**
+ * Jetty's pool of platform threads, timing how long each task waited in the pool's queue before a
+ * thread took it. Jetty stamps a request only once a thread is already parsing it, so a request's
+ * own time stamp never shows the wait for a thread when the pool is saturated; the wait is kept
+ * for the task instead, and {@link #queueMillis()} reads it from the thread handling the request.
+ */
+class QueueTimedThreadPool extends QueuedThreadPool {
+
+    /** How long the task running on this thread waited, in nanoseconds, or null off the pool */
+    private static final ThreadLocal<Long> QUEUE_NANOS = new ThreadLocal<>();
+
+    QueueTimedThreadPool(int maxThreads, int minThreads, int idleTimeout) {
+        super(maxThreads, minThreads, idleTimeout);
+    }
+
+    @Override
+    public void execute(Runnable job) {
+        final long queuedAt = System.nanoTime();
+        super.execute(() -> {
+            final Long outer = QUEUE_NANOS.get();
+            QUEUE_NANOS.set(System.nanoTime() - queuedAt);
+            try {
+                job.run();
+            } finally {
+                if (outer == null) {
+                    QUEUE_NANOS.remove();
+                } else {
+                    QUEUE_NANOS.set(outer);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return how long the task the current thread is running waited for it, in milliseconds, or
+     *     -1 if the thread is not running a task of this pool
+     */
+    static long queueMillis() {
+        final Long nanos = QUEUE_NANOS.get();
+        return nanos == null ? -1 : nanos / 1_000_000;
+    }
+}
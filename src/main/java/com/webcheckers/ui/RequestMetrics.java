@@ -0,0 +1,199 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.LatencyHistogram;
+import com.webcheckers.util.MetricsRegistry;
+import spark.Filter;
+import spark.Request;
+import spark.Response;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The before and after filters that time every request into a latency summary per route and
+ * method. Requests are labelled with the route's path as it was registered, e.g.
+ * /replay/:gameID/:tag/record, so games do not each get a metric of their own;
+ * anything that matches no route is counted as "other".
+ */
+public class RequestMetrics {
+
+    static final String DURATION_METRIC = "webcheckers_http_request_duration_seconds";
+    private static final String DURATION_HELP = "Time to handle a request, by route";
+
+    static final String OTHER_ROUTE = "other";
+
+    static final String THREAD_METRIC = "webcheckers_http_request_thread_duration_seconds";
+    private static final String THREAD_HELP = "Time to handle a request, by the kind of thread handling it";
+
+    private static final String START_ATTRIBUTE = RequestMetrics.class.getName() + ".start";
+
+    private final MetricsRegistry metrics;
+
+    /** Routes without path parameters by their path, the others in the order they were added */
+    private final Map<String, Timers> exactRoutes = new ConcurrentHashMap<>();
+    private final List<Timers> patternRoutes = new CopyOnWriteArrayList<>();
+    private final Timers otherRoute;
+
+    /** Every request again, by whether it ran on a platform or a virtual thread */
+    private final LatencyHistogram platformThreads;
+    private final LatencyHistogram virtualThreads;
+
+    public RequestMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+        this.otherRoute = new Timers(OTHER_ROUTE, OTHER_ROUTE);
+        this.platformThreads = metrics.summary(THREAD_METRIC, THREAD_HELP, "thread=\"platform\"");
+        this.virtualThreads = metrics.summary(THREAD_METRIC, THREAD_HELP, "thread=\"virtual\"");
+    }
+
+    /**
+     * Labels the requests of a route with its path
+     * @param path the path the route was registered with
+     */
+    public void addRoute(String path) {
+        addRoute(path, path);
+    }
+
+    /**
+     * Labels the requests of a route
+     * @param path the path the route was registered with, may hold :parameters and a trailing *
+     * @param label the route label, shared by routes that should be counted together
+     */
+    public void addRoute(String path, String label) {
+        final Timers timers = new Timers(path, label);
+        if (path.indexOf(':') < 0 && path.indexOf('*') < 0) {
+            this.exactRoutes.put(path, timers);
+        } else {
+            this.patternRoutes.add(timers);
+        }
+    }
+
+    /**
+     * @return the before filter, noting when the request started
+     */
+    public Filter start() {
+        return (request, response) -> request.raw().setAttribute(START_ATTRIBUTE, System.nanoTime());
+    }
+
+    /**
+     * @return the filter to run after everything else, even when a route fails
+     */
+    public Filter stop() {
+        return this::stop;
+    }
+
+    private void stop(Request request, Response response) {
+        final Object start = request.raw().getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        final long micros = (System.nanoTime() - (Long) start) / 1000;
+        histogram(request.requestMethod(), request.pathInfo()).record(micros);
+        (VirtualThreadPool.isVirtual(Thread.currentThread()) ? this.virtualThreads : this.platformThreads).record(micros);
+    }
+
+    /**
+     * @return the summary of a method and path
+     */
+    LatencyHistogram histogram(String method, String path) {
+        return route(path).get(method);
+    }
+
+    /**
+     * @return the label the requests of a path are counted under
+     */
+    String routeLabel(String path) {
+        return route(path).label;
+    }
+
+    private Timers route(String path) {
+        final Timers exact = this.exactRoutes.get(path);
+        if (exact != null) {
+            return exact;
+        }
+        for (Timers timers : this.patternRoutes) {
+            if (matches(timers.path, path)) {
+                return timers;
+            }
+        }
+        return this.otherRoute;
+    }
+
+    /**
+     * Matches a path against a Spark route path segment by segment: a :parameter matches any one
+     * segment and a trailing * matches the rest
+     */
+    static boolean matches(String pattern, String path) {
+        int p = 0;
+        int i = 0;
+        while (p < pattern.length() && i < path.length()) {
+            final char c = pattern.charAt(p);
+            if (c == '*') {
+                return true;
+            }
+            if (c == ':') {
+                // skip one segment of each
+                while (p < pattern.length() && pattern.charAt(p) != '/') {
+                    p++;
+                }
+                final int start = i;
+                while (i < path.length() && path.charAt(i) != '/') {
+                    i++;
+                }
+                if (i == start) {
+                    return false;
+                }
+                continue;
+            }
+            if (c != path.charAt(i)) {
+                return false;
+            }
+            p++;
+            i++;
+        }
+        return p == pattern.length() && i == path.length();
+    }
+
+    /**
+     * The summaries of one route, GET, POST and any other method, made when first needed
+     */
+    private final class Timers {
+        private final String path;
+        private final String label;
+        private volatile LatencyHistogram get;
+        private volatile LatencyHistogram post;
+        private volatile LatencyHistogram other;
+
+        Timers(String path, String label) {
+            this.path = path;
+            this.label = label;
+        }
+
+        LatencyHistogram get(String method) {
+            switch (method) {
+                case "GET":
+                    if (this.get == null) {
+                        this.get = summary(method);
+                    }
+                    return this.get;
+                case "POST":
+                    if (this.post == null) {
+                        this.post = summary(method);
+                    }
+                    return this.post;
+                default:
+                    if (this.other == null) {
+                        this.other = summary("other");
+                    }
+                    return this.other;
+            }
+        }
+
+        private LatencyHistogram summary(String method) {
+            // the registry hands every caller the same summary for the same labels
+            return metrics.summary(DURATION_METRIC, DURATION_HELP,
+                    "method=\"" + method + "\",route=\"" + this.label + '"');
+        }
+    }
+}
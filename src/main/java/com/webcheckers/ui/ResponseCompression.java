@@ -0,0 +1,160 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.Settings;
+import spark.Filter;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The after-filter that gzips the HTML pages FreeMarker renders and the JSON the Gson routes
+ * return as a String, when the browser accepts it and the body is big enough to be worth it. Pages
+ * are very repetitive (the board alone is 64 nearly identical Space cells) and shrink several times
+ * over. Only String bodies are covered: Spark does not show an after-filter the byte[] bodies the
+ * Ajax routes encode their JSON into, so those, and responses a route has already written itself
+ * such as static files, are sent as they are.
+ */
+public class ResponseCompression implements Filter {
+    private static final Logger LOG = Logger.getLogger(ResponseCompression.class.getName());
+
+    /** Bodies smaller than this are sent as they are; a gzip header and trailer alone are 18 bytes */
+    public static final int DEFAULT_MIN_BYTES = 512;
+    public static final int DEFAULT_LEVEL = 6;
+
+    private static final String MIN_BYTES_SETTING = "compression.minBytes";
+    private static final String LEVEL_SETTING = "compression.level";
+
+    /** Spark's type for a route that sets none */
+    static final String DEFAULT_TYPE = "text/html; charset=utf-8";
+
+    private final int minBytes;
+    private final int level;
+
+    /** Bodies compressed, their bytes before and after, for the bytes saved */
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+
+    /**
+     * Creates the filter from the compression.minBytes and compression.level settings, using
+     * the defaults for any that are not set
+     * @param settings the application's settings
+     */
+    public ResponseCompression(Settings settings) {
+        this(settings.getInt(MIN_BYTES_SETTING, DEFAULT_MIN_BYTES, 0, Integer.MAX_VALUE),
+                settings.getInt(LEVEL_SETTING, DEFAULT_LEVEL, Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION));
+    }
+
+    /**
+     * Creates the filter
+     * @param minBytes the smallest body compressed, in bytes
+     * @param level the deflate level, 1 (fastest) to 9 (smallest)
+     */
+    public ResponseCompression(int minBytes, int level) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("The compression level must be from 1 to 9, not " + level);
+        }
+        this.minBytes = minBytes;
+        this.level = level;
+        //
+        LOG.config("ResponseCompression is initialized, level " + level + " from " + minBytes + " bytes.");
+    }
+
+    @Override
+    public void handle(Request request, Response response) throws Exception {
+        final HttpServletResponse raw = response.raw();
+        // a route that wrote its own body, or a 304 with none, has nothing left to compress
+        final String body = response.body();
+        if (body == null || raw.isCommitted() || raw.containsHeader("Content-Encoding")) {
+            return;
+        }
+        final String type = raw.getContentType() == null ? DEFAULT_TYPE : raw.getContentType();
+        if (!isCompressible(type)) {
+            return;
+        }
+        response.header("Vary", GetAssetRoute.ACCEPT_ENCODING_HEADER);
+
+        final byte[] plain = body.getBytes(StandardCharsets.UTF_8);
+        if (plain.length < this.minBytes || !GetAssetRoute.acceptsGzip(request.headers(GetAssetRoute.ACCEPT_ENCODING_HEADER))) {
+            return;
+        }
+        final byte[] gzip = gzip(plain, this.level);
+        if (gzip.length >= plain.length) {
+            return;
+        }
+        this.responses.increment();
+        this.bytesIn.add(plain.length);
+        this.bytesOut.add(gzip.length);
+
+        // written directly, as Spark's own gzip filter would compress it again at its fixed level
+        raw.setContentType(type);
+        raw.setHeader("Content-Encoding", "gzip");
+        raw.setContentLength(gzip.length);
+        raw.getOutputStream().write(gzip);
+        raw.flushBuffer();
+    }
+
+    /**
+     * @return true for HTML and JSON, the bodies the templates and Gson produce
+     */
+    static boolean isCompressible(String contentType) {
+        final String type = contentType.toLowerCase();
+        return type.startsWith("text/html") || type.startsWith("application/json");
+    }
+
+    /**
+     * Gzips a body at the given level
+     */
+    static byte[] gzip(byte[] plain, int level) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                this.def.setLevel(level);
+            }
+        }) {
+            gzip.write(plain);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return the number of responses compressed
+     */
+    public long getCompressedCount() {
+        return this.responses.sum();
+    }
+
+    /**
+     * @return the bytes of the compressed bodies before compression
+     */
+    public long getBytesIn() {
+        return this.bytesIn.sum();
+    }
+
+    /**
+     * @return the bytes compression saved
+     */
+    public long getBytesSaved() {
+        return this.bytesIn.sum() - this.bytesOut.sum();
+    }
+
+    /**
+     * @return the settings in effect by name, for the metrics
+     */
+    public Map<String, Long> asMap() {
+        final Map<String, Long> map = new LinkedHashMap<>();
+        map.put("compression_min_bytes", (long) this.minBytes);
+        map.put("compression_level", (long) this.level);
+        return map;
+    }
+}
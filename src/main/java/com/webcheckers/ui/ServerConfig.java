@@ -0,0 +1,219 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.Settings;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The settings of the embedded Jetty server: the port, the request thread pool, the connections,
+ * how big a request may be and when polls are turned away. Each is read from the {@link Settings} under server.*, and the
+ * defaults are what Spark used before they could be set.
+ */
+public final class ServerConfig {
+
+    public static final int DEFAULT_PORT = 4567;
+    public static final int DEFAULT_MIN_THREADS = 8;
+    public static final int DEFAULT_MAX_THREADS = 200;
+    public static final int DEFAULT_THREAD_IDLE_TIMEOUT_MILLIS = 60_000;
+    /** 0 leaves the accept backlog to the operating system */
+    public static final int DEFAULT_ACCEPT_QUEUE_SIZE = 0;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 3_600_000;
+    public static final int DEFAULT_MAX_REQUEST_HEADER_BYTES = 8 * 1024;
+    public static final int DEFAULT_MAX_FORM_CONTENT_BYTES = 200_000;
+    public static final int DEFAULT_MAX_FORM_KEYS = 1000;
+    /**
+     * The requests and polls in flight at which polls are turned away on virtual threads, where
+     * there is no pool to size them from; what runs out first is the CPU and heap, not threads
+     */
+    public static final int DEFAULT_VIRTUAL_MAX_IN_FLIGHT = 2000;
+    public static final int DEFAULT_VIRTUAL_MAX_POLLS_IN_FLIGHT = 1000;
+    public static final int DEFAULT_MAX_POLL_QUEUE_MILLIS = 1000;
+    public static final int DEFAULT_MAX_EXPORTS_IN_FLIGHT = 2;
+    public static final int DEFAULT_POLL_RETRY_AFTER_SECONDS = 2;
+
+    private final int port;
+    private final int minThreads;
+    private final int maxThreads;
+    private final int threadIdleTimeoutMillis;
+    private final int acceptQueueSize;
+    private final long idleTimeoutMillis;
+    private final int maxRequestHeaderBytes;
+    private final int maxFormContentBytes;
+    private final int maxFormKeys;
+    private final boolean virtualThreads;
+    private final int maxInFlight;
+    private final int maxPollsInFlight;
+    private final int maxPollQueueMillis;
+    private final int maxExportsInFlight;
+    private final int pollRetryAfterSeconds;
+
+    /**
+     * Reads the server settings
+     * @param settings the application's settings
+     */
+    public ServerConfig(Settings settings) {
+        this.port = settings.getInt("server.port", DEFAULT_PORT, 0, 65535);
+        this.maxThreads = settings.getInt("server.maxThreads", DEFAULT_MAX_THREADS, 4, 10_000);
+        this.minThreads = Math.min(this.maxThreads,
+                settings.getInt("server.minThreads", DEFAULT_MIN_THREADS, 1, 10_000));
+        this.threadIdleTimeoutMillis = settings.getInt("server.threadIdleTimeoutMillis",
+                DEFAULT_THREAD_IDLE_TIMEOUT_MILLIS, 1, Integer.MAX_VALUE);
+        this.acceptQueueSize = settings.getInt("server.acceptQueueSize", DEFAULT_ACCEPT_QUEUE_SIZE, 0, 65535);
+        this.idleTimeoutMillis = settings.getLong("server.idleTimeoutMillis", DEFAULT_IDLE_TIMEOUT_MILLIS,
+                1, Long.MAX_VALUE);
+        this.maxRequestHeaderBytes = settings.getInt("server.maxRequestHeaderBytes", DEFAULT_MAX_REQUEST_HEADER_BYTES,
+                1024, 1024 * 1024);
+        this.maxFormContentBytes = settings.getInt("server.maxFormContentBytes", DEFAULT_MAX_FORM_CONTENT_BYTES,
+                1024, Integer.MAX_VALUE);
+        this.maxFormKeys = settings.getInt("server.maxFormKeys", DEFAULT_MAX_FORM_KEYS, 1, Integer.MAX_VALUE);
+        this.virtualThreads = settings.getBoolean("server.virtualThreads", false);
+        // by default polls may take half the threads, and none once three quarters are busy; virtual
+        // threads are not limited by server.maxThreads, so it says nothing about their load
+        this.maxInFlight = settings.getInt("server.maxInFlight",
+                this.virtualThreads ? DEFAULT_VIRTUAL_MAX_IN_FLIGHT : this.maxThreads * 3 / 4, 1, Integer.MAX_VALUE);
+        this.maxPollsInFlight = settings.getInt("server.maxPollsInFlight",
+                this.virtualThreads ? DEFAULT_VIRTUAL_MAX_POLLS_IN_FLIGHT : this.maxThreads / 2, 1, Integer.MAX_VALUE);
+        this.maxPollQueueMillis = settings.getInt("server.maxPollQueueMillis", DEFAULT_MAX_POLL_QUEUE_MILLIS,
+                1, Integer.MAX_VALUE);
+        this.maxExportsInFlight = settings.getInt("server.maxExportsInFlight", DEFAULT_MAX_EXPORTS_IN_FLIGHT,
+                1, Integer.MAX_VALUE);
+        this.pollRetryAfterSeconds = settings.getInt("server.pollRetryAfterSeconds", DEFAULT_POLL_RETRY_AFTER_SECONDS,
+                1, 3600);
+    }
+
+    /**
+     * @return the defaults, as when nothing is set
+     */
+    public static ServerConfig defaults() {
+        return new ServerConfig(Settings.defaults());
+    }
+
+    /**
+     * @return the port to listen on, 0 for any free port
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @return the request threads kept even when idle
+     */
+    public int getMinThreads() {
+        return minThreads;
+    }
+
+    /**
+     * @return the most request threads, and so requests handled at once
+     */
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * @return how long a thread above the minimum waits for work before it ends
+     */
+    public int getThreadIdleTimeoutMillis() {
+        return threadIdleTimeoutMillis;
+    }
+
+    /**
+     * @return the backlog of connections not yet accepted, 0 for the operating system's
+     */
+    public int getAcceptQueueSize() {
+        return acceptQueueSize;
+    }
+
+    /**
+     * @return how long a connection may go without traffic before it is closed
+     */
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    /**
+     * @return the largest request line and headers, larger requests get a 431
+     */
+    public int getMaxRequestHeaderBytes() {
+        return maxRequestHeaderBytes;
+    }
+
+    /**
+     * @return the largest form body, such as a move or sign-in
+     */
+    public int getMaxFormContentBytes() {
+        return maxFormContentBytes;
+    }
+
+    /**
+     * @return the most fields in a form
+     */
+    public int getMaxFormKeys() {
+        return maxFormKeys;
+    }
+
+    /**
+     * @return true to run requests on virtual threads, when the JVM has them
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * @return the requests in flight, of any route, at which polls are turned away
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @return the polls in flight at which more polls are turned away
+     */
+    public int getMaxPollsInFlight() {
+        return maxPollsInFlight;
+    }
+
+    /**
+     * @return how long a poll may wait for a thread before it is turned away
+     */
+    public int getMaxPollQueueMillis() {
+        return maxPollQueueMillis;
+    }
+
+    /**
+     * @return the archive exports in flight at which more exports are turned away
+     */
+    public int getMaxExportsInFlight() {
+        return maxExportsInFlight;
+    }
+
+    /**
+     * @return how long a turned-away poll is told to wait before it polls again
+     */
+    public int getPollRetryAfterSeconds() {
+        return pollRetryAfterSeconds;
+    }
+
+    /**
+     * @return every setting by name, for the metrics; true is 1
+     */
+    public Map<String, Long> asMap() {
+        final Map<String, Long> map = new LinkedHashMap<>();
+        map.put("port", (long) port);
+        map.put("min_threads", (long) minThreads);
+        map.put("max_threads", (long) maxThreads);
+        map.put("thread_idle_timeout_millis", (long) threadIdleTimeoutMillis);
+        map.put("accept_queue_size", (long) acceptQueueSize);
+        map.put("idle_timeout_millis", idleTimeoutMillis);
+        map.put("max_request_header_bytes", (long) maxRequestHeaderBytes);
+        map.put("max_form_content_bytes", (long) maxFormContentBytes);
+        map.put("max_form_keys", (long) maxFormKeys);
+        map.put("virtual_threads", virtualThreads ? 1L : 0L);
+        map.put("max_in_flight", (long) maxInFlight);
+        map.put("max_polls_in_flight", (long) maxPollsInFlight);
+        map.put("max_poll_queue_millis", (long) maxPollQueueMillis);
+        map.put("max_exports_in_flight", (long) maxExportsInFlight);
+        map.put("poll_retry_after_seconds", (long) pollRetryAfterSeconds);
+        return map;
+    }
+}
@@ -0,0 +1,341 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.model.Player;
+import com.webcheckers.util.Settings;
+import spark.Filter;
+import spark.Request;
+import spark.Response;
+import spark.Session;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * The before and after filters that watch for requests running longer than a threshold. A
+ * daemon thread checks the requests in flight twice per threshold, and takes the stack of
+ * any over it from the thread still handling it, so the evidence is what the request was doing at
+ * the time rather than a latency number afterwards. The last few slow requests are kept in a
+ * ring, with their route, player and game, for the admin page.
+ */
+public class SlowRequestWatchdog {
+    private static final Logger LOG = Logger.getLogger(SlowRequestWatchdog.class.getName());
+
+    public static final long DEFAULT_THRESHOLD_MILLIS = 1000;
+    public static final int DEFAULT_CAPACITY = 50;
+
+    private static final String THRESHOLD_SETTING = "slowRequest.thresholdMillis";
+    private static final String CAPACITY_SETTING = "slowRequest.capacity";
+
+    private static final String IN_FLIGHT_ATTRIBUTE = SlowRequestWatchdog.class.getName() + ".request";
+
+    private final RequestMetrics requestMetrics;
+    private final long thresholdNanos;
+
+    private final Set<InFlight> inFlight = ConcurrentHashMap.newKeySet();
+
+    /** The slow requests, oldest overwritten first */
+    private final SlowRequest[] ring;
+    private int next;
+
+    private final LongAdder slowRequests = new LongAdder();
+
+    private Thread checker;
+
+    /**
+     * Creates the watchdog from the slowRequest.thresholdMillis and slowRequest.capacity
+     * settings, using the defaults for any that are not set
+     * @param requestMetrics the routes requests are labelled with
+     * @param settings the application's settings
+     */
+    public SlowRequestWatchdog(RequestMetrics requestMetrics, Settings settings) {
+        this(requestMetrics, settings.getLong(THRESHOLD_SETTING, DEFAULT_THRESHOLD_MILLIS, 1, Long.MAX_VALUE / 1_000_000),
+                settings.getInt(CAPACITY_SETTING, DEFAULT_CAPACITY, 1, 10_000));
+    }
+
+    /**
+     * Creates the watchdog
+     * @param requestMetrics the routes requests are labelled with
+     * @param thresholdMillis how long a request runs before it is slow
+     * @param capacity how many slow requests are kept
+     */
+    public SlowRequestWatchdog(RequestMetrics requestMetrics, long thresholdMillis, int capacity) {
+        if (thresholdMillis <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("The slow request threshold and capacity must be positive");
+        }
+        this.requestMetrics = requestMetrics;
+        this.thresholdNanos = thresholdMillis * 1_000_000;
+        this.ring = new SlowRequest[capacity];
+        //
+        LOG.config("SlowRequestWatchdog is initialized, flagging requests over " + thresholdMillis + " ms.");
+    }
+
+    /**
+     * Starts the daemon thread checking the requests in flight, twice per threshold
+     */
+    public synchronized void watch() {
+        if (this.checker != null) {
+            return;
+        }
+        final long interval = Math.max(10, this.thresholdNanos / 2_000_000);
+        this.checker = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(interval);
+                    check(System.nanoTime());
+                }
+            } catch (InterruptedException e) {
+                // stopped
+            }
+        }, "slow-request-watchdog");
+        this.checker.setDaemon(true);
+        this.checker.start();
+    }
+
+    /**
+     * @return the before filter, putting the request in flight
+     */
+    public Filter start() {
+        return this::start;
+    }
+
+    /**
+     * @return the filter to run after everything else, even when a route fails
+     */
+    public Filter stop() {
+        return this::stop;
+    }
+
+    /**
+     * @return the slow requests kept, the latest first
+     */
+    public synchronized List<SlowRequest> getSlowRequests() {
+        final List<SlowRequest> slow = new ArrayList<>(this.ring.length);
+        for (int i = 1; i <= this.ring.length; i++) {
+            final SlowRequest request = this.ring[Math.floorMod(this.next - i, this.ring.length)];
+            if (request == null) {
+                break;
+            }
+            slow.add(request);
+        }
+        return slow;
+    }
+
+    /**
+     * @return how long a request runs before it is slow
+     */
+    public long getThresholdMillis() {
+        return this.thresholdNanos / 1_000_000;
+    }
+
+    /**
+     * @return the number of slow requests since the server started, kept or not
+     */
+    public long getSlowRequestCount() {
+        return this.slowRequests.sum();
+    }
+
+    /**
+     * @return the settings in effect by name, for the metrics
+     */
+    public Map<String, Long> asMap() {
+        final Map<String, Long> map = new LinkedHashMap<>();
+        map.put("slow_request_threshold_millis", getThresholdMillis());
+        map.put("slow_request_capacity", (long) this.ring.length);
+        return map;
+    }
+
+    //
+    // Private methods
+    //
+
+    private void start(Request request, Response response) {
+        // a request without a session is not given one just to be watched
+        final Session session = request.session(false);
+        final Player player = session == null ? null : session.attribute("player");
+        final InFlight flight = new InFlight(Thread.currentThread(), System.nanoTime(),
+                request.requestMethod(), request.pathInfo(), player);
+        request.raw().setAttribute(IN_FLIGHT_ATTRIBUTE, flight);
+        this.inFlight.add(flight);
+    }
+
+    private void stop(Request request, Response response) {
+        final InFlight flight = (InFlight) request.raw().getAttribute(IN_FLIGHT_ATTRIBUTE);
+        if (flight == null) {
+            return;
+        }
+        this.inFlight.remove(flight);
+        final long elapsed = System.nanoTime() - flight.start;
+        synchronized (flight) {
+            if (flight.slow != null) {
+                flight.slow.finish(elapsed / 1_000_000);
+            } else if (elapsed >= this.thresholdNanos) {
+                // slow, but done before the checker saw it
+                add(flight.slowRequest(elapsed, null)).finish(elapsed / 1_000_000);
+            }
+        }
+    }
+
+    /**
+     * Takes the stack of every request in flight that has gone over the threshold and was not
+     * taken before
+     * @param now the time, from System.nanoTime
+     */
+    void check(long now) {
+        for (InFlight flight : this.inFlight) {
+            final long elapsed = now - flight.start;
+            if (elapsed < this.thresholdNanos || flight.slow != null) {
+                continue;
+            }
+            final StackTraceElement[] stack = flight.thread.getStackTrace();
+            synchronized (flight) {
+                // the request may have finished while the stack was taken, then it is the thread's next job
+                if (this.inFlight.contains(flight) && flight.slow == null) {
+                    add(flight.slowRequest(elapsed, stack));
+                }
+            }
+        }
+    }
+
+    private SlowRequest add(SlowRequest request) {
+        this.slowRequests.increment();
+        LOG.warning(() -> "Slow request: " + request.getMethod() + " " + request.getPath() + " running for "
+                + request.getCapturedMillis() + " ms.");
+        synchronized (this) {
+            this.ring[this.next] = request;
+            this.next = (this.next + 1) % this.ring.length;
+        }
+        return request;
+    }
+
+    //
+    // Inner Types
+    //
+
+    /**
+     * A request being handled, and the record made of it once it is slow
+     */
+    private final class InFlight {
+        private final Thread thread;
+        private final long start;
+        private final String method;
+        private final String path;
+        private final Player player;
+        private volatile SlowRequest slow;
+
+        InFlight(Thread thread, long start, String method, String path, Player player) {
+            this.thread = thread;
+            this.start = start;
+            this.method = method;
+            this.path = path;
+            this.player = player;
+        }
+
+        SlowRequest slowRequest(long elapsed, StackTraceElement[] stack) {
+            final long millis = elapsed / 1_000_000;
+            this.slow = new SlowRequest(Instant.now().minusMillis(millis), this.method, this.path,
+                    requestMetrics.routeLabel(this.path),
+                    this.player == null ? null : this.player.getUsername(),
+                    this.player == null ? -1 : this.player.getGameID(),
+                    this.thread.getName(), millis, stack);
+            return this.slow;
+        }
+    }
+
+    /**
+     * One slow request, as it was when its stack was taken
+     */
+    public static final class SlowRequest {
+        private final Instant started;
+        private final String method;
+        private final String path;
+        private final String route;
+        private final String username;
+        private final int gameId;
+        private final String thread;
+        private final long capturedMillis;
+        private final StackTraceElement[] stack;
+        private volatile long totalMillis = -1;
+
+        SlowRequest(Instant started, String method, String path, String route, String username, int gameId,
+                    String thread, long capturedMillis, StackTraceElement[] stack) {
+            this.started = started;
+            this.method = method;
+            this.path = path;
+            this.route = route;
+            this.username = username;
+            this.gameId = gameId;
+            this.thread = thread;
+            this.capturedMillis = capturedMillis;
+            this.stack = stack;
+        }
+
+        void finish(long totalMillis) {
+            this.totalMillis = totalMillis;
+        }
+
+        public Instant getStarted() {
+            return started;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return the route label, as in the request metrics
+         */
+        public String getRoute() {
+            return route;
+        }
+
+        /**
+         * @return the signed-in player's username, null when nobody was signed in
+         */
+        public String getUsername() {
+            return username;
+        }
+
+        /**
+         * @return the player's game when the stack was taken, -1 when in none
+         */
+        public int getGameId() {
+            return gameId;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * @return how long the request had run when its stack was taken
+         */
+        public long getCapturedMillis() {
+            return capturedMillis;
+        }
+
+        /**
+         * @return the handler thread's stack, null when the request was over before it could be taken
+         */
+        public StackTraceElement[] getStack() {
+            return stack;
+        }
+
+        /**
+         * @return how long the request took in all, -1 while it is still running
+         */
+        public long getTotalMillis() {
+            return totalMillis;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.webcheckers.ui;
+
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * The Jetty thread pool that runs every task on a new virtual thread, in place of Jetty's bounded
+ * pool of platform threads, so a request blocked waiting costs a few hundred bytes of heap
+ * rather than a whole thread and the node is no longer limited by its maximum threads.
+ *
+ * <p>
+ * Virtual threads came with Java 21, and the application is built for Java 11, so they are
+ * reached by reflection: {@link #isSupported()} is false on an older JVM and the server keeps
+ * Jetty's own pool. Java 19 and 20 have them only as a preview, where Thread.isVirtual exists but
+ * making one fails, so they count as older. Jetty's acceptor and selector loops run on virtual threads too; the JDK adds
+ * carrier threads while a selector blocks.
+ * </p>
+ */
+public class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+    private static final Logger LOG = Logger.getLogger(VirtualThreadPool.class.getName());
+
+    /** Names the threads for stack dumps: jetty-virtual-0, jetty-virtual-1, ... */
+    static final String NAME_PREFIX = "jetty-virtual-";
+
+    /** The first Java version with virtual threads out of preview */
+    static final int MIN_JAVA_VERSION = 21;
+
+    /** Thread.isVirtual, or null before Java 19 */
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+    private final ThreadFactory factory;
+    private final AtomicInteger threads = new AtomicInteger();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * @param factory makes the thread for each task
+     */
+    VirtualThreadPool(ThreadFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return a pool of virtual threads
+     * @throws UnsupportedOperationException before Java 21, or when the JVM will not make them
+     */
+    public static VirtualThreadPool create() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads need Java " + MIN_JAVA_VERSION + ", this is "
+                    + Runtime.version());
+        }
+        try {
+            // Thread.ofVirtual().name(NAME_PREFIX, 0).factory()
+            final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Object virtual = Thread.class.getMethod("ofVirtual").invoke(null);
+            virtual = builder.getMethod("name", String.class, long.class).invoke(virtual, NAME_PREFIX, 0L);
+            final ThreadFactory factory = (ThreadFactory) builder.getMethod("factory").invoke(virtual);
+            return new VirtualThreadPool(factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new UnsupportedOperationException("Virtual threads could not be created", e);
+        }
+    }
+
+    /**
+     * @return true when the JVM has virtual threads
+     */
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= MIN_JAVA_VERSION && IS_VIRTUAL != null;
+    }
+
+    /**
+     * @return true when a thread is virtual, always false before Java 21
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        final Thread thread = this.factory.newThread(() -> {
+            try {
+                task.run();
+            } finally {
+                this.threads.decrementAndGet();
+            }
+        });
+        this.threads.incrementAndGet();
+        thread.start();
+    }
+
+    /**
+     * Waits until the server stops, as Jetty's own pool does
+     */
+    @Override
+    public void join() throws InterruptedException {
+        this.stopped.await();
+    }
+
+    /**
+     * @return the tasks running, each on a thread of its own
+     */
+    @Override
+    public int getThreads() {
+        return this.threads.get();
+    }
+
+    /**
+     * @return 0, a thread is only made for a task and ends with it
+     */
+    @Override
+    public int getIdleThreads() {
+        return 0;
+    }
+
+    /**
+     * @return false, there is no limit to run out of
+     */
+    @Override
+    public boolean isLowOnThreads() {
+        return false;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        LOG.config("VirtualThreadPool is started.");
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        this.stopped.countDown();
+        super.doStop();
+    }
+
+    private static MethodHandle isVirtualHandle() {
+        try {
+            final Method isVirtual = Thread.class.getMethod("isVirtual");
+            return MethodHandles.publicLookup().unreflect(isVirtual)
+                    .asType(MethodType.methodType(boolean.class, Thread.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
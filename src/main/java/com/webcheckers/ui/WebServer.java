@@ -2,14 +2,24 @@ package com.webcheckers.ui;
 
 import static spark.Spark.*;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Logger;
 
 import com.google.gson.Gson;
 
 import com.webcheckers.appl.GameManager;
+import com.webcheckers.appl.GameStore;
+import com.webcheckers.appl.LobbyFeed;
+import com.webcheckers.appl.PdnExporter;
 import com.webcheckers.appl.PlayerLobby;
+import com.webcheckers.util.FlightRecordings;
+import com.webcheckers.util.Settings;
+import com.webcheckers.util.MetricsRegistry;
+import org.eclipse.jetty.http.BadMessageException;
 import spark.TemplateEngine;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
 
 
 /**
@@ -56,6 +66,9 @@ public class WebServer {
    */
   public static final String HOME_URL = "/";
 
+  /** Classpath location of the static files */
+  public static final String STATIC_FILE_LOCATION = "/public";
+
   public static final String SIGN_IN_URL = "/signin";
 
   public static final String GAME_URL = "/game";
@@ -75,8 +88,8 @@ public class WebServer {
 
   public static final String REPLAY_GAME_URL = "/replay/game";
   public static final String REPLAY_STOP_URL = "/replay/stopWatching";
-  public static final String REPLAY_NEXT_URL = "/replay/nextTurn";
-  public static final String REPLAY_PREVIOUS_URL = "/replay/previousTurn";
+  /** Every board and move of a finished game's replay, cacheable for good */
+  public static final String REPLAY_RECORD_URL = "/replay/:gameID/:tag/record";
 
   public static final String SPECTATOR_START_URL = "/spectator/game";
 
@@ -84,6 +97,24 @@ public class WebServer {
 
   public static final String SPECTATOR_EXIT_GAME_URL = "/spectator/stopWatching";
 
+  public static final String ARCHIVE_PDN_URL = "/archive/pdn";
+  /** Changes to the Home page since a version */
+  public static final String LOBBY_CHANGES_URL = "/lobby/changes";
+  /** The application's metrics in the Prometheus text format */
+  public static final String METRICS_URL = "/metrics";
+  /**
+   * The admin pages, off unless admin.enabled is set, needing the admin.token as a bearer token,
+   * and served only to the local machine unless admin.remote is set; see AdminAccess
+   */
+  public static final String ADMIN_URL_PREFIX = "/admin/";
+  /** POST to start a flight recording, GET to dump it */
+  public static final String ADMIN_RECORDING_URL = ADMIN_URL_PREFIX + "recording";
+  /** The slow requests kept, with the stacks of their threads */
+  public static final String ADMIN_SLOW_REQUESTS_URL = ADMIN_URL_PREFIX + "slow-requests";
+
+  /** The route label all static files are timed under */
+  static final String STATIC_ROUTE_LABEL = "static";
+
 
 
   //
@@ -92,6 +123,20 @@ public class WebServer {
 
   private final TemplateEngine templateEngine;
   private final Gson gson;
+  private final PlayerLobby playerLobby;
+  private final GameManager gameManager;
+  private final LobbyFeed lobbyFeed;
+  private final AssetPipeline assets;
+  private final MetricsRegistry metrics = new MetricsRegistry();
+  private Settings settings = Settings.defaults();
+  private ServerConfig config = ServerConfig.defaults();
+  private ResponseCompression compression = new ResponseCompression(settings);
+  private FlightRecordings recordings = new FlightRecordings(settings);
+  /** Makes Jetty's server, and knows its pool of platform threads once made */
+  private ConfiguredJettyFactory jettyFactory;
+
+  /** Jetty's pool when requests run on virtual threads, otherwise null */
+  private VirtualThreadPool virtualThreadPool;
 
   //
   // Constructor
@@ -109,18 +154,117 @@ public class WebServer {
    *    If any of the parameters are {@code null}.
    */
   public WebServer(final TemplateEngine templateEngine, final Gson gson) {
+    this(templateEngine, gson, new LobbyFeed());
+  }
+
+  private WebServer(final TemplateEngine templateEngine, final Gson gson, final LobbyFeed lobbyFeed) {
+    this(templateEngine, gson, new PlayerLobby(lobbyFeed), new GameManager(new GameStore(), lobbyFeed), lobbyFeed);
+  }
+
+  /**
+   * The constructor for the Web Server with application services supplied by the caller and
+   * static files served only as they are, without an {@link AssetPipeline}.
+   *
+   * @throws NullPointerException
+   *    If any of the parameters are {@code null}.
+   */
+  public WebServer(final TemplateEngine templateEngine, final Gson gson,
+                   final PlayerLobby playerLobby, final GameManager gameManager, final LobbyFeed lobbyFeed) {
+    this(templateEngine, gson, playerLobby, gameManager, lobbyFeed, new AssetPipeline());
+  }
+
+  /**
+   * The constructor for the Web Server with application services supplied by the caller.
+   *
+   * @param templateEngine
+   *    The default {@link TemplateEngine} to render page-level HTML views.
+   * @param gson
+   *    The Google JSON parser object used to render Ajax responses.
+   * @param playerLobby
+   *    The lobby of signed-in players.
+   * @param gameManager
+   *    The manager of all games, live and finished.
+   * @param lobbyFeed
+   *    The feed of Home page changes the lobby and game manager publish to.
+   * @param assets
+   *    The bundled, fingerprinted and compressed static files served under /assets/.
+   *
+   * @throws NullPointerException
+   *    If any of the parameters are {@code null}.
+   */
+  public WebServer(final TemplateEngine templateEngine, final Gson gson,
+                   final PlayerLobby playerLobby, final GameManager gameManager, final LobbyFeed lobbyFeed,
+                   final AssetPipeline assets) {
     // validation
     Objects.requireNonNull(templateEngine, "templateEngine must not be null");
     Objects.requireNonNull(gson, "gson must not be null");
+    Objects.requireNonNull(playerLobby, "playerLobby must not be null");
+    Objects.requireNonNull(gameManager, "gameManager must not be null");
+    Objects.requireNonNull(lobbyFeed, "lobbyFeed must not be null");
+    Objects.requireNonNull(assets, "assets must not be null");
     //
     this.templateEngine = templateEngine;
     this.gson = gson;
+    this.playerLobby = playerLobby;
+    this.gameManager = gameManager;
+    this.lobbyFeed = lobbyFeed;
+    this.assets = assets;
   }
 
   //
   // Public methods
   //
 
+  /**
+   * @return the filter compressing the pages and Ajax responses, with its bytes saved
+   */
+  public ResponseCompression getCompression() {
+    return compression;
+  }
+
+  /**
+   * Sets the port, threads and connection limits of the embedded Jetty server, and the settings of
+   * the compression, slow request watchdog, flight recordings and admin pages; must be set before
+   * {@link #initialize()}, otherwise the defaults are used.
+   *
+   * @param settings
+   *    The application's settings.
+   */
+  public void setSettings(final Settings settings) {
+    this.settings = Objects.requireNonNull(settings, "settings must not be null");
+    this.config = new ServerConfig(settings);
+    this.compression = new ResponseCompression(settings);
+    this.recordings = new FlightRecordings(settings);
+  }
+
+  /**
+   * Exports settings in effect as the webcheckers_server_setting metric, alongside the server's own.
+   *
+   * @param settings
+   *    The settings by name; true is 1.
+   */
+  public void exportSettings(final Map<String, Long> settings) {
+    for (Map.Entry<String, Long> setting : settings.entrySet()) {
+      final long value = setting.getValue();
+      metrics.gauge("webcheckers_server_setting", "The server settings in effect", "name=\"" + setting.getKey() + '"',
+          () -> value);
+    }
+  }
+
+  /**
+   * @return the server settings in effect
+   */
+  public ServerConfig getConfig() {
+    return config;
+  }
+
+  /**
+   * @return the registry of the application's metrics, served at {@link #METRICS_URL}
+   */
+  public MetricsRegistry getMetrics() {
+    return metrics;
+  }
+
   /**
    * Initialize all of the HTTP routes that make up this web application.
    *
@@ -132,8 +276,47 @@ public class WebServer {
    */
   public void initialize() {
 
-    // Configuration to serve static files
-    staticFileLocation("/public");
+    // Jetty is configured before the first route starts it
+    port(config.getPort());
+    if (config.isVirtualThreads()) {
+      try {
+        virtualThreadPool = VirtualThreadPool.create();
+        LOG.info("Requests run on virtual threads.");
+      } catch (UnsupportedOperationException e) {
+        LOG.warning(e.getMessage() + ", requests run on Jetty's platform threads.");
+      }
+    }
+    if (virtualThreadPool == null) {
+      threadPool(config.getMaxThreads(), config.getMinThreads(), config.getThreadIdleTimeoutMillis());
+    }
+    jettyFactory = new ConfiguredJettyFactory(config);
+    EmbeddedServers.add(EmbeddedServers.defaultIdentifier(),
+        new EmbeddedJettyFactory(jettyFactory).withThreadPool(virtualThreadPool));
+
+    // Every request is timed, by the route it matched
+    final RequestMetrics requestMetrics = new RequestMetrics(metrics);
+    before(requestMetrics.start());
+    // polls are turned away when the node is busy, so moves still find a thread
+    final AdmissionControl admission = new AdmissionControl(config, metrics);
+    before(admission.start());
+    // and any running too long has its stack taken while it runs
+    final SlowRequestWatchdog watchdog = new SlowRequestWatchdog(requestMetrics, settings);
+    before(watchdog.start());
+    watchdog.watch();
+
+    // Configuration to serve static files: from memory when they have been prepared,
+    // at their plain paths and fingerprinted under /assets/, otherwise from the classpath
+    if (assets.isEmpty()) {
+      staticFileLocation(STATIC_FILE_LOCATION);
+    } else {
+      final GetAssetRoute assetRoute = new GetAssetRoute(assets);
+      for (String path : assets.getUrls().keySet()) {
+        get(path, assetRoute);
+        requestMetrics.addRoute(path, STATIC_ROUTE_LABEL);
+      }
+      get(AssetPipeline.URL_PREFIX + "*", assetRoute);
+      requestMetrics.addRoute(AssetPipeline.URL_PREFIX + "*", STATIC_ROUTE_LABEL);
+    }
 
     //// Setting any route (or filter) in Spark triggers initialization of the
     //// embedded Jetty web server.
@@ -168,41 +351,126 @@ public class WebServer {
     //// Create separate Route classes to handle each route; this keeps your
     //// code clean; using small classes.
 
-    final PlayerLobby playerLobby = new PlayerLobby();
-    final GameManager gameManager = new GameManager();
-
     // Shows the Checkers game Home page.
-    get(HOME_URL, new GetHomeRoute(playerLobby, gameManager, templateEngine));
+    get(HOME_URL, new GetHomeRoute(playerLobby, gameManager, lobbyFeed, templateEngine));
+    get(LOBBY_CHANGES_URL, new GetLobbyChangesRoute(lobbyFeed, gson));
 
     get(SIGN_IN_URL, new GetSignInRoute(templateEngine));
     post(SIGN_IN_URL, new PostSignInRoute(playerLobby));
 
-    get(GAME_URL, new GetGameRoute(templateEngine, gameManager, gson));
+    // the play, replay and spectator views of a game share one cache of rendered boards
+    final BoardRenderCache boardCache = new BoardRenderCache();
+    get(GAME_URL, new GetGameRoute(templateEngine, gameManager, gson, boardCache));
     post(GAME_URL, new PostGameRoute(playerLobby, gameManager));
 
-    post(BACKUP_MOVE_URL, new PostBackupMoveRoute(gameManager, gson));
-    post(VALIDATE_MOVE_URL, new PostValidateMoveRoute(gameManager, gson));
-    post(SUBMIT_TURN_URL, new PostSubmitTurnRoute(gameManager, gson));
-    post(CHECK_TURN_URL, new PostCheckTurnRoute(gameManager, gson));
+    post(BACKUP_MOVE_URL, new PostBackupMoveRoute(gameManager));
+    post(VALIDATE_MOVE_URL, new PostValidateMoveRoute(gameManager));
+    post(SUBMIT_TURN_URL, new PostSubmitTurnRoute(gameManager, boardCache));
+    // the turn checks tell the page when to check again, later the busier the node
+    final PollAdvisor pollAdvisor = new PollAdvisor(admission::getLoad);
+    post(CHECK_TURN_URL, new PostCheckTurnRoute(gameManager, pollAdvisor));
 
     post(RESIGN_URL, new PostResignGameRoute(gameManager, gson));
     
     post(SIGN_OUT_URL, new PostSignOutRoute(playerLobby));
 
-    get(REPLAY_GAME_URL, new GetGameRoute(templateEngine, gameManager, gson));
+    get(REPLAY_GAME_URL, new GetGameRoute(templateEngine, gameManager, gson, boardCache));
     get(REPLAY_STOP_URL, new GetReplayStopRoute(gameManager));
-    post(REPLAY_NEXT_URL, new PostReplayNextRoute(gameManager, gson));
-    post(REPLAY_PREVIOUS_URL, new PostReplayPreviousRoute(gameManager, gson));
+    get(REPLAY_RECORD_URL, new GetReplayGameRoute(gameManager, gson));
 
 //    get(SPECTATOR_START_URL, new GetSpectatorGameRoute(templateEngine, gameManager, playerLobby, gson));
-    get(SPECTATOR_START_URL, new GetGameRoute(templateEngine, gameManager, gson));
+    get(SPECTATOR_START_URL, new GetGameRoute(templateEngine, gameManager, gson, boardCache));
 
-    post(SPECTATOR_CHECK_TURN_URL, new PostSpectatorCheckTurnRoute(gameManager, gson));
+    post(SPECTATOR_CHECK_TURN_URL, new PostSpectatorCheckTurnRoute(gameManager, pollAdvisor));
 
     get(SPECTATOR_EXIT_GAME_URL, new GetSpectatorExitGameRoute(playerLobby));
 
+    get(ARCHIVE_PDN_URL, new GetArchivePdnRoute(new PdnExporter(gameManager)));
+
+    get(METRICS_URL, new GetMetricsRoute(metrics));
+
+    final AdminAccess adminAccess = new AdminAccess(settings);
+    before(ADMIN_URL_PREFIX + "*", adminAccess);
+    post(ADMIN_RECORDING_URL, new PostAdminRecordingRoute(recordings));
+    get(ADMIN_RECORDING_URL, new GetAdminRecordingRoute(recordings));
+    get(ADMIN_SLOW_REQUESTS_URL, new GetAdminSlowRequestsRoute(watchdog));
+
+    for (String path : new String[] { HOME_URL, LOBBY_CHANGES_URL, SIGN_IN_URL, GAME_URL, BACKUP_MOVE_URL,
+        VALIDATE_MOVE_URL, SUBMIT_TURN_URL, CHECK_TURN_URL, RESIGN_URL, SIGN_OUT_URL, REPLAY_GAME_URL,
+        REPLAY_STOP_URL, REPLAY_RECORD_URL,
+        SPECTATOR_START_URL, SPECTATOR_CHECK_TURN_URL, SPECTATOR_EXIT_GAME_URL, ARCHIVE_PDN_URL, METRICS_URL,
+        ADMIN_RECORDING_URL, ADMIN_SLOW_REQUESTS_URL }) {
+      requestMetrics.addRoute(path);
+    }
+    registerMetrics(boardCache, watchdog, adminAccess);
+
+    // a request over the size limits is the client's fault, not a server error
+    exception(BadMessageException.class, (e, request, response) -> {
+      response.status(e.getCode());
+      response.body(e.getReason());
+    });
+
+    // Gzips the rendered pages and Ajax responses the routes above return
+    after(compression);
+    // runs even when a route fails, and first, so a request is always released even if the
+    // filters after it fail
+    afterAfter(admission.stop());
+    // runs last, even when a route fails, so the time includes compression
+    afterAfter(requestMetrics.stop());
+    afterAfter(watchdog.stop());
+
     //
     LOG.config("WebServer is initialized.");
   }
 
-}
\ No newline at end of file
+  //
+  // Private methods
+  //
+
+  /**
+   * Registers the metrics the application components keep themselves, read when scraped.
+   */
+  private void registerMetrics(final BoardRenderCache boardCache, final SlowRequestWatchdog watchdog,
+                               final AdminAccess adminAccess) {
+    final GameStore store = gameManager.getGameStore();
+    metrics.gauge("webcheckers_active_games", "Games in progress", store::getLiveGameCount);
+    metrics.gauge("webcheckers_finished_games", "Games that are over", store::getFinishedGameCount);
+    metrics.gauge("webcheckers_signed_in_players", "Players signed in", playerLobby::getNumberOfPlayers);
+    metrics.counter("webcheckers_turns_submitted_total", "Turns submitted in all games", "",
+        gameManager::getSubmittedTurnCount);
+
+    metrics.gauge("webcheckers_stored_games", "Games held, by where they are kept", "tier=\"live\"", store::getLiveCount);
+    metrics.gauge("webcheckers_stored_games", "Games held, by where they are kept", "tier=\"hot\"", store::getHotCount);
+    metrics.gauge("webcheckers_stored_games", "Games held, by where they are kept", "tier=\"warm\"", store::getWarmCount);
+    metrics.gauge("webcheckers_stored_games", "Games held, by where they are kept", "tier=\"cold\"", store::getColdCount);
+    metrics.gauge("webcheckers_warm_store_bytes", "Off-heap bytes used by compressed games", store::getWarmBytes);
+    metrics.counter("webcheckers_compacted_games_total", "Finished games compacted", "", store::getCompactedCount);
+    metrics.counter("webcheckers_compaction_saved_bytes_total", "Estimated heap saved by compaction", "",
+        store::getCompactedBytesSaved);
+
+    metrics.counter("webcheckers_board_cache_lookups_total", "Rendered board lookups, by result", "result=\"hit\"",
+        boardCache::getHits);
+    metrics.counter("webcheckers_board_cache_lookups_total", "Rendered board lookups, by result", "result=\"miss\"",
+        boardCache::getMisses);
+
+    metrics.counter("webcheckers_compressed_responses_total", "Responses gzipped", "",
+        compression::getCompressedCount);
+    metrics.counter("webcheckers_compression_saved_bytes_total", "Bytes gzip saved on responses", "",
+        compression::getBytesSaved);
+
+    exportSettings(config.asMap());
+    exportSettings(compression.asMap());
+    exportSettings(watchdog.asMap());
+    exportSettings(recordings.asMap());
+    exportSettings(adminAccess.asMap());
+
+    metrics.gauge("webcheckers_threads", "Jetty's threads, by kind", "type=\"platform\"",
+        () -> virtualThreadPool == null ? jettyFactory.getThreads() : 0);
+    metrics.gauge("webcheckers_threads", "Jetty's threads, by kind", "type=\"virtual\"",
+        () -> virtualThreadPool == null ? 0 : virtualThreadPool.getThreads());
+
+    metrics.counter("webcheckers_slow_requests_total", "Requests over the slow request threshold", "",
+        watchdog::getSlowRequestCount);
+  }
+
+}
@@ -0,0 +1,203 @@
+package com.webcheckers.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+
+/**
+ * A log handler that hands records to another handler on a writer thread of its own, so a request
+ * thread never waits for the console. Records wait in a bounded ring; when it is full they are
+ * dropped and counted rather than slowing the server down, and the count is logged once there is
+ * room again.
+ *
+ * <p>
+ * It is set up in log.properties:
+ * </p>
+ * <pre>
+ *   handlers=com.webcheckers.util.AsyncLogHandler
+ *   com.webcheckers.util.AsyncLogHandler.capacity=1024
+ *   com.webcheckers.util.AsyncLogHandler.target=java.util.logging.ConsoleHandler
+ * </pre>
+ * <p>
+ * Records are formatted on the writer thread, so a format should name the logger (%3$s) rather
+ * than the calling method (%2$s), which is no longer on the stack.
+ * </p>
+ */
+public class AsyncLogHandler extends Handler {
+
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  /** How long flush waits for the writer to catch up */
+  private static final long FLUSH_MILLIS = 1000;
+
+  private final Handler target;
+  private final BlockingQueue<LogRecord> ring;
+  private final AtomicLong dropped = new AtomicLong();
+  private long reported = 0;
+  private final Thread writer;
+  private volatile boolean closed = false;
+
+  /**
+   * Create the handler from its log.properties settings.
+   */
+  public AsyncLogHandler() {
+    this(LogManager.getLogManager().getProperty(AsyncLogHandler.class.getName() + ".target"), configuredCapacity());
+  }
+
+  /**
+   * Create the handler with the target named in log.properties, falling back to the console and
+   * reporting the failure to the error manager if it cannot be made.
+   *
+   * @param targetName  the class of the handler that writes the records, null for the console
+   * @param capacity  the number of records that may wait
+   */
+  AsyncLogHandler(final String targetName, final int capacity) {
+    this.target = createTarget(targetName);
+    this.ring = new ArrayBlockingQueue<>(capacity);
+    this.writer = startWriter();
+  }
+
+  /**
+   * Create the handler.
+   *
+   * @param target  the handler that writes the records
+   * @param capacity  the number of records that may wait
+   */
+  public AsyncLogHandler(final Handler target, final int capacity) {
+    this.target = target;
+    this.ring = new ArrayBlockingQueue<>(capacity);
+    this.writer = startWriter();
+  }
+
+  //
+  // Handler methods
+  //
+
+  @Override
+  public void publish(final LogRecord record) {
+    if (closed || !isLoggable(record)) {
+      return;
+    }
+    if (!ring.offer(record)) {
+      dropped.incrementAndGet();
+    }
+  }
+
+  /**
+   * Wait, briefly, for the waiting records to be written, then flush the target.
+   */
+  @Override
+  public void flush() {
+    final long deadline = System.currentTimeMillis() + FLUSH_MILLIS;
+    while (!ring.isEmpty() && writer.isAlive() && System.currentTimeMillis() < deadline) {
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    target.flush();
+  }
+
+  /**
+   * Stop the writer, write what is left and close the target.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    writer.interrupt();
+    try {
+      writer.join(FLUSH_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    LogRecord record;
+    while ((record = ring.poll()) != null) {
+      target.publish(record);
+    }
+    reportDropped();
+    target.close();
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Get the number of records dropped because the ring was full.
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  //
+  // Private methods
+  //
+
+  private Thread startWriter() {
+    final Thread thread = new Thread(this::write, "async-log");
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+
+  /**
+   * The writer thread: write records as they arrive until the handler is closed.
+   */
+  private void write() {
+    while (!closed) {
+      try {
+        final LogRecord record = ring.poll(FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+        if (record != null) {
+          target.publish(record);
+        }
+        reportDropped();
+      } catch (InterruptedException e) {
+        return;
+      } catch (RuntimeException e) {
+        reportError("Could not write a log record", e, ErrorManager.WRITE_FAILURE);
+      }
+    }
+  }
+
+  private void reportDropped() {
+    final long total = dropped.get();
+    final long count = total - reported;
+    reported = total;
+    if (count > 0) {
+      final LogRecord record = new LogRecord(Level.WARNING, count + " log records were dropped, the log queue was full.");
+      record.setLoggerName(AsyncLogHandler.class.getName());
+      target.publish(record);
+    }
+  }
+
+  private Handler createTarget(final String name) {
+    if (name == null) {
+      return new ConsoleHandler();
+    }
+    try {
+      return (Handler) ClassLoader.getSystemClassLoader().loadClass(name.trim()).getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | ClassCastException e) {
+      reportError("Could not create log handler " + name + ", logging to the console", e, ErrorManager.OPEN_FAILURE);
+      return new ConsoleHandler();
+    }
+  }
+
+  private static int configuredCapacity() {
+    final String capacity = LogManager.getLogManager().getProperty(AsyncLogHandler.class.getName() + ".capacity");
+    try {
+      return capacity == null ? DEFAULT_CAPACITY : Integer.parseInt(capacity.trim());
+    } catch (NumberFormatException e) {
+      return DEFAULT_CAPACITY;
+    }
+  }
+
+}
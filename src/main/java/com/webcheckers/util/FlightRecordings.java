@@ -0,0 +1,146 @@
+package com.webcheckers.util;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * The Java Flight Recorder recording started on demand from the admin pages, so a production
+ * server can be recorded without restarting it with -XX:StartFlightRecording or attaching a
+ * profiler. There is at most one; it keeps the last few minutes of events on disk and can be
+ * dumped as many times as needed while it runs.
+ */
+public final class FlightRecordings {
+  private static final Logger LOG = Logger.getLogger(FlightRecordings.class.getName());
+
+  public static final String NAME = "webcheckers";
+
+  /** The JDK's low overhead settings, under 1% of CPU; "profile" records more at a higher cost */
+  public static final String DEFAULT_SETTINGS = "default";
+  public static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(10);
+  public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+  private static final String SETTINGS_SETTING = "recording.settings";
+  private static final String MAX_AGE_SETTING = "recording.maxAgeSeconds";
+  private static final String MAX_SIZE_SETTING = "recording.maxSizeBytes";
+
+  private final String settings;
+  private final Duration maxAge;
+  private final long maxSize;
+
+  private Recording recording;
+
+  /**
+   * Creates the recordings from the recording.settings, recording.maxAgeSeconds and
+   * recording.maxSizeBytes settings, using the defaults for any that are not set
+   *
+   * @param appSettings  the application's settings
+   */
+  public FlightRecordings(final Settings appSettings) {
+    this(appSettings.getString(SETTINGS_SETTING, DEFAULT_SETTINGS),
+        Duration.ofSeconds(appSettings.getLong(MAX_AGE_SETTING, DEFAULT_MAX_AGE.getSeconds(), 1, Long.MAX_VALUE / 1000)),
+        appSettings.getLong(MAX_SIZE_SETTING, DEFAULT_MAX_SIZE, 1024 * 1024, Long.MAX_VALUE));
+  }
+
+  /**
+   * Creates the recordings
+   *
+   * @param settings  the name of a JDK settings file, "default" or "profile"
+   * @param maxAge  how far back a dump goes
+   * @param maxSize  the most bytes kept on disk
+   */
+  public FlightRecordings(final String settings, final Duration maxAge, final long maxSize) {
+    this.settings = settings;
+    this.maxAge = maxAge;
+    this.maxSize = maxSize;
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * @return the settings in effect by name, for the metrics
+   */
+  public Map<String, Long> asMap() {
+    final Map<String, Long> map = new LinkedHashMap<>();
+    map.put("recording_max_age_seconds", maxAge.getSeconds());
+    map.put("recording_max_size_bytes", maxSize);
+    return map;
+  }
+
+  /**
+   * Start recording, unless a recording is running already.
+   *
+   * @return true if a recording was started
+   *
+   * @throws IOException  if the settings cannot be read
+   */
+  public synchronized boolean start() throws IOException {
+    if (isRunning()) {
+      return false;
+    }
+    final Configuration configuration;
+    try {
+      configuration = Configuration.getConfiguration(settings);
+    } catch (ParseException e) {
+      throw new IOException("The " + settings + " recording settings cannot be read", e);
+    }
+    final Recording recording = new Recording(configuration);
+    recording.setName(NAME);
+    recording.setToDisk(true);
+    recording.setMaxAge(maxAge);
+    recording.setMaxSize(maxSize);
+    recording.start();
+    this.recording = recording;
+    LOG.info("Flight recording started with the " + settings + " settings, keeping " + maxAge + ".");
+    return true;
+  }
+
+  /**
+   * @return true while a recording is running
+   */
+  public synchronized boolean isRunning() {
+    return recording != null && recording.getState() == RecordingState.RUNNING;
+  }
+
+  /**
+   * Write what the running recording holds to a new temporary file; the recording goes on.
+   *
+   * @return the file, for the caller to delete; null when no recording is running
+   */
+  public synchronized Path dump() throws IOException {
+    if (!isRunning()) {
+      return null;
+    }
+    final Path file = Files.createTempFile(NAME + "-", ".jfr");
+    try {
+      recording.dump(file);
+    } catch (IOException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+    return file;
+  }
+
+  /**
+   * Stop and discard the running recording, if any.
+   */
+  public synchronized void stop() {
+    if (recording != null) {
+      recording.close();
+      recording = null;
+      LOG.info("Flight recording stopped.");
+    }
+  }
+
+}
@@ -0,0 +1,187 @@
+package com.webcheckers.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in microseconds with log-linear buckets: each power of two is split
+ * into 8 equal buckets, so any quantile read back is within 12.5% of the true value, from a
+ * microsecond up to over an hour, in a fixed 240 counters.
+ *
+ * <p>
+ * Recording takes no lock. Each thread counts into one of a few stripes picked by its id, so
+ * request threads seldom touch the same memory; reading adds the stripes up.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+  /** Buckets per power of two, and its log */
+  private static final int SUB_BUCKETS = 8;
+  private static final int SUB_BITS = 3;
+
+  /** The largest power of two kept apart; anything longer counts in the last bucket */
+  private static final int MAX_EXPONENT = 31;
+
+  static final int BUCKETS = (MAX_EXPONENT - 1) * SUB_BUCKETS;
+
+  /** Per stripe: the bucket counts, then the sum of the values */
+  private static final int SUM = BUCKETS;
+
+  private final AtomicLongArray[] stripes;
+
+  /**
+   * Create an empty histogram.
+   */
+  public LatencyHistogram() {
+    final int stripes = Math.min(8, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors())));
+    this.stripes = new AtomicLongArray[stripes];
+    for (int i = 0; i < stripes; i++) {
+      this.stripes[i] = new AtomicLongArray(BUCKETS + 1);
+    }
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Record a duration.
+   *
+   * @param micros  the duration in microseconds; negative values count as 0
+   */
+  public void record(final long micros) {
+    final long value = Math.max(0, micros);
+    final AtomicLongArray stripe = stripes[(int) (Thread.currentThread().getId() & (stripes.length - 1))];
+    stripe.incrementAndGet(bucket(value));
+    stripe.addAndGet(SUM, value);
+  }
+
+  /**
+   * Get the number of durations recorded.
+   */
+  public long getCount() {
+    long count = 0;
+    for (AtomicLongArray stripe : stripes) {
+      for (int b = 0; b < BUCKETS; b++) {
+        count += stripe.get(b);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Get the sum of the durations recorded, in microseconds.
+   */
+  public long getSum() {
+    long sum = 0;
+    for (AtomicLongArray stripe : stripes) {
+      sum += stripe.get(SUM);
+    }
+    return sum;
+  }
+
+  /**
+   * Get a quantile of the durations recorded.
+   *
+   * @param quantile  the quantile, from 0 to 1, e.g. 0.99
+   *
+   * @return the upper bound of the bucket holding the quantile, in microseconds; 0 when empty
+   */
+  public long getQuantile(final double quantile) {
+    return snapshot().quantile(quantile);
+  }
+
+  /**
+   * Add up the stripes once, for reading several quantiles that agree with each other.
+   */
+  public Snapshot snapshot() {
+    final long[] counts = new long[BUCKETS];
+    for (AtomicLongArray stripe : stripes) {
+      for (int b = 0; b < BUCKETS; b++) {
+        counts[b] += stripe.get(b);
+      }
+    }
+    return new Snapshot(counts, getSum());
+  }
+
+  //
+  // Inner Types
+  //
+
+  /**
+   * The counts of a histogram at one moment.
+   */
+  public static final class Snapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+
+    private Snapshot(final long[] counts, final long sum) {
+      long count = 0;
+      for (long c : counts) {
+        count += c;
+      }
+      this.counts = counts;
+      this.count = count;
+      this.sum = sum;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getSum() {
+      return sum;
+    }
+
+    /**
+     * @see LatencyHistogram#getQuantile(double)
+     */
+    public long quantile(final double quantile) {
+      if (count == 0) {
+        return 0;
+      }
+      final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+      long seen = 0;
+      for (int b = 0; b < BUCKETS; b++) {
+        seen += counts[b];
+        if (seen >= rank) {
+          return upperBound(b);
+        }
+      }
+      return upperBound(BUCKETS - 1);
+    }
+  }
+
+  //
+  // Private methods
+  //
+
+  /**
+   * Values below 8 have a bucket each; above, the bucket is the power of two and the next three
+   * bits of the value.
+   */
+  static int bucket(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    final int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+  }
+
+  /**
+   * The largest value that falls in a bucket.
+   */
+  static long upperBound(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+    final int sub = bucket % SUB_BUCKETS;
+    return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+  }
+
+}
@@ -1,5 +1,6 @@
 package com.webcheckers.util;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -39,7 +40,20 @@ public final class Message {
    * @return a new {@link Message}
    */
   public static Message info(final String message) {
-    return new Message(message, Type.INFO);
+    if (message == null) {
+      return new Message(null, Type.INFO);
+    }
+    // the replies sent for every turn check and move are shared rather than created each time
+    switch (message) {
+      case "":
+        return INFO_EMPTY;
+      case "true":
+        return INFO_TRUE;
+      case "false":
+        return INFO_FALSE;
+      default:
+        return new Message(message, Type.INFO);
+    }
   }
 
   //
@@ -60,6 +74,10 @@ public final class Message {
   private final String text;
   private final Type type;
 
+  private static final Message INFO_EMPTY = new Message("", Type.INFO);
+  private static final Message INFO_TRUE = new Message("true", Type.INFO);
+  private static final Message INFO_FALSE = new Message("false", Type.INFO);
+
   //
   // Constructor
   //
@@ -73,7 +91,10 @@ public final class Message {
   private Message(final String message, final Type type) {
     this.text = message;
     this.type = type;
-    LOG.finer(this + " created.");
+    // guarded, as messages are created for every move and the text is only wanted when tracing
+    if (LOG.isLoggable(Level.FINER)) {
+      LOG.finer(this + " created.");
+    }
   }
 
   //
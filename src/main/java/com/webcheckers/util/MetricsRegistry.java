@@ -0,0 +1,220 @@
+package com.webcheckers.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * The application's metrics, written out in the Prometheus text format. There are three kinds:
+ * counters that only go up, gauges read from the component that owns the value whenever the
+ * metrics are scraped, and latency summaries kept in a {@link LatencyHistogram}.
+ *
+ * <p>
+ * Each metric is a family name plus an optional set of labels, e.g.
+ * {@code webcheckers_archived_games{tier="hot"}}. Registering is synchronized and done at start-up
+ * or the first time a label set is seen; updating a metric takes no lock.
+ * </p>
+ */
+public final class MetricsRegistry {
+
+  /** The quantiles written for each summary */
+  private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+  private static final double MICROS_PER_SECOND = 1_000_000.0;
+
+  private final Map<String, Family> families = new LinkedHashMap<>();
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Get or register a counter the caller adds to.
+   *
+   * @param name  the metric name, ending in _total by convention
+   * @param help  what is counted
+   */
+  public synchronized LongAdder counter(final String name, final String help) {
+    return counter(name, help, "");
+  }
+
+  /**
+   * Get or register a labelled counter the caller adds to.
+   *
+   * @param labels  the labels, as written inside the braces, e.g. {@code code="503"}
+   */
+  public synchronized LongAdder counter(final String name, final String help, final String labels) {
+    final Family family = family(name, help, "counter");
+    Child child = family.children.get(labels);
+    if (child == null) {
+      child = new Child(new LongAdder());
+      family.children.put(labels, child);
+    }
+    return child.adder;
+  }
+
+  /**
+   * Register a counter kept by another component.
+   *
+   * @param value  reads the current count
+   */
+  public synchronized void counter(final String name, final String help, final String labels, final LongSupplier value) {
+    family(name, help, "counter").children.put(labels, new Child(value::getAsLong));
+  }
+
+  /**
+   * Register a gauge, a value that goes up and down.
+   *
+   * @param value  reads the current value
+   */
+  public synchronized void gauge(final String name, final String help, final DoubleSupplier value) {
+    gauge(name, help, "", value);
+  }
+
+  /**
+   * Register a labelled gauge.
+   */
+  public synchronized void gauge(final String name, final String help, final String labels, final DoubleSupplier value) {
+    family(name, help, "gauge").children.put(labels, new Child(value));
+  }
+
+  /**
+   * Get or register a latency summary, written in seconds.
+   *
+   * @param labels  the labels, as written inside the braces
+   */
+  public synchronized LatencyHistogram summary(final String name, final String help, final String labels) {
+    final Family family = family(name, help, "summary");
+    Child child = family.children.get(labels);
+    if (child == null) {
+      child = new Child(new LatencyHistogram());
+      family.children.put(labels, child);
+    }
+    return child.histogram;
+  }
+
+  /**
+   * Write every metric in the Prometheus text exposition format, version 0.0.4.
+   *
+   * @param out  where to write
+   */
+  public void write(final Appendable out) throws IOException {
+    final List<Family> families;
+    synchronized (this) {
+      families = new ArrayList<>(this.families.size());
+      for (Family family : this.families.values()) {
+        families.add(family.copy());
+      }
+    }
+    for (Family family : families) {
+      out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+      out.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+      for (Map.Entry<String, Child> entry : family.children.entrySet()) {
+        final String labels = entry.getKey();
+        final Child child = entry.getValue();
+        if (child.histogram == null) {
+          sample(out, family.name, labels, null, child.value.getAsDouble());
+          continue;
+        }
+        final LatencyHistogram.Snapshot snapshot = child.histogram.snapshot();
+        for (double quantile : QUANTILES) {
+          sample(out, family.name, labels, "quantile=\"" + quantile + '"',
+              snapshot.quantile(quantile) / MICROS_PER_SECOND);
+        }
+        sample(out, family.name + "_sum", labels, null, snapshot.getSum() / MICROS_PER_SECOND);
+        sample(out, family.name + "_count", labels, null, snapshot.getCount());
+      }
+    }
+  }
+
+  //
+  // Private methods
+  //
+
+  private Family family(final String name, final String help, final String type) {
+    Family family = families.get(name);
+    if (family == null) {
+      family = new Family(name, help, type);
+      families.put(name, family);
+    } else if (!family.type.equals(type)) {
+      throw new IllegalArgumentException(name + " is already registered as a " + family.type);
+    }
+    return family;
+  }
+
+  private static void sample(final Appendable out, final String name, final String labels,
+                             final String extra, final double value) throws IOException {
+    out.append(name);
+    if (!labels.isEmpty() || extra != null) {
+      out.append('{').append(labels);
+      if (extra != null) {
+        out.append(labels.isEmpty() ? "" : ",").append(extra);
+      }
+      out.append('}');
+    }
+    out.append(' ');
+    if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      out.append(Long.toString((long) value));
+    } else {
+      out.append(Double.toString(value));
+    }
+    out.append('\n');
+  }
+
+  //
+  // Inner Types
+  //
+
+  private static final class Family {
+    private final String name;
+    private final String help;
+    private final String type;
+    private final Map<String, Child> children = new LinkedHashMap<>();
+
+    Family(final String name, final String help, final String type) {
+      this.name = name;
+      this.help = help;
+      this.type = type;
+    }
+
+    Family copy() {
+      final Family copy = new Family(name, help, type);
+      copy.children.putAll(children);
+      return copy;
+    }
+  }
+
+  /**
+   * One labelled metric: a value read when scraped, or a histogram. A counter the registry keeps
+   * is read through its adder.
+   */
+  private static final class Child {
+    private final DoubleSupplier value;
+    private final LatencyHistogram histogram;
+    private final LongAdder adder;
+
+    Child(final DoubleSupplier value) {
+      this.value = value;
+      this.histogram = null;
+      this.adder = null;
+    }
+
+    Child(final LatencyHistogram histogram) {
+      this.value = null;
+      this.histogram = histogram;
+      this.adder = null;
+    }
+
+    Child(final LongAdder adder) {
+      this.value = adder::sum;
+      this.histogram = null;
+      this.adder = adder;
+    }
+  }
+
+}
@@ -0,0 +1,102 @@
+package com.webcheckers.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A log message that repeats once per request, game or record, logged only for the first
+ * occurrence and then once in every so many, with the number left out. Nothing is built for an
+ * occurrence that is not logged, or when the level is off.
+ *
+ * <p>
+ * Guard the message with {@link #sample()} where it is built in place, handing the sample back
+ * to log so the count left out is that of this occurrence whatever other threads did meanwhile,
+ * </p>
+ * <pre>
+ *   final long sample = REJECTED.sample();
+ *   if (sample != SampledLog.NOT_SAMPLED) {
+ *     REJECTED.log(sample, "Rejected PDN game: " + e.getMessage());
+ *   }
+ * </pre>
+ * or hand {@link #log(Supplier)} a supplier where building it is costly anyway.
+ */
+public final class SampledLog {
+
+  /** What sample returns for an occurrence that is not logged */
+  public static final long NOT_SAMPLED = -1;
+
+  private final Logger logger;
+  private final Level level;
+  private final int every;
+
+  /** Occurrences counted so far */
+  private final AtomicLong occurrences = new AtomicLong();
+
+  /**
+   * Create a sampled message.
+   *
+   * @param logger  the logger to write to
+   * @param level  the level of the message
+   * @param every  log one occurrence in this many
+   */
+  public SampledLog(final Logger logger, final Level level, final int every) {
+    if (every < 1) {
+      throw new IllegalArgumentException("A sampled log must log one in 1 or more occurrences, not " + every);
+    }
+    this.logger = logger;
+    this.level = level;
+    this.every = every;
+  }
+
+  /**
+   * Count an occurrence and query whether it is one to log.
+   *
+   * @return the number of the occurrence, from 0, if the level is on and it is sampled, otherwise
+   *   NOT_SAMPLED; the caller must log a sampled occurrence
+   */
+  public long sample() {
+    if (!logger.isLoggable(level)) {
+      return NOT_SAMPLED;
+    }
+    final long occurrence = occurrences.getAndIncrement();
+    return occurrence % every == 0 ? occurrence : NOT_SAMPLED;
+  }
+
+  /**
+   * Log a sampled occurrence, noting how many were left out since the sampled one before it.
+   *
+   * @param sample  the number of the occurrence, as returned by sample
+   * @param message  the message
+   */
+  public void log(final long sample, final String message) {
+    // the occurrences between two samples are never logged, and there are none before the first
+    final long skipped = sample == 0 ? 0 : every - 1;
+    if (skipped > 0) {
+      logger.log(level, message + " (" + skipped + " similar messages not logged)");
+    } else {
+      logger.log(level, message);
+    }
+  }
+
+  /**
+   * Count an occurrence and log it if it is sampled.
+   *
+   * @param message  builds the message, only called when it is logged
+   */
+  public void log(final Supplier<String> message) {
+    final long sample = sample();
+    if (sample != NOT_SAMPLED) {
+      log(sample, message.get());
+    }
+  }
+
+  /**
+   * Get the number of occurrences counted.
+   */
+  public long getOccurrences() {
+    return occurrences.get();
+  }
+
+}
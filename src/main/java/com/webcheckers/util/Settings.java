@@ -0,0 +1,155 @@
+package com.webcheckers.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * The application's settings, read in layers, each overriding the one before:
+ * <ol>
+ *   <li>webcheckers.properties on the classpath, the shipped defaults</li>
+ *   <li>the file named by the 'config' property, for a node's own settings</li>
+ *   <li>system properties, for a one-off -Dkey=value</li>
+ * </ol>
+ *
+ * <p>
+ * Values are read by type. A value that is not of its type or is out of range is logged and the
+ * default is used, as with the 'demoMode' property, so a typo does not stop a node from starting.
+ * </p>
+ */
+public final class Settings {
+  private static final Logger LOG = Logger.getLogger(Settings.class.getName());
+
+  /** The classpath resource with the shipped settings */
+  public static final String RESOURCE = "/webcheckers.properties";
+  /** The property naming a settings file */
+  public static final String FILE_PROPERTY = "config";
+
+  private final Properties properties;
+
+  /**
+   * Create settings from properties already read.
+   *
+   * @param properties  the settings, not copied
+   */
+  public Settings(final Properties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Create empty settings, so every value is its default.
+   */
+  public static Settings defaults() {
+    return new Settings(new Properties());
+  }
+
+  /**
+   * Read the settings from the classpath, the 'config' file, if any, and the system properties.
+   *
+   * @throws IOException  if the 'config' file cannot be read
+   */
+  public static Settings load() throws IOException {
+    final Properties properties = new Properties();
+    try (InputStream in = Settings.class.getResourceAsStream(RESOURCE)) {
+      if (in != null) {
+        properties.load(in);
+      }
+    }
+    final String file = System.getProperty(FILE_PROPERTY);
+    if (file != null && !file.isEmpty()) {
+      final Path path = Paths.get(file);
+      try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+        properties.load(in);
+      }
+      LOG.config("Settings read from " + path.toAbsolutePath() + ".");
+    }
+    properties.putAll(System.getProperties());
+    return new Settings(properties);
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Get a text setting.
+   *
+   * @return the value, or the default when not set
+   */
+  public String getString(final String key, final String defaultValue) {
+    final String value = properties.getProperty(key);
+    return value == null ? defaultValue : value.trim();
+  }
+
+  /**
+   * Get a true or false setting.
+   *
+   * @return the value, or the default when not set or neither true nor false
+   */
+  public boolean getBoolean(final String key, final boolean defaultValue) {
+    final String value = getString(key, null);
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+    if (value.equalsIgnoreCase("true")) {
+      return true;
+    }
+    if (value.equalsIgnoreCase("false")) {
+      return false;
+    }
+    return bad(key, value, "a boolean", defaultValue);
+  }
+
+  /**
+   * Get a whole number setting.
+   *
+   * @param min  the smallest value allowed
+   * @param max  the largest value allowed
+   *
+   * @return the value, or the default when not set, not a number or out of range
+   */
+  public int getInt(final String key, final int defaultValue, final int min, final int max) {
+    return (int) getLong(key, defaultValue, min, max);
+  }
+
+  /**
+   * Get a whole number setting.
+   *
+   * @param min  the smallest value allowed
+   * @param max  the largest value allowed
+   *
+   * @return the value, or the default when not set, not a number or out of range
+   */
+  public long getLong(final String key, final long defaultValue, final long min, final long max) {
+    final String value = getString(key, null);
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+    final long number;
+    try {
+      number = Long.parseLong(value.replace("_", ""));
+    } catch (NumberFormatException e) {
+      return bad(key, value, "a whole number", defaultValue);
+    }
+    if (number < min || number > max) {
+      return bad(key, value, "from " + min + " to " + max, defaultValue);
+    }
+    return number;
+  }
+
+  //
+  // Private methods
+  //
+
+  private static <T> T bad(final String key, final String value, final String expected, final T defaultValue) {
+    LOG.warning(String.format("Bad '%s' value, '%s'; must be %s, using %s.", key, value, expected, defaultValue));
+    return defaultValue;
+  }
+
+}
@@ -25,6 +25,7 @@ define(function(require){
   var VALID_CLASS = 'valid';
   var PIECE_CLASS = 'Piece';
   var SPACE_CLASS = 'Space';
+  var SQUARES = 32;
 
   /**
    * Constructor function.
@@ -148,6 +149,32 @@ define(function(require){
     $toCell.removeClass(SPACE_CLASS);
   }
 
+  /**
+   * Replace every Piece on the board, used to show another board of a replay.
+   * The board is given as the BoardCodec masks sent by the server: bit n of each
+   * mask stands for the dark square n, four per row from the top row down.
+   *
+   * @param {number} red  the squares holding red pieces
+   * @param {number} white  the squares holding white pieces
+   * @param {number} kings  the squares holding kings of either color
+   */
+  BoardController.prototype.showPieces = function showPieces(red, white, kings) {
+    jQuery('#game-board div.' + PIECE_CLASS).parent().addClass(SPACE_CLASS);
+    jQuery('#game-board div.' + PIECE_CLASS).remove();
+    for (let square = 0; square < SQUARES; square++) {
+      const bit = 1 << square;
+      if ((red & bit) === 0 && (white & bit) === 0) continue;
+      const row = square >> 2;
+      const position = new Position(row, (square % 4) * 2 + (row % 2 === 0 ? 1 : 0));
+      jQuery('<div/>')
+          .addClass(PIECE_CLASS)
+          .attr('id', 'piece-' + position.row + '-' + position.cell)
+          .attr('data-type', (kings & bit) !== 0 ? 'KING' : 'SINGLE')
+          .attr('data-color', (red & bit) !== 0 ? 'RED' : 'WHITE')
+          .appendTo(this.getSpace$(position).removeClass(SPACE_CLASS));
+    }
+  }
+
   /**
    * Gets a jQuery element for a specific position.
    */
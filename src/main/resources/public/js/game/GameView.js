@@ -60,7 +60,7 @@ define(function(require){
       break;
     case REPLAY_MODE:
       console.debug('Replay mode');
-      this._modeController = new ReplayController(this, this._gameState);
+      this._modeController = new ReplayController(this, this._boardController, this._gameState);
       break;
     default:
       alert('Unknown view module: ' + this._gameState.getViewMode());
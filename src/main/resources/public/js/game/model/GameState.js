@@ -47,6 +47,14 @@ define(function(require){
       return gameData.modeOptions[optionName];
     };
 
+    /**
+     * Get the ETag of the game version this page was rendered from.
+     * The polling actions answer 304 Not Modified while the game is at this version.
+     */
+    this.getTurnETag = function getTurnETag() {
+      return gameData.turnETag;
+    };
+
     /**
      * Get the name of the Player currently viewing the Game View.
      * This is the HTTP session's user.
@@ -0,0 +1,113 @@
+/**
+ * This module exports the ReplayRecord class constructor.
+ *
+ * This component is an Information Expert on the replay of a finished game,
+ * as sent by the server in one response: every board of the replay and every
+ * move, in the compact BoardCodec form.
+ */
+define(function(require){
+  'use strict';
+
+  // imports
+  const Move = require('./Move');
+  const Position = require('./Position');
+
+  //
+  // Constants
+  //
+
+  var BOARD_BYTES = 12;
+  var MOVE_BYTES = 2;
+
+  /**
+   * Constructor function.
+   *
+   * @param record  the JSON object sent by the server; its arrays are base64 encoded
+   */
+  function ReplayRecord(record) {
+    // private data
+    const _boards = decode(record.boards);
+    const _moves = decode(record.moves);
+    const _turnSizes = decode(record.turnSizes);
+
+    /**
+     * Get the number of boards in the replay.
+     */
+    this.getBoardCount = function getBoardCount() {
+      return _boards.byteLength / BOARD_BYTES;
+    };
+
+    /**
+     * Get a board of the replay as its three square masks.  Bit n of each
+     * mask stands for the dark square n, four per row from the top row down.
+     *
+     * @param {number} index  the index of the board
+     * @return {object} the red, white and kings masks
+     */
+    this.getBoard = function getBoard(index) {
+      if (index < 0 || index >= this.getBoardCount()) {
+        throw new Error('There is no board ' + index + ' in this replay.');
+      }
+      const offset = index * BOARD_BYTES;
+      return {
+        red: _boards.getInt32(offset),
+        white: _boards.getInt32(offset + 4),
+        kings: _boards.getInt32(offset + 8)
+      };
+    };
+
+    /**
+     * Get the number of submitted turns; red's turns are at the even indexes.
+     */
+    this.getTurnCount = function getTurnCount() {
+      return _turnSizes.byteLength;
+    };
+
+    /**
+     * Get the moves of a turn, each in the perspective of the player who made it.
+     *
+     * @param {number} turn  the index of the turn
+     * @return {Move[]} the moves in the order they were made
+     */
+    this.getTurnMoves = function getTurnMoves(turn) {
+      let offset = 0;
+      for (let i = 0; i < turn; i++) {
+        offset += _turnSizes.getUint8(i) * MOVE_BYTES;
+      }
+      const moves = [];
+      for (let i = 0; i < _turnSizes.getUint8(turn); i++) {
+        const code = _moves.getUint16(offset + i * MOVE_BYTES);
+        moves.push(new Move(toPosition(code >>> 5), toPosition(code & 0x1F)));
+      }
+      return moves;
+    };
+  }
+
+  //
+  // Private functions
+  //
+
+  /**
+   * Decode a base64 string into a big-endian view of its bytes.
+   */
+  function decode(base64) {
+    const text = window.atob(base64);
+    const bytes = new Uint8Array(text.length);
+    for (let i = 0; i < text.length; i++) {
+      bytes[i] = text.charCodeAt(i);
+    }
+    return new DataView(bytes.buffer);
+  }
+
+  /**
+   * Get the Position of a dark square index, as in BoardCodec.toPosition.
+   */
+  function toPosition(square) {
+    const row = square >> 2;
+    return new Position(row, (square % 4) * 2 + (row % 2 === 0 ? 1 : 0));
+  }
+
+  // export class constructor
+  return ReplayRecord;
+
+});
@@ -41,7 +41,7 @@ define(function (require) {
   CheckingMyTurnState.prototype.onEntry = function onEntry() {
     this._controller.disableButton(PlayModeConstants.RESIGN_BUTTON_ID);
     // query the server if it's my turn
-    AjaxUtils.callServer('/checkTurn',
+    AjaxUtils.pollServer('/checkTurn',
         // the handler method should be run in the context of 'this' State object
         handleResponse, this);
   };
@@ -51,6 +51,11 @@ define(function (require) {
   //
 
   function handleResponse(message) {
+    // no message means 304 Not Modified: the game has not changed since the last check
+    if (!message) {
+      this._controller.setState(PlayModeConstants.WAITING_TO_CHECK_MY_TURN);
+      return;
+    }
     if (message.type === 'INFO') {
       if (message.text === 'true') {
         // end the State machine by refreshing the Game View (via a browser page request)
@@ -11,6 +11,7 @@ define(function(require){
 
     // imports
     const PlayModeConstants = require('./PlayModeConstants');
+    const AjaxUtils = require('../../util/AjaxUtils');
 
     /**
      * Constructor function.
@@ -39,8 +40,9 @@ define(function(require){
      */
     WaitingForMyTurnState.prototype.onEntry = function onEntry() {
         this._controller.enableButton(PlayModeConstants.RESIGN_BUTTON_ID);
-        // wait five seconds then check my turn
-        setTimeout(() => { this._controller.setState(PlayModeConstants.CHECKING_MY_TURN); }, 5000);
+        // wait as long as the server advised then check my turn
+        setTimeout(() => { this._controller.setState(PlayModeConstants.CHECKING_MY_TURN); },
+            AjaxUtils.getNextPollMs());
     }
 
     // export class constructor
@@ -2,9 +2,10 @@
  * This module exports the ReplayController class constructor.
  *
  * This component controls the user experience of the Replay Game view.
- * There's a simple State model that largely toggles between waiting for
- * a user action (such as clicking the 'Next' button) to the state that
- * actually performs the action on the server, via an Ajax call.
+ * There's a simple State model: on startup the whole replay of the game is
+ * fetched from the server, via a single Ajax call, and then the view waits
+ * for user actions (such as clicking the 'Next' button) which step through
+ * the replay's boards locally, without asking the server again.
  *
  * There is also an Exit button that the user may click to formally exit
  * from watching this specific game.
@@ -16,6 +17,7 @@ define(function(require){
   const StatePatternMixin = require('../../util/StatePatternMixin');
   const ControlsToolbarMixin = require('../../util/ControlsToolbarMixin');
   const ReplayModeConstants = require('./ReplayModeConstants');
+  const ReplayRecord = require('../../model/ReplayRecord');
   
   // import REPLAY mode states
   const StartingReplayModeState = require('./StartingReplayModeState');
@@ -25,7 +27,14 @@ define(function(require){
   /**
    * Constructor function.
    */
-  function ReplayController(view, gameState) {
+  function ReplayController(view, boardController, gameState) {
+
+    // the board being shown; starts at the one the page was rendered with
+    this._position = gameState.getModeOption(ReplayModeConstants.POSITION_OPTION) || 0;
+    this._hasNext = gameState.getModeOption(ReplayModeConstants.HAS_NEXT_OPTION);
+    this._hasPrevious = gameState.getModeOption(ReplayModeConstants.HAS_PREVIOUS_OPTION);
+    // the whole replay, once it has been fetched
+    this._record = null;
 
     // expose read-only Game data
     this.getGameID = function getGameID() {
@@ -67,6 +76,31 @@ define(function(require){
       this.setState(ReplayModeConstants.STARTING_REPLAY_MODE);
     };
 
+    /**
+     * Keep the whole replay fetched from the server.
+     *
+     * @param record  the replay as sent by the server
+     */
+    this.setRecord = function setRecord(record) {
+      this._record = new ReplayRecord(record);
+    };
+
+    /**
+     * Show a board of the replay.
+     *
+     * @param {number} index  the index of the board
+     */
+    this.showBoard = function showBoard(index) {
+      const board = this._record.getBoard(index);
+      boardController.showPieces(board.red, board.white, board.kings);
+      this._position = index;
+      this._hasNext = index < this._record.getBoardCount() - 1;
+      this._hasPrevious = index > 0;
+      // keep the address of the board shown so a reload stays on it
+      window.history.replaceState(null, '',
+          '/replay/game?gameID=' + this.getGameID() + '&index=' + index);
+    };
+
     /**
      * Display a message to the Game View.
      */
@@ -96,31 +130,48 @@ define(function(require){
    */
   ReplayController.prototype.enableAllControls = function enableAllControls() {
     //
-    if (!this.getOption(ReplayModeConstants.HAS_NEXT_OPTION)) {
+    if (this._hasNext && this._record !== null) {
+      this.enableButton(ReplayModeConstants.NEXT_BUTTON_ID);
+    } else {
       this.disableButton(ReplayModeConstants.NEXT_BUTTON_ID);
     }
-    if (!this.getOption(ReplayModeConstants.HAS_PREVIOUS_OPTION)) {
+    if (this._hasPrevious && this._record !== null) {
+      this.enableButton(ReplayModeConstants.PREVIOUS_BUTTON_ID);
+    } else {
       this.disableButton(ReplayModeConstants.PREVIOUS_BUTTON_ID);
     }
     this.enableButton(ReplayModeConstants.EXIT_BUTTON_ID);
   };
 
   /**
-   * Send the 'Next Turn' action to the WAITING_FOR_SERVER_RESPONSE state.
+   * Show the next board of the replay.
    */
   ReplayController.prototype.requestNextTurn = function requestNextTurn() {
     //
     this.checkInState(ReplayModeConstants.WAITING_FOR_USER_ACTION);
-    this.setState(ReplayModeConstants.WAITING_FOR_SERVER_RESPONSE, "/replay/nextTurn");
+    this.showBoard(this._position + 1);
+    this.enableAllControls();
   };
 
   /**
-   * Send the 'Previous Turn' action to the WAITING_FOR_SERVER_RESPONSE state.
+   * Show the previous board of the replay.
    */
   ReplayController.prototype.requestPreviousTurn = function requestPreviousTurn() {
     //
     this.checkInState(ReplayModeConstants.WAITING_FOR_USER_ACTION);
-    this.setState(ReplayModeConstants.WAITING_FOR_SERVER_RESPONSE, "/replay/previousTurn");
+    this.showBoard(this._position - 1);
+    this.enableAllControls();
+  };
+
+  /**
+   * Get the URL of this game's whole replay.
+   *
+   * @return {string} the URL, the same for every viewer of the game and
+   *   never the same for another game given this id after a restart
+   */
+  ReplayController.prototype.getRecordURL = function getRecordURL() {
+    return '/replay/' + this.getGameID() + '/'
+        + this.getOption(ReplayModeConstants.REPLAY_TAG_OPTION) + '/record';
   };
 
   /**
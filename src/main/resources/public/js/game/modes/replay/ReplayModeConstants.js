@@ -28,6 +28,8 @@ define(function(){
 
       ,HAS_NEXT_OPTION: 'hasNext'
       ,HAS_PREVIOUS_OPTION: 'hasPrevious'
+      ,POSITION_OPTION: 'position'
+      ,REPLAY_TAG_OPTION: 'replayTag'
 
     };
 });
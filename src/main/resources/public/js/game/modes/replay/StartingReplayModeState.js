@@ -49,8 +49,8 @@ define(function(require){
   StartingReplayModeState.prototype.onEntry = function onEntry() {
     // initialize the main View content
     this._initializeView();
-    //
-    this._controller.setState(ReplayModeConstants.WAITING_FOR_USER_ACTION);
+    // fetch the whole replay once; the boards are then shown without asking the server
+    this._controller.setState(ReplayModeConstants.WAITING_FOR_SERVER_RESPONSE, this._controller.getRecordURL());
   };
 
   //
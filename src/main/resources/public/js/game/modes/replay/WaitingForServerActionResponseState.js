@@ -3,8 +3,8 @@
  * 
  * This component is an concrete implementation of a state
  * for the Game view; this state represents the state in which
- * the view makes the Ajax call to the server to perform an action
- * on the TurnIterator for the game being "replayed".
+ * the view makes the Ajax call to the server to fetch the whole replay
+ * of the game being "replayed".
  */
 define(function(require){
   'use strict';
@@ -42,9 +42,9 @@ define(function(require){
     // disable all of the View controls
     this._controller.disableAllControls();
     //
-    const actionURL = args[0];
-    // perform the action on the server
-    AjaxUtils.callServer(actionURL,
+    const recordURL = args[0];
+    // fetch the replay; it never changes, so it may come from the browser's cache
+    AjaxUtils.getFromServer(recordURL,
         // the handler method should be run in the context of 'this' State object
         handleResponse, this);
   };
@@ -53,28 +53,15 @@ define(function(require){
   // Private methods
   //
 
-  function handleResponse(message) {
-    // is it successful?
-    if (message.type === 'INFO') {
-      // check for special case messages
-      if (message.text === 'true') {
-        // tell the browser to redisplay the Game View to get the updated board
-        window.location.reload(true);
-      }
-      // otherwise, check to see if there is a message to display
-      else {
-        if (message.text !== 'false') {
-          this._controller.displayMessage(message);
-        }
-        // and go back to the wait state
-        this._controller.setState(ReplayModeConstants.WAITING_FOR_USER_ACTION);
-      }
-    }
-    // handle error message
-    else {
-      this._controller.displayMessage(message);
-      this._controller.setState(ReplayModeConstants.WAITING_FOR_USER_ACTION);
+  function handleResponse(response) {
+    // an error is sent as a message instead of the replay
+    if (response.type === 'ERROR') {
+      this._controller.displayMessage(response);
+    } else {
+      this._controller.setRecord(response);
     }
+    // go back to the wait state
+    this._controller.setState(ReplayModeConstants.WAITING_FOR_USER_ACTION);
   }
 
   // export class constructor
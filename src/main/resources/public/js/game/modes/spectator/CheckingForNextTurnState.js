@@ -40,7 +40,7 @@ define(function(require){
    */
   CheckingForNextTurnState.prototype.onEntry = function onEntry() {
     // query the server if the next turn has been played
-    AjaxUtils.callServer('/spectator/checkTurn',
+    AjaxUtils.pollServer('/spectator/checkTurn',
         // the handler method should be run in the context of 'this' State object
         handleResponse, this);
   };
@@ -50,6 +50,11 @@ define(function(require){
   //
 
   function handleResponse(message) {
+    // no message means 304 Not Modified: the game has not changed since the last check
+    if (!message) {
+      this._controller.setState(SpectatorModeConstants.WAITING_FOR_NEXT_TURN);
+      return;
+    }
     // is it successful?
     if (message.type === 'INFO') {
       // check for special case messages
@@ -11,6 +11,7 @@ define(function(require){
 
   // imports
   const SpectatorModeConstants = require('./SpectatorModeConstants');
+  const AjaxUtils = require('../../util/AjaxUtils');
 
   /**
    * Constructor function.
@@ -41,8 +42,8 @@ define(function(require){
    * Method when entering this state.
    */
   WaitingForNextTurnState.prototype.onEntry = function onEntry() {
-    // wait five seconds then check my turn
-    setTimeout(this._checkNextTurn, 5000);
+    // wait as long as the server advised then check for the next turn
+    setTimeout(this._checkNextTurn, AjaxUtils.getNextPollMs());
   };
 
   // export class constructor
@@ -7,6 +7,11 @@ define(function (require) {
   // imports
   const LangUtils = require('./LangUtils');
 
+  // how long to wait before polling again when a busy server gives no Retry-After
+  const DEFAULT_RETRY_AFTER_MS = 5000;
+  // how long to wait between polls until the server has advised otherwise
+  const DEFAULT_POLL_MS = 5000;
+
   /**
    * Utility object with methods for invoking Ajax calls to the server.
    */
@@ -17,6 +22,11 @@ define(function (require) {
      */
     _gameState: null,
 
+    /**
+     * How long the server advised waiting before the next poll.
+     */
+    _nextPollMs: DEFAULT_POLL_MS,
+
     /**
      * Set the state of the Game View.  This should only be called once after
      * the GameView DOM has been fully loaded.  See main.js
@@ -36,6 +46,16 @@ define(function (require) {
       return AjaxUtils._gameState.getGameID();
     },
 
+    /**
+     * Get how long to wait before the next poll, as the server advised with the
+     * last one.
+     *
+     * @return {number} the milliseconds to wait
+     */
+    getNextPollMs: function() {
+      return AjaxUtils._nextPollMs;
+    },
+
     /**
      * Make an Ajax call to the server.
      *
@@ -73,6 +93,66 @@ define(function (require) {
     callServerWithData: function (actionURL, actionData, callback, callbackContext) {
       // send the HTTP request and immediately return; the callback will be invoked asynchronously
       jQuery.ajax(makeAjaxOptionsWithActionData(actionURL, actionData, callback, callbackContext));
+    },
+
+    /**
+     * Fetch a resource that never changes, such as the record of a finished game's replay.
+     *
+     * <p>
+     *   Unlike the actions above this is an HTTP GET without parameters, so the
+     *   browser (or a proxy) may answer it from its cache.
+     *
+     * @param resourceURL  the URL of the resource
+     * @param callback  the developer's handler for the successful response (expecting JSON)
+     * @param callbackContext  the object context within which the callback is executed (the 'this' object)
+     */
+    getFromServer: function (resourceURL, callback, callbackContext) {
+      const options = _makeAjaxOptions(resourceURL, undefined, callback, callbackContext);
+      options.method = 'GET';
+      jQuery.ajax(options);
+    },
+
+    /**
+     * Make a conditional Ajax call to the server, used to poll for changes to the game.
+     *
+     * <p>
+     *   The request carries the ETag of the last response (at first the tag of the
+     *   game version the page was rendered from) and the server answers 304 Not
+     *   Modified while the game has not changed.  In that case the callback is
+     *   invoked without a message.  When the server is too busy it answers 503
+     *   Service Unavailable and the same poll is sent again after its Retry-After.
+     *   Every other reply, a 304 included, advises how long to wait before the
+     *   next poll; see getNextPollMs.
+     *
+     * @param actionURL  the URL for a server Ajax action
+     * @param callback  the developer's handler for the response (a JSON message, or nothing when not modified)
+     * @param callbackContext  the object context within which the callback is executed (the 'this' object)
+     */
+    pollServer: function (actionURL, callback, callbackContext) {
+      // jQuery remembers the ETag of each URL and sends it back when 'ifModified' is set
+      const etag = AjaxUtils._gameState.getTurnETag();
+      if (!LangUtils.exists(jQuery.etag[actionURL]) && LangUtils.exists(etag)) {
+        jQuery.etag[actionURL] = etag;
+      }
+      const options = makeAjaxOptionsWithNoData(actionURL, callback, callbackContext);
+      options.ifModified = true;
+      options.success = function (message, textStatus, xhr) {
+        // the hint is in the message, and in a header as a 304 has no message
+        const hint = (message && message.nextPollMs) || parseInt(xhr.getResponseHeader('X-Next-Poll-Ms'), 10);
+        AjaxUtils._nextPollMs = isNaN(hint) ? DEFAULT_POLL_MS : hint;
+        callback.call(callbackContext, message);
+      };
+      options.error = function (xhr, textStatus, error) {
+        if (xhr.status === 503) {
+          const seconds = parseInt(xhr.getResponseHeader('Retry-After'), 10);
+          const delay = isNaN(seconds) ? DEFAULT_RETRY_AFTER_MS : seconds * 1000;
+          console.debug(`${actionURL} turned away, polling again in ${delay} ms.`);
+          setTimeout(() => AjaxUtils.pollServer(actionURL, callback, callbackContext), delay);
+        } else {
+          handleErrorResponse(xhr, textStatus, error);
+        }
+      };
+      jQuery.ajax(options);
     }
   };
 
@@ -88,7 +168,10 @@ define(function (require) {
    * @throws {Error}  when the response text is XML/HTML
    */
   function myDataFilter(data) {
-    if (data[0] === '<') {
+    if (data === '') {
+      // a 304 Not Modified response has no body
+      return null;
+    } else if (data[0] === '<') {
       throw new Error('HTML content detected in Ajax reponse.'
           + '  Did you accidentally perform a redirect in your Spark Route?'
           + '  Sorry, that\'s a no-no.');
@@ -198,14 +281,14 @@ define(function (require) {
 
       // HTTP callback handlers
       beforeSend: function() {
-        console.debug(`POST ${actionURL} being sent.`);
+        console.debug(`${this.type} ${actionURL} being sent.`);
       },
       dataFilter: myDataFilter,
       success: callback.bind(callbackContext),
       error: handleErrorResponse,
       complete: function (xhr, textStatus) {
         // log Ajax call
-        console.debug(`POST ${actionURL} response complete with '${textStatus}' status.`);
+        console.debug(`${this.type} ${actionURL} response complete with '${textStatus}' status.`);
       }
     };
   }
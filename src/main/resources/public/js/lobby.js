@@ -0,0 +1,156 @@
+/**
+ * Keeps the Home page up to date without reloading it.
+ *
+ * The page is rendered with the version of the lobby feed it shows. This
+ * script polls the server for the changes made since that version (players
+ * signing in and out, games starting and finishing) and applies them to the
+ * lists in place. It reloads the page only when the server no longer has all
+ * the changes, and goes to the Game page when the player is put in a game.
+ */
+(function() {
+    'use strict';
+
+    // how often to ask for changes
+    const POLL_MS = 5000;
+    const CHANGES_URL = '/lobby/changes';
+
+    const lobby = document.getElementById('lobby');
+    if (!lobby) {
+        return;
+    }
+    const currentUser = lobby.dataset.currentUser;
+    let version = Number(lobby.dataset.version);
+
+    // the player list may be searched, filtered or paged, see GetHomeRoute
+    const params = new URLSearchParams(window.location.search);
+    const playerPrefix = (params.get('playerPrefix') || '').toLowerCase();
+    const playerFirstPage = !params.has('playerCursor');
+    const availableOnly = params.get('available') === 'true';
+
+    /**
+     * Makes a list entry holding a single form button, like the ones in home.ftl.
+     */
+    function makeEntry(key, action, method, name, value, label) {
+        const entry = document.createElement('ul');
+        entry.dataset.key = key;
+        const item = document.createElement('li');
+        const form = document.createElement('form');
+        form.action = action;
+        form.method = method;
+        const button = document.createElement('button');
+        button.type = 'submit';
+        button.name = name;
+        button.value = value;
+        button.textContent = label;
+        form.appendChild(button);
+        item.appendChild(form);
+        entry.appendChild(item);
+        return entry;
+    }
+
+    function findEntry(list, key) {
+        return Array.prototype.find.call(list.children, (entry) => entry.dataset.key === String(key));
+    }
+
+    // game lists are newest first, so new games only belong on the first page
+    function addGameEntry(listId, cursorParam, entry) {
+        const list = document.getElementById(listId);
+        if (list && !params.has(cursorParam) && !findEntry(list, entry.dataset.key)) {
+            list.insertBefore(entry, list.firstElementChild);
+        }
+    }
+
+    function removeEntry(listId, key) {
+        const list = document.getElementById(listId);
+        const entry = list && findEntry(list, key);
+        if (entry) {
+            list.removeChild(entry);
+        }
+    }
+
+    // the player list is in alphabetical order ignoring case
+    function addPlayer(username) {
+        const list = document.getElementById('player-list');
+        if (!list || username === currentUser || !playerFirstPage
+                || !username.toLowerCase().startsWith(playerPrefix) || findEntry(list, username)) {
+            return;
+        }
+        const next = Array.prototype.find.call(list.children,
+            (entry) => entry.dataset.key.toLowerCase() > username.toLowerCase());
+        list.insertBefore(makeEntry(username, '/game', 'post', 'opponent', username, username), next || null);
+    }
+
+    function addToTotal(count) {
+        const total = document.getElementById('total-players');
+        if (total) {
+            total.textContent = Math.max(0, Number(total.textContent) + count);
+        }
+    }
+
+    function gameEntry(change, action) {
+        return makeEntry(change.gameID, action, 'get', 'gameID', change.gameID,
+            change.redPlayer + ' vs ' + change.whitePlayer);
+    }
+
+    function apply(change) {
+        switch (change.type) {
+            case 'PLAYER_JOINED':
+                addPlayer(change.username);
+                addToTotal(1);
+                break;
+            case 'PLAYER_LEFT':
+                removeEntry('player-list', change.username);
+                addToTotal(-1);
+                break;
+            case 'GAME_STARTED':
+                if (availableOnly) {
+                    removeEntry('player-list', change.redPlayer);
+                    removeEntry('player-list', change.whitePlayer);
+                }
+                addGameEntry('spectator-list', 'spectatorCursor', gameEntry(change, '/spectator/game'));
+                break;
+            case 'GAME_FINISHED':
+                removeEntry('spectator-list', change.gameID);
+                if (availableOnly) {
+                    addPlayer(change.redPlayer);
+                    addPlayer(change.whitePlayer);
+                }
+                addGameEntry('replay-list', 'replayCursor', gameEntry(change, '/replay/game'));
+                break;
+        }
+    }
+
+    function poll() {
+        const request = new XMLHttpRequest();
+        request.open('GET', CHANGES_URL + '?since=' + version);
+        request.onload = () => {
+            if (request.status !== 200) {
+                // a busy server says when to come back
+                const seconds = parseInt(request.getResponseHeader('Retry-After'), 10);
+                setTimeout(poll, isNaN(seconds) ? POLL_MS : Math.max(POLL_MS, seconds * 1000));
+                return;
+            }
+            const response = JSON.parse(request.responseText);
+            if (response.gameID !== undefined) {
+                window.location.href = '/game?gameID=' + response.gameID;
+                return;
+            }
+            if (response.reload) {
+                window.location.reload();
+                return;
+            }
+            response.changes.forEach((change) => {
+                // skip changes already applied, a change can be sent twice
+                if (change.version > version) {
+                    apply(change);
+                    version = change.version;
+                }
+            });
+            setTimeout(poll, POLL_MS);
+        };
+        request.onerror = () => setTimeout(poll, POLL_MS);
+        request.send();
+    }
+
+    setTimeout(poll, POLL_MS);
+})();
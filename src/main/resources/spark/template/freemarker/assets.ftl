@@ -0,0 +1,4 @@
+<#-- The URL of a static file, fingerprinted by the AssetPipeline when it is available -->
+<#function asset path>
+  <#return (assets[path])!path>
+</#function>
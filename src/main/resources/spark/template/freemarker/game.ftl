@@ -1,9 +1,10 @@
 <!DOCTYPE html>
+<#include "assets.ftl" />
 <head>
   <meta http-equiv="Content-Type" content="text/html; charset=UTF-8"></meta>
   <title>${title} | Web Checkers</title>
-  <link rel="stylesheet" href="/css/style.css">
-  <link rel="stylesheet" href="/css/game.css">
+  <link rel="stylesheet" href="${asset("/css/style.css")}">
+  <link rel="stylesheet" href="${asset("/css/game.css")}">
   <script src="https://ajax.googleapis.com/ajax/libs/jquery/3.1.1/jquery.min.js"></script>
   <script>
   window.gameData = {
@@ -13,7 +14,8 @@
     "modeOptions" : ${modeOptionsAsJSON!'{}'},
     "redPlayer" : "${redPlayer.getUsername()}",
     "whitePlayer" : "${whitePlayer.getUsername()}",
-    "activeColor" : "${activeColor}"
+    "activeColor" : "${activeColor}",
+    "turnETag" : "${turnETag?js_string}"
   };
   </script>
 </head>
@@ -38,13 +40,13 @@
             <div>
               <table data-color='RED'>
                 <tr>
-                  <td><img src="../img/single-piece-red.svg" /></td>
+                  <td><img src="${asset("/img/single-piece-red.svg")}" /></td>
                   <td class="name">Red</td>
                 </tr>
               </table>
               <table data-color='WHITE'>
                 <tr>
-                  <td><img src="../img/single-piece-white.svg" /></td>
+                  <td><img src="${asset("/img/single-piece-white.svg")}" /></td>
                   <td class="name">White</td>
                 </tr>
               </table>
@@ -59,29 +61,7 @@
         </div>
   
         <div class="game-board">
-          <table id="game-board">
-            <tbody>
-            <#list board.iterator() as row>
-              <tr data-row="${row.index}">
-              <#list row.iterator() as space>
-                <td data-cell="${space.cellIdx}"
-                    <#if space.isValid() >
-                    class="Space"
-                    </#if>
-                    >
-                <#if space.piece??>
-                  <div class="Piece"
-                       id="piece-${row.index}-${space.cellIdx}"
-                       data-type="${space.piece.type}"
-                       data-color="${space.piece.color}">
-                  </div>
-                </#if>
-                </td>
-              </#list>
-              </tr>
-            </#list>
-            </tbody>
-          </table>
+          ${boardHtml}
         </div>
       </div>
 
@@ -90,7 +70,13 @@
 
   <audio id="audio" src="http://www.soundjay.com/button/beep-07.mp3" autostart="false" ></audio>
   
+  <#if (assets["/js/game/bundle.js"])??>
+  <#-- every module of the Game view in one fingerprinted script -->
+  <script src="${asset("/js/require.js")}"></script>
+  <script src="${asset("/js/game/bundle.js")}"></script>
+  <#else>
   <script data-main="/js/game/index" src="/js/require.js"></script>
+  </#if>
   
 </body>
 </html>
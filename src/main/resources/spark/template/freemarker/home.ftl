@@ -1,10 +1,10 @@
 <!DOCTYPE html>
+<#include "assets.ftl" />
 
 <head>
   <meta http-equiv="Content-Type" content="text/html; charset=UTF-8"></meta>
-  <meta http-equiv="refresh" content="10">
   <title>Web Checkers | ${title}</title>
-  <link rel="stylesheet" type="text/css" href="/css/style.css">
+  <link rel="stylesheet" type="text/css" href="${asset("/css/style.css")}">
 </head>
 
 <body>
@@ -26,22 +26,34 @@
             or replay archived games
     -->
 
-    <div>
+    <!-- lobby.js polls for changes since lobbyVersion and updates the lists in place -->
+    <div id="lobby" data-version="${lobbyVersion?c}"<#if currentUser??> data-current-user="${currentUser.getUsername()}"</#if>>
       <#if currentUser??>
         Other Signed-in Players:</br>
+        <form action="/" method="get">
+          <input type="text" name="playerPrefix" value="${playerPrefix?html}" placeholder="Name starts with"/>
+          <label><input type="checkbox" name="available" value="true"<#if availableOnly> checked</#if>/> Not in a game</label>
+          <button type="submit">Find</button>
+        </form>
+        <div id="player-list">
         <#if playerList??>
 
             <#list playerList as n>
-              <ul>
+              <ul data-key="${n}">
                 <li><form action="/game" method="post"><button type="submit" name="opponent" value="${n}">${n}</button></form></li>
               </ul>
             </#list>
 
+        </#if>
+        </div>
+        <#if playerNextCursor??>
+            <a href="/?playerCursor=${playerNextCursor?url('UTF-8')}&playerPrefix=${playerPrefix?url('UTF-8')}<#if availableOnly>&available=true</#if>">More players</a></br>
         </#if>
           Games in Progress:</br>
+          <div id="spectator-list">
           <#if spectatorGameList??>
               <#list spectatorGameList as game>
-                  <ul>
+                  <ul data-key="${game.getId()?c}">
                       <li>
                           <form action="/spectator/game" method="get">
                               <button type="submit" name="gameID" value="${game.getId()}">${game.getRedPlayer().getUsername()} vs ${game.getWhitePlayer().getUsername()}</button>
@@ -50,21 +62,29 @@
                   </ul>
               </#list>
           </#if>
+          </div>
+          <#if spectatorNextCursor??>
+              <a href="/?spectatorCursor=${spectatorNextCursor?c}">Older games in progress</a></br>
+          </#if>
           Games to Replay:</br>
+          <div id="replay-list">
           <#if replayGameList??>
               <#list replayGameList as game>
-                  <ul>
+                  <ul data-key="${game.getId()?c}">
                       <li>
                           <form action="/replay/game" method="get">
-                              <#-- TODO: Get rid of Law of Demeter Violation below                        -->
-                              <button type="submit" name="gameID" value="${game.getId()}">${game.getRedPlayer().getUsername()} vs ${game.getWhitePlayer().getUsername()}</button>
+                              <button type="submit" name="gameID" value="${game.getId()}">${game.getRedPlayerName()} vs ${game.getWhitePlayerName()}</button>
                           </form>
                       </li>
                   </ul>
               </#list>
           </#if>
+          </div>
+          <#if replayNextCursor??>
+              <a href="/?replayCursor=${replayNextCursor?c}">Older games to replay</a></br>
+          </#if>
       <#else>
-        Total players signed in: ${totalPlayers}</br>
+        Total players signed in: <span id="total-players">${totalPlayers}</span></br>
       </#if>
 
     </div>
@@ -72,6 +92,8 @@
   </div>
 
 </div>
+
+<script src="${asset("/js/lobby.js")}"></script>
 </body>
 
 </html>
@@ -1,9 +1,10 @@
 <!DOCTYPE html>
+<#include "assets.ftl" />
 
 <head>
   <meta http-equiv="Content-Type" content="text/html; charset=UTF-8"></meta>
   <title>Web Checkers | ${title}</title>
-  <link rel="stylesheet" type="text/css" href="/css/style.css">
+  <link rel="stylesheet" type="text/css" href="${asset("/css/style.css")}">
 </head>
 
 <body>
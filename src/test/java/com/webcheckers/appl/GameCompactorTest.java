@@ -0,0 +1,38 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("Application-tier")
+class GameCompactorTest {
+
+    @Test
+    public void testRun() {
+        final GameStore store = new GameStore(10, 1024 * 1024, null);
+        final CheckersGame game = new CheckersGame(1, new Player("a"), new Player("b"));
+        store.put(game);
+        game.setGameOver("over");
+        store.finished(game);
+        final GameCompactor CuT = new GameCompactor(store, 1000, 0);
+
+        assertEquals(1, CuT.run());
+
+        assertEquals(0, store.getLiveCount());
+        assertEquals(1, store.getHotCount());
+        store.close();
+    }
+
+    @Test
+    public void testRunSurvivesFailure() {
+        final GameStore store = mock(GameStore.class);
+        when(store.compact(anyLong())).thenThrow(new IllegalStateException("broken"));
+        final GameCompactor CuT = new GameCompactor(store, 1000, 0);
+
+        assertEquals(0, CuT.run());
+    }
+}
@@ -145,4 +145,16 @@ class GameManagerTest {
         CuT.setGameOver(1, "game over");
         assertEquals(1, CuT.getReplayGames().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFinishedPublishedOnce() {
+        final LobbyFeed feed = new LobbyFeed();
+        CuT = new GameManager(new GameStore(), feed);
+        CuT.newGame(new Player("red"), new Player("white"));
+        CuT.setGameOver(1, "game over");
+        CuT.setGameOver(1, "game over");
+
+        assertEquals(1, feed.getChangesSince(0).stream()
+                .filter(change -> change.getType() == LobbyFeed.Type.GAME_FINISHED).count());
+    }
+}
@@ -0,0 +1,338 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.CheckerPiece;
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.GameSummary;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import com.webcheckers.util.Settings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+class GameStoreTest {
+
+    /** A slab big enough for every game the tests keep warm */
+    private static final long WARM_BYTES = 1024 * 1024;
+
+    private Path directory;
+    private GameStore CuT;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("gamestore-test");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if ( CuT != null ) {
+            CuT.close();
+        }
+    }
+
+    /**
+     * Makes a game where red moved once, white moved once and then red resigned
+     */
+    private CheckersGame finishedGame(int id) {
+        final CheckersGame game = new CheckersGame(id, new Player("red" + id), new Player("white" + id));
+        game.makeMove(new Move(new Position(5, 0), new Position(4, 1)));
+        game.newTurn();
+        game.makeMove(new Move(new Position(5, 2), new Position(4, 3)));
+        game.newTurn();
+        game.setGameOver("resigned", game.getRedPlayer());
+        return game;
+    }
+
+    private void assertSameGame(CheckersGame expected, CheckersGame actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getRedPlayer().getUsername(), actual.getRedPlayer().getUsername());
+        assertEquals(expected.getWhitePlayer().getUsername(), actual.getWhitePlayer().getUsername());
+        assertEquals(expected.getGameOverMessage(), actual.getGameOverMessage());
+        assertEquals(expected.getWinner(), actual.getWinner());
+        assertEquals(expected.getEndTime(), actual.getEndTime());
+        assertEquals(expected.getTurns().size(), actual.getTurns().size());
+        assertEquals(render(expected.getBoard()), render(actual.getBoard()));
+        for (int i = 0; expected.spectatorHasNext(i); i++) {
+            assertEquals(render(expected.spectatorGetBoard(i + 1)), render(actual.spectatorGetBoard(i + 1)));
+        }
+    }
+
+    private static String render(CheckerPiece[][] board) {
+        final StringBuilder text = new StringBuilder();
+        for (CheckerPiece[] row : board) {
+            for (CheckerPiece piece : row) {
+                text.append(piece == null ? "." : piece.toString() + piece.getType());
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Makes a game where red moved once, white moved once and the game is still going
+     */
+    private CheckersGame liveGame(int id) {
+        final CheckersGame game = new CheckersGame(id, new Player("red" + id), new Player("white" + id));
+        game.makeMove(new Move(new Position(5, 0), new Position(4, 1)));
+        game.newTurn();
+        game.makeMove(new Move(new Position(5, 2), new Position(4, 3)));
+        game.newTurn();
+        return game;
+    }
+
+    @Test
+    public void testDemoteToWarm() {
+        CuT = new GameStore(1, WARM_BYTES, directory);
+        final CheckersGame first = finishedGame(1);
+        final CheckersGame second = finishedGame(2);
+
+        CuT.put(first);
+        CuT.put(second);
+
+        assertEquals(0, CuT.getLiveCount());
+        assertEquals(1, CuT.getHotCount());
+        assertEquals(1, CuT.getWarmCount());
+        assertTrue(CuT.getWarmBytes() > 0);
+        assertEquals(0, CuT.getColdCount());
+        final CheckersGame loaded = CuT.get(1);
+        assertNotSame(first, loaded);
+        assertSameGame(first, loaded);
+        assertSame(CheckerPiece.Color.WHITE, loaded.getWinner());
+    }
+
+    @Test
+    public void testDemoteToCold() {
+        CuT = new GameStore(0, 0, directory);
+        final CheckersGame game = finishedGame(1);
+
+        CuT.put(game);
+
+        assertEquals(0, CuT.getHotCount());
+        assertEquals(0, CuT.getWarmCount());
+        assertEquals(1, CuT.getColdCount());
+        assertSameGame(game, CuT.get(1));
+        assertSameGame(game, CuT.peekArchived(1).toCheckersGame());
+    }
+
+    @Test
+    public void testPeekDoesNotPromote() {
+        CuT = new GameStore(0, WARM_BYTES, directory);
+        CuT.put(finishedGame(1));
+
+        assertNotNull(CuT.peekArchived(1));
+        assertEquals(0, CuT.getHotCount());
+    }
+
+    @Test
+    public void testLiveGamesStayHot() {
+        CuT = new GameStore(0, 0, directory);
+        final CheckersGame live = new CheckersGame(1, new Player("a"), new Player("b"));
+
+        CuT.put(live);
+        CuT.put(finishedGame(2));
+
+        assertSame(live, CuT.get(1));
+        assertNull(CuT.getArchived(1));
+        assertEquals(1, CuT.getLiveGames().size());
+        assertEquals(1, CuT.getFinishedGameCount());
+        assertEquals("red2", CuT.getFinishedPage(GamePage.FIRST, 10).getItems().get(0).getRedPlayerName());
+    }
+
+    @Test
+    public void testCompact() {
+        CuT = new GameStore(1, WARM_BYTES, directory);
+        final CheckersGame game = liveGame(1);
+        CuT.put(game);
+        game.setGameOver("resigned", game.getRedPlayer());
+        CuT.finished(game);
+
+        assertEquals(0, CuT.getLiveGames().size());
+        assertEquals(1, CuT.getFinishedGameCount());
+        assertEquals(0, CuT.compact(60_000));
+        assertSame(game, CuT.get(1));
+
+        assertEquals(1, CuT.compact(0));
+
+        assertEquals(0, CuT.getLiveCount());
+        assertEquals(1, CuT.getHotCount());
+        assertEquals(1, CuT.getCompactedCount());
+        assertTrue(CuT.getCompactedBytesSaved() > 0);
+        final CheckersGame loaded = CuT.get(1);
+        assertNotSame(game, loaded);
+        assertSameGame(game, loaded);
+        assertNull(CuT.get(2));
+    }
+
+    @Test
+    public void testLiveGamesNotCompacted() {
+        CuT = new GameStore(1, WARM_BYTES, directory);
+        CuT.put(liveGame(1));
+
+        assertEquals(0, CuT.compact(0));
+        assertEquals(1, CuT.getLiveCount());
+        assertEquals(0, CuT.getCompactedCount());
+    }
+
+    @Test
+    public void testPages() {
+        CuT = new GameStore(10, WARM_BYTES, directory);
+        for (int id = 1; id <= 5; id++) {
+            CuT.put(new CheckersGame(id, new Player("red" + id), new Player("white" + id)));
+        }
+
+        final GamePage<CheckersGame> first = CuT.getLivePage(GamePage.FIRST, 2);
+        assertEquals(5, first.getItems().get(0).getId());
+        assertEquals(4, first.getItems().get(1).getId());
+        assertTrue(first.hasMore());
+        final GamePage<CheckersGame> second = CuT.getLivePage(first.getNextCursor(), 2);
+        assertEquals(3, second.getItems().get(0).getId());
+        final GamePage<CheckersGame> last = CuT.getLivePage(second.getNextCursor(), 2);
+        assertEquals(1, last.getItems().size());
+        assertFalse(last.hasMore());
+        assertEquals(5, CuT.getLiveGameCount());
+    }
+
+    @Test
+    public void testFinishedMovesBetweenIndexes() {
+        CuT = new GameStore(10, WARM_BYTES, directory);
+        final CheckersGame older = new CheckersGame(1, new Player("a"), new Player("b"));
+        final CheckersGame newer = new CheckersGame(2, new Player("c"), new Player("d"));
+        CuT.put(older);
+        CuT.put(newer);
+
+        newer.setGameOver("over");
+        CuT.finished(newer);
+        older.setGameOver("over");
+        assertTrue(CuT.finished(older));
+        assertFalse(CuT.finished(older));
+
+        assertEquals(0, CuT.getLiveGameCount());
+        assertTrue(CuT.getLivePage(GamePage.FIRST, 10).getItems().isEmpty());
+        assertEquals(2, CuT.getFinishedGameCount());
+        final GamePage<GameSummary> finished = CuT.getFinishedPage(GamePage.FIRST, 10);
+        assertEquals(2, finished.getItems().size());
+        // most recently finished first, not by id
+        assertEquals(1, finished.getItems().get(0).getId());
+        assertEquals(2, finished.getItems().get(1).getId());
+    }
+
+    @Test
+    public void testOlderSummariesReadFromTiers() {
+        CuT = new GameStore(0, 0, Integer.MAX_VALUE, 2, directory);
+        for (int id = 1; id <= 5; id++) {
+            CuT.put(finishedGame(id));
+        }
+
+        assertEquals(5, CuT.getFinishedGameCount());
+        assertEquals(5, CuT.getColdCount());
+        final GamePage<GameSummary> first = CuT.getFinishedPage(GamePage.FIRST, 3);
+        assertEquals(5, first.getItems().get(0).getId());
+        assertEquals(3, first.getItems().get(2).getId());
+        // past the two summaries kept, read back from disk
+        assertEquals("red3", first.getItems().get(2).getRedPlayerName());
+        final GamePage<GameSummary> last = CuT.getFinishedPage(first.getNextCursor(), 3);
+        assertEquals(2, last.getItems().size());
+        assertEquals(1, last.getItems().get(1).getId());
+        assertFalse(last.hasMore());
+
+        // and the games stream in the order they finished
+        assertEquals(5, CuT.streamFinishedGames().count());
+        assertEquals(1, CuT.streamFinishedGames().findFirst().orElseThrow().getId());
+    }
+
+    @Test
+    public void testWarmBytesCapped() {
+        final int gameBytes = GameSerializer.serialize(finishedGame(1).archive()).length;
+        // room for two games, less than three
+        CuT = new GameStore(0, gameBytes * 5 / 2, directory);
+        for (int id = 1; id <= 6; id++) {
+            CuT.put(finishedGame(id));
+            assertTrue(CuT.getWarmBytes() <= gameBytes * 5 / 2);
+        }
+
+        assertEquals(2, CuT.getWarmCount());
+        assertEquals(4, CuT.getColdCount());
+        // a game read back from disk takes the place of the least recently used one
+        assertEquals("red1", CuT.getArchived(1).getRedPlayerName());
+        assertEquals(2, CuT.getWarmCount());
+        assertTrue(CuT.getWarmBytes() <= gameBytes * 5 / 2);
+        assertEquals(Long.valueOf(gameBytes * 5 / 2), CuT.asMap().get("game_store_warm_bytes"));
+    }
+
+    @Test
+    public void testConcurrentDemotion() throws Exception {
+        // the tiers are small, so nearly every put and read moves games between them while
+        // others are compressed and written outside the lock
+        CuT = new GameStore(4, 2048, 8, GameStore.DEFAULT_SUMMARIES, directory);
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                final int first = thread * 50 + 1;
+                tasks.add(pool.submit(() -> {
+                    for (int id = first; id < first + 50; id++) {
+                        CuT.put(finishedGame(id));
+                        assertNotNull(CuT.getArchived(first + (id * 7) % (id - first + 1)));
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int id = 1; id <= 400; id++) {
+            assertEquals("red" + id, CuT.peekArchived(id).getRedPlayerName(), "game " + id);
+        }
+        assertEquals(400, CuT.getFinishedGameCount());
+        assertTrue(CuT.getWarmCount() <= 8);
+    }
+
+    @Test
+    public void testSettings() {
+        final Properties properties = new Properties();
+        properties.setProperty("gameStore.hotGames", "0");
+        properties.setProperty("gameStore.warmGames", "1");
+        properties.setProperty("gameStore.dir", directory.toString());
+        CuT = new GameStore(new Settings(properties));
+        CuT.put(finishedGame(1));
+        CuT.put(finishedGame(2));
+
+        assertEquals(1, CuT.getWarmCount());
+        assertEquals(1, CuT.getColdCount());
+        assertTrue(Files.exists(directory.resolve("cold.idx")));
+        assertEquals(Long.valueOf(1), CuT.asMap().get("game_store_warm_games"));
+        assertEquals(Long.valueOf(GameStore.DEFAULT_SUMMARIES), CuT.asMap().get("game_store_summaries"));
+    }
+
+    @Test
+    public void testWarmGamesBounded() {
+        CuT = new GameStore(0, WARM_BYTES, 2, GameStore.DEFAULT_SUMMARIES, directory);
+        final CheckersGame first = finishedGame(1);
+        CuT.put(first);
+        CuT.put(finishedGame(2));
+        CuT.put(finishedGame(3));
+
+        assertEquals(2, CuT.getWarmCount());
+        assertEquals(1, CuT.getColdCount());
+        assertSameGame(first, CuT.get(1));
+        // loading the cold game brought it back up, pushing the least recently used one down
+        assertEquals(2, CuT.getWarmCount());
+        assertEquals(2, CuT.getColdCount());
+    }
+}
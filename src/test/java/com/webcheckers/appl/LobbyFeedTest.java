@@ -0,0 +1,66 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+class LobbyFeedTest {
+
+    @Test
+    public void testChangesSince() {
+        final LobbyFeed CuT = new LobbyFeed();
+        CuT.playerJoined("alice");
+        CuT.playerJoined("bob");
+        CuT.gameStarted(1, "alice", "bob");
+
+        final List<LobbyFeed.Change> changes = CuT.getChangesSince(1);
+
+        assertEquals(3, CuT.getVersion());
+        assertEquals(2, changes.size());
+        assertEquals("bob", changes.get(0).getUsername());
+        assertEquals(2, changes.get(0).getVersion());
+        assertSame(LobbyFeed.Type.GAME_STARTED, changes.get(1).getType());
+        assertEquals(1, changes.get(1).getGameID());
+        assertTrue(CuT.getChangesSince(3).isEmpty());
+    }
+
+    @Test
+    public void testReloadWhenTooFarBehind() {
+        final LobbyFeed CuT = new LobbyFeed(2);
+        CuT.playerJoined("a");
+        CuT.playerJoined("b");
+        CuT.playerJoined("c");
+
+        assertNull(CuT.getChangesSince(0));
+        assertEquals(2, CuT.getChangesSince(1).size());
+        assertNull(CuT.getChangesSince(-1));
+    }
+
+    @Test
+    public void testPublishedByLobbyAndGames() {
+        final LobbyFeed feed = new LobbyFeed();
+        final PlayerLobby lobby = new PlayerLobby(feed);
+        final GameManager games = new GameManager(new GameStore(), feed);
+
+        lobby.signin("alice");
+        lobby.signin("bob");
+        final CheckersGame game = games.newGame(lobby.getPlayer("alice"), lobby.getPlayer("bob"));
+        games.setGameOver(game.getId(), "resigned", lobby.getPlayer("alice"));
+        lobby.playerSignOut("bob");
+        lobby.playerSignOut("nobody");
+
+        final List<LobbyFeed.Change> changes = feed.getChangesSince(0);
+        assertEquals(5, changes.size());
+        assertSame(LobbyFeed.Type.PLAYER_JOINED, changes.get(0).getType());
+        assertSame(LobbyFeed.Type.GAME_STARTED, changes.get(2).getType());
+        assertSame(LobbyFeed.Type.GAME_FINISHED, changes.get(3).getType());
+        assertEquals("bob", changes.get(3).getWhitePlayer());
+        assertSame(LobbyFeed.Type.PLAYER_LEFT, changes.get(4).getType());
+    }
+}
@@ -0,0 +1,89 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+class PdnExporterTest {
+
+    private GameManager gameManager;
+    private Player red;
+    private Player white;
+    private PdnExporter CuT;
+
+    @BeforeEach
+    public void setup() {
+        gameManager = new GameManager();
+        red = new Player("red");
+        white = new Player("white");
+        CuT = new PdnExporter(gameManager, ZoneOffset.UTC);
+    }
+
+    /**
+     * Plays one turn for each player then has red resign
+     */
+    private CheckersGame playShortGame() {
+        final CheckersGame game = gameManager.newGame(red, white);
+        gameManager.makeMove(game.getId(), new Move(new Position(5, 0), new Position(4, 1)));
+        gameManager.submitTurn(game.getId());
+        gameManager.makeMove(game.getId(), new Move(new Position(5, 0), new Position(4, 1)));
+        gameManager.submitTurn(game.getId());
+        gameManager.setGameOver(game.getId(), "red has resigned.", red);
+        return game;
+    }
+
+    @Test
+    public void testExportGame() throws Exception {
+        playShortGame();
+        final StringWriter out = new StringWriter();
+
+        final int count = CuT.export(out, null, null, null);
+
+        final String pdn = out.toString();
+        assertEquals(1, count);
+        assertTrue(pdn.contains("[Black \"red\"]\n"));
+        assertTrue(pdn.contains("[White \"white\"]\n"));
+        assertTrue(pdn.contains("[Result \"0-1\"]\n"));
+        assertTrue(pdn.contains("[Termination \"red has resigned.\"]\n"));
+        assertFalse(pdn.contains("[FEN"));
+        assertTrue(pdn.contains("\n1. 12-16 21-17 0-1\n"));
+    }
+
+    @Test
+    public void testUnfinishedGamesSkipped() throws Exception {
+        gameManager.newGame(red, white);
+        final StringWriter out = new StringWriter();
+
+        assertEquals(0, CuT.export(out, null, null, null));
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    public void testPlayerFilter() throws Exception {
+        playShortGame();
+
+        assertEquals(1, CuT.export(new StringWriter(), "white", null, null));
+        assertEquals(0, CuT.export(new StringWriter(), "someone else", null, null));
+    }
+
+    @Test
+    public void testDateFilter() throws Exception {
+        playShortGame();
+        final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        assertEquals(1, CuT.export(new StringWriter(), null, today, today));
+        assertEquals(0, CuT.export(new StringWriter(), null, today.plusDays(1), null));
+        assertEquals(0, CuT.export(new StringWriter(), null, null, today.minusDays(1)));
+    }
+}
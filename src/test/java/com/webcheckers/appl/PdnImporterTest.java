@@ -0,0 +1,148 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.ArchivedGame;
+import com.webcheckers.model.CheckerPiece;
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.PdnNotation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+class PdnImporterTest {
+
+    private static final String GAME =
+            "[Event \"Club night\"]\n" +
+            "[Date \"2019.03.14\"]\n" +
+            "[Black \"alice\"]\n" +
+            "[White \"bob\"]\n" +
+            "[Result \"0-1\"]\n" +
+            "\n" +
+            "1. 12-16 21-17 {quiet} 2. 16-20 0-1\n" +
+            "\n";
+
+    private GameManager gameManager;
+    private PdnImporter CuT;
+
+    @BeforeEach
+    public void setup() {
+        gameManager = new GameManager();
+        CuT = new PdnImporter(gameManager, 4, ZoneOffset.UTC);
+    }
+
+    @Test
+    public void testImportGame() throws Exception {
+        final PdnImporter.Result result = CuT.importGames(new StringReader(GAME));
+
+        assertEquals(1, result.getImported());
+        assertEquals(0, result.getRejected());
+        final ArchivedGame game = gameManager.streamFinishedGames().findFirst().orElseThrow();
+        assertEquals("alice", game.getRedPlayerName());
+        assertEquals("bob", game.getWhitePlayerName());
+        assertEquals(3, game.getTurns().size());
+        assertSame(CheckerPiece.Color.WHITE, game.getWinner());
+        assertEquals(1552521600000L, game.getEndTime());
+        assertTrue(game.spectatorHasNext(0));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        CuT.importGames(new StringReader(GAME));
+        final StringWriter exported = new StringWriter();
+        new PdnExporter(gameManager, ZoneOffset.UTC).export(exported, null, null, null);
+
+        final GameManager other = new GameManager();
+        final PdnImporter.Result result = new PdnImporter(other, 1, ZoneOffset.UTC).importGames(new StringReader(exported.toString()));
+
+        assertEquals(1, result.getImported());
+        final CheckersGame game = other.getGame(1);
+        assertEquals(3, game.getTurns().size());
+        assertSame(CheckerPiece.Color.WHITE, game.getWinner());
+    }
+
+    @Test
+    public void testIllegalMoveRejected() throws Exception {
+        final String bad = GAME.replace("21-17", "21-13");
+
+        final PdnImporter.Result result = CuT.importGames(new StringReader(bad));
+
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(0, gameManager.streamFinishedGames().count());
+    }
+
+    @Test
+    public void testWrongColorRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CuT.parseGame("1. 21-17 *\n"));
+    }
+
+    @Test
+    public void testManyGamesInParallel() throws Exception {
+        final int count = PdnImporter.BATCH_SIZE * 3 + 5;
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i % 100 == 0 ? GAME.replace("16-20", "16-99") : GAME);
+        }
+
+        final PdnImporter.Result result = CuT.importGames(new StringReader(text.toString()));
+
+        final int bad = (count + 99) / 100;
+        assertEquals(count - bad, result.getImported());
+        assertEquals(bad, result.getRejected());
+        final List<ArchivedGame> games = gameManager.streamFinishedGames().collect(Collectors.toList());
+        assertEquals(count - bad, games.size());
+    }
+
+    @Test
+    public void testIdsInFileOrder() throws Exception {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            final String game = GAME.replace("alice", "player" + i);
+            text.append(i % 10 == 3 ? game.replace("16-20", "16-99") : game);
+        }
+
+        final PdnImporter.Result result = CuT.importGames(new StringReader(text.toString()));
+
+        // only the accepted games take ids, one after another
+        assertEquals(90, result.getImported());
+        int id = 0;
+        for (int i = 0; i < 100; i++) {
+            if (i % 10 != 3) {
+                assertEquals("player" + i, gameManager.getGame(++id).getRedPlayer().getUsername());
+            }
+        }
+        assertNull(gameManager.getGame(91));
+    }
+
+    @Test
+    public void testShortCapture() {
+        // black jumps 14 and then 23, written with only the first and last squares
+        final String position = "[FEN \"B:W14,23,32:B9,1\"]\n";
+        final CheckersGame game = CuT.parseGame(position + "1. 9x27 *\n");
+
+        final CheckersGame full = CuT.parseGame(position + "1. 9x18x27 *\n");
+        assertArrayEquals(full.getTurns().get(0), game.getTurns().get(0));
+        assertNull(game.getBoard()[PdnNotation.toPosition(14, true).getRow()][PdnNotation.toPosition(14, true).getCell()]);
+
+        // and a capture no jumps lead to is still rejected
+        assertThrows(IllegalArgumentException.class, () -> CuT.parseGame(position + "1. 9x31 *\n"));
+    }
+
+    @Test
+    public void testGamesWithoutTags() throws Exception {
+        final String games = "1. 12-16 21-17 2. 16-20 0-1\n\n1. 11-15 *\n\n1. 9-13 22-18 1/2-1/2\n";
+
+        final PdnImporter.Result result = CuT.importGames(new StringReader(games));
+
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getRejected());
+    }
+}
@@ -26,8 +26,15 @@ public class PlayerLobbyTest {
     @Test
     public void test_player_count() {
         assertSame(0, CuT.getNumberOfPlayers());
-        CuT.addPlayer(mock(Player.class));
+        final Player player = mock(Player.class);
+        when(player.getUsername()).thenReturn("my name");
+        CuT.addPlayer(player);
         assertSame(1, CuT.getNumberOfPlayers());
+        // the same name again replaces the player
+        CuT.addPlayer(player);
+        assertSame(1, CuT.getNumberOfPlayers());
+        CuT.playerSignOut("my name");
+        assertSame(0, CuT.getNumberOfPlayers());
     }
 
     @Test
@@ -122,4 +129,31 @@ public class PlayerLobbyTest {
         assertEquals(1, CuT.getPlayerList("player1").size());
     }
 
+    @Test
+    public void testPlayerPage() {
+        for (String name : new String[] {"carol", "Alice", "bob", "alan", "dave"}) {
+            CuT.signin(name);
+        }
+
+        final PlayerPage first = CuT.getPlayerPage(null, null, 2, false, "bob");
+        assertEquals(java.util.Arrays.asList("alan", "Alice"), first.getUsernames());
+        assertTrue(first.hasMore());
+        final PlayerPage second = CuT.getPlayerPage(null, first.getNextCursor(), 2, false, "bob");
+        assertEquals(java.util.Arrays.asList("carol", "dave"), second.getUsernames());
+        assertFalse(second.hasMore());
+    }
+
+    @Test
+    public void testPlayerPageSearch() {
+        for (String name : new String[] {"AL", "al", "alan", "Bert", "bob"}) {
+            CuT.signin(name);
+        }
+        CuT.getPlayer("alan").setGameID(3);
+
+        assertEquals(java.util.Arrays.asList("AL", "al", "alan"), CuT.getPlayerPage("al", null, 10, false, null).getUsernames());
+        assertEquals(java.util.Arrays.asList("AL", "al"), CuT.getPlayerPage("aL", null, 10, true, null).getUsernames());
+        assertEquals(java.util.Arrays.asList("Bert", "bob"), CuT.getPlayerPage("B", null, 10, false, null).getUsernames());
+        assertTrue(CuT.getPlayerPage("z", null, 10, false, null).getUsernames().isEmpty());
+    }
+
 }
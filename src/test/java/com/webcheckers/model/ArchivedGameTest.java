@@ -0,0 +1,104 @@
+package com.webcheckers.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+class ArchivedGameTest {
+
+    private CheckersGame game;
+
+    @BeforeEach
+    public void setup() {
+        game = new CheckersGame(7, new Player("red"), new Player("white"));
+        game.makeMove(new Move(new Position(5, 0), new Position(4, 1)));
+        game.newTurn();
+        game.makeMove(new Move(new Position(5, 2), new Position(4, 3)));
+        game.newTurn();
+        game.setGameOver("red resigned", game.getRedPlayer());
+    }
+
+    private static String render(CheckerPiece[][] board) {
+        final StringBuilder text = new StringBuilder();
+        for (CheckerPiece[] row : board) {
+            for (CheckerPiece piece : row) {
+                text.append(piece == null ? "." : piece.getColor() + "" + piece.getType());
+            }
+        }
+        return text.toString();
+    }
+
+    @Test
+    public void testArchive() {
+        final ArchivedGame CuT = game.archive();
+
+        assertEquals(7, CuT.getId());
+        assertEquals("red", CuT.getRedPlayerName());
+        assertEquals("white", CuT.getWhitePlayerName());
+        assertEquals("red resigned", CuT.getGameOverMessage());
+        assertSame(CheckerPiece.Color.WHITE, CuT.getWinner());
+        assertSame(CheckerPiece.Color.RED, CuT.getActiveColor());
+        assertEquals(game.getEndTime(), CuT.getEndTime());
+        assertArrayEquals(game.getInitialBoard(), CuT.getInitialBoard());
+        assertEquals(2, CuT.getTurns().size());
+        for (int i = 0; i < 2; i++) {
+            assertArrayEquals(game.getTurns().get(i), CuT.getTurns().get(i));
+        }
+    }
+
+    @Test
+    public void testKeyframes() {
+        final ArchivedGame CuT = game.archive();
+
+        int index = 0;
+        while ( game.spectatorHasNext(index) ) {
+            assertTrue(CuT.spectatorHasNext(index));
+            index++;
+        }
+        assertFalse(CuT.spectatorHasNext(index));
+        assertEquals(index + 1, CuT.getKeyframeCount());
+        for (int i = 0; i < CuT.getKeyframeCount(); i++) {
+            assertEquals(render(game.spectatorGetBoard(i)), render(CuT.spectatorGetBoard(i)));
+        }
+        final int last = index;
+        assertThrows(IndexOutOfBoundsException.class, () -> CuT.getKeyframe(last + 1));
+    }
+
+    @Test
+    public void testToCheckersGame() {
+        final CheckersGame restored = game.archive().toCheckersGame();
+
+        assertTrue(restored.isGameOver());
+        assertEquals(game.getId(), restored.getId());
+        assertEquals(game.getRedPlayer(), restored.getRedPlayer());
+        assertEquals(game.getActiveColor(), restored.getActiveColor());
+        assertEquals(game.getWinner(), restored.getWinner());
+        assertEquals(game.getTurns().size(), restored.getTurns().size());
+        assertEquals(render(game.getBoard()), render(restored.getBoard()));
+    }
+
+    @Test
+    public void testBoards() {
+        final ArchivedGame CuT = game.archive();
+
+        assertEquals(render(game.getBoard()), render(CuT.getBoard()));
+        assertEquals(render(game.getBoard(game.getRedPlayer())), render(CuT.getBoard("red")));
+        assertEquals(render(game.getBoard(game.getWhitePlayer())), render(CuT.getBoard("white")));
+        assertNotEquals(render(CuT.getBoard("red")), render(CuT.getBoard("white")));
+    }
+
+    @Test
+    public void testSmallerThanGame() {
+        assertTrue(game.archive().getSizeInBytes() < game.getSizeInBytes());
+    }
+
+    @Test
+    public void testMismatchedTurnsRejected() {
+        final byte[] board = BoardCodec.encode(new CheckerBoard());
+        assertThrows(IllegalArgumentException.class, () -> new ArchivedGame(1, "a", "b", 0, null, null,
+                CheckerPiece.Color.RED, 0, 0, board, board, new byte[2], new byte[] {2}, new byte[0]));
+    }
+}
@@ -0,0 +1,102 @@
+package com.webcheckers.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Model-tier")
+class BoardCodecTest {
+
+    @Test
+    public void testSquareRoundTrip() {
+        for (int square = 0; square < BoardCodec.SQUARES; square++) {
+            final Position pos = BoardCodec.toPosition(square);
+            assertEquals(1, (pos.getRow() + pos.getCell()) % 2);
+            assertEquals(square, BoardCodec.toSquare(pos));
+        }
+    }
+
+    @Test
+    public void testLightSquareRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toSquare(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.toSquare(8, 1));
+    }
+
+    @Test
+    public void testInitialBoardRoundTrip() {
+        final CheckerBoard board = new CheckerBoard();
+
+        final byte[] bytes = BoardCodec.encode(board);
+        final CheckerBoard decoded = BoardCodec.decode(bytes);
+
+        assertEquals(BoardCodec.BOARD_BYTES, bytes.length);
+        assertEquals(board.toString(), decoded.toString());
+        assertEquals(12, decoded.getRedPieces());
+        assertEquals(12, decoded.getWhitePieces());
+    }
+
+    @Test
+    public void testKingsRoundTrip() {
+        final ArrayList<Position> positions = new ArrayList<>();
+        final ArrayList<CheckerPiece> pieces = new ArrayList<>();
+        positions.add(new Position(0, 1));
+        pieces.add(new CheckerPiece(CheckerPiece.Color.RED, true));
+        positions.add(new Position(7, 6));
+        pieces.add(new CheckerPiece(CheckerPiece.Color.WHITE));
+        final CheckerBoard board = new CheckerBoard(positions, pieces);
+
+        final CheckerBoard decoded = BoardCodec.decode(BoardCodec.encode(board));
+
+        final CheckerPiece[][] result = decoded.getBoard();
+        assertTrue(result[0][1].isKing());
+        assertEquals(CheckerPiece.Color.RED, result[0][1].getColor());
+        assertFalse(result[7][6].isKing());
+        assertEquals(CheckerPiece.Color.WHITE, result[7][6].getColor());
+        assertEquals(1, decoded.getRedPieces());
+        assertEquals(1, decoded.getWhitePieces());
+    }
+
+    @Test
+    public void testInvalidBoardRejected() {
+        final ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.BOARD_BYTES);
+        buffer.putInt(1).putInt(1).putInt(0);
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(buffer.array()));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[3]));
+    }
+
+    @Test
+    public void testMoveRoundTrip() {
+        final Move move = new Move(new Position(5, 0), new Position(4, 1));
+
+        final ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.MOVE_BYTES);
+        BoardCodec.writeMove(move, buffer);
+        buffer.flip();
+        final Move decoded = BoardCodec.readMove(buffer);
+
+        assertEquals(5, decoded.getStart().getRow());
+        assertEquals(0, decoded.getStart().getCell());
+        assertEquals(4, decoded.getEnd().getRow());
+        assertEquals(1, decoded.getEnd().getCell());
+        assertTrue(BoardCodec.encodeMove(move) < 1 << 10);
+    }
+
+    @Test
+    public void testMovesRoundTrip() {
+        final List<Move> moves = new ArrayList<>();
+        moves.add(new Move(new Position(5, 0), new Position(3, 2)));
+        moves.add(new Move(new Position(3, 2), new Position(1, 4)));
+
+        final byte[] bytes = BoardCodec.encodeMoves(moves);
+        final List<Move> decoded = BoardCodec.decodeMoves(bytes);
+
+        assertEquals(2 * BoardCodec.MOVE_BYTES, bytes.length);
+        assertEquals(2, decoded.size());
+        assertEquals(1, decoded.get(1).getEnd().getRow());
+        assertEquals(4, decoded.get(1).getEnd().getCell());
+    }
+}
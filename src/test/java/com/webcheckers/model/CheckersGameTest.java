@@ -6,7 +6,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -187,6 +195,132 @@ class CheckersGameTest {
         assertArrayEquals(CuT.getBoard(), CuT.getBoard(whitePlayer));
     }
 
+    @Test
+    public void testTurnHistory() {
+        CuT.makeMove(new Move(new Position(5, 4), new Position(4, 5)));
+        CuT.makeMove(new Move(new Position(5, 2), new Position(4, 3)));
+        CuT.undoMove();
+        CuT.newTurn();
+
+        assertEquals(1, CuT.getTurns().size());
+        final java.util.List<Move> moves = BoardCodec.decodeMoves(CuT.getTurns().get(0));
+        assertEquals(1, moves.size());
+        assertEquals(4, moves.get(0).getEnd().getRow());
+        assertEquals(5, moves.get(0).getEnd().getCell());
+    }
+
+    @Test
+    public void testTurnTimes() throws InterruptedException {
+        final long started = CuT.getTurnStartTime();
+        assertEquals(0, CuT.getAverageTurnMillis(CheckerPiece.Color.RED));
+        assertEquals(0, CuT.getPendingMoveCount());
+
+        CuT.makeMove(new Move(new Position(5, 4), new Position(4, 5)));
+        assertEquals(1, CuT.getPendingMoveCount());
+        Thread.sleep(20);
+        CuT.newTurn();
+
+        assertEquals(0, CuT.getPendingMoveCount());
+        assertTrue(CuT.getTurnStartTime() >= started + 20);
+        assertTrue(CuT.getAverageTurnMillis(CheckerPiece.Color.RED) >= 20);
+        // white has not had a turn yet
+        assertEquals(0, CuT.getAverageTurnMillis(CheckerPiece.Color.WHITE));
+    }
+
+    @Test
+    public void testWinner() {
+        assertNull(CuT.getWinner());
+        assertEquals(0, CuT.getEndTime());
+        CuT.setGameOver("resigned", whitePlayer);
+        assertSame(CheckerPiece.Color.RED, CuT.getWinner());
+        assertTrue(CuT.getEndTime() >= CuT.getStartTime());
+    }
+
+    @Test
+    public void testInitialBoard() {
+        assertArrayEquals(BoardCodec.encode(new CheckerBoard()), CuT.getInitialBoard());
+    }
+
+    @Test
+    public void testVersion() {
+        final long start = CuT.getVersion();
+
+        CuT.makeMove(new Move(new Position(5, 0), new Position(4, 1)));
+        assertEquals(start + 1, CuT.getVersion());
+        CuT.undoMove();
+        assertEquals(start + 2, CuT.getVersion());
+        CuT.makeMove(new Move(new Position(5, 0), new Position(4, 1)));
+        CuT.newTurn();
+        assertEquals(start + 4, CuT.getVersion());
+        CuT.setGameOver("over");
+        assertEquals(start + 5, CuT.getVersion());
+        assertEquals(CuT.getVersion(), CuT.archive().toCheckersGame().getVersion());
+    }
+
+    @Test
+    public void testArchiveKeepsUnsubmittedMoves() {
+        CuT.makeMove(new Move(new Position(5, 0), new Position(4, 1)));
+        CuT.newTurn();
+        CuT.makeMove(new Move(new Position(5, 2), new Position(4, 3)));
+        // white resigns before submitting the move
+        CuT.setGameOver("resigned", whitePlayer);
+
+        final ArchivedGame archive = CuT.archive();
+        assertEquals(2, archive.getTurns().size());
+        assertEquals(1, archive.getTurns().get(1).length / BoardCodec.MOVE_BYTES);
+        // the boards of the move were already kept with the replay positions
+        assertEquals(3, archive.getKeyframeCount());
+        // and a finished game is archived only once
+        assertSame(archive, CuT.archive());
+    }
+
+    @Test
+    public void testFlightEvents() throws Exception {
+        final List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(GameEvents.MakeMove.class);
+            recording.enable(GameEvents.MoveValidation.class);
+            recording.enable(GameEvents.TurnValidation.class);
+            recording.enable(GameEvents.NewTurn.class);
+            recording.enable(GameEvents.GameOver.class);
+            recording.start();
+
+            final Move move = new Move(new Position(5, 4), new Position(4, 5));
+            CuT.isValidMove(move);
+            CuT.makeMove(move);
+            CuT.isValidTurn();
+            CuT.newTurn();
+            CuT.setGameOver("resigned", whitePlayer);
+
+            recording.stop();
+            final Path file = Files.createTempFile("checkers-game-test", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.delete(file);
+            }
+        }
+
+        final List<String> names = events.stream()
+                .map(event -> event.getEventType().getName())
+                .collect(Collectors.toList());
+        assertEquals(List.of("com.webcheckers.MoveValidation", "com.webcheckers.Move", "com.webcheckers.TurnValidation",
+                "com.webcheckers.NewTurn", "com.webcheckers.GameOver"), names);
+        for (RecordedEvent event : events) {
+            assertEquals(TEST_ID, event.getInt("gameId"));
+            assertEquals(12, event.getInt("redPieces"));
+            assertEquals(12, event.getInt("whitePieces"));
+        }
+        // red's move from square 10 to 14, checked, made and submitted as the first turn
+        assertEquals("10-14", events.get(1).getString("move"));
+        assertEquals(1, events.get(1).getInt("turn"));
+        assertTrue(events.get(2).getBoolean("valid"));
+        assertEquals(1, events.get(3).getInt("moves"));
+        assertFalse(events.get(3).getBoolean("gameOver"));
+        assertEquals(2, events.get(4).getInt("turn"));
+        assertEquals("RED", events.get(4).getString("winner"));
+        assertEquals("resigned", events.get(4).getString("reason"));
+    }
 
-  
 }
@@ -0,0 +1,97 @@
+package com.webcheckers.ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.HaltException;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class AdminAccessTest {
+
+    /** Mock objects */
+    private Request request;
+    private Response response;
+    private HttpServletRequest raw;
+
+    @BeforeEach
+    public void setup() {
+        request = mock(Request.class);
+        response = mock(Response.class);
+        raw = mock(HttpServletRequest.class);
+        when(request.raw()).thenReturn(raw);
+    }
+
+    private static final String TOKEN = "s3cret";
+
+    @Test
+    public void testLocal() {
+        final AdminAccess CuT = new AdminAccess(true, TOKEN, false);
+        when(request.headers(AdminAccess.AUTHORIZATION_HEADER)).thenReturn("Bearer " + TOKEN);
+        for (String address : new String[] { "127.0.0.1", "127.1.2.3", "0:0:0:0:0:0:0:1", "::1" }) {
+            when(raw.getRemoteAddr()).thenReturn(address);
+            assertDoesNotThrow(() -> CuT.handle(request, response), address);
+        }
+    }
+
+    @Test
+    public void testRemote() {
+        final AdminAccess CuT = new AdminAccess(true, TOKEN, false);
+        when(request.headers(AdminAccess.AUTHORIZATION_HEADER)).thenReturn("Bearer " + TOKEN);
+        for (String address : new String[] { "10.0.0.7", "2001:db8::1", "", null }) {
+            when(raw.getRemoteAddr()).thenReturn(address);
+            assertHalted(403, CuT);
+        }
+
+        // unless remote clients are allowed
+        when(raw.getRemoteAddr()).thenReturn("10.0.0.7");
+        assertDoesNotThrow(() -> new AdminAccess(true, TOKEN, true).handle(request, response));
+    }
+
+    @Test
+    public void testForwarded() {
+        final AdminAccess CuT = new AdminAccess(true, TOKEN, false);
+        when(request.headers(AdminAccess.AUTHORIZATION_HEADER)).thenReturn("Bearer " + TOKEN);
+        // a proxy on the same machine connects from loopback for every client
+        when(raw.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.headers("X-Forwarded-For")).thenReturn("203.0.113.9");
+        assertHalted(403, CuT);
+
+        when(request.headers("X-Forwarded-For")).thenReturn(null);
+        when(request.headers("Forwarded")).thenReturn("for=203.0.113.9");
+        assertHalted(403, CuT);
+    }
+
+    @Test
+    public void testToken() {
+        when(raw.getRemoteAddr()).thenReturn("127.0.0.1");
+        final AdminAccess CuT = new AdminAccess(true, TOKEN, false);
+        assertHalted(401, CuT);
+        verify(response).header("WWW-Authenticate", "Bearer");
+        when(request.headers(AdminAccess.AUTHORIZATION_HEADER)).thenReturn("Bearer wrong");
+        assertHalted(401, CuT);
+        when(request.headers(AdminAccess.AUTHORIZATION_HEADER)).thenReturn("bearer " + TOKEN);
+        assertDoesNotThrow(() -> CuT.handle(request, response));
+    }
+
+    @Test
+    public void testOffByDefault() {
+        when(raw.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.headers(AdminAccess.AUTHORIZATION_HEADER)).thenReturn("Bearer " + TOKEN);
+        assertHalted(404, new AdminAccess(false, TOKEN, false));
+        // and enabling them without a token leaves them off
+        assertHalted(404, new AdminAccess(true, null, false));
+        assertHalted(404, new AdminAccess(true, "", true));
+    }
+
+    private void assertHalted(int status, AdminAccess CuT) {
+        final HaltException e = assertThrows(HaltException.class, () -> CuT.handle(request, response));
+        assertEquals(status, e.statusCode());
+    }
+}
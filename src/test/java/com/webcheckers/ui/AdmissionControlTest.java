@@ -0,0 +1,223 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.MetricsRegistry;
+import com.webcheckers.util.Settings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.HaltException;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.webcheckers.ui.AdmissionControl.Kind.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class AdmissionControlTest {
+
+    private MetricsRegistry metrics;
+    private AdmissionControl CuT;
+
+    /** Mock objects */
+    private Request request;
+    private Response response;
+
+    @BeforeEach
+    public void setup() {
+        metrics = new MetricsRegistry();
+        final Properties properties = new Properties();
+        properties.setProperty("server.maxInFlight", "4");
+        properties.setProperty("server.maxPollsInFlight", "2");
+        properties.setProperty("server.maxPollQueueMillis", "500");
+        properties.setProperty("server.pollRetryAfterSeconds", "3");
+        properties.setProperty("server.maxExportsInFlight", "1");
+        CuT = new AdmissionControl(new ServerConfig(new Settings(properties)), metrics);
+
+        request = mock(Request.class);
+        response = mock(Response.class);
+        // the request attributes, as the servlet request keeps them
+        final Map<String, Object> attributes = new HashMap<>();
+        final HttpServletRequest raw = mock(HttpServletRequest.class);
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(raw).setAttribute(anyString(), any());
+        doAnswer(invocation -> attributes.remove(invocation.getArgument(0)))
+                .when(raw).removeAttribute(anyString());
+        when(raw.getAttribute(anyString())).thenAnswer(invocation -> attributes.get(invocation.getArgument(0)));
+        when(request.raw()).thenReturn(raw);
+    }
+
+    @Test
+    public void testKinds() {
+        assertSame(WRITE, AdmissionControl.kind("POST", WebServer.VALIDATE_MOVE_URL));
+        assertSame(WRITE, AdmissionControl.kind("POST", WebServer.SUBMIT_TURN_URL));
+        assertSame(WRITE, AdmissionControl.kind("POST", WebServer.BACKUP_MOVE_URL));
+        assertSame(WRITE, AdmissionControl.kind("POST", WebServer.RESIGN_URL));
+        assertSame(POLL, AdmissionControl.kind("POST", WebServer.CHECK_TURN_URL));
+        assertSame(POLL, AdmissionControl.kind("POST", WebServer.SPECTATOR_CHECK_TURN_URL));
+        assertSame(POLL, AdmissionControl.kind("GET", WebServer.HOME_URL));
+        assertSame(POLL, AdmissionControl.kind("GET", WebServer.LOBBY_CHANGES_URL));
+        assertSame(EXPORT, AdmissionControl.kind("GET", WebServer.ARCHIVE_PDN_URL));
+        assertSame(OTHER, AdmissionControl.kind("GET", WebServer.GAME_URL));
+        assertSame(OTHER, AdmissionControl.kind("POST", WebServer.SIGN_IN_URL));
+        assertSame(OTHER, AdmissionControl.kind("GET", WebServer.CHECK_TURN_URL));
+    }
+
+    @Test
+    public void testPollsLimited() {
+        assertEquals(0.0, CuT.getLoad());
+        assertTrue(CuT.admit(POLL, 0));
+        assertEquals(0.25, CuT.getLoad());
+        assertTrue(CuT.admit(POLL, 0));
+        // a third poll is over the polls allowed
+        assertFalse(CuT.admit(POLL, 0));
+        assertEquals(2, CuT.getInFlight());
+        assertEquals(1, CuT.getRejectedCount());
+
+        // and a poll is let in again once one is done
+        CuT.release(POLL);
+        assertTrue(CuT.admit(POLL, 0));
+    }
+
+    @Test
+    public void testExportsLimited() {
+        assertTrue(CuT.admit(EXPORT, 0));
+        // a second export is over the exports allowed
+        assertFalse(CuT.admit(EXPORT, 0));
+        assertEquals(1, CuT.getRejectedCount());
+        CuT.release(EXPORT);
+
+        // and none is let in once the node is at its limit, however short the wait
+        for (int i = 0; i < 4; i++) {
+            assertTrue(CuT.admit(OTHER, 0));
+        }
+        assertFalse(CuT.admit(EXPORT, 0));
+        assertEquals(4, CuT.getInFlight());
+    }
+
+    @Test
+    public void testWritesProtected() {
+        assertTrue(CuT.admit(POLL, 0));
+        assertTrue(CuT.admit(WRITE, 0));
+        assertTrue(CuT.admit(OTHER, 0));
+        assertTrue(CuT.admit(WRITE, 0));
+        // the node is at its limit, so polls are turned away
+        assertFalse(CuT.admit(POLL, 0));
+        assertEquals(1.0, CuT.getLoad());
+        // but moves are not, however busy it is or however long they waited
+        assertTrue(CuT.admit(WRITE, 10_000));
+        assertEquals(5, CuT.getInFlight());
+        assertEquals(1.0, CuT.getLoad());
+    }
+
+    @Test
+    public void testQueuedPollTurnedAway() {
+        assertTrue(CuT.admit(POLL, 499));
+        assertFalse(CuT.admit(POLL, 500));
+        assertEquals(1, CuT.getInFlight());
+        assertEquals(1, CuT.getRejectedCount());
+    }
+
+    @Test
+    public void testFilters() throws Exception {
+        when(request.requestMethod()).thenReturn("POST");
+        when(request.pathInfo()).thenReturn(WebServer.CHECK_TURN_URL);
+        CuT.start().handle(request, response);
+        assertEquals(1, CuT.getInFlight());
+        CuT.stop().handle(request, response);
+        assertEquals(0, CuT.getInFlight());
+        // released once only
+        CuT.stop().handle(request, response);
+        assertEquals(0, CuT.getInFlight());
+    }
+
+    @Test
+    public void testServiceUnavailable() throws Exception {
+        CuT.admit(POLL, 0);
+        CuT.admit(POLL, 0);
+        when(request.requestMethod()).thenReturn("POST");
+        when(request.pathInfo()).thenReturn(WebServer.SPECTATOR_CHECK_TURN_URL);
+
+        final HaltException halt = assertThrows(HaltException.class, () -> CuT.start().handle(request, response));
+        assertEquals(503, halt.statusCode());
+        verify(response).header("Retry-After", "3");
+
+        // a request turned away is not in flight, so it is not released
+        CuT.stop().handle(request, response);
+        assertEquals(2, CuT.getInFlight());
+    }
+
+    @Test
+    public void testPollQueuedBehindBusyThreads() throws Exception {
+        final QueueTimedThreadPool pool = new QueueTimedThreadPool(2, 2, 60_000);
+        pool.start();
+        try {
+            // every thread is held, so the poll waits in the pool's queue
+            final CountDownLatch busy = new CountDownLatch(2);
+            final CountDownLatch release = new CountDownLatch(1);
+            for (int i = 0; i < 2; i++) {
+                pool.execute(() -> {
+                    busy.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            assertTrue(busy.await(5, TimeUnit.SECONDS));
+            when(request.requestMethod()).thenReturn("POST");
+            when(request.pathInfo()).thenReturn(WebServer.CHECK_TURN_URL);
+            final CompletableFuture<Integer> status = new CompletableFuture<>();
+            pool.execute(() -> {
+                try {
+                    CuT.start().handle(request, response);
+                    status.complete(200);
+                } catch (HaltException e) {
+                    status.complete(e.statusCode());
+                } catch (Exception e) {
+                    status.completeExceptionally(e);
+                }
+            });
+            Thread.sleep(600);
+            release.countDown();
+
+            assertEquals(503, (int) status.get(5, TimeUnit.SECONDS));
+            assertEquals(1, CuT.getRejectedCount());
+            assertEquals(0, CuT.getInFlight());
+            // off the pool nothing was queued for
+            assertEquals(-1, QueueTimedThreadPool.queueMillis());
+        } finally {
+            pool.stop();
+        }
+    }
+
+    @Test
+    public void testMetrics() throws IOException {
+        CuT.admit(WRITE, 0);
+        CuT.admit(POLL, 0);
+        CuT.admit(POLL, 0);
+        CuT.admit(POLL, 0);
+        CuT.admit(POLL, 1000);
+
+        final StringWriter out = new StringWriter();
+        metrics.write(out);
+        final String text = out.toString();
+        assertTrue(text.contains(AdmissionControl.IN_FLIGHT_METRIC + "{kind=\"write\"} 1"), text);
+        assertTrue(text.contains(AdmissionControl.IN_FLIGHT_METRIC + "{kind=\"poll\"} 2"), text);
+        assertTrue(text.contains(AdmissionControl.REJECTED_METRIC + "{reason=\"in_flight\"} 2"), text);
+        assertTrue(text.contains(AdmissionControl.QUEUE_METRIC + "_count{kind=\"poll\"} 4"), text);
+    }
+}
@@ -0,0 +1,107 @@
+package com.webcheckers.ui;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UI-tier")
+public class AssetPipelineTest {
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static String text(ByteBuffer content) {
+        return new String(bytes(content), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testStrip() {
+        final String script = "/**\n * A module.\n */\ndefine(function(require){\n"
+                + "  // a comment\n\n  const url = 'http://x'; // kept\n  /* one */ run();\n});\n";
+
+        assertEquals("define(function(require){\nconst url = 'http://x'; // kept\nrun();\n});\n",
+                AssetPipeline.strip(script));
+    }
+
+    @Test
+    public void testBundleAndFingerprint() throws Exception {
+        final Map<String, byte[]> files = new TreeMap<>();
+        files.put("/img/piece.svg", bytes("<svg/>"));
+        files.put("/css/game.css", bytes(".Piece { background-image: url(\"../img/piece.svg\"); }"));
+        files.put("/js/game/index.js", bytes("requirejs([\"main\"]);"));
+        files.put("/js/game/main.js", bytes("define(function (require) {\n  const Move = require('./model/Move');\n});"));
+        files.put("/js/game/model/Move.js", bytes("define(function(require){\n  return 1;\n});"));
+
+        final AssetPipeline CuT = new AssetPipeline();
+        CuT.addAll(files);
+
+        final Map<String, String> urls = CuT.getUrls();
+        assertTrue(urls.get("/img/piece.svg").matches("/assets/img/piece\\.[0-9a-f]{10}\\.svg"));
+
+        final String css = text(CuT.get(urls.get("/css/game.css")).getContent());
+        assertTrue(css.contains("url(\"" + urls.get("/img/piece.svg") + "\")"));
+
+        final String bundle = text(CuT.get(urls.get(AssetPipeline.GAME_BUNDLE)).getContent());
+        assertTrue(bundle.contains("define('main', function (require) {"));
+        assertTrue(bundle.contains("define('model/Move', function(require){"));
+        assertTrue(bundle.endsWith("requirejs([\"main\"]);\n"));
+
+        // a changed file gets a new URL
+        final AssetPipeline changed = new AssetPipeline();
+        files.put("/img/piece.svg", bytes("<svg></svg>"));
+        changed.addAll(files);
+        assertNotEquals(urls.get("/img/piece.svg"), changed.getUrls().get("/img/piece.svg"));
+        assertEquals(urls.get("/js/game/model/Move.js"), changed.getUrls().get("/js/game/model/Move.js"));
+    }
+
+    @Test
+    public void testGzip() throws Exception {
+        final StringBuilder css = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            css.append(".rule").append(i).append(" { color: red; }\n");
+        }
+        final AssetPipeline CuT = new AssetPipeline();
+        final AssetPipeline.Asset asset = CuT.get(CuT.add("/css/big.css", bytes(css.toString())));
+
+        assertEquals("text/css; charset=utf-8", asset.getContentType());
+        assertTrue(asset.getGzip().isDirect());
+        assertTrue(asset.getGzip().remaining() < asset.getContent().remaining());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes(asset.getGzip())))) {
+            final byte[] buffer = new byte[1024];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                out.write(buffer, 0, n);
+            }
+        }
+        assertArrayEquals(bytes(asset.getContent()), out.toByteArray());
+
+        // not worth compressing
+        assertNull(CuT.get(CuT.add("/css/tiny.css", bytes("a{}"))).getGzip());
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        final AssetPipeline CuT = AssetPipeline.load(WebServer.STATIC_FILE_LOCATION);
+
+        assertNotNull(CuT.getUrls().get("/css/style.css"));
+        assertNotNull(CuT.getUrls().get(AssetPipeline.GAME_BUNDLE));
+        assertSame(CuT.get(CuT.getUrls().get("/js/require.js")), CuT.getByPath("/js/require.js"));
+        assertNotNull(CuT.getByPath("/css/style.css").getLastModifiedHeader());
+    }
+}
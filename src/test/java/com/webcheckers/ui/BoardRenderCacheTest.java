@@ -0,0 +1,66 @@
+package com.webcheckers.ui;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UI-tier")
+class BoardRenderCacheTest {
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private String render() {
+        return "board" + renders.incrementAndGet();
+    }
+
+    @Test
+    public void testCachedPerView() {
+        final BoardRenderCache CuT = new BoardRenderCache();
+
+        assertEquals("board1", CuT.get(1, 0, "PLAY:RED", this::render));
+        assertEquals("board1", CuT.get(1, 0, "PLAY:RED", this::render));
+        assertEquals("board2", CuT.get(1, 0, "PLAY:WHITE", this::render));
+        assertEquals("board3", CuT.get(2, 0, "PLAY:RED", this::render));
+
+        assertEquals(1, CuT.getHits());
+        assertEquals(3, CuT.getMisses());
+    }
+
+    @Test
+    public void testNewVersionInvalidates() {
+        final BoardRenderCache CuT = new BoardRenderCache();
+        CuT.get(1, 0, "PLAY:RED", this::render);
+        CuT.get(1, 0, "PLAY:WHITE", this::render);
+
+        assertEquals("board3", CuT.get(1, 1, "PLAY:RED", this::render));
+        assertEquals("board4", CuT.get(1, 1, "PLAY:WHITE", this::render));
+        // a slow request for an old version does not replace the newer boards
+        assertEquals("board5", CuT.get(1, 0, "PLAY:RED", this::render));
+        assertEquals("board3", CuT.get(1, 1, "PLAY:RED", this::render));
+    }
+
+    @Test
+    public void testInvalidate() {
+        final BoardRenderCache CuT = new BoardRenderCache();
+        CuT.get(1, 0, "SPECTATOR", this::render);
+
+        CuT.invalidate(1);
+
+        assertEquals("board2", CuT.get(1, 0, "SPECTATOR", this::render));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedGameDropped() {
+        final BoardRenderCache CuT = new BoardRenderCache(2);
+        CuT.get(1, 0, "SPECTATOR", this::render);
+        CuT.get(2, 0, "SPECTATOR", this::render);
+        CuT.get(1, 0, "SPECTATOR", this::render);
+        CuT.get(3, 0, "SPECTATOR", this::render);
+
+        assertEquals("board1", CuT.get(1, 0, "SPECTATOR", this::render));
+        assertEquals("board4", CuT.get(2, 0, "SPECTATOR", this::render));
+    }
+}
@@ -0,0 +1,54 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.Settings;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UI-tier")
+public class ConfiguredJettyFactoryTest {
+
+    @Test
+    public void testServer() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("server.port", "0");
+        properties.setProperty("server.acceptQueueSize", "128");
+        properties.setProperty("server.idleTimeoutMillis", "15000");
+        properties.setProperty("server.maxRequestHeaderBytes", "4096");
+        properties.setProperty("server.maxFormContentBytes", "2048");
+        final ConfiguredJettyFactory CuT = new ConfiguredJettyFactory(new ServerConfig(new Settings(properties)));
+
+        assertEquals(0, CuT.getThreads());
+        final Server server = CuT.create(20, 4, 1000);
+        final QueuedThreadPool pool = (QueuedThreadPool) server.getThreadPool();
+        assertTrue(pool instanceof QueueTimedThreadPool);
+        assertEquals(20, pool.getMaxThreads());
+        assertEquals(4, pool.getMinThreads());
+        assertEquals(2048, server.getAttribute(ConfiguredJettyFactory.MAX_FORM_CONTENT_SIZE_ATTRIBUTE));
+
+        // the connector is added after the server is made, as Spark does
+        final ServerConnector connector = new ServerConnector(server);
+        connector.setIdleTimeout(3_600_000);
+        connector.setPort(0);
+        server.addConnector(connector);
+        server.start();
+        try {
+            assertEquals(128, connector.getAcceptQueueSize());
+            // the pool's own threads, not every thread in the JVM
+            assertEquals(pool.getThreads(), CuT.getThreads());
+            assertTrue(CuT.getThreads() >= 4);
+            assertEquals(15000, connector.getIdleTimeout());
+            assertEquals(4096, connector.getConnectionFactory(HttpConnectionFactory.class)
+                    .getHttpConfiguration().getRequestHeaderSize());
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.FlightRecordings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class GetAdminRecordingRouteTest {
+
+    /** Component-under-Test CuT */
+    private GetAdminRecordingRoute CuT;
+
+    private FlightRecordings recordings;
+
+    /** Mock objects */
+    private Request request;
+    private Response response;
+    private HttpServletResponse raw;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        request = mock(Request.class);
+        response = mock(Response.class);
+        raw = mock(HttpServletResponse.class);
+        when(response.raw()).thenReturn(raw);
+        when(raw.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() { return true; }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) { }
+
+            @Override
+            public void write(int b) { body.write(b); }
+        });
+        recordings = new FlightRecordings(FlightRecordings.DEFAULT_SETTINGS, Duration.ofMinutes(1), 1024 * 1024);
+
+        CuT = new GetAdminRecordingRoute(recordings);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recordings.stop();
+    }
+
+    @Test
+    public void testNotRunning() throws Exception {
+        assertEquals(GetAdminRecordingRoute.NOT_RUNNING, CuT.handle(request, response));
+        verify(response).status(409);
+        assertEquals(0, body.size());
+    }
+
+    @Test
+    public void testDump() throws Exception {
+        assertEquals(PostAdminRecordingRoute.STARTED, new PostAdminRecordingRoute(recordings).handle(request, response));
+
+        assertEquals("", CuT.handle(request, response));
+
+        verify(response).type("application/octet-stream");
+        verify(response).header(eq("Content-Disposition"), startsWith("attachment; filename=\"webcheckers-"));
+        verify(raw).setContentLengthLong(body.size());
+        // every recording file starts with the magic FLR and a 0 byte
+        assertEquals("FLR\0", new String(body.toByteArray(), 0, 4, StandardCharsets.ISO_8859_1));
+        // and the recording goes on
+        assertTrue(recordings.isRunning());
+    }
+
+    @Test
+    public void testStartTwice() throws Exception {
+        final PostAdminRecordingRoute post = new PostAdminRecordingRoute(recordings);
+        assertEquals(PostAdminRecordingRoute.STARTED, post.handle(request, response));
+        assertEquals(PostAdminRecordingRoute.RUNNING, post.handle(request, response));
+        verify(raw, never()).setContentLengthLong(anyLong());
+    }
+}
@@ -0,0 +1,72 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.model.Player;
+import com.webcheckers.util.MetricsRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+import spark.Session;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class GetAdminSlowRequestsRouteTest {
+
+    /** Component-under-Test CuT */
+    private GetAdminSlowRequestsRoute CuT;
+
+    private SlowRequestWatchdog watchdog;
+
+    /** Mock objects */
+    private Request request;
+    private Response response;
+
+    @BeforeEach
+    public void setup() {
+        request = mock(Request.class);
+        response = mock(Response.class);
+        final RequestMetrics requestMetrics = new RequestMetrics(new MetricsRegistry());
+        requestMetrics.addRoute("/replay/:gameID/board/:index");
+        watchdog = new SlowRequestWatchdog(requestMetrics, 100, 10);
+
+        CuT = new GetAdminSlowRequestsRoute(watchdog);
+    }
+
+    @Test
+    public void testNone() throws Exception {
+        final String text = (String) CuT.handle(request, response);
+
+        verify(response).type("text/plain; charset=utf-8");
+        assertEquals("0 requests over 100 ms since start, the last 0 kept, latest first\n", text);
+    }
+
+    @Test
+    public void testSlowRequest() throws Exception {
+        final Request slow = mock(Request.class);
+        final Session session = mock(Session.class);
+        final Player player = new Player("bob");
+        player.setGameID(3);
+        when(slow.raw()).thenReturn(mock(HttpServletRequest.class));
+        when(slow.requestMethod()).thenReturn("GET");
+        when(slow.pathInfo()).thenReturn("/replay/3/board/7");
+        when(slow.session(false)).thenReturn(session);
+        when(session.attribute("player")).thenReturn(player);
+
+        // this thread is the handler, still running
+        watchdog.start().handle(slow, response);
+        watchdog.check(System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+
+        final String text = (String) CuT.handle(request, response);
+
+        assertTrue(text.startsWith("1 requests over 100 ms since start, the last 1 kept, latest first\n\n"), text);
+        assertTrue(text.contains(" GET /replay/3/board/7 (route /replay/:gameID/board/:index) player bob game 3\n"), text);
+        assertTrue(text.contains("  still running, stack of \"" + Thread.currentThread().getName() + "\" at "), text);
+        assertTrue(text.contains("    at " + GetAdminSlowRequestsRouteTest.class.getName() + ".testSlowRequest("), text);
+    }
+}
@@ -0,0 +1,82 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.appl.PdnExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.Writer;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class GetArchivePdnRouteTest {
+
+    /** Component-under-Test CuT */
+    private GetArchivePdnRoute CuT;
+
+    /** Mock objects */
+    private Request request;
+    private Response response;
+    private HttpServletResponse raw;
+    private PdnExporter pdnExporter;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        request = mock(Request.class);
+        response = mock(Response.class);
+        raw = mock(HttpServletResponse.class);
+        when(response.raw()).thenReturn(raw);
+        when(raw.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() { return true; }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) { }
+
+            @Override
+            public void write(int b) { body.write(b); }
+        });
+        pdnExporter = mock(PdnExporter.class);
+
+        CuT = new GetArchivePdnRoute(pdnExporter);
+    }
+
+    @Test
+    public void testStreamsToResponse() throws Exception {
+        when(request.queryParams(GetArchivePdnRoute.PLAYER_PARAM)).thenReturn("bob");
+        when(request.queryParams(GetArchivePdnRoute.FROM_PARAM)).thenReturn("2020-01-02");
+        when(pdnExporter.export(any(Writer.class), eq("bob"), eq(LocalDate.of(2020, 1, 2)), eq(null)))
+                .thenAnswer(invocation -> {
+                    final Writer out = invocation.getArgument(0);
+                    out.write("[Event \"x\"]\n");
+                    out.flush();
+                    return 1;
+                });
+
+        assertEquals("", CuT.handle(request, response));
+        assertEquals("[Event \"x\"]\n", body.toString("UTF-8"));
+    }
+
+    @Test
+    public void testBadDate() throws Exception {
+        when(request.queryParams(GetArchivePdnRoute.TO_PARAM)).thenReturn("yesterday");
+
+        CuT.handle(request, response);
+
+        verify(response).status(400);
+        verify(pdnExporter, never()).export(any(), any(), any(), any());
+    }
+}
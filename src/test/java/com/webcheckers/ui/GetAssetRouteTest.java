@@ -0,0 +1,117 @@
+package com.webcheckers.ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class GetAssetRouteTest {
+
+    /** Component-under-Test CuT */
+    private GetAssetRoute CuT;
+
+    /** Mock objects */
+    private Request request;
+    private Response response;
+    private HttpServletResponse raw;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private AssetPipeline.Asset asset;
+    private String url;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        request = mock(Request.class);
+        response = mock(Response.class);
+        raw = mock(HttpServletResponse.class);
+        when(response.raw()).thenReturn(raw);
+        when(raw.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() { return true; }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) { }
+
+            @Override
+            public void write(int b) { body.write(b); }
+        });
+
+        final AssetPipeline assets = new AssetPipeline();
+        final StringBuilder css = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            css.append(".rule").append(i).append(" { color: red; }\n");
+        }
+        url = assets.add("/css/style.css", css.toString().getBytes(StandardCharsets.UTF_8));
+        asset = assets.get(url);
+        when(request.pathInfo()).thenReturn(url);
+
+        CuT = new GetAssetRoute(assets);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void testServes() throws Exception {
+        CuT.handle(request, response);
+
+        assertArrayEquals(bytes(asset.getContent()), body.toByteArray());
+        verify(raw).setContentLength(asset.getContent().remaining());
+        verify(response).header("Cache-Control", GameETag.IMMUTABLE);
+        verify(response).header("ETag", asset.getEtag());
+        verify(response, never()).header(eq("Content-Encoding"), anyString());
+
+        // the same file at its plain path must be revalidated
+        body.reset();
+        when(request.pathInfo()).thenReturn("/css/style.css");
+        CuT.handle(request, response);
+        assertArrayEquals(bytes(asset.getContent()), body.toByteArray());
+        verify(response).header("Cache-Control", GetAssetRoute.REVALIDATE);
+    }
+
+    @Test
+    public void testIfModifiedSince() throws Exception {
+        when(request.headers("If-Modified-Since")).thenReturn(asset.getLastModifiedHeader());
+        CuT.handle(request, response);
+        verify(response).status(304);
+        assertEquals(0, body.size());
+    }
+
+    @Test
+    public void testGzip() throws Exception {
+        when(request.headers("Accept-Encoding")).thenReturn("deflate, gzip;q=0.8");
+
+        CuT.handle(request, response);
+
+        assertArrayEquals(bytes(asset.getGzip()), body.toByteArray());
+        verify(response).header("Content-Encoding", "gzip");
+        assertFalse(GetAssetRoute.acceptsGzip("gzip;q=0, br"));
+    }
+
+    @Test
+    public void testNotModifiedAndMissing() throws Exception {
+        when(request.headers("If-None-Match")).thenReturn(asset.getEtag());
+        assertEquals("", CuT.handle(request, response));
+        verify(response).status(304);
+
+        when(request.pathInfo()).thenReturn("/assets/css/other.0123456789.css");
+        CuT.handle(request, response);
+        verify(response).status(404);
+        assertEquals(0, body.size());
+    }
+}
@@ -3,10 +3,18 @@ package com.webcheckers.ui;
 import com.google.gson.Gson;
 import com.webcheckers.appl.GameManager;
 import com.webcheckers.appl.PlayerLobby;
+import com.webcheckers.model.ArchivedGame;
+import com.webcheckers.model.CheckerBoard;
+import com.webcheckers.model.CheckerPiece;
 import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.Move;
 import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
 import com.webcheckers.util.Message;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -66,7 +74,7 @@ class GetGameRouteTest {
         when(templateEngine.render(any(ModelAndView.class))).thenAnswer(testHelper.makeAnswer());
         when(session.attribute("player")).thenReturn(player);
         when(player.getGameID()).thenReturn(1);
-        when(gameManager.getGame(1)).thenReturn(mock(CheckersGame.class));
+        when(gameManager.getLiveGame(1)).thenReturn(mock(CheckersGame.class));
         when(request.uri()).thenReturn("/game");
 
         try {
@@ -76,4 +84,121 @@ class GetGameRouteTest {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBoardFetchedOnceAndCached() throws Exception {
+        final CheckersGame game = mock(CheckersGame.class);
+        when(player.getGameID()).thenReturn(1);
+        when(gameManager.getLiveGame(1)).thenReturn(game);
+        when(game.getId()).thenReturn(1);
+        when(game.getVersion()).thenReturn(3L);
+        when(game.isRedPlayer(player)).thenReturn(true);
+        when(game.getBoard(player)).thenReturn(new CheckerBoard().getBoard());
+        when(request.uri()).thenReturn("/game");
+        when(templateEngine.render(any(ModelAndView.class))).thenReturn("<table/>");
+
+        CuT.handle(request, response);
+        CuT.handle(request, response);
+
+        verify(game, times(1)).getBoard(player);
+        verify(game, never()).getBoard();
+        // the board once, then the page twice
+        verify(templateEngine, times(3)).render(any(ModelAndView.class));
+
+        when(game.getVersion()).thenReturn(4L);
+        CuT.handle(request, response);
+        verify(game, times(2)).getBoard(player);
+    }
+
+    @Test
+    public void testReplayCompactedGame() throws Exception {
+        final CheckersGame finished = new CheckersGame(1, new Player("red"), new Player("white"));
+        finished.makeMove(new Move(new Position(5, 0), new Position(4, 1)));
+        finished.newTurn();
+        finished.setGameOver("over");
+        when(player.getGameID()).thenReturn(1);
+        final ArchivedGame archive = finished.archive();
+        when(gameManager.getArchivedGame(1)).thenReturn(archive);
+        when(request.uri()).thenReturn("/replay/game");
+        when(request.queryParams(GetGameRoute.REPLAY_INDEX_PARAM)).thenReturn("1");
+        final TemplateEngineTester testHelper = new TemplateEngineTester();
+        when(templateEngine.render(any(ModelAndView.class))).thenAnswer(testHelper.makeAnswer());
+
+        CuT.handle(request, response);
+
+        // replayed from the archived form, not rebuilt
+        verify(gameManager, never()).getGame(1);
+        testHelper.assertViewModelAttribute("gameID", 1);
+        testHelper.assertViewModelAttribute("viewMode", GetGameRoute.Mode.REPLAY);
+        testHelper.assertViewModelAttribute("activeColor", CheckerPiece.Color.WHITE);
+        // the page fetches the whole replay by id and tag
+        final ArgumentCaptor<ModelAndView> page = ArgumentCaptor.forClass(ModelAndView.class);
+        verify(templateEngine, times(2)).render(page.capture());
+        final Map<?, ?> vm = (Map<?, ?>) page.getValue().getModel();
+        assertTrue(((String) vm.get("modeOptionsAsJSON")).contains("\"replayTag\":\"" + archive.getReplayTag() + '"'));
+    }
+
+    @Test
+    public void testPlayCompactedGame() throws Exception {
+        final CheckersGame finished = new CheckersGame(1, new Player("player"), new Player("white"));
+        finished.makeMove(new Move(new Position(5, 0), new Position(4, 1)));
+        finished.newTurn();
+        finished.setGameOver("over");
+        when(player.getGameID()).thenReturn(1);
+        when(gameManager.getArchivedGame(1)).thenReturn(finished.archive());
+        when(request.uri()).thenReturn("/game");
+        final TemplateEngineTester testHelper = new TemplateEngineTester();
+        when(templateEngine.render(any(ModelAndView.class))).thenAnswer(testHelper.makeAnswer());
+
+        CuT.handle(request, response);
+
+        // rendered from the archived form, not rebuilt
+        verify(gameManager, never()).getGame(1);
+        testHelper.assertViewModelAttribute("viewMode", GetGameRoute.Mode.PLAY);
+        final ArgumentCaptor<ModelAndView> page = ArgumentCaptor.forClass(ModelAndView.class);
+        verify(templateEngine, times(2)).render(page.capture());
+        final Map<?, ?> vm = (Map<?, ?>) page.getValue().getModel();
+        assertTrue(((String) vm.get("modeOptionsAsJSON")).contains("\"gameOverMessage\":\"over\""));
+    }
+
+    @Test
+    public void testSpectateCompactedGame() throws Exception {
+        final CheckersGame finished = new CheckersGame(1, new Player("red"), new Player("white"));
+        finished.setGameOver("over");
+        when(request.queryParams("gameID")).thenReturn("1");
+        when(player.getGameID()).thenReturn(-1);
+        when(gameManager.getArchivedGame(1)).thenReturn(finished.archive());
+        when(request.uri()).thenReturn("/spectator/game");
+        final TemplateEngineTester testHelper = new TemplateEngineTester();
+        when(templateEngine.render(any(ModelAndView.class))).thenAnswer(testHelper.makeAnswer());
+
+        CuT.handle(request, response);
+
+        verify(gameManager, never()).getGame(1);
+        testHelper.assertViewModelAttribute("viewMode", GetGameRoute.Mode.SPECTATOR);
+        verify(templateEngine, times(2)).render(any(ModelAndView.class));
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        final CheckersGame game = mock(CheckersGame.class);
+        when(player.getGameID()).thenReturn(1);
+        when(gameManager.getLiveGame(1)).thenReturn(game);
+        when(game.getId()).thenReturn(1);
+        when(game.getVersion()).thenReturn(3L);
+        when(game.getBoard()).thenReturn(new CheckerBoard().getBoard());
+        when(request.uri()).thenReturn("/spectator/game");
+        when(templateEngine.render(any(ModelAndView.class))).thenReturn("<table/>");
+
+        CuT.handle(request, response);
+        final ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+        verify(response).header(eq("ETag"), etag.capture());
+        verify(templateEngine, times(2)).render(any(ModelAndView.class));
+
+        when(request.headers("If-None-Match")).thenReturn(etag.getValue());
+        assertEquals("", CuT.handle(request, response));
+        verify(response).status(304);
+        verify(game, times(1)).getBoard();
+        verify(templateEngine, times(2)).render(any(ModelAndView.class));
+    }
+}
@@ -2,6 +2,7 @@ package com.webcheckers.ui;
 
 
 import com.webcheckers.appl.GameManager;
+import com.webcheckers.appl.GamePage;
 import com.webcheckers.appl.PlayerLobby;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
@@ -13,6 +14,8 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import spark.*;
 
+import java.util.ArrayList;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -41,6 +44,8 @@ public class GetHomeRouteTest {
         player = mock(Player.class);
         gameManager = mock(GameManager.class);
         templateEngine = mock(TemplateEngine.class);
+        when(gameManager.getSpectatorGames(anyLong(), anyInt())).thenReturn(new GamePage<>(new ArrayList<>(), GamePage.NONE));
+        when(gameManager.getReplayGames(anyLong(), anyInt())).thenReturn(new GamePage<>(new ArrayList<>(), GamePage.NONE));
 
         CuT = new GetHomeRoute(playerLobby, gameManager, templateEngine);
     }
@@ -0,0 +1,75 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.webcheckers.appl.LobbyFeed;
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+import spark.Session;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+class GetLobbyChangesRouteTest {
+
+    private final Gson gson = new Gson();
+    private LobbyFeed lobbyFeed;
+    private Request request;
+    private Response response;
+    private Session session;
+    private GetLobbyChangesRoute CuT;
+
+    @BeforeEach
+    public void setup() {
+        lobbyFeed = new LobbyFeed(2);
+        request = mock(Request.class);
+        response = mock(Response.class);
+        session = mock(Session.class);
+        when(request.session()).thenReturn(session);
+
+        CuT = new GetLobbyChangesRoute(lobbyFeed, gson);
+    }
+
+    private JsonObject handle(String since) throws Exception {
+        when(request.queryParams(GetLobbyChangesRoute.SINCE_PARAM)).thenReturn(since);
+        return gson.fromJson((String) CuT.handle(request, response), JsonObject.class);
+    }
+
+    @Test
+    public void testChanges() throws Exception {
+        lobbyFeed.playerJoined("alice");
+        lobbyFeed.gameStarted(4, "alice", "bob");
+
+        final JsonObject result = handle("1");
+
+        assertEquals(2, result.get("version").getAsLong());
+        assertFalse(result.get("reload").getAsBoolean());
+        assertEquals(1, result.getAsJsonArray("changes").size());
+        assertEquals("GAME_STARTED", result.getAsJsonArray("changes").get(0).getAsJsonObject().get("type").getAsString());
+        assertFalse(result.has("gameID"));
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        lobbyFeed.playerJoined("a");
+        lobbyFeed.playerJoined("b");
+        lobbyFeed.playerJoined("c");
+
+        assertTrue(handle("0").get("reload").getAsBoolean());
+        assertTrue(handle("junk").get("reload").getAsBoolean());
+    }
+
+    @Test
+    public void testPlayerPutInGame() throws Exception {
+        final Player player = new Player("bob");
+        player.setGameID(4);
+        when(session.attribute("player")).thenReturn(player);
+
+        assertEquals(4, handle("0").get("gameID").getAsInt());
+    }
+}
@@ -0,0 +1,72 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.LatencyHistogram;
+import com.webcheckers.util.MetricsRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class GetMetricsRouteTest {
+
+    /** Component-under-Test CuT */
+    private GetMetricsRoute CuT;
+
+    private MetricsRegistry metrics;
+
+    /** Mock objects */
+    private Request request;
+    private Response response;
+
+    @BeforeEach
+    public void setup() {
+        request = mock(Request.class);
+        response = mock(Response.class);
+        metrics = new MetricsRegistry();
+
+        CuT = new GetMetricsRoute(metrics);
+    }
+
+    @Test
+    public void testPrometheusText() throws Exception {
+        metrics.gauge("webcheckers_active_games", "Games in progress", () -> 3);
+        metrics.gauge("webcheckers_stored_games", "Games held", "tier=\"hot\"", () -> 2);
+        metrics.gauge("webcheckers_stored_games", "Games held", "tier=\"cold\"", () -> 1);
+        final LongAdder turns = metrics.counter("webcheckers_turns_submitted_total", "Turns submitted");
+        turns.add(5);
+        final LatencyHistogram latency = metrics.summary("webcheckers_http_request_duration_seconds", "Time",
+                "route=\"/game\"");
+        for (int i = 1; i <= 100; i++) {
+            latency.record(i * 1000L);
+        }
+
+        final String text = (String) CuT.handle(request, response);
+
+        verify(response).type(GetMetricsRoute.CONTENT_TYPE);
+        assertTrue(text.contains("# TYPE webcheckers_active_games gauge\nwebcheckers_active_games 3\n"), text);
+        assertTrue(text.contains("webcheckers_stored_games{tier=\"hot\"} 2\nwebcheckers_stored_games{tier=\"cold\"} 1\n"));
+        assertEquals(1, text.split("# HELP webcheckers_stored_games", -1).length - 1);
+        assertTrue(text.contains("# TYPE webcheckers_turns_submitted_total counter\nwebcheckers_turns_submitted_total 5\n"));
+        assertTrue(text.contains("# TYPE webcheckers_http_request_duration_seconds summary\n"));
+        assertTrue(text.contains("webcheckers_http_request_duration_seconds_count{route=\"/game\"} 100\n"));
+
+        // the 99th of 100 durations, 99ms, to within a bucket
+        final String p99 = "webcheckers_http_request_duration_seconds{route=\"/game\",quantile=\"0.99\"} ";
+        final int start = text.indexOf(p99) + p99.length();
+        final double seconds = Double.parseDouble(text.substring(start, text.indexOf('\n', start)));
+        assertEquals(0.099, seconds, 0.099 * 0.125);
+    }
+
+    @Test
+    public void testKindsDoNotMix() {
+        metrics.gauge("webcheckers_active_games", "Games in progress", () -> 3);
+        assertThrows(IllegalArgumentException.class, () -> metrics.counter("webcheckers_active_games", "Games"));
+    }
+}
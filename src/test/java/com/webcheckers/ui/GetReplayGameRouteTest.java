@@ -0,0 +1,93 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.webcheckers.appl.GameManager;
+import com.webcheckers.model.ArchivedGame;
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import com.webcheckers.util.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class GetReplayGameRouteTest {
+
+    /** Component-under-Test CuT */
+    private GetReplayGameRoute CuT;
+
+    private final Gson gson = new Gson();
+
+    /** Mock objects */
+    private Request request;
+    private Response response;
+    private GameManager gameManager;
+
+    private ArchivedGame game;
+
+    @BeforeEach
+    public void setup() {
+        request = mock(Request.class);
+        response = mock(Response.class);
+        gameManager = mock(GameManager.class);
+
+        final CheckersGame checkersGame = new CheckersGame(4, new Player("red"), new Player("white"));
+        checkersGame.makeMove(new Move(new Position(5, 0), new Position(4, 1)));
+        checkersGame.newTurn();
+        checkersGame.setGameOver("white resigned", checkersGame.getWhitePlayer());
+        game = checkersGame.archive();
+        when(gameManager.getArchivedGame(4)).thenReturn(game);
+
+        CuT = new GetReplayGameRoute(gameManager, gson);
+    }
+
+    @Test
+    public void testWholeGame() throws Exception {
+        when(request.params(GetReplayGameRoute.GAME_ID_PARAM)).thenReturn("4");
+        when(request.params(GetReplayGameRoute.TAG_PARAM)).thenReturn(game.getReplayTag());
+
+        final JsonObject record = gson.fromJson((String) CuT.handle(request, response), JsonObject.class);
+
+        final Base64.Decoder base64 = Base64.getDecoder();
+        assertEquals(game.getKeyframeCount(), record.get("count").getAsInt());
+        assertArrayEquals(game.getInitialBoard(), base64.decode(record.get("initialBoard").getAsString()));
+        assertArrayEquals(game.getTurnSizes(), base64.decode(record.get("turnSizes").getAsString()));
+        assertArrayEquals(game.getMoves(), base64.decode(record.get("moves").getAsString()));
+        assertArrayEquals(game.getKeyframes(), base64.decode(record.get("boards").getAsString()));
+        verify(response).header("Cache-Control", GameETag.IMMUTABLE);
+        verify(response).header("ETag", "\"4-" + game.getReplayTag() + '"');
+    }
+
+    @Test
+    public void testNotFinished() throws Exception {
+        when(request.params(GetReplayGameRoute.GAME_ID_PARAM)).thenReturn("5");
+        when(request.params(GetReplayGameRoute.TAG_PARAM)).thenReturn(game.getReplayTag());
+
+        final Message message = gson.fromJson((String) CuT.handle(request, response), Message.class);
+        assertEquals(Message.Type.ERROR, message.getType());
+        verify(response, never()).header("Cache-Control", GameETag.IMMUTABLE);
+    }
+
+    @Test
+    public void testOtherGameWithSameId() throws Exception {
+        when(request.params(GetReplayGameRoute.GAME_ID_PARAM)).thenReturn("4");
+        // the tag of a game 4 played before a restart
+        final CheckersGame before = new CheckersGame(4, new Player("red"), new Player("white"));
+        before.setGameOver("red resigned", before.getRedPlayer());
+        when(request.params(GetReplayGameRoute.TAG_PARAM)).thenReturn(before.archive().getReplayTag());
+
+        final Message message = gson.fromJson((String) CuT.handle(request, response), Message.class);
+        assertEquals(Message.Type.ERROR, message.getType());
+        verify(response, never()).header("Cache-Control", GameETag.IMMUTABLE);
+    }
+}
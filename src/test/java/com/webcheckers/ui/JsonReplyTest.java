@@ -0,0 +1,77 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.webcheckers.util.Message;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UI-tier")
+public class JsonReplyTest {
+
+    private final Gson gson = new Gson();
+
+    private static String text(byte[] json) {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testConstantReplies() {
+        assertEquals(gson.toJson(Message.info("true")), text(JsonReply.TRUE));
+        assertEquals(gson.toJson(Message.info("false")), text(JsonReply.FALSE));
+        assertEquals(gson.toJson(Message.info("")), text(JsonReply.EMPTY));
+
+        // the common replies are shared, never written again
+        assertSame(JsonReply.TRUE, JsonReply.of(Message.info("true")));
+        assertSame(JsonReply.FALSE, JsonReply.of(false));
+        assertSame(JsonReply.EMPTY, JsonReply.of(Message.info("")));
+    }
+
+    @Test
+    public void testSameAsGson() {
+        final String[] texts = {
+                "Not a valid move",
+                "It's <b>red</b>'s turn & a = b",
+                "quote \" backslash \\ tab \t newline \n return \r bell \u0007",
+                "café ♔ 😀  ",
+        };
+        for (String text : texts) {
+            assertEquals(gson.toJson(Message.error(text)), text(JsonReply.error(text)));
+            assertEquals(gson.toJson(Message.info(text)), text(JsonReply.of(Message.info(text))));
+        }
+        assertEquals(gson.toJson(Message.info(null)), text(JsonReply.of(Message.info(null))));
+    }
+
+    @Test
+    public void testTurnCheck() {
+        final JsonObject object = gson.fromJson(text(JsonReply.of(true, 2500)), JsonObject.class);
+        assertEquals("true", object.get("text").getAsString());
+        assertEquals("INFO", object.get("type").getAsString());
+        assertEquals(2500, object.get("nextPollMs").getAsInt());
+        // and it still reads as a message
+        assertEquals("false", gson.fromJson(text(JsonReply.of(false, 1000)), Message.class).getText());
+    }
+
+    @Test
+    public void testWriter() {
+        final byte[] json = JsonReply.writer().beginObject()
+                .name("zero").value(0)
+                .name("max").value(Integer.MAX_VALUE)
+                .name("min").value(Integer.MIN_VALUE)
+                .name("mask").value(-5)
+                .endObject().toByteArray();
+
+        final JsonObject object = gson.fromJson(text(json), JsonObject.class);
+        assertEquals(0, object.get("zero").getAsInt());
+        assertEquals(Integer.MAX_VALUE, object.get("max").getAsInt());
+        assertEquals(Integer.MIN_VALUE, object.get("min").getAsInt());
+        assertEquals(-5, object.get("mask").getAsInt());
+
+        // a second object from the same thread starts afresh
+        assertEquals("{\"a\":1}", text(JsonReply.writer().beginObject().name("a").value(1).endObject().toByteArray()));
+    }
+}
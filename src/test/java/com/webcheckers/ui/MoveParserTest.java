@@ -0,0 +1,49 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.model.BoardCodec;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Position;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UI-tier")
+public class MoveParserTest {
+
+    @Test
+    public void testParse() {
+        // as the Game page sends it
+        final Move move = new Move(new Position(5, 0), new Position(4, 1));
+        final int code = MoveParser.parse(new Gson().toJson(move));
+        assertEquals(BoardCodec.encodeMove(move), code);
+
+        // any key order and whitespace
+        assertEquals(code, MoveParser.parse(" { \"end\" : {\"cell\":1, \"row\":4},\n\"start\":{ \"row\" : 5 , \"cell\" : 0 } } "));
+    }
+
+    @Test
+    public void testMalformed() {
+        final String[] malformed = {
+                null,
+                "",
+                "[]",
+                "{\"start\":{\"row\":5,\"cell\":0}}",
+                "{\"start\":{\"row\":5,\"cell\":0},\"start\":{\"row\":4,\"cell\":1}}",
+                "{\"start\":{\"row\":5},\"end\":{\"row\":4,\"cell\":1}}",
+                "{\"start\":{\"row\":5,\"cell\":\"0\"},\"end\":{\"row\":4,\"cell\":1}}",
+                "{\"start\":{\"row\":5,\"cell\":0},\"end\":{\"row\":4,\"cell\":1},\"x\":1}",
+                "{\"start\":{\"row\":5,\"cell\":0},\"end\":{\"row\":4,\"cell\":1}}x",
+                "{\"start\":{\"row\":5000000000,\"cell\":0},\"end\":{\"row\":4,\"cell\":1}}",
+        };
+        for (String json : malformed) {
+            final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> MoveParser.parse(json), json);
+            assertNotNull(e.getMessage());
+        }
+
+        // well formed, but a light square can never be played
+        assertThrows(IllegalArgumentException.class,
+                () -> MoveParser.parse("{\"start\":{\"row\":1,\"cell\":1},\"end\":{\"row\":2,\"cell\":2}}"));
+    }
+}
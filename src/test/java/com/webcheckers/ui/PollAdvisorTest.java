@@ -0,0 +1,74 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.model.CheckerPiece;
+import com.webcheckers.model.CheckersGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class PollAdvisorTest {
+
+    private static final long NOW = 1_000_000;
+
+    /** The node's load, as the admission control reports it */
+    private double load;
+    private PollAdvisor CuT;
+
+    /** Mock objects */
+    private CheckersGame game;
+
+    @BeforeEach
+    public void setup() {
+        load = 0;
+        CuT = new PollAdvisor(() -> load);
+        game = mock(CheckersGame.class);
+        when(game.getActiveColor()).thenReturn(CheckerPiece.Color.WHITE);
+    }
+
+    @Test
+    public void testNoHistory() {
+        // the wait the pages always used
+        assertEquals(PollAdvisor.DEFAULT_POLL_MS, CuT.nextPollMs(game, NOW));
+    }
+
+    @Test
+    public void testMoveJustMade() {
+        when(game.getAverageTurnMillis(CheckerPiece.Color.WHITE)).thenReturn(60_000L);
+        when(game.getTurnStartTime()).thenReturn(NOW);
+        when(game.getPendingMoveCount()).thenReturn(1);
+        // the turn is about to be submitted
+        assertEquals(PollAdvisor.MIN_POLL_MS, CuT.nextPollMs(game, NOW));
+    }
+
+    @Test
+    public void testThinkTime() {
+        when(game.getAverageTurnMillis(CheckerPiece.Color.WHITE)).thenReturn(12_000L);
+        when(game.getTurnStartTime()).thenReturn(NOW - 4000);
+        // half of the 8 seconds white usually has left
+        assertEquals(4000, CuT.nextPollMs(game, NOW));
+
+        // a quarter of white's usual turn once over it
+        when(game.getTurnStartTime()).thenReturn(NOW - 20_000);
+        assertEquals(3000, CuT.nextPollMs(game, NOW));
+
+        // a fast game is polled often, a slow one rarely
+        when(game.getAverageTurnMillis(CheckerPiece.Color.WHITE)).thenReturn(1000L);
+        assertEquals(PollAdvisor.MIN_POLL_MS, CuT.nextPollMs(game, NOW));
+        when(game.getAverageTurnMillis(CheckerPiece.Color.WHITE)).thenReturn(600_000L);
+        assertEquals(PollAdvisor.MAX_POLL_MS, CuT.nextPollMs(game, NOW));
+    }
+
+    @Test
+    public void testLoad() {
+        load = 0.5;
+        assertEquals(PollAdvisor.DEFAULT_POLL_MS * 5 / 2, CuT.nextPollMs(game, NOW));
+        load = 1;
+        assertEquals(PollAdvisor.MAX_POLL_MS, CuT.nextPollMs(game, NOW));
+        when(game.getPendingMoveCount()).thenReturn(1);
+        assertEquals(PollAdvisor.MIN_POLL_MS * PollAdvisor.LOAD_BACKOFF, CuT.nextPollMs(game, NOW));
+    }
+}
@@ -13,6 +13,8 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -44,15 +46,17 @@ public class PostBackupMoveRouteTest {
         this.game = mock(CheckersGame.class);
         this.gameManager = mock(GameManager.class);
 
-        CuT = new PostBackupMoveRoute(gameManager,gson);
+        CuT = new PostBackupMoveRoute(gameManager);
         when(session.attribute("player")).thenReturn(player);
 
     }
 
     @Test
     public void handle() throws Exception{
+        when(gameManager.undoMove(player.getGameID())).thenReturn(Message.info("true"));
         Object result = CuT.handle(request,response);
-        assertTrue(result instanceof String);
+        assertTrue(result instanceof byte[]);
+        assertEquals("true", gson.fromJson(new String((byte[]) result, StandardCharsets.UTF_8), Message.class).getText());
         gameManager.undoMove(player.getGameID());
         assertNull(response);
     }
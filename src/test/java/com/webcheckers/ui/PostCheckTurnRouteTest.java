@@ -3,6 +3,7 @@ package com.webcheckers.ui;
 import com.google.gson.Gson;
 import com.webcheckers.appl.GameManager;
 import com.webcheckers.appl.PlayerLobby;
+import com.webcheckers.model.ArchivedGame;
 import com.webcheckers.model.CheckersGame;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
@@ -13,6 +14,8 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -43,9 +46,9 @@ public class PostCheckTurnRouteTest {
         when(session.attribute("player")).thenReturn(player);
         this.game = mock(CheckersGame.class);
         this.gameManager = mock(GameManager.class);
-        when(gameManager.getGame(player.getGameID())).thenReturn(game);
+        when(gameManager.getLiveGame(player.getGameID())).thenReturn(game);
 
-        CuT = new PostCheckTurnRoute(gameManager, new Gson());
+        CuT = new PostCheckTurnRoute(gameManager, new PollAdvisor(() -> 0));
     }
 
     @Test
@@ -53,8 +56,8 @@ public class PostCheckTurnRouteTest {
         when(game.isPlayersTurn(player)).thenReturn(false);
 
         Object result = CuT.handle(request, response);
-        assertTrue(result instanceof String);
-        final Message message = gson.fromJson((String) result, Message.class);
+        assertTrue(result instanceof byte[]);
+        final Message message = gson.fromJson(new String((byte[]) result, StandardCharsets.UTF_8), Message.class);
 
         assertEquals(message.getText(), "false");
     }
@@ -65,19 +68,61 @@ public class PostCheckTurnRouteTest {
         when(game.isPlayersTurn(player)).thenReturn(true);
 
         Object result = CuT.handle(request, response);
-        assertTrue(result instanceof String);
-        final Message message = gson.fromJson((String) result, Message.class);
+        assertTrue(result instanceof byte[]);
+        final Message message = gson.fromJson(new String((byte[]) result, StandardCharsets.UTF_8), Message.class);
 
         assertEquals(message.getText(), "true");
     }
 
+    @Test
+    public void testNotModified() throws Exception {
+        when(player.getGameID()).thenReturn(1);
+        when(gameManager.getLiveGame(1)).thenReturn(game);
+        when(game.getVersion()).thenReturn(7L);
+        when(request.headers("If-None-Match")).thenReturn(GameETag.of(1, 7));
+
+        assertEquals("", CuT.handle(request, response));
+        verify(response).status(304);
+        verify(game, never()).isPlayersTurn(player);
+        // the wait before the next check is sent with the 304 too
+        verify(response).header(PollAdvisor.NEXT_POLL_HEADER, Integer.toString(PollAdvisor.DEFAULT_POLL_MS));
+
+        // the opponent moved, so the answer is sent with the new tag
+        when(game.getVersion()).thenReturn(8L);
+        when(game.isPlayersTurn(player)).thenReturn(true);
+        final Message message = gson.fromJson(new String((byte[]) CuT.handle(request, response), StandardCharsets.UTF_8), Message.class);
+        assertEquals("true", message.getText());
+        verify(response).header("ETag", GameETag.of(1, 8));
+    }
+
+    @Test
+    public void testCompactedGame() throws Exception {
+        final CheckersGame finished = new CheckersGame(1, new Player("red"), new Player("white"));
+        finished.setGameOver("over");
+        final ArchivedGame archive = finished.archive();
+        when(player.getGameID()).thenReturn(1);
+        when(player.getUsername()).thenReturn("red");
+        when(gameManager.getLiveGame(1)).thenReturn(null);
+        when(gameManager.getArchivedGame(1)).thenReturn(archive);
+
+        final Message message = gson.fromJson(new String((byte[]) CuT.handle(request, response), StandardCharsets.UTF_8), Message.class);
+        assertEquals("true", message.getText());
+        verify(response).header(PollAdvisor.NEXT_POLL_HEADER, Integer.toString(PollAdvisor.MAX_POLL_MS));
+
+        // polled again at the same version without rebuilding the game
+        when(request.headers("If-None-Match")).thenReturn(GameETag.of(1, archive.getVersion()));
+        assertEquals("", CuT.handle(request, response));
+        verify(response).status(304);
+        verify(gameManager, never()).getGame(1);
+    }
+
     @Test
     public void testGetGameIDNotInPlayer() throws Exception {
         when(player.getGameID()).thenReturn(-1);
 
         Object result = CuT.handle(request, response);
-        assertTrue(result instanceof String);
-        final Message message = gson.fromJson((String) result, Message.class);
+        assertTrue(result instanceof byte[]);
+        final Message message = gson.fromJson(new String((byte[]) result, StandardCharsets.UTF_8), Message.class);
         assertEquals("Could not get game id", message.getText());
     }
 
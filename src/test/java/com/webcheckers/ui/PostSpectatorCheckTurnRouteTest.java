@@ -11,8 +11,11 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class PostSpectatorCheckTurnRouteTest {
@@ -40,9 +43,9 @@ class PostSpectatorCheckTurnRouteTest {
         when(session.attribute("player")).thenReturn(player);
         this.game = mock(CheckersGame.class);
         this.gameManager = mock(GameManager.class);
-        when(gameManager.getGame(player.getGameID())).thenReturn(game);
+        when(gameManager.getLiveGame(player.getGameID())).thenReturn(game);
 
-        CuT = new PostSpectatorCheckTurnRoute(gameManager, new Gson());
+        CuT = new PostSpectatorCheckTurnRoute(gameManager, new PollAdvisor(() -> 0));
     }
 
     @Test
@@ -50,9 +53,19 @@ class PostSpectatorCheckTurnRouteTest {
 //        when(game.isPlayersTurn(player)).thenReturn(false);
 
         Object result = CuT.handle(request, response);
-        assertTrue(result instanceof String);
-        final Message message = gson.fromJson((String) result, Message.class);
+        assertTrue(result instanceof byte[]);
+        final Message message = gson.fromJson(new String((byte[]) result, StandardCharsets.UTF_8), Message.class);
 
         assertEquals(message.getText(), "true");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void noNewMove() throws Exception {
+        when(game.getVersion()).thenReturn(2L);
+        final String etag = GameETag.of(player.getGameID(), 2);
+        when(request.headers("If-None-Match")).thenReturn(etag);
+
+        assertEquals("", CuT.handle(request, response));
+        verify(response).status(304);
+    }
+}
@@ -13,6 +13,8 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -47,7 +49,7 @@ public class PostSubmitTurnRouteTest {
         game = mock(CheckersGame.class);
         when(player.getGameID()).thenReturn(gameID);
 
-        CuT = new PostSubmitTurnRoute(gameManager, gson);
+        CuT = new PostSubmitTurnRoute(gameManager);
     }
 
     @Test
@@ -55,7 +57,7 @@ public class PostSubmitTurnRouteTest {
         when(gameManager.isValidTurn(game.getId())).thenReturn(Message.info(""));
         when(session.attribute("player")).thenReturn(mock(Player.class));
 
-        String json = (String) CuT.handle(request, response);
+        String json = new String((byte[]) CuT.handle(request, response), StandardCharsets.UTF_8);
         final Message result = gson.fromJson(json, Message.class);
 
         assertEquals(Message.Type.INFO, result.getType());
@@ -69,10 +71,26 @@ public class PostSubmitTurnRouteTest {
         when(session.attribute("player")).thenReturn(mock(Player.class));
         when(gameManager.isValidTurn(any(Integer.class))).thenReturn(Message.error("Test Error"));
 
-        String json = (String) CuT.handle(request, response);
+        String json = new String((byte[]) CuT.handle(request, response), StandardCharsets.UTF_8);
         final Message result = gson.fromJson(json, Message.class);
 
         assertNotEquals(Message.Type.INFO, result.getType());
         assertNotEquals("", result.getText());
     }
+
+    @Test
+    public void testCachedBoardsDropped() throws Exception {
+        final BoardRenderCache boardCache = mock(BoardRenderCache.class);
+        CuT = new PostSubmitTurnRoute(gameManager, boardCache);
+        when(session.attribute("player")).thenReturn(player);
+        when(gameManager.isValidTurn(gameID)).thenReturn(Message.error("Test Error"));
+
+        CuT.handle(request, response);
+        verify(boardCache, never()).invalidate(gameID);
+
+        when(gameManager.isValidTurn(gameID)).thenReturn(Message.info(""));
+        CuT.handle(request, response);
+        verify(gameManager).submitTurn(gameID);
+        verify(boardCache).invalidate(gameID);
+    }
 }
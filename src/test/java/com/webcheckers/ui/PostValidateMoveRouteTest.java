@@ -13,10 +13,15 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class PostValidateMoveRouteTest {
@@ -49,20 +54,31 @@ public class PostValidateMoveRouteTest {
         game = mock(CheckersGame.class);
         when(player.getGameID()).thenReturn(gameID);
 
-        CuT = new PostValidateMoveRoute(gameManager, gson);
+        CuT = new PostValidateMoveRoute(gameManager);
     }
 
     @Test
     public void handleValidMove() throws Exception {
         when(session.attribute("player")).thenReturn(mock(Player.class));
-        Move m = new Move(new Position(1, 1), new Position(2, 2));
+        Move m = new Move(new Position(5, 0), new Position(4, 1));
         when(request.queryParams("actionData")).thenReturn(gson.toJson(m));
         when(gameManager.isValidMove(any(Integer.class), any(Move.class))).thenReturn(Message.info(""));
 
-        String json = (String) CuT.handle(request, response);
+        String json = new String((byte[]) CuT.handle(request, response), StandardCharsets.UTF_8);
         final Message result = gson.fromJson(json, Message.class);
 
         assertEquals(Message.Type.INFO, result.getType());
         assertEquals("", result.getText());
     }
+
+    @Test
+    public void handleMalformedMove() throws Exception {
+        when(session.attribute("player")).thenReturn(mock(Player.class));
+        when(request.queryParams("actionData")).thenReturn("{\"start\":{\"row\":5,\"cell\":0}}");
+
+        final Message result = gson.fromJson(new String((byte[]) CuT.handle(request, response), StandardCharsets.UTF_8), Message.class);
+
+        assertEquals(Message.Type.ERROR, result.getType());
+        verify(gameManager, never()).isValidMove(anyInt(), any(Move.class));
+    }
 }
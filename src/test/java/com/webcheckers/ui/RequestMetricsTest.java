@@ -0,0 +1,96 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.LatencyHistogram;
+import com.webcheckers.util.MetricsRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class RequestMetricsTest {
+
+    /** Component-under-Test CuT */
+    private RequestMetrics CuT;
+
+    private MetricsRegistry metrics;
+
+    /** Mock objects */
+    private Request request;
+    private Response response;
+    private HttpServletRequest raw;
+
+    @BeforeEach
+    public void setup() {
+        request = mock(Request.class);
+        response = mock(Response.class);
+        raw = mock(HttpServletRequest.class);
+        when(request.raw()).thenReturn(raw);
+
+        metrics = new MetricsRegistry();
+        CuT = new RequestMetrics(metrics);
+        CuT.addRoute(WebServer.CHECK_TURN_URL);
+        CuT.addRoute("/replay/:gameID/board/:index");
+        CuT.addRoute(AssetPipeline.URL_PREFIX + "*", WebServer.STATIC_ROUTE_LABEL);
+    }
+
+    @Test
+    public void testMatches() {
+        assertTrue(RequestMetrics.matches("/replay/:gameID/board/:index", "/replay/12/board/3"));
+        assertTrue(RequestMetrics.matches("/assets/*", "/assets/css/style.0123456789.css"));
+        assertTrue(RequestMetrics.matches("/checkTurn", "/checkTurn"));
+        assertFalse(RequestMetrics.matches("/replay/:gameID/board/:index", "/replay/12/board"));
+        assertFalse(RequestMetrics.matches("/replay/:gameID/board/:index", "/replay//board/3"));
+        assertFalse(RequestMetrics.matches("/replay/:gameID/record", "/replay/12/record/x"));
+    }
+
+    @Test
+    public void testTimesByRoute() throws Exception {
+        when(request.requestMethod()).thenReturn("GET");
+        when(request.pathInfo()).thenReturn("/replay/12/board/3");
+        when(raw.getAttribute(anyString())).thenReturn(System.nanoTime() - 5_000_000L);
+
+        CuT.start().handle(request, response);
+        CuT.stop().handle(request, response);
+        verify(raw).setAttribute(anyString(), any(Long.class));
+
+        // games and boards share the route's summary
+        final LatencyHistogram board = CuT.histogram("GET", "/replay/7/board/0");
+        assertEquals(1, board.getCount());
+        assertTrue(board.getQuantile(0.99) >= 5_000);
+        assertSame(board, CuT.histogram("GET", "/replay/:gameID/board/:index"));
+
+        // the method and unknown paths are kept apart
+        assertEquals(0, CuT.histogram("POST", "/replay/7/board/0").getCount());
+        assertNotSame(CuT.histogram("GET", "/nope"), board);
+        assertSame(CuT.histogram("GET", "/nope"), CuT.histogram("GET", "/wp-login.php"));
+
+        final StringBuilder text = new StringBuilder();
+        metrics.write(text);
+        assertTrue(text.toString().contains(RequestMetrics.DURATION_METRIC
+                + "_count{method=\"GET\",route=\"/replay/:gameID/board/:index\"} 1\n"), text.toString());
+        assertTrue(text.toString().contains("route=\"" + RequestMetrics.OTHER_ROUTE + '"'));
+        // and by the kind of thread, this one a platform thread
+        assertTrue(text.toString().contains(RequestMetrics.THREAD_METRIC + "_count{thread=\"platform\"} 1\n"));
+        assertTrue(text.toString().contains(RequestMetrics.THREAD_METRIC + "_count{thread=\"virtual\"} 0\n"));
+    }
+
+    @Test
+    public void testNotStarted() throws Exception {
+        when(request.requestMethod()).thenReturn("POST");
+        when(request.pathInfo()).thenReturn(WebServer.CHECK_TURN_URL);
+
+        CuT.stop().handle(request, response);
+
+        assertEquals(0, CuT.histogram("POST", WebServer.CHECK_TURN_URL).getCount());
+        verify(raw, never()).setAttribute(anyString(), eq(null));
+    }
+}
@@ -0,0 +1,144 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.Settings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class ResponseCompressionTest {
+
+    /** Component-under-Test CuT */
+    private ResponseCompression CuT;
+
+    /** Mock objects */
+    private Request request;
+    private Response response;
+    private HttpServletResponse raw;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private String page;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        request = mock(Request.class);
+        response = mock(Response.class);
+        raw = mock(HttpServletResponse.class);
+        when(response.raw()).thenReturn(raw);
+        when(raw.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() { return true; }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) { }
+
+            @Override
+            public void write(int b) { body.write(b); }
+        });
+
+        final StringBuilder board = new StringBuilder("<table id=\"game-board\">");
+        for (int i = 0; i < 64; i++) {
+            board.append("<td data-cell=\"").append(i % 8).append("\" class=\"Space\"></td>");
+        }
+        page = board.append("</table>").toString();
+        when(response.body()).thenReturn(page);
+        when(request.headers("Accept-Encoding")).thenReturn("gzip, deflate");
+
+        CuT = new ResponseCompression(512, 9);
+    }
+
+    private static String gunzip(byte[] gzip) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testCompressesPage() throws Exception {
+        CuT.handle(request, response);
+
+        assertEquals(page, gunzip(body.toByteArray()));
+        verify(raw).setHeader("Content-Encoding", "gzip");
+        verify(raw).setContentType(ResponseCompression.DEFAULT_TYPE);
+        verify(raw).setContentLength(body.size());
+        verify(raw).flushBuffer();
+        assertEquals(1, CuT.getCompressedCount());
+        assertEquals(page.length(), CuT.getBytesIn());
+        assertEquals(page.length() - body.size(), CuT.getBytesSaved());
+        assertTrue(CuT.getBytesSaved() > page.length() / 2);
+    }
+
+    @Test
+    public void testCompressesJson() throws Exception {
+        when(raw.getContentType()).thenReturn("application/json");
+
+        CuT.handle(request, response);
+
+        assertEquals(page, gunzip(body.toByteArray()));
+        verify(raw).setContentType("application/json");
+    }
+
+    @Test
+    public void testLeavesAlone() throws Exception {
+        // a browser that does not accept gzip
+        when(request.headers("Accept-Encoding")).thenReturn("gzip;q=0, identity");
+        CuT.handle(request, response);
+        verify(response).header("Vary", "Accept-Encoding");
+
+        // a body below the threshold
+        when(request.headers("Accept-Encoding")).thenReturn("gzip");
+        when(response.body()).thenReturn("{\"type\":\"INFO\",\"text\":\"true\"}");
+        CuT.handle(request, response);
+
+        // a static file the route has already sent
+        when(response.body()).thenReturn(page);
+        when(raw.isCommitted()).thenReturn(true);
+        CuT.handle(request, response);
+
+        // a body that is neither HTML nor JSON
+        when(raw.isCommitted()).thenReturn(false);
+        when(raw.getContentType()).thenReturn("text/plain");
+        CuT.handle(request, response);
+
+        // no body at all, as with a 304
+        when(raw.getContentType()).thenReturn(null);
+        when(response.body()).thenReturn(null);
+        CuT.handle(request, response);
+
+        assertEquals(0, body.size());
+        verify(raw, never()).setContentLength(anyInt());
+        assertEquals(0, CuT.getCompressedCount());
+    }
+
+    @Test
+    public void testLevel() {
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCompression(512, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCompression(512, 10));
+    }
+
+    @Test
+    public void testSettings() {
+        final Properties properties = new Properties();
+        properties.setProperty("compression.minBytes", "1024");
+        // out of range, so the default is used rather than failing to start
+        properties.setProperty("compression.level", "10");
+        final ResponseCompression settings = new ResponseCompression(new Settings(properties));
+        assertEquals(Long.valueOf(1024), settings.asMap().get("compression_min_bytes"));
+        assertEquals(Long.valueOf(ResponseCompression.DEFAULT_LEVEL), settings.asMap().get("compression_level"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.util.Settings;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UI-tier")
+public class ServerConfigTest {
+
+    private static ServerConfig config(String... keysAndValues) {
+        final Properties properties = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return new ServerConfig(new Settings(properties));
+    }
+
+    @Test
+    public void testDefaults() {
+        final ServerConfig CuT = ServerConfig.defaults();
+        assertEquals(ServerConfig.DEFAULT_PORT, CuT.getPort());
+        assertEquals(ServerConfig.DEFAULT_MIN_THREADS, CuT.getMinThreads());
+        assertEquals(ServerConfig.DEFAULT_MAX_THREADS, CuT.getMaxThreads());
+        assertEquals(ServerConfig.DEFAULT_IDLE_TIMEOUT_MILLIS, CuT.getIdleTimeoutMillis());
+        assertFalse(CuT.isVirtualThreads());
+    }
+
+    @Test
+    public void testSettings() {
+        final ServerConfig CuT = config(
+                "server.port", "8080",
+                "server.minThreads", "16",
+                "server.maxThreads", "1_000",
+                "server.threadIdleTimeoutMillis", "30000",
+                "server.acceptQueueSize", "256",
+                "server.idleTimeoutMillis", " 30000 ",
+                "server.maxRequestHeaderBytes", "16384",
+                "server.maxFormContentBytes", "4096",
+                "server.maxFormKeys", "10",
+                "server.virtualThreads", "TRUE");
+
+        assertEquals(8080, CuT.getPort());
+        assertEquals(16, CuT.getMinThreads());
+        assertEquals(1000, CuT.getMaxThreads());
+        assertEquals(30000, CuT.getThreadIdleTimeoutMillis());
+        assertEquals(256, CuT.getAcceptQueueSize());
+        assertEquals(30000, CuT.getIdleTimeoutMillis());
+        assertEquals(16384, CuT.getMaxRequestHeaderBytes());
+        assertEquals(4096, CuT.getMaxFormContentBytes());
+        assertEquals(10, CuT.getMaxFormKeys());
+        assertTrue(CuT.isVirtualThreads());
+
+        final Map<String, Long> map = CuT.asMap();
+        assertEquals(Long.valueOf(1000), map.get("max_threads"));
+        assertEquals(Long.valueOf(1), map.get("virtual_threads"));
+        assertEquals(15, map.size());
+    }
+
+    @Test
+    public void testPollLimits() {
+        // follow the threads unless set
+        final ServerConfig CuT = config("server.maxThreads", "40");
+        assertEquals(30, CuT.getMaxInFlight());
+        assertEquals(20, CuT.getMaxPollsInFlight());
+        assertEquals(ServerConfig.DEFAULT_MAX_POLL_QUEUE_MILLIS, CuT.getMaxPollQueueMillis());
+        assertEquals(ServerConfig.DEFAULT_POLL_RETRY_AFTER_SECONDS, CuT.getPollRetryAfterSeconds());
+
+        final ServerConfig set = config("server.maxThreads", "40", "server.maxInFlight", "35",
+                "server.maxPollsInFlight", "5", "server.maxPollQueueMillis", "250", "server.pollRetryAfterSeconds", "0");
+        assertEquals(35, set.getMaxInFlight());
+        assertEquals(5, set.getMaxPollsInFlight());
+        assertEquals(250, set.getMaxPollQueueMillis());
+        assertEquals(ServerConfig.DEFAULT_POLL_RETRY_AFTER_SECONDS, set.getPollRetryAfterSeconds());
+
+        // on virtual threads the thread pool is not the limit
+        final ServerConfig virtual = config("server.maxThreads", "40", "server.virtualThreads", "true");
+        assertEquals(ServerConfig.DEFAULT_VIRTUAL_MAX_IN_FLIGHT, virtual.getMaxInFlight());
+        assertEquals(ServerConfig.DEFAULT_VIRTUAL_MAX_POLLS_IN_FLIGHT, virtual.getMaxPollsInFlight());
+        final ServerConfig virtualSet = config("server.virtualThreads", "true", "server.maxInFlight", "500");
+        assertEquals(500, virtualSet.getMaxInFlight());
+    }
+
+    @Test
+    public void testBadValues() {
+        // each falls back to its default rather than stopping the server
+        final ServerConfig CuT = config(
+                "server.port", "http",
+                "server.maxThreads", "2",
+                "server.acceptQueueSize", "-1",
+                "server.virtualThreads", "yes");
+
+        assertEquals(ServerConfig.DEFAULT_PORT, CuT.getPort());
+        assertEquals(ServerConfig.DEFAULT_MAX_THREADS, CuT.getMaxThreads());
+        assertEquals(ServerConfig.DEFAULT_ACCEPT_QUEUE_SIZE, CuT.getAcceptQueueSize());
+        assertFalse(CuT.isVirtualThreads());
+
+        // the minimum is never over the maximum
+        assertEquals(10, config("server.minThreads", "50", "server.maxThreads", "10").getMinThreads());
+    }
+}
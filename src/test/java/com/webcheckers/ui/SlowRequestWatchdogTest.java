@@ -0,0 +1,154 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.model.Player;
+import com.webcheckers.util.MetricsRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import spark.Request;
+import spark.Response;
+import spark.Session;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@Tag("UI-tier")
+public class SlowRequestWatchdogTest {
+
+    private RequestMetrics requestMetrics;
+
+    /** Mock objects */
+    private Request request;
+    private Response response;
+    private Session session;
+
+    @BeforeEach
+    public void setup() {
+        requestMetrics = new RequestMetrics(new MetricsRegistry());
+        requestMetrics.addRoute(WebServer.SUBMIT_TURN_URL);
+
+        request = mock(Request.class);
+        response = mock(Response.class);
+        session = mock(Session.class);
+        // the request attributes, as the servlet request keeps them
+        final Map<String, Object> attributes = new HashMap<>();
+        final HttpServletRequest raw = mock(HttpServletRequest.class);
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(raw).setAttribute(anyString(), any());
+        when(raw.getAttribute(anyString())).thenAnswer(invocation -> attributes.get(invocation.getArgument(0)));
+        when(request.raw()).thenReturn(raw);
+        when(request.requestMethod()).thenReturn("POST");
+        when(request.pathInfo()).thenReturn(WebServer.SUBMIT_TURN_URL);
+        when(request.session(false)).thenReturn(session);
+    }
+
+    @Test
+    public void testStackTakenWhileRunning() throws Exception {
+        final Player player = new Player("bob");
+        player.setGameID(12);
+        when(session.attribute("player")).thenReturn(player);
+        final SlowRequestWatchdog CuT = new SlowRequestWatchdog(requestMetrics, 50, 10);
+
+        // a route blocked until the stack has been taken
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread handler = new Thread(() -> {
+            try {
+                CuT.start().handle(request, response);
+                started.countDown();
+                release.await();
+                CuT.stop().handle(request, response);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, "handler");
+        handler.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // not slow yet
+        CuT.check(System.nanoTime());
+        assertEquals(0, CuT.getSlowRequestCount());
+
+        CuT.check(System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+        // once is enough
+        CuT.check(System.nanoTime() + TimeUnit.SECONDS.toNanos(2));
+        assertEquals(1, CuT.getSlowRequestCount());
+        final SlowRequestWatchdog.SlowRequest slow = CuT.getSlowRequests().get(0);
+        assertEquals(-1, slow.getTotalMillis());
+
+        release.countDown();
+        handler.join(5000);
+
+        assertEquals("POST", slow.getMethod());
+        assertEquals(WebServer.SUBMIT_TURN_URL, slow.getRoute());
+        assertEquals("bob", slow.getUsername());
+        assertEquals(12, slow.getGameId());
+        assertEquals("handler", slow.getThread());
+        assertTrue(slow.getCapturedMillis() >= 1000);
+        assertTrue(slow.getTotalMillis() >= 0);
+        // the stack of the handler thread, blocked in the route
+        assertTrue(Arrays.stream(slow.getStack()).anyMatch(frame -> frame.getClassName().equals(CountDownLatch.class.getName())),
+                Arrays.toString(slow.getStack()));
+        assertEquals(1, CuT.getSlowRequestCount());
+    }
+
+    @Test
+    public void testRing() throws Exception {
+        final SlowRequestWatchdog CuT = new SlowRequestWatchdog(requestMetrics, 1, 2);
+
+        // fast
+        CuT.start().handle(request, response);
+        CuT.stop().handle(request, response);
+        CuT.check(System.nanoTime());
+        // possibly slow, the threshold is a single millisecond
+        final long fast = CuT.getSlowRequestCount();
+
+        final String[] users = { "a", "b", "c" };
+        for (String user : users) {
+            when(session.attribute("player")).thenReturn(new Player(user));
+            CuT.start().handle(request, response);
+            Thread.sleep(5);
+            CuT.stop().handle(request, response);
+        }
+
+        assertEquals(fast + 3, CuT.getSlowRequestCount());
+        final List<SlowRequestWatchdog.SlowRequest> slow = CuT.getSlowRequests();
+        assertEquals(2, slow.size());
+        assertEquals("c", slow.get(0).getUsername());
+        assertEquals("b", slow.get(1).getUsername());
+        // over before the checker saw them
+        assertNull(slow.get(0).getStack());
+        assertTrue(slow.get(0).getTotalMillis() >= 5);
+    }
+
+    @Test
+    public void testWithoutSession() throws Exception {
+        when(request.session(false)).thenReturn(null);
+        final SlowRequestWatchdog CuT = new SlowRequestWatchdog(requestMetrics, 1, 2);
+
+        CuT.start().handle(request, response);
+        CuT.check(System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+        CuT.stop().handle(request, response);
+
+        final SlowRequestWatchdog.SlowRequest slow = CuT.getSlowRequests().get(0);
+        assertNull(slow.getUsername());
+        assertEquals(-1, slow.getGameId());
+        verify(request, never()).session();
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new SlowRequestWatchdog(requestMetrics, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new SlowRequestWatchdog(requestMetrics, 10, 0));
+    }
+}
@@ -0,0 +1,85 @@
+package com.webcheckers.ui;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("UI-tier")
+public class VirtualThreadPoolTest {
+
+    @Test
+    public void testSupported() {
+        final boolean java21 = Runtime.version().feature() >= 21;
+        assertEquals(java21, VirtualThreadPool.isSupported());
+        assertFalse(VirtualThreadPool.isVirtual(Thread.currentThread()));
+        if (!java21) {
+            assertThrows(UnsupportedOperationException.class, VirtualThreadPool::create);
+        }
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        if (!VirtualThreadPool.isSupported()) {
+            return;
+        }
+        final VirtualThreadPool CuT = VirtualThreadPool.create();
+        final CountDownLatch ran = new CountDownLatch(1);
+        final boolean[] virtual = new boolean[1];
+        final String[] name = new String[1];
+        CuT.execute(() -> {
+            virtual[0] = VirtualThreadPool.isVirtual(Thread.currentThread());
+            name[0] = Thread.currentThread().getName();
+            ran.countDown();
+        });
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertTrue(virtual[0]);
+        assertTrue(name[0].startsWith(VirtualThreadPool.NAME_PREFIX));
+    }
+
+    @Test
+    public void testThreadPerTask() throws Exception {
+        // any thread factory behaves the same, the JVM's platform threads included
+        final VirtualThreadPool CuT = new VirtualThreadPool(Thread::new);
+        CuT.start();
+        final CountDownLatch running = new CountDownLatch(3);
+        final CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            CuT.execute(() -> {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertEquals(3, CuT.getThreads());
+        assertEquals(0, CuT.getIdleThreads());
+        assertFalse(CuT.isLowOnThreads());
+
+        release.countDown();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (CuT.getThreads() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, CuT.getThreads());
+
+        // join returns once the server stops the pool
+        final Thread joiner = new Thread(() -> {
+            try {
+                CuT.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        joiner.start();
+        CuT.stop();
+        joiner.join(5000);
+        assertFalse(joiner.isAlive());
+    }
+}
@@ -0,0 +1,148 @@
+package com.webcheckers.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+public class AsyncLogHandlerTest {
+
+    private AsyncLogHandler CuT;
+
+    /**
+     * Keeps what it is handed, and can hold the writer thread inside publish until it is released
+     */
+    private static final class Target extends Handler {
+        private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+        private final CountDownLatch gate;
+        private volatile boolean closed;
+
+        Target(boolean held) {
+            this.gate = new CountDownLatch(held ? 1 : 0);
+        }
+
+        @Override
+        public void publish(LogRecord record) {
+            this.entered.countDown();
+            while (true) {
+                try {
+                    this.gate.await();
+                    break;
+                } catch (InterruptedException e) {
+                    this.interrupted.countDown();
+                }
+            }
+            this.records.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+        List<String> messages() {
+            return this.records.stream().map(LogRecord::getMessage).collect(Collectors.toList());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (CuT != null) {
+            CuT.close();
+        }
+    }
+
+    private static LogRecord record(String message) {
+        return new LogRecord(Level.INFO, message);
+    }
+
+    @Test
+    public void testWritesInOrder() {
+        final Target target = new Target(false);
+        CuT = new AsyncLogHandler(target, 16);
+        CuT.publish(record("one"));
+        CuT.publish(record("two"));
+        CuT.publish(record("three"));
+        CuT.flush();
+
+        assertEquals(List.of("one", "two", "three"), target.messages());
+        assertEquals(0, CuT.getDroppedCount());
+    }
+
+    @Test
+    public void testRingOverflow() throws Exception {
+        final Target target = new Target(true);
+        CuT = new AsyncLogHandler(target, 2);
+        CuT.publish(record("one"));
+        // the writer is held writing the first record, so two fill the ring and the rest are dropped
+        assertTrue(target.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 2; i <= 5; i++) {
+            CuT.publish(record("record " + i));
+        }
+        assertEquals(2, CuT.getDroppedCount());
+
+        target.gate.countDown();
+        CuT.flush();
+        final List<String> messages = target.messages();
+        assertTrue(messages.containsAll(List.of("one", "record 2", "record 3")), messages.toString());
+        assertFalse(messages.contains("record 4"));
+        // and the loss is reported once there is room again
+        assertTrue(messages.contains("2 log records were dropped, the log queue was full."), messages.toString());
+    }
+
+    @Test
+    public void testDrainedOnClose() throws Exception {
+        final Target target = new Target(true);
+        CuT = new AsyncLogHandler(target, 2);
+        CuT.publish(record("one"));
+        assertTrue(target.entered.await(5, TimeUnit.SECONDS));
+        CuT.publish(record("two"));
+        CuT.publish(record("three"));
+        CuT.publish(record("four"));
+
+        final AsyncLogHandler handler = CuT;
+        final Thread closing = new Thread(handler::close);
+        closing.start();
+        // close has stopped the writer, so what is left in the ring is written by close itself
+        assertTrue(target.interrupted.await(5, TimeUnit.SECONDS));
+        target.gate.countDown();
+        closing.join(5000);
+        CuT = null;
+
+        assertFalse(closing.isAlive());
+        assertTrue(target.closed);
+        final List<String> messages = target.messages();
+        assertTrue(messages.containsAll(List.of("one", "two", "three")), messages.toString());
+        assertEquals(1, messages.stream().filter(message -> message.startsWith("1 log records were dropped")).count(),
+                messages.toString());
+        // nothing is taken once closed
+        handler.publish(record("five"));
+        assertFalse(target.messages().contains("five"));
+    }
+
+    @Test
+    public void testUnknownTarget() {
+        // reported to the error manager, and the records go to the console instead
+        CuT = new AsyncLogHandler("com.webcheckers.NoSuchHandler", 4);
+        CuT.publish(record("to the console"));
+        CuT.flush();
+        assertEquals(0, CuT.getDroppedCount());
+    }
+}
@@ -0,0 +1,102 @@
+package com.webcheckers.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("Application-tier")
+public class SampledLogTest {
+
+    private Logger logger;
+    private final List<String> messages = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        messages.clear();
+        logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.setLevel(Level.FINE);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @Test
+    public void testSampleIndex() {
+        final SampledLog CuT = new SampledLog(logger, Level.FINE, 3);
+        assertEquals(0, CuT.sample());
+        assertEquals(SampledLog.NOT_SAMPLED, CuT.sample());
+        assertEquals(SampledLog.NOT_SAMPLED, CuT.sample());
+        assertEquals(3, CuT.sample());
+        assertEquals(4, CuT.getOccurrences());
+    }
+
+    @Test
+    public void testSamplingCounts() {
+        final SampledLog CuT = new SampledLog(logger, Level.FINE, 3);
+        final AtomicInteger built = new AtomicInteger();
+        for (int i = 0; i < 7; i++) {
+            final int occurrence = i;
+            CuT.log(() -> {
+                built.incrementAndGet();
+                return "message " + occurrence;
+            });
+        }
+
+        assertEquals(7, CuT.getOccurrences());
+        // only the messages logged are built
+        assertEquals(3, built.get());
+        assertEquals(List.of("message 0", "message 3 (2 similar messages not logged)",
+                "message 6 (2 similar messages not logged)"), messages);
+    }
+
+    @Test
+    public void testSkippedCountOfTheSample() {
+        final SampledLog CuT = new SampledLog(logger, Level.FINE, 2);
+        final long first = CuT.sample();
+        CuT.sample();
+        final long second = CuT.sample();
+        // more occurrences counted before the sampled one is logged do not change its count
+        CuT.sample();
+        CuT.sample();
+        CuT.log(first, "first");
+        CuT.log(second, "second");
+
+        assertEquals(List.of("first", "second (1 similar messages not logged)"), messages);
+    }
+
+    @Test
+    public void testLevelOff() {
+        final SampledLog CuT = new SampledLog(logger, Level.FINER, 1);
+        assertEquals(SampledLog.NOT_SAMPLED, CuT.sample());
+        CuT.log(() -> fail("the message is not built"));
+        assertEquals(0, CuT.getOccurrences());
+        assertTrue(messages.isEmpty());
+    }
+
+    @Test
+    public void testEveryAtLeastOne() {
+        assertThrows(IllegalArgumentException.class, () -> new SampledLog(logger, Level.FINE, 0));
+    }
+}